@@ -0,0 +1,55 @@
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import org.firstinspires.ftc.teamcode.util.DataLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * {@link DataLogger#addData} into a log file in a temporary directory. The logger flushes every
+ * line, so this measures the disk of the machine too: compare numbers from the same machine only.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+public class DataLoggerBenchmark {
+    private File directory;
+    private DataLogger logger;
+
+    private double value = 0.42;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.directory = Files.createTempDirectory("SympleLogs").toFile();
+        this.logger = new DataLogger(this.directory, "Benchmark", false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.logger.closeFile();
+
+        File[] files = this.directory.listFiles();
+        if (files != null) {
+            for (File file : files) file.delete();
+        }
+        this.directory.delete();
+    }
+
+    @Benchmark
+    public void addString() {
+        this.logger.addData(DataLogger.DataType.INFO, "Drive to pose finished");
+    }
+
+    @Benchmark
+    public void addDouble() {
+        this.logger.addData(DataLogger.DataType.INFO, this.value);
+    }
+}
@@ -0,0 +1,79 @@
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import com.qualcomm.robotcore.hardware.Gamepad;
+import com.seattlesolvers.solverslib.command.CommandScheduler;
+import com.seattlesolvers.solverslib.command.InstantCommand;
+import com.seattlesolvers.solverslib.command.button.GamepadButton;
+import com.seattlesolvers.solverslib.gamepad.GamepadEx;
+import com.seattlesolvers.solverslib.gamepad.GamepadKeys;
+
+import org.firstinspires.ftc.teamcode.util.GamepadSnapshot;
+import org.firstinspires.ftc.teamcode.util.KeyBindings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * The per-loop cost of the gamepad bindings, in a loop where no button changes.
+ *
+ * <p>{@link #keyBindings()} should stay flat as {@link #bindings} grows, {@link #gamepadButtons()}
+ * (solverslib polling every binding in {@link CommandScheduler#run()}) grows with it.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+public class KeyBindingsBenchmark {
+    @Param({"4", "16", "48"})
+    public int bindings;
+
+    private GamepadSnapshot driverSnapshot;
+    private GamepadSnapshot actionSnapshot;
+    private KeyBindings keyBindings;
+
+    @Setup
+    public void setup() {
+        CommandScheduler.getInstance().reset();
+
+        Gamepad driver = new Gamepad();
+        Gamepad action = new Gamepad();
+        this.driverSnapshot = new GamepadSnapshot(driver);
+        this.actionSnapshot = new GamepadSnapshot(action);
+        GamepadEx driverEx = new GamepadEx(driver);
+        GamepadEx actionEx = new GamepadEx(action);
+
+        GamepadSnapshot.Button[] snapshotButtons = GamepadSnapshot.Button.values();
+        GamepadKeys.Button[] keys = GamepadKeys.Button.values();
+
+        // the same bindings both ways, spread over both gamepads and all buttons
+        KeyBindings.Builder builder = new KeyBindings.Builder();
+        for (int i = 0; i < this.bindings; i++) {
+            boolean onDriver = i % 2 == 0;
+            InstantCommand command = new InstantCommand();
+
+            builder.whenPressed(onDriver ? this.driverSnapshot : this.actionSnapshot, snapshotButtons[i / 2 % snapshotButtons.length], command);
+            new GamepadButton(onDriver ? driverEx : actionEx, keys[i / 2 % keys.length]).whenPressed(command);
+        }
+        this.keyBindings = builder.build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        CommandScheduler.getInstance().reset();
+    }
+
+    @Benchmark
+    public void keyBindings() {
+        this.driverSnapshot.update();
+        this.actionSnapshot.update();
+        this.keyBindings.dispatch();
+    }
+
+    @Benchmark
+    public void gamepadButtons() {
+        CommandScheduler.getInstance().run();
+    }
+}
@@ -0,0 +1,34 @@
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import com.seattlesolvers.solverslib.geometry.Vector2d;
+
+import org.firstinspires.ftc.teamcode.util.drivetrain.MecanumChassisUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The {@link MecanumChassisUtils} kinematics overloads, the desktop counterpart of the
+ * {@code KinematicsBenchmarkOpMode}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+public class KinematicsBenchmark {
+    private final MecanumChassisUtils.MecanumWheelSpeeds wheelSpeeds = new MecanumChassisUtils.MecanumWheelSpeeds();
+
+    private double hSpeed = 0.3;
+    private double vSpeed = -0.7;
+    private double rSpeed = 0.2;
+
+    @Benchmark
+    public MecanumChassisUtils.MecanumWheelSpeeds vector() {
+        return MecanumChassisUtils.chassisSpeedToWheelSpeeds(new Vector2d(this.hSpeed, this.vSpeed), this.rSpeed);
+    }
+
+    @Benchmark
+    public MecanumChassisUtils.MecanumWheelSpeeds buffer() {
+        return MecanumChassisUtils.chassisSpeedToWheelSpeeds(this.hSpeed, this.vSpeed, this.rSpeed, this.wheelSpeeds);
+    }
+}
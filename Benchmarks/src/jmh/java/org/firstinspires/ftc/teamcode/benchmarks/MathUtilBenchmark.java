@@ -0,0 +1,42 @@
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import org.firstinspires.ftc.teamcode.maps.MotorMap;
+import org.firstinspires.ftc.teamcode.util.MathUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The {@link MathUtil} conversions, with the drive motors' encoder resolution.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+public class MathUtilBenchmark {
+    private final double ticksPerRev = MotorMap.LEG_FRONT_LEFT.getTicksPerRev();
+
+    private int ticks = 12_345;
+    private double degrees = 123.4;
+    private double value = 1.3;
+
+    @Benchmark
+    public double ticksToDeg() {
+        return MathUtil.ticksToDeg(this.ticks, this.ticksPerRev);
+    }
+
+    @Benchmark
+    public double degToTicks() {
+        return MathUtil.degToTicks(this.degrees, this.ticksPerRev);
+    }
+
+    @Benchmark
+    public double encoderTicksToMeter() {
+        return MathUtil.encoderTicksToMeter(this.ticks, 0.048, this.ticksPerRev, 1);
+    }
+
+    @Benchmark
+    public double clamp() {
+        return MathUtil.clamp(this.value, -1, 1);
+    }
+}
@@ -0,0 +1,83 @@
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.seattlesolvers.solverslib.hardware.motors.MotorEx;
+
+import org.firstinspires.ftc.teamcode.maps.MotorMap;
+import org.firstinspires.ftc.teamcode.util.drivetrain.MecanumChassisUtils;
+import org.firstinspires.ftc.teamcode.util.drivetrain.MecanumWheelSet;
+import org.firstinspires.ftc.teamcode.util.sim.RobotSimulation;
+import org.firstinspires.ftc.teamcode.util.sim.SimulatedLocalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * {@link MecanumWheelSet#setPower} against the simulated motors of a {@link RobotSimulation}, in
+ * both control modes.
+ *
+ * <p>The simulated motors are reflection proxies, whose dispatch boxes the arguments.
+ * {@link #motorsOnly()} sets the same four motors directly: subtract it to get the cost of the wheel set itself.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+public class MecanumWheelSetBenchmark {
+    @Param({"OPEN_LOOP", "VELOCITY"})
+    public MecanumWheelSet.ControlMode controlMode;
+
+    private RobotSimulation simulation;
+    private MotorEx[] motors;
+    private MecanumWheelSet wheelSet;
+
+    private final MecanumChassisUtils.MecanumWheelSpeeds wheelSpeeds = new MecanumChassisUtils.MecanumWheelSpeeds();
+    private double power = 0.6;
+
+    @Setup
+    public void setup() {
+        this.simulation = new RobotSimulation(RobotSimulation.TimeMode.REAL_TIME);
+        HardwareMap hardwareMap = this.simulation.getHardwareMap();
+
+        this.motors = new MotorEx[]{
+                new MotorEx(hardwareMap, MotorMap.LEG_FRONT_LEFT.getId()),
+                new MotorEx(hardwareMap, MotorMap.LEG_FRONT_RIGHT.getId()),
+                new MotorEx(hardwareMap, MotorMap.LEG_BACK_LEFT.getId()),
+                new MotorEx(hardwareMap, MotorMap.LEG_BACK_RIGHT.getId())
+        };
+
+        this.wheelSet = new MecanumWheelSet(this.motors[0], this.motors[1], this.motors[2], this.motors[3]);
+        // the simulated localizer reads no encoder ports, every leg gets velocity control
+        this.wheelSet.enableVelocityControl(
+                MotorMap.LEG_FRONT_LEFT, MotorMap.LEG_FRONT_RIGHT,
+                MotorMap.LEG_BACK_LEFT, MotorMap.LEG_BACK_RIGHT,
+                new SimulatedLocalizer(hardwareMap)
+        );
+        this.wheelSet.setControlMode(this.controlMode);
+
+        MecanumChassisUtils.chassisSpeedToWheelSpeeds(0.3, -0.7, 0.2, this.wheelSpeeds);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.simulation.close();
+    }
+
+    @Benchmark
+    public void setPower() {
+        this.wheelSet.setPower(this.power);
+    }
+
+    @Benchmark
+    public void setPowerWheelSpeeds() {
+        this.wheelSet.setPower(this.wheelSpeeds);
+    }
+
+    @Benchmark
+    public void motorsOnly() {
+        for (MotorEx motor : this.motors) motor.set(this.power);
+    }
+}
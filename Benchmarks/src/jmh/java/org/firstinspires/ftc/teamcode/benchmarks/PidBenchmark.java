@@ -0,0 +1,70 @@
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import com.seattlesolvers.solverslib.hardware.motors.MotorEx;
+
+import org.firstinspires.ftc.teamcode.maps.MotorMap;
+import org.firstinspires.ftc.teamcode.subsystems.driveTrain.commands.DriveDistanceDriveCommand;
+import org.firstinspires.ftc.teamcode.subsystems.driveTrain.commands.RotateRobotByDegCommand;
+import org.firstinspires.ftc.teamcode.util.ClockedPIDFController;
+import org.firstinspires.ftc.teamcode.util.drivetrain.WheelVelocityController;
+import org.firstinspires.ftc.teamcode.util.sim.RobotSimulation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * The controller {@code calculate} calls the drive commands make every loop, with the commands' gains:
+ * the {@link ClockedPIDFController}s of {@link DriveDistanceDriveCommand} and
+ * {@link RotateRobotByDegCommand} and the {@link WheelVelocityController} of the wheels.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+public class PidBenchmark {
+    private ClockedPIDFController distanceController;
+    private ClockedPIDFController headingController;
+
+    private RobotSimulation simulation;
+    private WheelVelocityController wheelController;
+
+    private double measurement = 0.4;
+    private double setPoint = 1;
+
+    @Setup
+    public void setup() {
+        this.distanceController = new ClockedPIDFController(
+                DriveDistanceDriveCommand.Kp, DriveDistanceDriveCommand.Ki,
+                DriveDistanceDriveCommand.Kd, DriveDistanceDriveCommand.Kf
+        );
+        this.headingController = new ClockedPIDFController(
+                RotateRobotByDegCommand.Kp, RotateRobotByDegCommand.Ki, RotateRobotByDegCommand.Kd
+        );
+
+        this.simulation = new RobotSimulation(RobotSimulation.TimeMode.REAL_TIME);
+        MotorEx motor = new MotorEx(this.simulation.getHardwareMap(), MotorMap.LEG_FRONT_LEFT.getId());
+        this.wheelController = new WheelVelocityController(motor, MotorMap.LEG_FRONT_LEFT);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.simulation.close();
+    }
+
+    @Benchmark
+    public double pidfCalculate() {
+        return this.distanceController.calculate(this.measurement, this.setPoint);
+    }
+
+    @Benchmark
+    public double pidCalculate() {
+        return this.headingController.calculate(this.measurement, this.setPoint);
+    }
+
+    @Benchmark
+    public double wheelVelocityCalculate() {
+        return this.wheelController.calculate(this.setPoint);
+    }
+}
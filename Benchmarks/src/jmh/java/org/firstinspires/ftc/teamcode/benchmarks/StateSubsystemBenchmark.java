@@ -0,0 +1,102 @@
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import com.seattlesolvers.solverslib.command.Command;
+import com.seattlesolvers.solverslib.command.CommandScheduler;
+import com.seattlesolvers.solverslib.command.InstantCommand;
+import com.seattlesolvers.solverslib.command.Subsystem;
+import com.seattlesolvers.solverslib.command.SubsystemBase;
+
+import org.firstinspires.ftc.teamcode.util.subsystem.StateSubsystemBase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Getting the transition commands of a {@link StateSubsystemBase}, which subsystems do every time a
+ * binding fires.
+ *
+ * <p>{@link StateSubsystemBase#getTransitionCommand} and {@link StateSubsystemBase#getToggleCommand}
+ * return cached commands, so the gc profiler should report {@code ~0 B/op}.
+ * {@link StateSubsystemBase#goToState} and {@link StateSubsystemBase#toggleStates} build new
+ * commands every time (with and without extra requirements), as a reference.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+public class StateSubsystemBenchmark {
+    private ClawSubsystem claw;
+    private Subsystem arm;
+
+    @Setup
+    public void setup() {
+        CommandScheduler.getInstance().reset();
+        this.claw = new ClawSubsystem();
+        this.arm = new SubsystemBase() { };
+    }
+
+    @TearDown
+    public void tearDown() {
+        CommandScheduler.getInstance().reset();
+    }
+
+    @Benchmark
+    public Command getTransitionCommand() {
+        return this.claw.getTransitionCommand(ClawSubsystem.ClawState.OPEN);
+    }
+
+    @Benchmark
+    public Command getToggleCommand() {
+        return this.claw.getToggleCommand(ClawSubsystem.ClawState.OPEN, ClawSubsystem.ClawState.CLOSED);
+    }
+
+    @Benchmark
+    public Command goToState() {
+        return this.claw.goToState(ClawSubsystem.ClawState.OPEN);
+    }
+
+    @Benchmark
+    public Command toggleStates() {
+        return this.claw.toggleStates(ClawSubsystem.ClawState.OPEN, ClawSubsystem.ClawState.CLOSED);
+    }
+
+    @Benchmark
+    public Command goToStateWithRequirements() {
+        return this.claw.goToState(ClawSubsystem.ClawState.OPEN, this.arm);
+    }
+
+    @Benchmark
+    public Command toggleStatesWithRequirements() {
+        return this.claw.toggleStates(ClawSubsystem.ClawState.OPEN, ClawSubsystem.ClawState.CLOSED, this.arm);
+    }
+
+    /** The example subsystem of the {@link StateSubsystemBase} docs. */
+    static class ClawSubsystem extends StateSubsystemBase<ClawSubsystem.ClawState> {
+        ClawSubsystem() {
+            super(ClawState.CLOSED);
+        }
+
+        @Override
+        protected Command getChangeStateCommand(ClawState state, Subsystem... requirements) {
+            return new InstantCommand(() -> { }, requirements);
+        }
+
+        enum ClawState implements StateBase<Double> {
+            OPEN(0.8),
+            CLOSED(0.2);
+
+            private final double position;
+
+            ClawState(double position) {
+                this.position = position;
+            }
+
+            @Override
+            public Double getUnit() {
+                return this.position;
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.firstinspires.ftc.teamcode.util.sim;
+
+import com.bylazar.telemetry.JoinedTelemetry;
+import com.seattlesolvers.solverslib.command.Command;
+import com.seattlesolvers.solverslib.command.SequentialCommandGroup;
+
+import org.firstinspires.ftc.teamcode.managers.RobotPositionManager;
+import org.firstinspires.ftc.teamcode.managers.VoltageManager;
+import org.firstinspires.ftc.teamcode.subsystems.driveTrain.MecanumDriveSubsystem;
+import org.firstinspires.ftc.teamcode.subsystems.driveTrain.commands.mecanumDrive.DriveToPoseCommand;
+import org.firstinspires.ftc.teamcode.subsystems.driveTrain.commands.mecanumDrive.FollowTrajectoryCommand;
+import org.firstinspires.ftc.teamcode.util.DataLogger;
+import org.firstinspires.ftc.teamcode.util.trajectory.Trajectory;
+
+import java.util.Locale;
+
+/**
+ * Runs a short autonomous routine on the {@link RobotSimulation} and prints where the robot ended.
+ *
+ * <p>Run {@link #main(String[])} on a desktop JVM with the FTC SDK and solverslib jars on the
+ * classpath ({@code ./gradlew -Pbenchmarks :Benchmarks:simulate}), with {@code --real-time} to run at the robot's pace.</p>
+ */
+public class ExampleSimulation {
+    public static void main(String[] args) {
+        boolean realTime = args.length > 0 && args[0].equals("--real-time");
+        RobotSimulation simulation = new RobotSimulation(realTime
+                ? RobotSimulation.TimeMode.REAL_TIME
+                : RobotSimulation.TimeMode.AS_FAST_AS_POSSIBLE);
+
+        RobotPositionManager.init(simulation.getHardwareMap(), new SimulatedLocalizer(simulation.getHardwareMap()));
+        VoltageManager.init(simulation.getHardwareMap());
+
+        // the power that overcomes the simulated Coulomb friction, in translation and in turning,
+        // what a characterization of the simulated robot fits as kS
+        double kS = MecanumSimulator.FRICTION_FORCE * MecanumSimulator.WHEEL_RADIUS / (4 * MecanumSimulator.STALL_TORQUE);
+        DriveToPoseCommand.kS = kS;
+        DriveToPoseCommand.HEADING_kS = kS;
+        FollowTrajectoryCommand.kS = kS;
+        FollowTrajectoryCommand.HEADING_kS = kS;
+
+        MecanumDriveSubsystem driveSubsystem = new MecanumDriveSubsystem(simulation.getHardwareMap(),
+                new JoinedTelemetry(simulation.getTelemetry()), new DataLogger("Simulation", true));
+
+        Trajectory trajectory = new Trajectory.Builder(1, 0.5, 90)
+                .splineTo(1.5, 1.2, 45, 0)
+                .splineTo(2, 1, -45, 0)
+                .build();
+
+        Command routine = new SequentialCommandGroup(
+                new DriveToPoseCommand(driveSubsystem, 1, 0.5, 90),
+                new FollowTrajectoryCommand(driveSubsystem, trajectory)
+        );
+
+        long start = System.nanoTime();
+        boolean finished = simulation.run(routine, 30);
+        double wallSeconds = (System.nanoTime() - start) / 1e9;
+
+        MecanumSimulator drive = simulation.getDrive();
+        System.out.println(String.format(Locale.US,
+                "%s after %.2fs simulated (%.3fs wall): x=%.3f y=%.3f heading=%.1f battery=%.2fV",
+                finished ? "Finished" : "Timed out", simulation.getTime(), wallSeconds,
+                drive.getX(), drive.getY(), Math.IEEEremainder(drive.getHeading(), 360), drive.getBatteryVoltage()));
+
+        simulation.close();
+    }
+}
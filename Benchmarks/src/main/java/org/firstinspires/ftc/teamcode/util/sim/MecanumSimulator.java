@@ -0,0 +1,270 @@
+package org.firstinspires.ftc.teamcode.util.sim;
+
+import com.qualcomm.robotcore.hardware.HardwareDevice;
+
+/**
+ * Rigid-body model of a mecanum robot driven by four {@link SimulatedMotor}s.
+ *
+ * <p>Every motor is a DC motor on the curve of its {@link org.firstinspires.ftc.teamcode.maps.MotorMap}
+ * entry: the torque falls linearly from {@link #STALL_TORQUE} at rest to {@code 0} at {@code maxRPM}
+ * (at {@link #MOTOR_NOMINAL_VOLTAGE}). The wheels roll without slipping, so the wheel speeds follow
+ * from the body velocity, and the wheel forces are mapped back to a body force and torque through the
+ * transposed mecanum kinematics. Coulomb friction ({@link #FRICTION_FORCE}) brings the robot to a stop.
+ * The battery sags with the motor current through {@link #BATTERY_RESISTANCE}.</p>
+ *
+ * <p>Frames follow the robot code: meters and degrees, x forward, y left, counter-clockwise positive.
+ * The motor mounting matches {@code MecanumDriveSubsystem}: the right motors are mirrored and
+ * reversed in software, and a negative wheel power drives forward.</p>
+ *
+ * <p>The simulator is a {@link HardwareDevice} in the simulated hardware map, under
+ * {@link #DEVICE_NAME}, so {@link SimulatedLocalizer} can read the true pose from it.</p>
+ */
+public class MecanumSimulator implements HardwareDevice {
+    /** The name of the simulator in the simulated hardware map. */
+    public static final String DEVICE_NAME = "mecanum_simulator";
+
+    /** Robot mass in kg. */
+    public static double MASS = 12;
+    /** Moment of inertia around the vertical axis in kg·m². */
+    public static double MOMENT_OF_INERTIA = 0.35;
+    /** Wheel radius in meters. */
+    public static double WHEEL_RADIUS = 0.048;
+    /** Half the track width plus half the wheel base, in meters. */
+    public static double WHEEL_LEVER_ARM = 0.3;
+
+    /** Stall torque of a drive motor at the gearbox output in N·m. */
+    public static double STALL_TORQUE = 2.38;
+    /** Stall current of a drive motor in amps. */
+    public static double STALL_CURRENT = 9.2;
+    /** The voltage the motor curve is rated at. */
+    public static double MOTOR_NOMINAL_VOLTAGE = 12;
+
+    /** Coulomb friction of the whole robot, in newtons. */
+    public static double FRICTION_FORCE = 10;
+
+    /** Open-circuit battery voltage. */
+    public static double BATTERY_VOLTAGE = 13;
+    /** Internal resistance of the battery and wiring in ohms. */
+    public static double BATTERY_RESISTANCE = 0.06;
+
+    /** The integration step in seconds. Longer steps are split into steps of this length. */
+    public static double PHYSICS_STEP = 0.001;
+
+    // FL, FR, BL, BR: the forward surface speed of each wheel is vx + STRAFE[i] * vy + TURN[i] * k * ω
+    private static final double[] STRAFE = {-1, 1, 1, -1};
+    private static final double[] TURN = {-1, 1, -1, 1};
+    // left motors spin backwards to roll forward, the right motors are mirrored
+    private static final double[] MOUNTING = {-1, 1, -1, 1};
+
+    private final SimulatedMotor[] motors;
+    private final double[] wheelForces = new double[4];
+
+    /** Field pose, heading in radians. */
+    private double x;
+    private double y;
+    private double heading;
+
+    /** Robot-frame velocities in m/s and rad/s. */
+    private double velocityForward;
+    private double velocityLeft;
+    private double angularVelocity;
+
+    /** Distances driven along the robot's axes, in meters. */
+    private double forwardDistance;
+    private double sideDistance;
+
+    private double batteryVoltage = BATTERY_VOLTAGE;
+
+    /**
+     * @param frontLeft  the front left motor
+     * @param frontRight the front right motor
+     * @param backLeft   the back left motor
+     * @param backRight  the back right motor
+     */
+    MecanumSimulator(SimulatedMotor frontLeft, SimulatedMotor frontRight, SimulatedMotor backLeft, SimulatedMotor backRight) {
+        this.motors = new SimulatedMotor[]{frontLeft, frontRight, backLeft, backRight};
+    }
+
+    /**
+     * Advances the simulation, in steps of at most {@link #PHYSICS_STEP}.
+     *
+     * @param seconds the time to advance by
+     */
+    public void step(double seconds) {
+        double step = PHYSICS_STEP > 0 ? PHYSICS_STEP : seconds;
+        while (seconds > 1e-12) {
+            double dt = Math.min(step, seconds);
+            this.integrate(dt);
+            seconds -= dt;
+        }
+    }
+
+    private void integrate(double dt) {
+        double k = WHEEL_LEVER_ARM;
+        double totalCurrent = 0;
+
+        // motor forces from the current wheel speeds
+        for (int i = 0; i < 4; i++) {
+            SimulatedMotor motor = this.motors[i];
+            double surfaceSpeed = this.velocityForward + STRAFE[i] * this.velocityLeft + TURN[i] * k * this.angularVelocity;
+            double shaftVelocity = MOUNTING[i] * surfaceSpeed / WHEEL_RADIUS;
+            double freeSpeed = motor.getMotorMap().getMaxRPM() / 60 * 2 * Math.PI;
+
+            double power = motor.getAppliedPower();
+            double torque = 0;
+            double current = 0;
+            if (power != 0 || motor.isBraking()) {
+                // below the nominal voltage the motor is slower and weaker
+                double load = power * this.batteryVoltage / MOTOR_NOMINAL_VOLTAGE - shaftVelocity / freeSpeed;
+                torque = STALL_TORQUE * load;
+                current = STALL_CURRENT * Math.abs(load) * Math.abs(power);
+            }
+
+            this.wheelForces[i] = MOUNTING[i] * torque / WHEEL_RADIUS;
+            totalCurrent += current;
+
+            motor.setShaftVelocity(shaftVelocity, dt);
+            motor.setCurrent(current);
+        }
+
+        this.batteryVoltage = Math.max(0, BATTERY_VOLTAGE - BATTERY_RESISTANCE * totalCurrent);
+
+        // transposed kinematics: wheel forces to body force and torque
+        double forceForward = 0, forceLeft = 0, torque = 0;
+        for (int i = 0; i < 4; i++) {
+            forceForward += this.wheelForces[i];
+            forceLeft += STRAFE[i] * this.wheelForces[i];
+            torque += TURN[i] * k * this.wheelForces[i];
+        }
+
+        // the body frame rotates under the velocity
+        double accelerationForward = forceForward / MASS + this.angularVelocity * this.velocityLeft;
+        double accelerationLeft = forceLeft / MASS - this.angularVelocity * this.velocityForward;
+        double angularAcceleration = torque / MOMENT_OF_INERTIA;
+
+        this.velocityForward += accelerationForward * dt;
+        this.velocityLeft += accelerationLeft * dt;
+        this.angularVelocity += angularAcceleration * dt;
+
+        this.applyFriction(dt);
+
+        // integrate the pose at the mid-step heading
+        double midHeading = this.heading + this.angularVelocity * dt / 2;
+        double cos = Math.cos(midHeading);
+        double sin = Math.sin(midHeading);
+        this.x += (this.velocityForward * cos - this.velocityLeft * sin) * dt;
+        this.y += (this.velocityForward * sin + this.velocityLeft * cos) * dt;
+        this.heading += this.angularVelocity * dt;
+
+        this.forwardDistance += this.velocityForward * dt;
+        this.sideDistance += this.velocityLeft * dt;
+    }
+
+    /** Slows the translation and rotation down, without reversing them. */
+    private void applyFriction(double dt) {
+        double speed = Math.hypot(this.velocityForward, this.velocityLeft);
+        double translationLoss = FRICTION_FORCE / MASS * dt;
+        if (speed <= translationLoss) {
+            this.velocityForward = 0;
+            this.velocityLeft = 0;
+        } else {
+            this.velocityForward -= this.velocityForward / speed * translationLoss;
+            this.velocityLeft -= this.velocityLeft / speed * translationLoss;
+        }
+
+        // the same friction at the wheels, acting on the lever arm
+        double rotationLoss = FRICTION_FORCE * WHEEL_LEVER_ARM / MOMENT_OF_INERTIA * dt;
+        if (Math.abs(this.angularVelocity) <= rotationLoss) {
+            this.angularVelocity = 0;
+        } else {
+            this.angularVelocity -= Math.copySign(rotationLoss, this.angularVelocity);
+        }
+    }
+
+    /**
+     * Moves the robot, e.g. to its starting pose. Stops it too.
+     *
+     * @param x       field x in meters
+     * @param y       field y in meters
+     * @param heading field heading in degrees
+     */
+    public void setPose(double x, double y, double heading) {
+        this.x = x;
+        this.y = y;
+        this.heading = Math.toRadians(heading);
+        this.velocityForward = 0;
+        this.velocityLeft = 0;
+        this.angularVelocity = 0;
+    }
+
+    /** @return the true field x in meters */
+    public double getX() {
+        return this.x;
+    }
+
+    /** @return the true field y in meters */
+    public double getY() {
+        return this.y;
+    }
+
+    /** @return the true field heading in degrees, unwrapped */
+    public double getHeading() {
+        return Math.toDegrees(this.heading);
+    }
+
+    /** @return the distance driven along the robot's forward axis in meters */
+    public double getForwardDistance() {
+        return this.forwardDistance;
+    }
+
+    /** @return the distance driven along the robot's sideways axis in meters */
+    public double getSideDistance() {
+        return this.sideDistance;
+    }
+
+    /** @return the robot's forward velocity in m/s */
+    public double getVelocityForward() {
+        return this.velocityForward;
+    }
+
+    /** @return the robot's sideways velocity in m/s */
+    public double getVelocityLeft() {
+        return this.velocityLeft;
+    }
+
+    /** @return the robot's angular velocity in deg/s */
+    public double getAngularVelocity() {
+        return Math.toDegrees(this.angularVelocity);
+    }
+
+    /** @return the battery voltage under the current load */
+    public double getBatteryVoltage() {
+        return this.batteryVoltage;
+    }
+
+    @Override
+    public Manufacturer getManufacturer() {
+        return Manufacturer.Other;
+    }
+
+    @Override
+    public String getDeviceName() {
+        return DEVICE_NAME;
+    }
+
+    @Override
+    public String getConnectionInfo() {
+        return "simulation";
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @Override
+    public void resetDeviceConfigurationForOpMode() { }
+
+    @Override
+    public void close() { }
+}
@@ -0,0 +1,232 @@
+package org.firstinspires.ftc.teamcode.util.sim;
+
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.HardwareDevice;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.Servo;
+import com.qualcomm.robotcore.hardware.VoltageSensor;
+import com.seattlesolvers.solverslib.command.Command;
+import com.seattlesolvers.solverslib.command.CommandScheduler;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.firstinspires.ftc.teamcode.managers.RobotPositionManager;
+import org.firstinspires.ftc.teamcode.managers.VoltageManager;
+import org.firstinspires.ftc.teamcode.maps.MotorMap;
+import org.firstinspires.ftc.teamcode.maps.ServoMap;
+import org.firstinspires.ftc.teamcode.util.RobotClock;
+
+import java.util.EnumMap;
+import java.util.List;
+
+/**
+ * A headless robot: a {@link HardwareMap} of simulated devices and a {@link MecanumSimulator}
+ * moving the drive motors.
+ *
+ * <p>Every {@link MotorMap} entry is a simulated {@code DcMotorEx}, every {@link ServoMap} entry a
+ * simulated {@code Servo}, and a {@code VoltageSensor} reads the simulated battery. Subsystems and
+ * commands are created from {@link #getHardwareMap()} exactly like on the robot, with a
+ * {@link SimulatedLocalizer} as the localizer. See {@link ExampleSimulation}.</p>
+ *
+ * <p>The simulation lives in the Benchmarks module, it runs on the desktop and is not part of the
+ * robot app.</p>
+ *
+ * <p>{@link TimeMode#AS_FAST_AS_POSSIBLE} moves the {@link RobotClock} by the loop period each loop
+ * instead of waiting for it. Everything timed has to read the {@link RobotClock}: the drive code
+ * uses {@link org.firstinspires.ftc.teamcode.util.ClockedPIDFController}, the solverslib
+ * {@code PIDController}s time their integral and derivative with the wall clock and only work
+ * in {@link TimeMode#REAL_TIME}.</p>
+ */
+public class RobotSimulation {
+    /** The name of the simulated voltage sensor. */
+    public static final String VOLTAGE_SENSOR_NAME = "Control Hub";
+
+    private final TimeMode timeMode;
+    private final HardwareMap hardwareMap;
+    private final Telemetry telemetry;
+    private final MecanumSimulator drive;
+    private final EnumMap<ServoMap, SimulatedServo> servos = new EnumMap<>(ServoMap.class);
+
+    private double loopPeriod = 0.01;
+    private long simulatedNanos = 0;
+    private final long startWallNanos;
+
+    /**
+     * Creates the simulated hardware and resets the command scheduler.
+     *
+     * @param timeMode how simulated time relates to real time
+     */
+    public RobotSimulation(TimeMode timeMode) {
+        this.timeMode = timeMode;
+        this.hardwareMap = new SimulatedHardwareMap();
+        this.telemetry = SimulatedDevice.create(Telemetry.class, new SimulatedTelemetry());
+
+        EnumMap<MotorMap, SimulatedMotor> motors = new EnumMap<>(MotorMap.class);
+        for (MotorMap motorMap : MotorMap.values()) {
+            SimulatedMotor motor = new SimulatedMotor(motorMap, motorMap.ordinal());
+            motors.put(motorMap, motor);
+            this.hardwareMap.put(motorMap.getId(), SimulatedDevice.create(DcMotorEx.class, motor));
+        }
+
+        for (ServoMap servoMap : ServoMap.values()) {
+            SimulatedServo servo = new SimulatedServo(servoMap.getId(), servoMap.ordinal());
+            this.servos.put(servoMap, servo);
+            this.hardwareMap.put(servoMap.getId(), SimulatedDevice.create(Servo.class, servo));
+        }
+
+        this.drive = new MecanumSimulator(
+                motors.get(MotorMap.LEG_FRONT_LEFT), motors.get(MotorMap.LEG_FRONT_RIGHT),
+                motors.get(MotorMap.LEG_BACK_LEFT), motors.get(MotorMap.LEG_BACK_RIGHT)
+        );
+        this.hardwareMap.put(MecanumSimulator.DEVICE_NAME, this.drive);
+        this.hardwareMap.put(VOLTAGE_SENSOR_NAME,
+                SimulatedDevice.create(VoltageSensor.class, new SimulatedVoltageSensor(VOLTAGE_SENSOR_NAME, this.drive)));
+
+        if (timeMode == TimeMode.AS_FAST_AS_POSSIBLE) RobotClock.useSimulatedTime();
+        this.startWallNanos = System.nanoTime();
+
+        CommandScheduler.getInstance().reset();
+    }
+
+    /**
+     * Runs one robot loop: updates the position and voltage managers if initialized, runs the
+     * command scheduler and advances the physics by the loop period.
+     */
+    public void loop() {
+        RobotPositionManager positionManager = RobotPositionManager.getInstance();
+        if (positionManager != null) positionManager.update();
+
+        VoltageManager voltageManager = VoltageManager.getInstance();
+        if (voltageManager != null) voltageManager.update();
+
+        CommandScheduler.getInstance().run();
+
+        this.step(this.loopPeriod);
+    }
+
+    /**
+     * Advances the physics without running the robot code.
+     *
+     * @param seconds the time to advance by
+     */
+    public void step(double seconds) {
+        this.drive.step(seconds);
+
+        long nanos = (long) (seconds * 1e9);
+        this.simulatedNanos += nanos;
+
+        if (this.timeMode == TimeMode.AS_FAST_AS_POSSIBLE) {
+            RobotClock.advance(nanos);
+            return;
+        }
+
+        // wait for the wall clock to catch up
+        long sleepNanos = this.startWallNanos + this.simulatedNanos - System.nanoTime();
+        if (sleepNanos > 0) {
+            try {
+                Thread.sleep(sleepNanos / 1_000_000, (int) (sleepNanos % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Schedules a command and runs loops until it ends.
+     *
+     * @param command the command to run
+     * @param timeout the maximum simulated seconds to run
+     * @return whether the command ended before the timeout
+     */
+    public boolean run(Command command, double timeout) {
+        CommandScheduler scheduler = CommandScheduler.getInstance();
+        scheduler.schedule(command);
+
+        long end = this.simulatedNanos + (long) (timeout * 1e9);
+        while (scheduler.isScheduled(command)) {
+            if (this.simulatedNanos >= end) {
+                scheduler.cancel(command);
+                return false;
+            }
+            this.loop();
+        }
+        return true;
+    }
+
+    /** Resets the command scheduler and gives the {@link RobotClock} back to the wall clock. */
+    public void close() {
+        CommandScheduler.getInstance().reset();
+        RobotClock.useRealTime();
+    }
+
+    /**
+     * Sets the time every {@link #loop()} simulates, the robot's loop time.
+     *
+     * @param seconds the loop period
+     */
+    public void setLoopPeriod(double seconds) {
+        if (seconds <= 0) throw new RuntimeException("Loop period must be positive!");
+        this.loopPeriod = seconds;
+    }
+
+    /** @return the hardware map to create subsystems from */
+    public HardwareMap getHardwareMap() {
+        return this.hardwareMap;
+    }
+
+    /** @return a telemetry that drops everything */
+    public Telemetry getTelemetry() {
+        return this.telemetry;
+    }
+
+    /** @return the drivetrain model, for the true pose */
+    public MecanumSimulator getDrive() {
+        return this.drive;
+    }
+
+    /**
+     * @param servo the servo's entry
+     * @return the simulated servo, for its commanded output
+     */
+    public SimulatedServo getServo(ServoMap servo) {
+        return this.servos.get(servo);
+    }
+
+    /** @return the simulated seconds since the simulation started */
+    public double getTime() {
+        return this.simulatedNanos / 1e9;
+    }
+
+    /**
+     * How simulated time relates to real time.
+     */
+    public enum TimeMode {
+        /** Every loop takes its loop period of wall time, like on the robot. */
+        REAL_TIME,
+        /** Loops run back to back on a virtual {@link RobotClock}. */
+        AS_FAST_AS_POSSIBLE
+    }
+
+    /**
+     * A {@link HardwareMap} that can be read on the desktop. {@link HardwareMap#tryGet(Class, String)}
+     * asks {@code Device.isRevControlHub()} for its IMU hint when a device is missing, which loads
+     * {@code AppUtil} and fails outside Android.
+     */
+    private static class SimulatedHardwareMap extends HardwareMap {
+        SimulatedHardwareMap() {
+            super(null, null);
+        }
+
+        @Override
+        public <T> T tryGet(Class<? extends T> classOrInterface, String deviceName) {
+            synchronized (this.lock) {
+                List<HardwareDevice> devices = this.allDevicesMap.get(deviceName.trim());
+                if (devices == null) return null;
+
+                for (HardwareDevice device : devices) {
+                    if (classOrInterface.isInstance(device)) return classOrInterface.cast(device);
+                }
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.firstinspires.ftc.teamcode.util.sim;
+
+import com.qualcomm.robotcore.hardware.HardwareDevice;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Base of the simulated hardware devices.
+ *
+ * <p>The devices are {@link Proxy} instances of the SDK interfaces ({@code DcMotorEx}, {@code Servo},
+ * {@code VoltageSensor}...), so the real code gets them from the {@code HardwareMap} like on the
+ * robot. Subclasses handle the methods they simulate by name in {@link #handle(String, Object[])}.
+ * Every other method does nothing and returns {@code 0}, {@code false}, the first enum constant or
+ * {@code null}, so SDK updates that add methods to the interfaces do not break the simulation.</p>
+ */
+abstract class SimulatedDevice implements InvocationHandler {
+    /** Returned by {@link #handle(String, Object[])} for methods the device does not simulate. */
+    protected static final Object UNHANDLED = new Object();
+
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
+    private final String name;
+
+    protected SimulatedDevice(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Creates a proxy of an SDK interface backed by a simulated device.
+     *
+     * @param type   the interface the code asks the hardware map for
+     * @param device the simulated device
+     * @return the proxy
+     */
+    static <T> T create(Class<T> type, SimulatedDevice device) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, device));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        String methodName = method.getName();
+        switch (methodName) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+            case "getDeviceName":
+                return this.name;
+            case "getConnectionInfo":
+                return "simulation";
+            case "getManufacturer":
+                return HardwareDevice.Manufacturer.Other;
+        }
+
+        Object result = this.handle(methodName, args != null ? args : NO_ARGUMENTS);
+        return result != UNHANDLED ? result : defaultValue(method.getReturnType());
+    }
+
+    /**
+     * Simulates a method of the device.
+     *
+     * @param methodName the name of the called method
+     * @param args       the arguments, empty if none
+     * @return the result (boxed to the method's return type), or {@link #UNHANDLED}
+     */
+    protected abstract Object handle(String methodName, Object[] args);
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == double.class) return 0.0;
+        if (type == float.class) return 0f;
+        if (type == short.class) return (short) 0;
+        if (type == byte.class) return (byte) 0;
+        if (type == char.class) return '\0';
+        if (type.isEnum()) return type.getEnumConstants()[0];
+        if (type == String.class) return "";
+        return null;
+    }
+
+    /** @return the name of the device in the hardware map */
+    public String getName() {
+        return this.name;
+    }
+}
@@ -0,0 +1,88 @@
+package org.firstinspires.ftc.teamcode.util.sim;
+
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+import org.firstinspires.ftc.teamcode.managers.localization.Localizer;
+
+/**
+ * A {@link Localizer} reading the true pose of the {@link MecanumSimulator} in a simulated hardware map.
+ *
+ * <p>{@link #setPose} moves the reported frame, not the simulated robot, like on a real localizer.</p>
+ */
+public class SimulatedLocalizer implements Localizer {
+    private final MecanumSimulator simulator;
+
+    private double x;
+    private double y;
+    private double heading;
+    private double forwardDistance;
+    private double sideDistance;
+
+    // the simulator pose at the last setPose, and the pose it was set to
+    private double referenceX;
+    private double referenceY;
+    private double referenceHeading;
+    private double poseX;
+    private double poseY;
+    private double poseHeading;
+
+    /**
+     * @param hardwareMap a hardware map created by {@link RobotSimulation}
+     */
+    public SimulatedLocalizer(HardwareMap hardwareMap) {
+        this.simulator = hardwareMap.get(MecanumSimulator.class, MecanumSimulator.DEVICE_NAME);
+        this.setPose(0, 0, 0);
+    }
+
+    @Override
+    public void update() {
+        double headingOffset = this.poseHeading - this.referenceHeading;
+        double cos = Math.cos(Math.toRadians(headingOffset));
+        double sin = Math.sin(Math.toRadians(headingOffset));
+
+        double dx = this.simulator.getX() - this.referenceX;
+        double dy = this.simulator.getY() - this.referenceY;
+
+        this.x = this.poseX + dx * cos - dy * sin;
+        this.y = this.poseY + dx * sin + dy * cos;
+        this.heading = Math.IEEEremainder(this.simulator.getHeading() + headingOffset, 360);
+        this.forwardDistance = this.simulator.getForwardDistance();
+        this.sideDistance = this.simulator.getSideDistance();
+    }
+
+    @Override
+    public double getX() {
+        return this.x;
+    }
+
+    @Override
+    public double getY() {
+        return this.y;
+    }
+
+    @Override
+    public double getHeading() {
+        return this.heading;
+    }
+
+    @Override
+    public double getForwardDistance() {
+        return this.forwardDistance;
+    }
+
+    @Override
+    public double getSideDistance() {
+        return this.sideDistance;
+    }
+
+    @Override
+    public void setPose(double x, double y, double heading) {
+        this.referenceX = this.simulator.getX();
+        this.referenceY = this.simulator.getY();
+        this.referenceHeading = this.simulator.getHeading();
+        this.poseX = x;
+        this.poseY = y;
+        this.poseHeading = heading;
+        this.update();
+    }
+}
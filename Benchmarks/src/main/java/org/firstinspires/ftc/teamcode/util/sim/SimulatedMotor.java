@@ -0,0 +1,130 @@
+package org.firstinspires.ftc.teamcode.util.sim;
+
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorSimple;
+import com.qualcomm.robotcore.hardware.configuration.typecontainers.MotorConfigurationType;
+
+import org.firstinspires.ftc.teamcode.maps.MotorMap;
+
+/**
+ * A simulated {@code DcMotorEx} with an encoder. The shaft is moved by the {@link MecanumSimulator}.
+ *
+ * <p>Like the real motor, {@link DcMotorSimple.Direction#REVERSE} negates the applied power and the
+ * encoder readings, and {@link DcMotor.RunMode#STOP_AND_RESET_ENCODER} zeroes the encoder.</p>
+ */
+public class SimulatedMotor extends SimulatedDevice {
+    private final MotorMap motorMap;
+    private final int portNumber;
+    private final MotorConfigurationType motorType;
+
+    private double power = 0;
+    private DcMotorSimple.Direction direction = DcMotorSimple.Direction.FORWARD;
+    private DcMotor.ZeroPowerBehavior zeroPowerBehavior = DcMotor.ZeroPowerBehavior.FLOAT;
+    private DcMotor.RunMode mode = DcMotor.RunMode.RUN_WITHOUT_ENCODER;
+
+    /** Shaft position and velocity in ticks, in the motor's own (forward) direction. */
+    private double position = 0;
+    private double velocity = 0;
+    private double encoderOffset = 0;
+
+    private double current = 0;
+
+    SimulatedMotor(MotorMap motorMap, int portNumber) {
+        super(motorMap.getId());
+        this.motorMap = motorMap;
+        this.portNumber = portNumber;
+
+        // getUnspecifiedMotorType() goes through the configuration manager, which needs Android
+        this.motorType = new MotorConfigurationType();
+        this.motorType.setTicksPerRev(motorMap.getTicksPerRev());
+        this.motorType.setMaxRPM(motorMap.getMaxRPM());
+    }
+
+    @Override
+    protected Object handle(String methodName, Object[] args) {
+        switch (methodName) {
+            case "setPower":
+                this.power = Math.max(-1, Math.min(1, (double) args[0]));
+                return null;
+            case "getPower":
+                return this.power;
+            case "setDirection":
+                this.direction = (DcMotorSimple.Direction) args[0];
+                return null;
+            case "getDirection":
+                return this.direction;
+            case "setZeroPowerBehavior":
+                this.zeroPowerBehavior = (DcMotor.ZeroPowerBehavior) args[0];
+                return null;
+            case "getZeroPowerBehavior":
+                return this.zeroPowerBehavior;
+            case "setMode":
+                this.mode = (DcMotor.RunMode) args[0];
+                if (this.mode == DcMotor.RunMode.STOP_AND_RESET_ENCODER) {
+                    this.encoderOffset = this.position;
+                    this.power = 0;
+                }
+                return null;
+            case "getMode":
+                return this.mode;
+            case "getCurrentPosition":
+                return (int) Math.round(this.getDirectionSign() * (this.position - this.encoderOffset));
+            case "getVelocity":
+                return this.getVelocity(args);
+            case "getCurrent":
+                return "MILLIAMPS".equals(((Enum<?>) args[0]).name()) ? this.current * 1000 : this.current;
+            case "getPortNumber":
+                return this.portNumber;
+            case "getMotorType":
+                return this.motorType;
+            case "isMotorEnabled":
+                return true;
+        }
+        return UNHANDLED;
+    }
+
+    /** {@code getVelocity()} in ticks per second, {@code getVelocity(AngleUnit)} in that unit per second. */
+    private double getVelocity(Object[] args) {
+        double ticksPerSecond = this.getDirectionSign() * this.velocity;
+        if (args.length == 0) return ticksPerSecond;
+
+        double revolutionsPerSecond = ticksPerSecond / this.motorMap.getTicksPerRev();
+        return "DEGREES".equals(((Enum<?>) args[0]).name())
+                ? revolutionsPerSecond * 360
+                : revolutionsPerSecond * 2 * Math.PI;
+    }
+
+    private double getDirectionSign() {
+        return this.direction == DcMotorSimple.Direction.REVERSE ? -1 : 1;
+    }
+
+    /** @return the power driving the shaft in its own direction, after {@link DcMotorSimple.Direction} */
+    double getAppliedPower() {
+        return this.getDirectionSign() * this.power;
+    }
+
+    /** @return whether the motor shorts its leads at zero power */
+    boolean isBraking() {
+        return this.zeroPowerBehavior == DcMotor.ZeroPowerBehavior.BRAKE;
+    }
+
+    /**
+     * Moves the shaft.
+     *
+     * @param angularVelocity the shaft velocity in rad/s, in the motor's own direction
+     * @param dt              the time step in seconds
+     */
+    void setShaftVelocity(double angularVelocity, double dt) {
+        this.velocity = angularVelocity / (2 * Math.PI) * this.motorMap.getTicksPerRev();
+        this.position += this.velocity * dt;
+    }
+
+    void setCurrent(double current) {
+        this.current = current;
+    }
+
+    /** @return the motor's entry, for its free speed */
+    MotorMap getMotorMap() {
+        return this.motorMap;
+    }
+}
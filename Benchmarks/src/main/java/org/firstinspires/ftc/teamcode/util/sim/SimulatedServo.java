@@ -0,0 +1,84 @@
+package org.firstinspires.ftc.teamcode.util.sim;
+
+import com.qualcomm.robotcore.hardware.Servo;
+
+/**
+ * A simulated {@code Servo}. Like a real servo it only reports the commanded position,
+ * {@link org.firstinspires.ftc.teamcode.util.SympleServo} models the motion.
+ */
+public class SimulatedServo extends SimulatedDevice {
+    private final int portNumber;
+    private final Object controller;
+
+    private double position = 0;
+    private double scaleMin = 0;
+    private double scaleMax = 1;
+    private Servo.Direction direction = Servo.Direction.FORWARD;
+    private boolean pwmEnabled = true;
+
+    SimulatedServo(String name, int portNumber) {
+        super(name);
+        this.portNumber = portNumber;
+        this.controller = create(com.qualcomm.robotcore.hardware.ServoController.class, new Controller(name + " controller"));
+    }
+
+    @Override
+    protected Object handle(String methodName, Object[] args) {
+        switch (methodName) {
+            case "setPosition":
+                this.position = Math.max(0, Math.min(1, (double) args[0]));
+                return null;
+            case "getPosition":
+                return this.position;
+            case "scaleRange":
+                this.scaleMin = (double) args[0];
+                this.scaleMax = (double) args[1];
+                return null;
+            case "setDirection":
+                this.direction = (Servo.Direction) args[0];
+                return null;
+            case "getDirection":
+                return this.direction;
+            case "getPortNumber":
+                return this.portNumber;
+            case "getController":
+                return this.controller;
+        }
+        return UNHANDLED;
+    }
+
+    /** @return the pulse position the servo drives to (0-1 over its full travel), after scaling and direction */
+    public double getOutputPosition() {
+        double scaled = this.scaleMin + this.position * (this.scaleMax - this.scaleMin);
+        return this.direction == Servo.Direction.REVERSE ? 1 - scaled : scaled;
+    }
+
+    /** @return whether the servo's PWM signal is on */
+    public boolean isPwmEnabled() {
+        return this.pwmEnabled;
+    }
+
+    /** The {@code ServoController} of the servo, for enabling and disabling the PWM. */
+    private class Controller extends SimulatedDevice {
+        Controller(String name) {
+            super(name);
+        }
+
+        @Override
+        protected Object handle(String methodName, Object[] args) {
+            switch (methodName) {
+                case "pwmEnable":
+                case "setServoPwmEnable":
+                    SimulatedServo.this.pwmEnabled = true;
+                    return null;
+                case "pwmDisable":
+                case "setServoPwmDisable":
+                    SimulatedServo.this.pwmEnabled = false;
+                    return null;
+                case "isServoPwmEnabled":
+                    return SimulatedServo.this.pwmEnabled;
+            }
+            return UNHANDLED;
+        }
+    }
+}
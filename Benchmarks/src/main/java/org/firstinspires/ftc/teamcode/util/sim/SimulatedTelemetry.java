@@ -0,0 +1,16 @@
+package org.firstinspires.ftc.teamcode.util.sim;
+
+/**
+ * A {@code Telemetry} that drops everything, for running subsystems without a Driver Station.
+ */
+class SimulatedTelemetry extends SimulatedDevice {
+    SimulatedTelemetry() {
+        super("telemetry");
+    }
+
+    @Override
+    protected Object handle(String methodName, Object[] args) {
+        if (methodName.equals("update")) return true;
+        return UNHANDLED;
+    }
+}
@@ -0,0 +1,19 @@
+package org.firstinspires.ftc.teamcode.util.sim;
+
+/**
+ * A simulated hub {@code VoltageSensor}, reading the battery voltage of the {@link MecanumSimulator}.
+ */
+class SimulatedVoltageSensor extends SimulatedDevice {
+    private final MecanumSimulator simulator;
+
+    SimulatedVoltageSensor(String name, MecanumSimulator simulator) {
+        super(name);
+        this.simulator = simulator;
+    }
+
+    @Override
+    protected Object handle(String methodName, Object[] args) {
+        if (methodName.equals("getVoltage")) return this.simulator.getBatteryVoltage();
+        return UNHANDLED;
+    }
+}
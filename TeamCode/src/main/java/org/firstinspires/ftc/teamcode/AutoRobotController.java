@@ -4,14 +4,15 @@ import com.qualcomm.robotcore.hardware.Gamepad;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 
 import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.firstinspires.ftc.teamcode.managers.localization.LocalizerType;
 import org.firstinspires.ftc.teamcode.subsystems.driveTrain.MecanumDriveSubsystem;
 import org.firstinspires.ftc.teamcode.util.opModes.SympleCommandOpMode;
 
 public class AutoRobotController extends RobotControllerBase {
     private final MecanumDriveSubsystem mecanumDriveSubsystem;
 
-    public AutoRobotController(HardwareMap hMap, Telemetry telemetry, Gamepad driverController, Gamepad actionController, String logFilePrefix, boolean logData) {
-        super(hMap, telemetry, driverController, actionController, logFilePrefix, logData);
+    public AutoRobotController(HardwareMap hMap, Telemetry telemetry, Gamepad driverController, Gamepad actionController, LocalizerType localizerType, boolean keepPose, String logFilePrefix, boolean logData) {
+        super(hMap, telemetry, driverController, actionController, localizerType, keepPose, logFilePrefix, logData);
 
         this.mecanumDriveSubsystem = new MecanumDriveSubsystem(this.getHardwareMap(), this.getTelemetry(), this.getDataLogger());
     }
@@ -57,9 +58,21 @@ public class AutoRobotController extends RobotControllerBase {
             return this;
         }
 
+        @Override
+        public Builder localizer(LocalizerType value) {
+            super.localizer(value);
+            return this;
+        }
+
+        @Override
+        public Builder keepPose(boolean value) {
+            super.keepPose(value);
+            return this;
+        }
+
         @Override
         public AutoRobotController build() {
-            return new AutoRobotController(this.hardwareMap, this.telemetry, this.driverController, this.actionController, this.logFilePrefix, this.logData);
+            return new AutoRobotController(this.hardwareMap, this.telemetry, this.driverController, this.actionController, this.localizerType, this.keepPose, this.logFilePrefix, this.logData);
         }
     }
 }
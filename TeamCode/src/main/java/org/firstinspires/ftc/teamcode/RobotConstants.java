@@ -1,7 +1,11 @@
 package org.firstinspires.ftc.teamcode;
 
+import com.qualcomm.hardware.digitalchickenlabs.OctoQuad;
+import com.qualcomm.hardware.gobilda.GoBildaPinpointDriver;
 import com.qualcomm.hardware.rev.RevHubOrientationOnRobot;
 
+import org.firstinspires.ftc.teamcode.util.drivetrain.MecanumWheelSet;
+
 /**
  * Contains all robot-wide constants for the robot.
  */
@@ -23,6 +27,9 @@ public class RobotConstants {
         /** Distance between left and right wheels (track width) in meters. */
         public static final double WHEELS_DISTANCE = 0.207;
 
+        /** Forward distance of the back dead wheel from the center of rotation in meters (negative = behind). */
+        public static final double BACK_WHEEL_FORWARD_OFFSET = 0;
+
         /** Meters traveled per wheel revolution. */
         public static final double METERS_PER_REV = (Math.PI * 2) * WHEEL_RADIUS;
 
@@ -32,6 +39,29 @@ public class RobotConstants {
         /** Feedforward constant (Ks) */
         public static final double Ks = 0;
 
+        /**
+         * How the drive wheels are controlled. {@link MecanumWheelSet.ControlMode#VELOCITY} requires
+         * the leg entries in {@link org.firstinspires.ftc.teamcode.maps.MotorMap} to be correct and the
+         * {@link org.firstinspires.ftc.teamcode.util.drivetrain.WheelVelocityController} gains to be tuned.
+         * It also needs the motor encoders of all four legs: with
+         * {@link org.firstinspires.ftc.teamcode.managers.localization.LocalizerType#DEAD_WHEELS} the dead
+         * wheels in {@link org.firstinspires.ftc.teamcode.maps.SensorMap} share their encoder ports and
+         * the drive subsystem throws on start.
+         */
+        public static final MecanumWheelSet.ControlMode WHEEL_CONTROL_MODE = MecanumWheelSet.ControlMode.OPEN_LOOP;
+
+        /** Default trajectory velocity limit in m/s. */
+        public static final double MAX_VELOCITY = 1.2;
+
+        /** Default trajectory acceleration limit in m/s². */
+        public static final double MAX_ACCELERATION = 1.5;
+
+        /** Default trajectory centripetal acceleration limit in m/s², slows the robot down in curves. */
+        public static final double MAX_CENTRIPETAL_ACCELERATION = 1.5;
+
+        /** Default trajectory angular velocity limit in deg/s. */
+        public static final double MAX_ANGULAR_VELOCITY = 180;
+
         /** Orientation of the REV Hub logo on the robot. */
         public static final RevHubOrientationOnRobot.LogoFacingDirection LOGO_FACING_DIRECTION = RevHubOrientationOnRobot.LogoFacingDirection.LEFT;
 
@@ -56,4 +86,74 @@ public class RobotConstants {
             }
         }
     }
+
+    /**
+     * Constants related to the odometry co-processors (Pinpoint, OTOS and OctoQuad).
+     * Offsets are in meters, measured from the center of rotation
+     * (x forward, y left).
+     */
+    public static class OdometryConstants {
+        /**
+         * Sideways offset of the Pinpoint's forward (X) pod, left positive.
+         * The {@code xOffset} of {@link GoBildaPinpointDriver#setOffsets}.
+         */
+        public static final double PINPOINT_X_OFFSET = 0;
+
+        /**
+         * Forward offset of the Pinpoint's sideways (Y) pod, forward positive.
+         * The {@code yOffset} of {@link GoBildaPinpointDriver#setOffsets}.
+         */
+        public static final double PINPOINT_Y_OFFSET = 0;
+
+        /** Pinpoint encoder resolution (goBILDA 4-bar pod). */
+        public static final double PINPOINT_TICKS_PER_MM = 19.89436789;
+
+        /** Direction of the Pinpoint's forward (X) pod. */
+        public static final GoBildaPinpointDriver.EncoderDirection PINPOINT_X_DIRECTION = GoBildaPinpointDriver.EncoderDirection.FORWARD;
+
+        /** Direction of the Pinpoint's sideways (Y) pod. */
+        public static final GoBildaPinpointDriver.EncoderDirection PINPOINT_Y_DIRECTION = GoBildaPinpointDriver.EncoderDirection.FORWARD;
+
+        /** Forward offset of the OTOS. */
+        public static final double OTOS_X_OFFSET = 0;
+
+        /** Left offset of the OTOS. */
+        public static final double OTOS_Y_OFFSET = 0;
+
+        /** Mounting rotation of the OTOS in degrees (counter-clockwise positive). */
+        public static final double OTOS_HEADING_OFFSET = 0;
+
+        /** OTOS linear scale correction (0.872 - 1.127). */
+        public static final double OTOS_LINEAR_SCALAR = 1.0;
+
+        /** OTOS angular scale correction (0.872 - 1.127). */
+        public static final double OTOS_ANGULAR_SCALAR = 1.0;
+
+        /** OctoQuad channel of the right dead wheel. */
+        public static final int OCTOQUAD_RIGHT_CHANNEL = 0;
+
+        /** OctoQuad channel of the left dead wheel. */
+        public static final int OCTOQUAD_LEFT_CHANNEL = 1;
+
+        /** OctoQuad channel of the back dead wheel. */
+        public static final int OCTOQUAD_BACK_CHANNEL = 2;
+
+        /** Direction of the right dead wheel on the OctoQuad. */
+        public static final OctoQuad.EncoderDirection OCTOQUAD_RIGHT_DIRECTION = OctoQuad.EncoderDirection.REVERSE;
+
+        /** Direction of the left dead wheel on the OctoQuad. */
+        public static final OctoQuad.EncoderDirection OCTOQUAD_LEFT_DIRECTION = OctoQuad.EncoderDirection.REVERSE;
+
+        /** Direction of the back dead wheel on the OctoQuad. */
+        public static final OctoQuad.EncoderDirection OCTOQUAD_BACK_DIRECTION = OctoQuad.EncoderDirection.FORWARD;
+
+        /** X offset of the tracking center for the OctoQuad on-board localizer (see the OctoQuad quick start guide) in mm. */
+        public static final float OCTOQUAD_TCP_OFFSET_X_MM = 0;
+
+        /** Y offset of the tracking center for the OctoQuad on-board localizer (see the OctoQuad quick start guide) in mm. */
+        public static final float OCTOQUAD_TCP_OFFSET_Y_MM = 0;
+
+        /** Rotational scale correction of the OctoQuad IMU. */
+        public static final float OCTOQUAD_IMU_SCALAR = 1.0f;
+    }
 }
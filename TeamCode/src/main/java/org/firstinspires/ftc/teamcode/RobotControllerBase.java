@@ -10,18 +10,30 @@ import com.qualcomm.robotcore.hardware.HardwareMap;
 
 import org.firstinspires.ftc.robotcore.external.Telemetry;
 import org.firstinspires.ftc.teamcode.managers.RobotPositionManager;
+import org.firstinspires.ftc.teamcode.managers.VoltageManager;
+import org.firstinspires.ftc.teamcode.managers.localization.LocalizerType;
 import org.firstinspires.ftc.teamcode.util.DataLogger;
+import org.firstinspires.ftc.teamcode.util.GamepadSnapshot;
+import org.firstinspires.ftc.teamcode.util.KeyBindings;
+import org.firstinspires.ftc.teamcode.util.drivetrain.DriveCharacterization;
 import org.firstinspires.ftc.teamcode.util.opModes.SympleCommandOpMode;
 
 public abstract class RobotControllerBase {
     public final GamepadEx driverController;
     public final GamepadEx actionController;
 
+    /** The state of {@link #driverController} in the current loop, see {@link #updateGamepads()}. */
+    public final GamepadSnapshot driverSnapshot;
+    /** The state of {@link #actionController} in the current loop, see {@link #updateGamepads()}. */
+    public final GamepadSnapshot actionSnapshot;
+
     private final HardwareMap hardwareMap;
     private final JoinedTelemetry telemetry;
     private final DataLogger dataLogger;
 
-    public RobotControllerBase(HardwareMap hMap, Telemetry telemetry, Gamepad driverController, Gamepad actionController, String logFilePrefix, boolean logData) {
+    private KeyBindings keyBindings = null;
+
+    public RobotControllerBase(HardwareMap hMap, Telemetry telemetry, Gamepad driverController, Gamepad actionController, LocalizerType localizerType, boolean keepPose, String logFilePrefix, boolean logData) {
         this.hardwareMap = hMap;
         this.telemetry = new JoinedTelemetry(PanelsTelemetry.INSTANCE.getFtcTelemetry(), telemetry);
         this.dataLogger = new DataLogger(logFilePrefix, !logData);
@@ -30,19 +42,38 @@ public abstract class RobotControllerBase {
 
         this.driverController = new GamepadEx(driverController);
         this.actionController = new GamepadEx(actionController);
+        this.driverSnapshot = new GamepadSnapshot(driverController);
+        this.actionSnapshot = new GamepadSnapshot(actionController);
 
         // Reset the robot state
         this.dataLogger.addData(DataLogger.DataType.INFO, "RobotController: resetting robot");
         PanelsCameraStream.INSTANCE.stopStream();
         CommandScheduler.getInstance().reset();
-        RobotPositionManager.init(hardwareMap);
+        this.dataLogger.addData(DataLogger.DataType.INFO, "RobotController: using " + localizerType + " localizer");
+        long positionInitStart = System.nanoTime();
+        boolean warmStart = RobotPositionManager.init(hardwareMap, localizerType, keepPose);
+        this.dataLogger.addData(DataLogger.DataType.INFO, "RobotController: position manager " + (warmStart ? "reused" : "created")
+                + " in " + (System.nanoTime() - positionInitStart) / 1_000_000.0 + "ms");
+
+        VoltageManager.init(hardwareMap);
+        this.dataLogger.addData(DataLogger.DataType.INFO, "RobotController: battery at " + VoltageManager.getInstance().getVoltage() + "V");
+
+        if (DriveCharacterization.LOAD_ON_INIT) {
+            DriveCharacterization characterization = DriveCharacterization.load();
+            characterization.apply();
+            for (DriveCharacterization.Model model : DriveCharacterization.Model.values()) {
+                this.dataLogger.addData(DataLogger.DataType.INFO, "RobotController: " + model + " feedforward " + characterization.describe(model)
+                        + (characterization.isApplicable(model) ? "" : ", not applied"));
+            }
+        }
     }
 
     /**
      * Register all robot keybinds here.
      * <p>
      * Subclasses should implement this method to define all gamepad or controller bindings
-     * for robot actions.
+     * for robot actions, preferably as a {@link KeyBindings} table on {@link #driverSnapshot}
+     * and {@link #actionSnapshot} passed to {@link #setKeyBindings(KeyBindings)}.
      * </p>
      */
     public abstract void createKeyBindings();
@@ -78,6 +109,31 @@ public abstract class RobotControllerBase {
      */
     public abstract void postRun();
 
+    /**
+     * Takes the {@link GamepadSnapshot}s of this loop.
+     * Called by {@link SympleCommandOpMode} at the start of every loop, before the commands run.
+     */
+    public void updateGamepads() {
+        this.driverSnapshot.update();
+        this.actionSnapshot.update();
+    }
+
+    /**
+     * Sets the bindings run by {@link #dispatchKeyBindings()}.
+     * @param keyBindings the compiled bindings, {@code null} for none
+     */
+    protected void setKeyBindings(KeyBindings keyBindings) {
+        this.keyBindings = keyBindings;
+    }
+
+    /**
+     * Runs the {@link KeyBindings} of this loop's button edges.
+     * Called by {@link SympleCommandOpMode} every run loop, after {@link #updateGamepads()}.
+     */
+    public void dispatchKeyBindings() {
+        if (this.keyBindings != null) this.keyBindings.dispatch();
+    }
+
     /**
      * See {@link Telemetry} for all the docs.
      * @return {@link JoinedTelemetry}
@@ -107,12 +163,16 @@ public abstract class RobotControllerBase {
         protected Telemetry telemetry;
         protected Gamepad driverController;
         protected Gamepad actionController;
+        protected LocalizerType localizerType;
+        protected boolean keepPose;
         protected String logFilePrefix;
         protected boolean logData;
 
         public Builder() {
             this.logData = true;
             this.logFilePrefix = "RobotController";
+            this.localizerType = LocalizerType.DEAD_WHEELS;
+            this.keepPose = false;
         }
 
         public Builder initializeDefaults(SympleCommandOpMode opMode) {
@@ -123,6 +183,20 @@ public abstract class RobotControllerBase {
             return this;
         }
 
+        public Builder localizer(LocalizerType value) {
+            this.localizerType = value;
+            return this;
+        }
+
+        /**
+         * Whether to keep the pose from the previous OpMode when the position manager is reused.
+         * @see RobotPositionManager#init(HardwareMap, LocalizerType, boolean)
+         */
+        public Builder keepPose(boolean value) {
+            this.keepPose = value;
+            return this;
+        }
+
         public abstract RobotControllerBase build();
     }
 }
@@ -4,6 +4,7 @@ import com.qualcomm.robotcore.hardware.Gamepad;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 
 import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.firstinspires.ftc.teamcode.managers.localization.LocalizerType;
 import org.firstinspires.ftc.teamcode.subsystems.driveTrain.MecanumDriveSubsystem;
 import org.firstinspires.ftc.teamcode.subsystems.driveTrain.commands.mecanumDrive.MecanumArcadeDriveCommand;
 import org.firstinspires.ftc.teamcode.util.TeamColor;
@@ -17,8 +18,8 @@ public class TeleOpRobotController extends RobotControllerBase {
     private final DriverCommands driverCommands;
     private final ActuatorCommands actuatorCommands;
 
-    private TeleOpRobotController(HardwareMap hMap, Telemetry telemetry, Gamepad driverController, Gamepad actionController, TeamColor teamColor, String logFilePrefix, boolean logData) {
-        super(hMap, telemetry, driverController, actionController, logFilePrefix, logData);
+    private TeleOpRobotController(HardwareMap hMap, Telemetry telemetry, Gamepad driverController, Gamepad actionController, TeamColor teamColor, LocalizerType localizerType, boolean keepPose, String logFilePrefix, boolean logData) {
+        super(hMap, telemetry, driverController, actionController, localizerType, keepPose, logFilePrefix, logData);
 
         if(teamColor == null) {
             RuntimeException exception = new RuntimeException("Team color cannot be null!");
@@ -44,7 +45,7 @@ public class TeleOpRobotController extends RobotControllerBase {
 
     @Override
     public void initialize() {
-        this.mecanumDriveSubsystem.setDefaultCommand(new MecanumArcadeDriveCommand(this.mecanumDriveSubsystem, this.driverController));
+        this.mecanumDriveSubsystem.setDefaultCommand(new MecanumArcadeDriveCommand(this.mecanumDriveSubsystem, this.driverSnapshot));
     }
 
     @Override
@@ -72,6 +73,7 @@ public class TeleOpRobotController extends RobotControllerBase {
 
         public Builder() {
             this.logFilePrefix = "TeleOp";
+            this.keepPose = true;
         }
 
         public Builder teamColor(TeamColor value) {
@@ -85,9 +87,21 @@ public class TeleOpRobotController extends RobotControllerBase {
             return this;
         }
 
+        @Override
+        public Builder localizer(LocalizerType value) {
+            super.localizer(value);
+            return this;
+        }
+
+        @Override
+        public Builder keepPose(boolean value) {
+            super.keepPose(value);
+            return this;
+        }
+
         @Override
         public TeleOpRobotController build() {
-            return new TeleOpRobotController(this.hardwareMap, this.telemetry, this.driverController, this.actionController, this.teamColor, this.logFilePrefix, this.logData);
+            return new TeleOpRobotController(this.hardwareMap, this.telemetry, this.driverController, this.actionController, this.teamColor, this.localizerType, this.keepPose, this.logFilePrefix, this.logData);
         }
     }
 }
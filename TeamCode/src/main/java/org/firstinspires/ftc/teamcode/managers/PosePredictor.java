@@ -0,0 +1,98 @@
+package org.firstinspires.ftc.teamcode.managers;
+
+import com.bylazar.configurables.annotations.Configurable;
+
+/**
+ * Estimates the robot's field velocity from consecutive poses and extrapolates
+ * the pose forward by the actuation delay.
+ *
+ * <p>Motor commands written in a loop only take effect a few milliseconds later,
+ * so controllers that act on the last measured pose lag behind the robot when it
+ * moves fast. Feeding them the pose predicted {@link #ACTUATION_DELAY_MS} ahead
+ * compensates for that.</p>
+ */
+@Configurable
+public class PosePredictor {
+    /**
+     * The measured time between writing a motor command and the robot reacting to it, in milliseconds.
+     * {@code 0} disables the prediction.
+     */
+    public static double ACTUATION_DELAY_MS = 0;
+
+    /** Weight of every new velocity sample in the exponential smoothing (1 = no smoothing). */
+    public static double VELOCITY_SMOOTHING = 0.5;
+
+    private double x;
+    private double y;
+    private double heading;
+    private long lastUpdateNanos;
+
+    private double velocityX;
+    private double velocityY;
+    private double headingVelocity;
+
+    /**
+     * Feeds a new measured pose.
+     *
+     * @param x       x position in meters
+     * @param y       y position in meters
+     * @param heading heading in degrees
+     * @param nanos   {@link org.firstinspires.ftc.teamcode.util.RobotClock#nanoTime()} at which the pose was measured
+     */
+    public void update(double x, double y, double heading, long nanos) {
+        double dt = (nanos - this.lastUpdateNanos) / 1e9;
+
+        if (this.lastUpdateNanos != 0 && dt > 0) {
+            double newVelocityX = (x - this.x) / dt;
+            double newVelocityY = (y - this.y) / dt;
+            double newHeadingVelocity = Math.IEEEremainder(heading - this.heading, 360) / dt;
+
+            this.velocityX += VELOCITY_SMOOTHING * (newVelocityX - this.velocityX);
+            this.velocityY += VELOCITY_SMOOTHING * (newVelocityY - this.velocityY);
+            this.headingVelocity += VELOCITY_SMOOTHING * (newHeadingVelocity - this.headingVelocity);
+        }
+
+        this.x = x;
+        this.y = y;
+        this.heading = heading;
+        this.lastUpdateNanos = nanos;
+    }
+
+    /** Forgets the velocity estimate, e.g. after the pose was moved. */
+    public void reset() {
+        this.lastUpdateNanos = 0;
+        this.velocityX = 0;
+        this.velocityY = 0;
+        this.headingVelocity = 0;
+    }
+
+    /** @return the x position predicted {@link #ACTUATION_DELAY_MS} ahead, in meters */
+    public double getPredictedX() {
+        return this.x + this.velocityX * ACTUATION_DELAY_MS / 1000;
+    }
+
+    /** @return the y position predicted {@link #ACTUATION_DELAY_MS} ahead, in meters */
+    public double getPredictedY() {
+        return this.y + this.velocityY * ACTUATION_DELAY_MS / 1000;
+    }
+
+    /** @return how far the heading is predicted to turn in {@link #ACTUATION_DELAY_MS}, in degrees */
+    public double getPredictedHeadingChange() {
+        return this.headingVelocity * ACTUATION_DELAY_MS / 1000;
+    }
+
+    /** @return the estimated field velocity along x in meters per second */
+    public double getVelocityX() {
+        return this.velocityX;
+    }
+
+    /** @return the estimated field velocity along y in meters per second */
+    public double getVelocityY() {
+        return this.velocityY;
+    }
+
+    /** @return the estimated angular velocity in degrees per second */
+    public double getHeadingVelocity() {
+        return this.headingVelocity;
+    }
+}
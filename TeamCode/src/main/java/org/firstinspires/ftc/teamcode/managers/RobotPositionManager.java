@@ -1,40 +1,35 @@
 package org.firstinspires.ftc.teamcode.managers;
 
-import com.seattlesolvers.solverslib.hardware.motors.Motor;
-import com.seattlesolvers.solverslib.hardware.motors.MotorEx;
-import com.qualcomm.hardware.bosch.BHI260IMU;
-import com.qualcomm.hardware.rev.RevHubOrientationOnRobot;
 import com.qualcomm.robotcore.hardware.HardwareMap;
-import com.qualcomm.robotcore.hardware.IMU;
 
-import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
-import org.firstinspires.ftc.teamcode.RobotConstants.DriveConstants;
-import org.firstinspires.ftc.teamcode.maps.SensorMap;
-import org.firstinspires.ftc.teamcode.util.MathUtil;
+import org.firstinspires.ftc.teamcode.managers.localization.Localizer;
+import org.firstinspires.ftc.teamcode.managers.localization.LocalizerType;
+import org.firstinspires.ftc.teamcode.util.RobotClock;
 
 /**
  * Singleton class for managing the robot's position and heading.
  * <p>
- * This class uses a BHI260IMU and three dead-wheel encoders (right, left, back)
- * to track the robot's orientation and approximate movement.
+ * The actual sensing is delegated to a {@link Localizer}, selected with a
+ * {@link LocalizerType} (dead wheels, Pinpoint or OTOS).
  * </p>
  *
- * <p>Provides methods to get heading from the gyro, heading from wheel encoders,
- * relative heading, wheel distances, and to reset the heading reference.</p>
+ * <p>Provides methods to get the heading, relative heading, distances driven
+ * and field pose, and to reset the heading reference.
+ * {@link #update()} must be called once per loop to refresh the readings.</p>
  */
 public class RobotPositionManager {
 
-    /** The BHI260IMU used to measure robot orientation. */
-    private final BHI260IMU imu;
+    /** The hardware map the localizer was created from. */
+    private final HardwareMap hardwareMap;
 
-    /** Right dead-wheel encoder motor. */
-    private final MotorEx rightDeadWheel;
+    /** The type of {@link #localizer}, {@code null} if it was passed in. */
+    private final LocalizerType localizerType;
 
-    /** Left dead-wheel encoder motor. */
-    private final MotorEx leftDeadWheel;
+    /** The localizer providing the pose readings. */
+    private final Localizer localizer;
 
-    /** Back dead-wheel encoder motor. */
-    private final MotorEx backDeadWheel;
+    /** Extrapolates the pose by the actuation delay. */
+    private final PosePredictor posePredictor = new PosePredictor();
 
     /** The robot's initial heading reference (in degrees). */
     private double startingAngle;
@@ -44,26 +39,25 @@ public class RobotPositionManager {
 
     /**
      * Private constructor for singleton pattern.
-     * Initializes IMU and dead-wheel motors, resets encoders, and sets starting angle.
+     * Creates the localizer and sets starting angle.
      *
-     * @param hardwareMap the hardware map from the OpMode
+     * @param hardwareMap   the hardware map from the OpMode
+     * @param localizerType the localizer backend to use
      */
-    private RobotPositionManager(HardwareMap hardwareMap) {
-        BHI260IMU.Parameters parameters = new IMU.Parameters(new RevHubOrientationOnRobot(DriveConstants.LOGO_FACING_DIRECTION, DriveConstants.USB_FACING_DIRECTION));
-        this.imu = hardwareMap.get(BHI260IMU.class, "imu");
-        this.imu.initialize(parameters);
-
-        this.rightDeadWheel = new MotorEx(hardwareMap, SensorMap.DEAD_WHEEL_RIGHT.getId());
-        this.leftDeadWheel = new MotorEx(hardwareMap, SensorMap.DEAD_WHEEL_LEFT.getId());
-        this.backDeadWheel = new MotorEx(hardwareMap, SensorMap.DEAD_WHEEL_BACK.getId());
-
-        this.rightDeadWheel.encoder.setDirection(Motor.Direction.REVERSE);
-        this.leftDeadWheel.encoder.setDirection(Motor.Direction.REVERSE);
-//        this.rightDeadWheel.encoder.setDirection(Motor.Direction.REVERSE);
+    private RobotPositionManager(HardwareMap hardwareMap, LocalizerType localizerType) {
+        this(hardwareMap, localizerType, localizerType.create(hardwareMap));
+    }
 
-        this.rightDeadWheel.resetEncoder();
-        this.leftDeadWheel.resetEncoder();
-        this.backDeadWheel.resetEncoder();
+    /**
+     * @param hardwareMap   the hardware map from the OpMode
+     * @param localizerType the type of the localizer, {@code null} if it is not one of the backends
+     * @param localizer     the localizer providing the readings
+     */
+    private RobotPositionManager(HardwareMap hardwareMap, LocalizerType localizerType, Localizer localizer) {
+        this.hardwareMap = hardwareMap;
+        this.localizerType = localizerType;
+        this.localizer = localizer;
+        this.localizer.update();
 
         this.startingAngle = getHeadingByGyro();
     }
@@ -71,10 +65,47 @@ public class RobotPositionManager {
     /**
      * Initializes the singleton instance of the RobotPositionManager.
      *
+     * <p>If an instance already exists for the same hardware map and localizer type
+     * (the robot configuration did not change since the last OpMode), it is reused
+     * instead of re-initializing the IMU and resetting the encoders. The IMU parameters
+     * come from {@link org.firstinspires.ftc.teamcode.RobotConstants.DriveConstants},
+     * so changing them reloads the code and always forces a new instance.</p>
+     *
+     * @param hardwareMap   the hardware map from the OpMode
+     * @param localizerType the localizer backend to use
+     * @param keepPose      when reusing the instance, keep the pose and heading reference from
+     *                      the previous OpMode (e.g. autonomous to teleop) instead of zeroing them
+     * @return {@code true} if the existing instance was reused
+     */
+    public static boolean init(HardwareMap hardwareMap, LocalizerType localizerType, boolean keepPose) {
+        if (instance != null && instance.hardwareMap == hardwareMap && instance.localizerType == localizerType) {
+            instance.update();
+            if (!keepPose) instance.resetPose();
+            return true;
+        }
+
+        instance = new RobotPositionManager(hardwareMap, localizerType);
+        return false;
+    }
+
+    /**
+     * Initializes the singleton instance of the RobotPositionManager with a localizer that is not
+     * one of the {@link LocalizerType} backends, such as the simulation's. Always creates a new instance.
+     *
+     * @param hardwareMap the hardware map from the OpMode
+     * @param localizer   the localizer providing the readings
+     */
+    public static void init(HardwareMap hardwareMap, Localizer localizer) {
+        instance = new RobotPositionManager(hardwareMap, null, localizer);
+    }
+
+    /**
+     * Initializes the singleton instance of the RobotPositionManager with dead wheels.
+     *
      * @param hardwareMap the hardware map from the OpMode
      */
     public static void init(HardwareMap hardwareMap) {
-        instance = new RobotPositionManager(hardwareMap);
+        init(hardwareMap, LocalizerType.DEAD_WHEELS, false);
     }
 
     /**
@@ -86,13 +117,24 @@ public class RobotPositionManager {
         return instance;
     }
 
+    /** Reads the localizer hardware. Call once per loop. */
+    public void update() {
+        this.localizer.update();
+        this.posePredictor.update(this.localizer.getX(), this.localizer.getY(), this.localizer.getHeading(), RobotClock.nanoTime());
+    }
+
+    /** @return the localizer providing the readings */
+    public Localizer getLocalizer() {
+        return this.localizer;
+    }
+
     /**
      * Returns the robot's heading based on the gyro (IMU).
      *
      * @return heading in degrees
      */
     public double getHeadingByGyro() {
-        return this.imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.DEGREES);
+        return this.localizer.getHeading();
     }
 
     /**
@@ -105,14 +147,23 @@ public class RobotPositionManager {
     }
 
     /**
-     * Calculates the robot's heading based on the left and right dead-wheel distances.
+     * Returns the relative heading extrapolated by the actuation delay.
+     * @see PosePredictor
      *
-     * @return heading in degrees
+     * @return predicted relative heading in degrees
      */
-    public double getHeadingByWheels() {
-        double right = this.getRightWheelDistanceDriven();
-        double left = this.getLeftWheelDistanceDriven();
-        return Math.toDegrees((right - left) / DriveConstants.WHEELS_DISTANCE);
+    public double getPredictedRelativeHeading() {
+        return this.getRelativeHeading() + this.posePredictor.getPredictedHeadingChange();
+    }
+
+    /**
+     * Returns the gyro heading extrapolated by the actuation delay.
+     * @see PosePredictor
+     *
+     * @return predicted heading in degrees
+     */
+    public double getPredictedHeadingByGyro() {
+        return this.getHeadingByGyro() + this.posePredictor.getPredictedHeadingChange();
     }
 
     /** Resets the heading reference to the current IMU heading. */
@@ -120,29 +171,35 @@ public class RobotPositionManager {
         this.startingAngle = getHeadingByGyro();
     }
 
-    /** @return distance driven by the left dead-wheel in meters */
-    public double getLeftWheelDistanceDriven() {
-        return this.encoderTicksToMeter(this.leftDeadWheel.getCurrentPosition());
+    /** Moves the field pose back to the origin and resets the heading reference. */
+    public void resetPose() {
+        this.localizer.setPose(0, 0, this.localizer.getHeading());
+        this.posePredictor.reset();
+        this.resetHeading();
     }
 
-    /** @return distance driven by the right dead-wheel in meters */
-    public double getRightWheelDistanceDriven() {
-        return this.encoderTicksToMeter(this.rightDeadWheel.getCurrentPosition());
+    /** @return distance driven along the robot's forward axis in meters */
+    public double getForwardDistanceDriven() {
+        return this.localizer.getForwardDistance();
     }
 
-    /** @return distance driven by the back dead-wheel in meters */
-    public double getBackWheelDistanceDriven() {
-        return this.encoderTicksToMeter(this.backDeadWheel.getCurrentPosition());
+    /** @return distance driven along the robot's sideways axis in meters */
+    public double getSideDistanceDriven() {
+        return this.localizer.getSideDistance();
     }
 
-    /**
-     * Converts encoder ticks to meters using constants from {@link DriveConstants}.
-     * @see MathUtil#encoderTicksToMeter(double, double, double, double)  
-     * 
-     * @param ticks encoder ticks
-     * @return distance in meters
-     */
-    private double encoderTicksToMeter(double ticks) {
-        return MathUtil.encoderTicksToMeter(ticks, DriveConstants.WHEEL_RADIUS, DriveConstants.TICKS_PER_REV, DriveConstants.GEAR_RATIO);
+    /** @return the robot's x position on the field in meters */
+    public double getX() {
+        return this.localizer.getX();
+    }
+
+    /** @return the robot's y position on the field in meters */
+    public double getY() {
+        return this.localizer.getY();
+    }
+
+    /** @return the estimator of the robot's velocity and predicted pose */
+    public PosePredictor getPosePredictor() {
+        return this.posePredictor;
     }
 }
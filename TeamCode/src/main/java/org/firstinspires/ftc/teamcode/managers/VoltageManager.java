@@ -0,0 +1,118 @@
+package org.firstinspires.ftc.teamcode.managers;
+
+import com.bylazar.configurables.annotations.Configurable;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.VoltageSensor;
+
+import org.firstinspires.ftc.teamcode.util.RobotClock;
+
+import java.util.List;
+
+/**
+ * Singleton class for compensating actuator outputs for the battery voltage.
+ *
+ * <p>The gains of the commands were tuned at {@link #NOMINAL_VOLTAGE}. As the battery drains
+ * the same power gives less torque, so powers are multiplied by
+ * {@code NOMINAL_VOLTAGE / voltage} (see {@link #getCompensationFactor()}).</p>
+ *
+ * <p>Reading the voltage is a slow hardware call and the reading is noisy under load, so
+ * {@link #update()} only reads every {@link #READ_PERIOD_MS} and low-pass filters the result.
+ * {@link #update()} must be called once per loop.</p>
+ */
+@Configurable
+public class VoltageManager {
+    /** The battery voltage the gains were tuned at. */
+    public static double NOMINAL_VOLTAGE = 12.5;
+
+    /** Minimum time between voltage reads, in milliseconds. */
+    public static double READ_PERIOD_MS = 100;
+
+    /** Weight of every new reading in the low-pass filter (1 = no filtering). */
+    public static double FILTER_GAIN = 0.2;
+
+    /** Whether to compensate at all, {@code false} makes the factor always 1. */
+    public static boolean COMPENSATE = true;
+
+    /** Singleton instance of the VoltageManager. */
+    private static VoltageManager instance;
+
+    /** The voltage sensors of the hubs. */
+    private final List<VoltageSensor> voltageSensors;
+
+    private double voltage = 0;
+    private long lastReadNanos = 0;
+
+    /**
+     * Private constructor for singleton pattern.
+     *
+     * @param hardwareMap the hardware map from the OpMode
+     */
+    private VoltageManager(HardwareMap hardwareMap) {
+        this.voltageSensors = hardwareMap.getAll(VoltageSensor.class);
+        this.update();
+    }
+
+    /**
+     * Initializes the singleton instance of the VoltageManager.
+     *
+     * @param hardwareMap the hardware map from the OpMode
+     */
+    public static void init(HardwareMap hardwareMap) {
+        instance = new VoltageManager(hardwareMap);
+    }
+
+    /**
+     * Returns the singleton instance of the VoltageManager.
+     *
+     * @return the instance, or {@code null} if it was not initialized
+     */
+    public static VoltageManager getInstance() {
+        return instance;
+    }
+
+    /** Reads the battery voltage if {@link #READ_PERIOD_MS} has passed. Call once per loop. */
+    public void update() {
+        long now = RobotClock.nanoTime();
+        if (this.lastReadNanos != 0 && (now - this.lastReadNanos) / 1_000_000.0 < READ_PERIOD_MS) return;
+        this.lastReadNanos = now;
+
+        double reading = this.readVoltage();
+        if (reading <= 0) return;
+
+        if (this.voltage <= 0) {
+            this.voltage = reading;
+        } else {
+            this.voltage += FILTER_GAIN * (reading - this.voltage);
+        }
+    }
+
+    /**
+     * Reads the lowest voltage reported by the hubs (the one under the most load).
+     *
+     * @return the voltage, or {@code 0} if no sensor reported one
+     */
+    private double readVoltage() {
+        double lowest = Double.POSITIVE_INFINITY;
+        for (VoltageSensor sensor : this.voltageSensors) {
+            double voltage = sensor.getVoltage();
+            if (voltage > 0) lowest = Math.min(lowest, voltage);
+        }
+        return lowest == Double.POSITIVE_INFINITY ? 0 : lowest;
+    }
+
+    /** @return the filtered battery voltage, or {@code 0} before the first valid reading */
+    public double getVoltage() {
+        return this.voltage;
+    }
+
+    /**
+     * Returns the factor powers should be multiplied by to act as they would at {@link #NOMINAL_VOLTAGE}.
+     * The result may push powers past 1, callers must clamp.
+     *
+     * @return {@code NOMINAL_VOLTAGE / voltage}, or {@code 1} if disabled or no voltage was read
+     */
+    public double getCompensationFactor() {
+        if (!COMPENSATE || this.voltage <= 0) return 1;
+        return NOMINAL_VOLTAGE / this.voltage;
+    }
+}
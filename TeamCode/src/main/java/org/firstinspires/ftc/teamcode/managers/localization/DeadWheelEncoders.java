@@ -0,0 +1,33 @@
+package org.firstinspires.ftc.teamcode.managers.localization;
+
+/**
+ * A source of the three dead-wheel encoder counts used by {@link DeadWheelLocalizer}.
+ *
+ * <p>Implementations fetch every count in {@link #read()} and serve the getters
+ * from the values cached by that call.</p>
+ */
+public interface DeadWheelEncoders {
+    /**
+     * Reads all encoder counts from the hardware.
+     * Should be called exactly once per loop.
+     */
+    void read();
+
+    /** @return the right dead-wheel position in ticks */
+    int getRightPosition();
+
+    /** @return the left dead-wheel position in ticks */
+    int getLeftPosition();
+
+    /** @return the back dead-wheel position in ticks */
+    int getBackPosition();
+
+    /**
+     * @param motorId the id of a motor
+     * @return whether a dead wheel is plugged into the motor's encoder port
+     * @see Localizer#usesEncoderPort(String)
+     */
+    default boolean usesEncoderPort(String motorId) {
+        return false;
+    }
+}
@@ -0,0 +1,225 @@
+package org.firstinspires.ftc.teamcode.managers.localization;
+
+import com.bylazar.configurables.annotations.Configurable;
+import com.qualcomm.hardware.bosch.BHI260IMU;
+import com.qualcomm.hardware.rev.RevHubOrientationOnRobot;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.IMU;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.teamcode.RobotConstants.DriveConstants;
+import org.firstinspires.ftc.teamcode.maps.SensorMap;
+import org.firstinspires.ftc.teamcode.util.MathUtil;
+import org.firstinspires.ftc.teamcode.util.RobotClock;
+
+/**
+ * A {@link Localizer} backed by three dead-wheel encoders (right, left, back)
+ * and the hub's BHI260IMU. The encoders are read through a {@link DeadWheelEncoders}
+ * source, either the hub encoder ports or an OctoQuad.
+ *
+ * <p>Heading comes from the IMU, the wheel deltas are integrated into the field
+ * pose using the heading at the middle of each loop. IMU reads are slow, so they can
+ * be decimated with {@link #IMU_READ_PERIOD_MS}: between samples the heading is
+ * propagated from the left/right wheel difference, and each sample corrects it with
+ * a complementary filter weighted by {@link #IMU_CORRECTION_GAIN}.</p>
+ */
+@Configurable
+public class DeadWheelLocalizer implements Localizer {
+    /**
+     * Minimum time between IMU reads in milliseconds. {@code 0} reads the IMU every loop.
+     * <p>Between reads the heading is propagated from the left and right dead wheels.</p>
+     */
+    public static double IMU_READ_PERIOD_MS = 0;
+
+    /**
+     * Complementary filter weight of each IMU sample. {@code 1} replaces the
+     * wheel-propagated heading with the IMU heading, lower values blend them.
+     */
+    public static double IMU_CORRECTION_GAIN = 1;
+
+    /** The IMU used to measure robot orientation, the hub's BHI260IMU. */
+    private final IMU imu;
+
+    /** The source of the dead-wheel encoder counts. */
+    private final DeadWheelEncoders encoders;
+
+    private double rightDistance;
+    private double leftDistance;
+    private double backDistance;
+
+    /** The IMU heading, propagated with the wheels between IMU samples (in degrees). */
+    private double gyroHeading;
+
+    /** {@link RobotClock#nanoTime()} of the last IMU read. */
+    private long lastImuReadNanos;
+
+    private double x;
+    private double y;
+
+    /** Offset added to the gyro heading so {@link #setPose} can move the heading. */
+    private double headingOffset;
+
+    /**
+     * Initializes the IMU and reads the dead wheels from the hub encoder ports.
+     *
+     * @param hardwareMap the hardware map from the OpMode
+     */
+    public DeadWheelLocalizer(HardwareMap hardwareMap) {
+        this(hardwareMap, new HubDeadWheelEncoders(hardwareMap));
+    }
+
+    /**
+     * Initializes the IMU and reads the dead wheels from the given encoder source.
+     *
+     * @param hardwareMap the hardware map from the OpMode
+     * @param encoders    the source of the dead-wheel encoder counts
+     */
+    public DeadWheelLocalizer(HardwareMap hardwareMap, DeadWheelEncoders encoders) {
+        this(initializeImu(hardwareMap), encoders);
+    }
+
+    /**
+     * Reads the heading from the given IMU and the dead wheels from the given encoder source.
+     *
+     * @param imu      the initialized IMU to read the heading from
+     * @param encoders the source of the dead-wheel encoder counts
+     */
+    public DeadWheelLocalizer(IMU imu, DeadWheelEncoders encoders) {
+        this.imu = imu;
+
+        this.encoders = encoders;
+
+        this.gyroHeading = this.readGyroHeading();
+        this.lastImuReadNanos = RobotClock.nanoTime();
+    }
+
+    @Override
+    public void update() {
+        this.encoders.read();
+        double right = this.encoderTicksToMeter(this.encoders.getRightPosition());
+        double left = this.encoderTicksToMeter(this.encoders.getLeftPosition());
+        double back = this.encoderTicksToMeter(this.encoders.getBackPosition());
+
+        double deltaRight = right - this.rightDistance;
+        double deltaLeft = left - this.leftDistance;
+        double previousHeading = this.gyroHeading;
+
+        // propagate the heading with the wheels, and correct it whenever the IMU is sampled
+        this.gyroHeading += Math.toDegrees((deltaRight - deltaLeft) / DriveConstants.WHEELS_DISTANCE);
+        long now = RobotClock.nanoTime();
+        if (now - this.lastImuReadNanos >= IMU_READ_PERIOD_MS * 1_000_000) {
+            this.lastImuReadNanos = now;
+            double imuHeading = this.readGyroHeading();
+            if (IMU_CORRECTION_GAIN >= 1) {
+                this.gyroHeading = imuHeading;
+            } else {
+                this.gyroHeading += IMU_CORRECTION_GAIN * Math.IEEEremainder(imuHeading - this.gyroHeading, 360);
+            }
+        }
+        this.gyroHeading = Math.IEEEremainder(this.gyroHeading, 360);
+
+        double deltaHeading = Math.toRadians(Math.IEEEremainder(this.gyroHeading - previousHeading, 360));
+        double deltaForward = (deltaRight + deltaLeft) / 2;
+        double deltaSide = (back - this.backDistance) - DriveConstants.BACK_WHEEL_FORWARD_OFFSET * deltaHeading;
+
+        // integrate using the heading in the middle of the movement
+        double midHeading = Math.toRadians(previousHeading + this.headingOffset) + deltaHeading / 2;
+        double cos = Math.cos(midHeading);
+        double sin = Math.sin(midHeading);
+        this.x += deltaForward * cos - deltaSide * sin;
+        this.y += deltaForward * sin + deltaSide * cos;
+
+        this.rightDistance = right;
+        this.leftDistance = left;
+        this.backDistance = back;
+    }
+
+    @Override
+    public double getX() {
+        return this.x;
+    }
+
+    @Override
+    public double getY() {
+        return this.y;
+    }
+
+    @Override
+    public double getHeading() {
+        return this.gyroHeading + this.headingOffset;
+    }
+
+    @Override
+    public double getForwardDistance() {
+        return this.rightDistance;
+    }
+
+    @Override
+    public double getSideDistance() {
+        return this.backDistance;
+    }
+
+    @Override
+    public void setPose(double x, double y, double heading) {
+        this.x = x;
+        this.y = y;
+        this.headingOffset = heading - this.gyroHeading;
+    }
+
+    @Override
+    public boolean usesEncoderPort(String motorId) {
+        return this.encoders.usesEncoderPort(motorId);
+    }
+
+    /**
+     * Calculates the robot's heading based on the left and right dead-wheel distances.
+     *
+     * @return heading in degrees
+     */
+    public double getHeadingByWheels() {
+        return Math.toDegrees((this.rightDistance - this.leftDistance) / DriveConstants.WHEELS_DISTANCE);
+    }
+
+    /** @return distance driven by the left dead-wheel in meters */
+    public double getLeftWheelDistanceDriven() {
+        return this.leftDistance;
+    }
+
+    /** @return distance driven by the right dead-wheel in meters */
+    public double getRightWheelDistanceDriven() {
+        return this.rightDistance;
+    }
+
+    /** @return distance driven by the back dead-wheel in meters */
+    public double getBackWheelDistanceDriven() {
+        return this.backDistance;
+    }
+
+    /**
+     * Gets the hub IMU and initializes it with the hub orientation from {@link DriveConstants}.
+     *
+     * @param hardwareMap the hardware map from the OpMode
+     * @return the initialized IMU
+     */
+    private static IMU initializeImu(HardwareMap hardwareMap) {
+        BHI260IMU imu = hardwareMap.get(BHI260IMU.class, SensorMap.IMU.getId());
+        imu.initialize(new IMU.Parameters(new RevHubOrientationOnRobot(DriveConstants.LOGO_FACING_DIRECTION, DriveConstants.USB_FACING_DIRECTION)));
+        return imu;
+    }
+
+    /** @return the IMU yaw in degrees */
+    private double readGyroHeading() {
+        return this.imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.DEGREES);
+    }
+
+    /**
+     * Converts encoder ticks to meters using constants from {@link DriveConstants}.
+     * @see MathUtil#encoderTicksToMeter(double, double, double, double)
+     *
+     * @param ticks encoder ticks
+     * @return distance in meters
+     */
+    private double encoderTicksToMeter(double ticks) {
+        return MathUtil.encoderTicksToMeter(ticks, DriveConstants.WHEEL_RADIUS, DriveConstants.TICKS_PER_REV, DriveConstants.GEAR_RATIO);
+    }
+}
@@ -0,0 +1,74 @@
+package org.firstinspires.ftc.teamcode.managers.localization;
+
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.seattlesolvers.solverslib.hardware.motors.Motor;
+import com.seattlesolvers.solverslib.hardware.motors.MotorEx;
+
+import org.firstinspires.ftc.teamcode.maps.SensorMap;
+
+/**
+ * {@link DeadWheelEncoders} plugged into the hub's motor encoder ports.
+ * Every count is a separate hub read.
+ */
+public class HubDeadWheelEncoders implements DeadWheelEncoders {
+
+    /** Right dead-wheel encoder motor. */
+    private final MotorEx rightDeadWheel;
+
+    /** Left dead-wheel encoder motor. */
+    private final MotorEx leftDeadWheel;
+
+    /** Back dead-wheel encoder motor. */
+    private final MotorEx backDeadWheel;
+
+    private int rightPosition;
+    private int leftPosition;
+    private int backPosition;
+
+    /**
+     * Gets the dead-wheel motors and resets their encoders.
+     *
+     * @param hardwareMap the hardware map from the OpMode
+     */
+    public HubDeadWheelEncoders(HardwareMap hardwareMap) {
+        this.rightDeadWheel = new MotorEx(hardwareMap, SensorMap.DEAD_WHEEL_RIGHT.getId());
+        this.leftDeadWheel = new MotorEx(hardwareMap, SensorMap.DEAD_WHEEL_LEFT.getId());
+        this.backDeadWheel = new MotorEx(hardwareMap, SensorMap.DEAD_WHEEL_BACK.getId());
+
+        this.rightDeadWheel.encoder.setDirection(Motor.Direction.REVERSE);
+        this.leftDeadWheel.encoder.setDirection(Motor.Direction.REVERSE);
+
+        this.rightDeadWheel.resetEncoder();
+        this.leftDeadWheel.resetEncoder();
+        this.backDeadWheel.resetEncoder();
+    }
+
+    @Override
+    public void read() {
+        this.rightPosition = this.rightDeadWheel.getCurrentPosition();
+        this.leftPosition = this.leftDeadWheel.getCurrentPosition();
+        this.backPosition = this.backDeadWheel.getCurrentPosition();
+    }
+
+    @Override
+    public int getRightPosition() {
+        return this.rightPosition;
+    }
+
+    @Override
+    public int getLeftPosition() {
+        return this.leftPosition;
+    }
+
+    @Override
+    public int getBackPosition() {
+        return this.backPosition;
+    }
+
+    @Override
+    public boolean usesEncoderPort(String motorId) {
+        return SensorMap.DEAD_WHEEL_RIGHT.getId().equals(motorId)
+                || SensorMap.DEAD_WHEEL_LEFT.getId().equals(motorId)
+                || SensorMap.DEAD_WHEEL_BACK.getId().equals(motorId);
+    }
+}
@@ -0,0 +1,53 @@
+package org.firstinspires.ftc.teamcode.managers.localization;
+
+/**
+ * A source of the robot's position on the field.
+ *
+ * <p>Implementations read their hardware once per {@link #update()} call and serve
+ * every getter from the values cached by that call, so the pose can be queried any
+ * number of times per loop without extra hardware transactions.</p>
+ *
+ * <p>Units follow the rest of the robot code: distances are in meters and headings
+ * are in degrees (counter-clockwise positive). The field frame has {@code x} pointing
+ * forward from the starting pose and {@code y} pointing to the left.</p>
+ */
+public interface Localizer {
+    /**
+     * Reads the hardware and refreshes the cached pose.
+     * Should be called exactly once per loop.
+     */
+    void update();
+
+    /** @return the robot's x position on the field in meters */
+    double getX();
+
+    /** @return the robot's y position on the field in meters */
+    double getY();
+
+    /** @return the robot's heading in degrees */
+    double getHeading();
+
+    /** @return distance driven along the robot's forward axis in meters */
+    double getForwardDistance();
+
+    /** @return distance driven along the robot's sideways axis in meters */
+    double getSideDistance();
+
+    /**
+     * Overrides the current pose.
+     *
+     * @param x       x position in meters
+     * @param y       y position in meters
+     * @param heading heading in degrees
+     */
+    void setPose(double x, double y, double heading);
+
+    /**
+     * @param motorId the id of a motor
+     * @return whether this localizer reads a sensor plugged into the motor's encoder port, so the
+     * port does not read the motor
+     */
+    default boolean usesEncoderPort(String motorId) {
+        return false;
+    }
+}
@@ -0,0 +1,37 @@
+package org.firstinspires.ftc.teamcode.managers.localization;
+
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+import java.util.function.Function;
+
+/**
+ * The available {@link Localizer} backends.
+ */
+public enum LocalizerType {
+    /** Three dead wheels on the hub encoder ports and the hub IMU. */
+    DEAD_WHEELS(DeadWheelLocalizer::new),
+    /** goBILDA Pinpoint odometry computer. */
+    PINPOINT(PinpointLocalizer::new),
+    /** SparkFun optical tracking odometry sensor. */
+    OTOS(OtosLocalizer::new),
+    /** Three dead wheels read in one transaction through an OctoQuad, and the hub IMU. */
+    OCTOQUAD(hardwareMap -> new DeadWheelLocalizer(hardwareMap, new OctoQuadDeadWheelEncoders(hardwareMap))),
+    /** The OctoQuad MK2 on-board localizer. */
+    OCTOQUAD_ONBOARD(OctoQuadLocalizer::new);
+
+    private final Function<HardwareMap, Localizer> factory;
+
+    LocalizerType(Function<HardwareMap, Localizer> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Creates and initializes a localizer of this type.
+     *
+     * @param hardwareMap the hardware map from the OpMode
+     * @return the new localizer
+     */
+    public Localizer create(HardwareMap hardwareMap) {
+        return this.factory.apply(hardwareMap);
+    }
+}
@@ -0,0 +1,74 @@
+package org.firstinspires.ftc.teamcode.managers.localization;
+
+import com.qualcomm.hardware.digitalchickenlabs.OctoQuad;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+import org.firstinspires.ftc.teamcode.RobotConstants.OdometryConstants;
+import org.firstinspires.ftc.teamcode.maps.SensorMap;
+
+/**
+ * {@link DeadWheelEncoders} plugged into an OctoQuad.
+ *
+ * <p>All eight channels are fetched in a single bulk I2C transaction per {@link #read()},
+ * which frees the hub encoder ports. A read with a bad CRC is dropped and the
+ * previous counts are kept.</p>
+ */
+public class OctoQuadDeadWheelEncoders implements DeadWheelEncoders {
+    private final OctoQuad octoQuad;
+
+    /** Buffer filled by the bulk encoder read. */
+    private final OctoQuad.EncoderDataBlock encoderData = new OctoQuad.EncoderDataBlock();
+
+    private int rightPosition;
+    private int leftPosition;
+    private int backPosition;
+
+    /**
+     * Configures the encoder directions and resets all positions.
+     *
+     * @param hardwareMap the hardware map from the OpMode
+     */
+    public OctoQuadDeadWheelEncoders(HardwareMap hardwareMap) {
+        this(hardwareMap.get(OctoQuad.class, SensorMap.OCTOQUAD.getId()));
+    }
+
+    /**
+     * Configures the encoder directions of the given OctoQuad and resets all positions.
+     *
+     * @param octoQuad the OctoQuad to read
+     */
+    public OctoQuadDeadWheelEncoders(OctoQuad octoQuad) {
+        this.octoQuad = octoQuad;
+
+        this.octoQuad.setSingleEncoderDirection(OdometryConstants.OCTOQUAD_RIGHT_CHANNEL, OdometryConstants.OCTOQUAD_RIGHT_DIRECTION);
+        this.octoQuad.setSingleEncoderDirection(OdometryConstants.OCTOQUAD_LEFT_CHANNEL, OdometryConstants.OCTOQUAD_LEFT_DIRECTION);
+        this.octoQuad.setSingleEncoderDirection(OdometryConstants.OCTOQUAD_BACK_CHANNEL, OdometryConstants.OCTOQUAD_BACK_DIRECTION);
+
+        this.octoQuad.resetAllPositions();
+    }
+
+    @Override
+    public void read() {
+        this.octoQuad.readAllEncoderData(this.encoderData);
+        if (!this.encoderData.crcOk) return;
+
+        this.rightPosition = this.encoderData.positions[OdometryConstants.OCTOQUAD_RIGHT_CHANNEL];
+        this.leftPosition = this.encoderData.positions[OdometryConstants.OCTOQUAD_LEFT_CHANNEL];
+        this.backPosition = this.encoderData.positions[OdometryConstants.OCTOQUAD_BACK_CHANNEL];
+    }
+
+    @Override
+    public int getRightPosition() {
+        return this.rightPosition;
+    }
+
+    @Override
+    public int getLeftPosition() {
+        return this.leftPosition;
+    }
+
+    @Override
+    public int getBackPosition() {
+        return this.backPosition;
+    }
+}
@@ -0,0 +1,123 @@
+package org.firstinspires.ftc.teamcode.managers.localization;
+
+import com.qualcomm.hardware.digitalchickenlabs.OctoQuad;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+import org.firstinspires.ftc.teamcode.RobotConstants.DriveConstants;
+import org.firstinspires.ftc.teamcode.RobotConstants.OdometryConstants;
+import org.firstinspires.ftc.teamcode.maps.SensorMap;
+
+/**
+ * A {@link Localizer} backed by the on-board absolute localizer of an OctoQuad MK2.
+ *
+ * <p>The OctoQuad fuses the forward (right) and back dead wheels with its own IMU,
+ * so every {@link #update()} is a single I2C read of the computed pose. Reads with a
+ * bad CRC, or made while the localizer is still calibrating, are dropped.
+ * The forward and side distances are integrated from the pose deltas in the robot frame.</p>
+ */
+public class OctoQuadLocalizer implements Localizer {
+    private final OctoQuad octoQuad;
+
+    /** Buffer filled by the localizer read. */
+    private final OctoQuad.LocalizerDataBlock localizerData = new OctoQuad.LocalizerDataBlock();
+
+    private double x;
+    private double y;
+    private double heading;
+    private double forwardDistance;
+    private double sideDistance;
+
+    /**
+     * Configures the OctoQuad localizer, resets it and starts the IMU calibration.
+     * The robot must be stationary until the localizer reports it is running.
+     *
+     * @param hardwareMap the hardware map from the OpMode
+     */
+    public OctoQuadLocalizer(HardwareMap hardwareMap) {
+        this(hardwareMap.get(OctoQuad.class, SensorMap.OCTOQUAD.getId()));
+    }
+
+    /**
+     * Configures the localizer of the given OctoQuad, resets it and starts the IMU calibration.
+     * The robot must be stationary until the localizer reports it is running.
+     *
+     * @param octoQuad the OctoQuad to read
+     */
+    public OctoQuadLocalizer(OctoQuad octoQuad) {
+        this.octoQuad = octoQuad;
+
+        float ticksPerMM = (float) (1 / (DriveConstants.METERS_PER_TICK * 1000));
+
+        this.octoQuad.setSingleEncoderDirection(OdometryConstants.OCTOQUAD_RIGHT_CHANNEL, OdometryConstants.OCTOQUAD_RIGHT_DIRECTION);
+        this.octoQuad.setSingleEncoderDirection(OdometryConstants.OCTOQUAD_BACK_CHANNEL, OdometryConstants.OCTOQUAD_BACK_DIRECTION);
+        this.octoQuad.setLocalizerPortX(OdometryConstants.OCTOQUAD_RIGHT_CHANNEL);
+        this.octoQuad.setLocalizerPortY(OdometryConstants.OCTOQUAD_BACK_CHANNEL);
+        this.octoQuad.setLocalizerCountsPerMM_X(ticksPerMM);
+        this.octoQuad.setLocalizerCountsPerMM_Y(ticksPerMM);
+        this.octoQuad.setLocalizerTcpOffsetMM_X(OdometryConstants.OCTOQUAD_TCP_OFFSET_X_MM);
+        this.octoQuad.setLocalizerTcpOffsetMM_Y(OdometryConstants.OCTOQUAD_TCP_OFFSET_Y_MM);
+        this.octoQuad.setLocalizerImuHeadingScalar(OdometryConstants.OCTOQUAD_IMU_SCALAR);
+        this.octoQuad.setI2cRecoveryMode(OctoQuad.I2cRecoveryMode.MODE_1_PERIPH_RST_ON_FRAME_ERR);
+
+        // applies the parameters above
+        this.octoQuad.resetLocalizerAndCalibrateIMU();
+    }
+
+    @Override
+    public void update() {
+        this.octoQuad.readLocalizerData(this.localizerData);
+        if (!this.localizerData.crcOk || this.localizerData.localizerStatus != OctoQuad.LocalizerStatus.RUNNING) return;
+
+        double newX = this.localizerData.posX_mm / 1000.0;
+        double newY = this.localizerData.posY_mm / 1000.0;
+
+        // project the field delta onto the robot axes
+        double headingRad = Math.toRadians(this.heading);
+        double deltaX = newX - this.x;
+        double deltaY = newY - this.y;
+        this.forwardDistance += deltaX * Math.cos(headingRad) + deltaY * Math.sin(headingRad);
+        this.sideDistance += -deltaX * Math.sin(headingRad) + deltaY * Math.cos(headingRad);
+
+        this.x = newX;
+        this.y = newY;
+        this.heading = Math.toDegrees(this.localizerData.heading_rad);
+    }
+
+    @Override
+    public double getX() {
+        return this.x;
+    }
+
+    @Override
+    public double getY() {
+        return this.y;
+    }
+
+    @Override
+    public double getHeading() {
+        return this.heading;
+    }
+
+    @Override
+    public double getForwardDistance() {
+        return this.forwardDistance;
+    }
+
+    @Override
+    public double getSideDistance() {
+        return this.sideDistance;
+    }
+
+    @Override
+    public void setPose(double x, double y, double heading) {
+        this.octoQuad.setLocalizerPose((int) Math.round(x * 1000), (int) Math.round(y * 1000), (float) Math.toRadians(heading));
+        this.x = x;
+        this.y = y;
+        this.heading = heading;
+    }
+
+    /** @return the status reported by the OctoQuad localizer */
+    public OctoQuad.LocalizerStatus getLocalizerStatus() {
+        return this.octoQuad.getLocalizerStatus();
+    }
+}
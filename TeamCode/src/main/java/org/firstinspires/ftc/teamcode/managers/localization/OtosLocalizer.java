@@ -0,0 +1,113 @@
+package org.firstinspires.ftc.teamcode.managers.localization;
+
+import com.qualcomm.hardware.sparkfun.SparkFunOTOS;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+import org.firstinspires.ftc.teamcode.RobotConstants.OdometryConstants;
+import org.firstinspires.ftc.teamcode.maps.SensorMap;
+
+/**
+ * A {@link Localizer} backed by a SparkFun Optical Tracking Odometry Sensor (OTOS).
+ *
+ * <p>The OTOS reports {@code x} to the right and {@code y} forward, so its pose is
+ * rotated into the robot's convention ({@code x} forward, {@code y} left).
+ * It has no encoders, so the forward and side distances are integrated from the
+ * pose deltas in the robot frame.</p>
+ */
+public class OtosLocalizer implements Localizer {
+    private final SparkFunOTOS otos;
+
+    /** Buffers filled by the single position/velocity/acceleration burst read. */
+    private final SparkFunOTOS.Pose2D position = new SparkFunOTOS.Pose2D();
+    private final SparkFunOTOS.Pose2D velocity = new SparkFunOTOS.Pose2D();
+    private final SparkFunOTOS.Pose2D acceleration = new SparkFunOTOS.Pose2D();
+
+    private double x;
+    private double y;
+    private double heading;
+    private double forwardDistance;
+    private double sideDistance;
+
+    /**
+     * Configures the OTOS, calibrates its IMU and resets tracking.
+     * The robot must be stationary while this runs.
+     *
+     * @param hardwareMap the hardware map from the OpMode
+     */
+    public OtosLocalizer(HardwareMap hardwareMap) {
+        this(hardwareMap.get(SparkFunOTOS.class, SensorMap.OTOS.getId()));
+    }
+
+    /**
+     * Configures the given OTOS, calibrates its IMU and resets tracking.
+     * The robot must be stationary while this runs.
+     *
+     * @param otos the OTOS to read
+     */
+    public OtosLocalizer(SparkFunOTOS otos) {
+        this.otos = otos;
+
+        this.otos.setLinearUnit(DistanceUnit.METER);
+        this.otos.setAngularUnit(AngleUnit.DEGREES);
+        this.otos.setOffset(new SparkFunOTOS.Pose2D(-OdometryConstants.OTOS_Y_OFFSET, OdometryConstants.OTOS_X_OFFSET, OdometryConstants.OTOS_HEADING_OFFSET));
+        this.otos.setLinearScalar(OdometryConstants.OTOS_LINEAR_SCALAR);
+        this.otos.setAngularScalar(OdometryConstants.OTOS_ANGULAR_SCALAR);
+
+        this.otos.calibrateImu();
+        this.otos.resetTracking();
+    }
+
+    @Override
+    public void update() {
+        this.otos.getPosVelAcc(this.position, this.velocity, this.acceleration);
+
+        double newX = this.position.y;
+        double newY = -this.position.x;
+
+        // project the field delta onto the robot axes
+        double headingRad = Math.toRadians(this.heading);
+        double deltaX = newX - this.x;
+        double deltaY = newY - this.y;
+        this.forwardDistance += deltaX * Math.cos(headingRad) + deltaY * Math.sin(headingRad);
+        this.sideDistance += -deltaX * Math.sin(headingRad) + deltaY * Math.cos(headingRad);
+
+        this.x = newX;
+        this.y = newY;
+        this.heading = this.position.h;
+    }
+
+    @Override
+    public double getX() {
+        return this.x;
+    }
+
+    @Override
+    public double getY() {
+        return this.y;
+    }
+
+    @Override
+    public double getHeading() {
+        return this.heading;
+    }
+
+    @Override
+    public double getForwardDistance() {
+        return this.forwardDistance;
+    }
+
+    @Override
+    public double getSideDistance() {
+        return this.sideDistance;
+    }
+
+    @Override
+    public void setPose(double x, double y, double heading) {
+        this.otos.setPosition(new SparkFunOTOS.Pose2D(-y, x, heading));
+        this.x = x;
+        this.y = y;
+        this.heading = heading;
+    }
+}
@@ -0,0 +1,98 @@
+package org.firstinspires.ftc.teamcode.managers.localization;
+
+import com.qualcomm.hardware.gobilda.GoBildaPinpointDriver;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.Pose2D;
+import org.firstinspires.ftc.teamcode.RobotConstants.OdometryConstants;
+import org.firstinspires.ftc.teamcode.maps.SensorMap;
+
+/**
+ * A {@link Localizer} backed by a goBILDA Pinpoint odometry computer.
+ *
+ * <p>The Pinpoint fuses its two pods with its own IMU, so every {@link #update()}
+ * is a single bulk I2C read of the computed pose.</p>
+ */
+public class PinpointLocalizer implements Localizer {
+    private final GoBildaPinpointDriver pinpoint;
+
+    private double x;
+    private double y;
+    private double heading;
+    private double forwardDistance;
+    private double sideDistance;
+
+    /**
+     * Configures the Pinpoint and resets its position and IMU.
+     *
+     * @param hardwareMap the hardware map from the OpMode
+     */
+    public PinpointLocalizer(HardwareMap hardwareMap) {
+        this(hardwareMap.get(GoBildaPinpointDriver.class, SensorMap.PINPOINT.getId()));
+    }
+
+    /**
+     * Configures the given Pinpoint and resets its position and IMU.
+     *
+     * @param pinpoint the Pinpoint to read
+     */
+    public PinpointLocalizer(GoBildaPinpointDriver pinpoint) {
+        this.pinpoint = pinpoint;
+
+        this.pinpoint.setOffsets(OdometryConstants.PINPOINT_X_OFFSET, OdometryConstants.PINPOINT_Y_OFFSET, DistanceUnit.METER);
+        this.pinpoint.setEncoderResolution(OdometryConstants.PINPOINT_TICKS_PER_MM, DistanceUnit.MM);
+        this.pinpoint.setEncoderDirections(OdometryConstants.PINPOINT_X_DIRECTION, OdometryConstants.PINPOINT_Y_DIRECTION);
+        this.pinpoint.resetPosAndIMU();
+    }
+
+    @Override
+    public void update() {
+        this.pinpoint.update();
+
+        this.x = this.pinpoint.getPosX(DistanceUnit.METER);
+        this.y = this.pinpoint.getPosY(DistanceUnit.METER);
+        this.heading = this.pinpoint.getHeading(AngleUnit.DEGREES);
+        this.forwardDistance = this.pinpoint.getEncoderX() / (OdometryConstants.PINPOINT_TICKS_PER_MM * 1000);
+        this.sideDistance = this.pinpoint.getEncoderY() / (OdometryConstants.PINPOINT_TICKS_PER_MM * 1000);
+    }
+
+    @Override
+    public double getX() {
+        return this.x;
+    }
+
+    @Override
+    public double getY() {
+        return this.y;
+    }
+
+    @Override
+    public double getHeading() {
+        return this.heading;
+    }
+
+    @Override
+    public double getForwardDistance() {
+        return this.forwardDistance;
+    }
+
+    @Override
+    public double getSideDistance() {
+        return this.sideDistance;
+    }
+
+    @Override
+    public void setPose(double x, double y, double heading) {
+        this.pinpoint.setPosition(new Pose2D(DistanceUnit.METER, x, y, AngleUnit.DEGREES, heading));
+        this.x = x;
+        this.y = y;
+        this.heading = heading;
+    }
+
+    /** @return the status reported by the Pinpoint */
+    public GoBildaPinpointDriver.DeviceStatus getDeviceStatus() {
+        return this.pinpoint.getDeviceStatus();
+    }
+}
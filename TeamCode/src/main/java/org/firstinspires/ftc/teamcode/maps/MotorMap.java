@@ -10,10 +10,12 @@ package org.firstinspires.ftc.teamcode.maps;
  * </pre>
  **/
 public enum MotorMap {
-    LEG_FRONT_RIGHT("leg_front_right", 0, 312),
-    LEG_FRONT_LEFT("leg_front_left", 0, 312),
-    LEG_BACK_LEFT("leg_back_left", 0, 312),
-    LEG_BACK_RIGHT("leg_back_right", 0, 312);
+    // with LocalizerType.DEAD_WHEELS the encoder ports of LEG_FRONT_RIGHT, LEG_FRONT_LEFT and LEG_BACK_LEFT
+    // read the dead wheels (SensorMap), ticksPerRev is always the motor's own encoder
+    LEG_FRONT_RIGHT("leg_front_right", 537.7, 312),
+    LEG_FRONT_LEFT("leg_front_left", 537.7, 312),
+    LEG_BACK_LEFT("leg_back_left", 537.7, 312),
+    LEG_BACK_RIGHT("leg_back_right", 537.7, 312);
 
 
     private final String id;
@@ -34,6 +36,7 @@ public enum MotorMap {
         return maxRPM;
     }
 
+    /** @return the ticks per revolution of the motor's own encoder */
     public double getTicksPerRev() {
         return ticksPerRev;
     }
@@ -12,7 +12,12 @@ public enum SensorMap {
     // the ids of the dead wheels are from the motors
     DEAD_WHEEL_RIGHT(MotorMap.LEG_FRONT_RIGHT.getId()),
     DEAD_WHEEL_LEFT(MotorMap.LEG_FRONT_LEFT.getId()),
-    DEAD_WHEEL_BACK(MotorMap.LEG_BACK_LEFT.getId());
+    DEAD_WHEEL_BACK(MotorMap.LEG_BACK_LEFT.getId()),
+
+    IMU("imu"),
+    PINPOINT("pinpoint"),
+    OTOS("sensor_otos"),
+    OCTOQUAD("octoquad");
 
 
     private final String id;
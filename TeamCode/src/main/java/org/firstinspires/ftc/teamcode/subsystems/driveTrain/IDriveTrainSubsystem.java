@@ -8,4 +8,5 @@ public interface IDriveTrainSubsystem extends LoggerSubsystem, Subsystem {
     void moveSideMotors(double left, double right);
     double getForwardDistanceDriven();
     double getHeading();
+    double getPredictedHeading();
 }
@@ -12,6 +12,7 @@ import org.firstinspires.ftc.teamcode.maps.MotorMap;
 import org.firstinspires.ftc.teamcode.util.DataLogger;
 import org.firstinspires.ftc.teamcode.util.drivetrain.MecanumChassisUtils;
 import org.firstinspires.ftc.teamcode.util.drivetrain.MecanumWheelSet;
+import org.firstinspires.ftc.teamcode.util.drivetrain.WheelVelocityController;
 
 public class MecanumDriveSubsystem extends SubsystemBase implements IDriveTrainSubsystem {
     private final JoinedTelemetry telemetry;
@@ -20,6 +21,9 @@ public class MecanumDriveSubsystem extends SubsystemBase implements IDriveTrainS
 
     private DriveConstants.DriveSpeed driveSpeedModifier = DriveConstants.DriveSpeed.NORMAL;
 
+    /** Reused by {@link #driveRobotCentric(double, double, double)} so driving does not allocate. */
+    private final MecanumChassisUtils.MecanumWheelSpeeds wheelSpeeds = new MecanumChassisUtils.MecanumWheelSpeeds();
+
     public MecanumDriveSubsystem(HardwareMap hardwareMap, JoinedTelemetry telemetry, DataLogger dataLogger) {
         this.telemetry = telemetry;
         this.dataLogger = dataLogger;
@@ -35,11 +39,59 @@ public class MecanumDriveSubsystem extends SubsystemBase implements IDriveTrainS
         this.wheelSet.setInverted(MecanumWheelSet.MecanumWheel.BACK_RIGHT, true);
 
         this.wheelSet.setZeroPowerBehavior(Motor.ZeroPowerBehavior.BRAKE);
+
+        this.getDataLogger().addData(DataLogger.DataType.INFO, this.getClass().getSimpleName() + ": Wheel control mode " + DriveConstants.WHEEL_CONTROL_MODE);
+        this.wheelSet.enableVelocityControl(
+                MotorMap.LEG_FRONT_LEFT, MotorMap.LEG_FRONT_RIGHT,
+                MotorMap.LEG_BACK_LEFT, MotorMap.LEG_BACK_RIGHT,
+                RobotPositionManager.getInstance().getLocalizer()
+        );
+        this.wheelSet.setControlMode(DriveConstants.WHEEL_CONTROL_MODE);
     }
 
     @Override
     public void periodic() {
         this.getTelemetry().addData("Robot Angle", this.getHeading());
+
+        if (this.wheelSet.getControlMode() == MecanumWheelSet.ControlMode.VELOCITY) {
+            for (MecanumWheelSet.MecanumWheel wheel : MecanumWheelSet.MecanumWheel.values()) {
+                WheelVelocityController controller = this.wheelSet.getVelocityController(wheel);
+                this.getTelemetry().addData(wheel.name() + " Velocity (target / measured)",
+                        controller.getTargetVelocity() + " / " + controller.getMeasuredVelocity());
+            }
+        }
+    }
+
+    /**
+     * Sets how powers are applied to the wheels.
+     *
+     * @param controlMode the control mode
+     */
+    public void setControlMode(MecanumWheelSet.ControlMode controlMode) {
+        this.wheelSet.setControlMode(controlMode);
+    }
+
+    /** @return how powers are applied to the wheels */
+    public MecanumWheelSet.ControlMode getControlMode() {
+        return this.wheelSet.getControlMode();
+    }
+
+    /**
+     * @param wheel the wheel to check
+     * @return whether the wheel's motor encoder can be read, {@code false} if the localizer reads a
+     * dead wheel from its port
+     */
+    public boolean hasWheelEncoder(MecanumWheelSet.MecanumWheel wheel) {
+        return this.wheelSet.hasVelocityControl(wheel);
+    }
+
+    /**
+     * @param wheel the wheel to read
+     * @return the wheel's encoder velocity, as a fraction of the free speed
+     * @throws RuntimeException if the wheel has no motor encoder, see {@link #hasWheelEncoder(MecanumWheelSet.MecanumWheel)}
+     */
+    public double getWheelVelocity(MecanumWheelSet.MecanumWheel wheel) {
+        return this.wheelSet.getVelocity(wheel);
     }
 
     public void moveMotor(MecanumWheelSet.MecanumWheel wheel, double power) {
@@ -59,6 +111,19 @@ public class MecanumDriveSubsystem extends SubsystemBase implements IDriveTrainS
         this.wheelSet.setPower(mecanumWheelSpeeds);
     }
 
+    /**
+     * Drives with robot-centric powers.
+     *
+     * @param forward power along the robot's forward axis
+     * @param left    power along the robot's left axis
+     * @param turn    rotation power, counter-clockwise positive
+     */
+    public void driveRobotCentric(double forward, double left, double turn) {
+        // the wheel powers are inverted, negative vSpeed drives forward
+        MecanumChassisUtils.chassisSpeedToWheelSpeeds(left, -forward, turn, this.wheelSpeeds);
+        this.moveMotors(this.wheelSpeeds);
+    }
+
     public DriveConstants.DriveSpeed getDriveSpeedModifier() {
         return driveSpeedModifier;
     }
@@ -69,11 +134,11 @@ public class MecanumDriveSubsystem extends SubsystemBase implements IDriveTrainS
 
     @Override
     public double getForwardDistanceDriven() {
-        return RobotPositionManager.getInstance().getRightWheelDistanceDriven();
+        return RobotPositionManager.getInstance().getForwardDistanceDriven();
     }
 
     public double getSideDistanceDriven() {
-        return RobotPositionManager.getInstance().getBackWheelDistanceDriven();
+        return RobotPositionManager.getInstance().getSideDistanceDriven();
     }
 
     @Override
@@ -81,6 +146,26 @@ public class MecanumDriveSubsystem extends SubsystemBase implements IDriveTrainS
         return RobotPositionManager.getInstance().getRelativeHeading();
     }
 
+    @Override
+    public double getPredictedHeading() {
+        return RobotPositionManager.getInstance().getPredictedRelativeHeading();
+    }
+
+    /** @return the field x position extrapolated by the actuation delay, in meters */
+    public double getPredictedX() {
+        return RobotPositionManager.getInstance().getPosePredictor().getPredictedX();
+    }
+
+    /** @return the field y position extrapolated by the actuation delay, in meters */
+    public double getPredictedY() {
+        return RobotPositionManager.getInstance().getPosePredictor().getPredictedY();
+    }
+
+    /** @return the field heading extrapolated by the actuation delay, in degrees */
+    public double getPredictedFieldHeading() {
+        return RobotPositionManager.getInstance().getPredictedHeadingByGyro();
+    }
+
     @Override
     public DataLogger getDataLogger() {
         return this.dataLogger;
@@ -40,7 +40,7 @@ public class TankDriveSubsystem extends SubsystemBase implements IDriveTrainSubs
 
     @Override
     public double getForwardDistanceDriven() {
-        return RobotPositionManager.getInstance().getRightWheelDistanceDriven();
+        return RobotPositionManager.getInstance().getForwardDistanceDriven();
     }
 
     @Override
@@ -48,6 +48,11 @@ public class TankDriveSubsystem extends SubsystemBase implements IDriveTrainSubs
         return RobotPositionManager.getInstance().getHeadingByGyro();
     }
 
+    @Override
+    public double getPredictedHeading() {
+        return RobotPositionManager.getInstance().getPredictedHeadingByGyro();
+    }
+
     @Override
     public JoinedTelemetry getTelemetry() {
         return this.telemetry;
@@ -3,12 +3,21 @@ package org.firstinspires.ftc.teamcode.subsystems.driveTrain.commands;
 import com.bylazar.configurables.annotations.Configurable;
 import com.bylazar.telemetry.JoinedTelemetry;
 import com.seattlesolvers.solverslib.command.CommandBase;
-import com.seattlesolvers.solverslib.controller.PIDFController;
 
 import org.firstinspires.ftc.teamcode.RobotConstants;
 import org.firstinspires.ftc.teamcode.subsystems.driveTrain.IDriveTrainSubsystem;
+import org.firstinspires.ftc.teamcode.util.ClockedPIDFController;
 import org.firstinspires.ftc.teamcode.util.DataLogger;
-
+import org.firstinspires.ftc.teamcode.util.RobotClock;
+import org.firstinspires.ftc.teamcode.util.motionprofile.MotionProfile;
+
+/**
+ * Drives forward a distance along a jerk-limited {@link MotionProfile}.
+ *
+ * <p>The profile is computed once in {@link #initialize()}. Every loop the profile's
+ * position is the PIDF set point, and its velocity and acceleration are fed forward
+ * through {@link #kV} and {@link #kA}. Set {@link #MAX_JERK} to {@code 0} for a trapezoidal profile.</p>
+ */
 @Configurable
 public class DriveDistanceDriveCommand extends CommandBase {
     public static double Kp = 2;
@@ -17,9 +26,24 @@ public class DriveDistanceDriveCommand extends CommandBase {
     public static double Kf = 0.25;
     public static double MAX_POWER = 0.75;
 
-    private final PIDFController pController;
+    /** Profile velocity limit in m/s. */
+    public static double MAX_VELOCITY = 1;
+    /** Profile acceleration limit in m/s². */
+    public static double MAX_ACCELERATION = 2;
+    /** Profile jerk limit in m/s³, {@code 0} for a trapezoidal profile. */
+    public static double MAX_JERK = 10;
+
+    /** Velocity feedforward in power per m/s. */
+    public static double kV = 0.5;
+    /** Acceleration feedforward in power per m/s². */
+    public static double kA = 0;
+
+    private final ClockedPIDFController pController;
     private final double finalPos;
 
+    private MotionProfile profile;
+    private long startNanos;
+
     private double STARTING_POS;
 
     private final IDriveTrainSubsystem subsystem;
@@ -30,7 +54,7 @@ public class DriveDistanceDriveCommand extends CommandBase {
 
         this.finalPos = meters;
 
-        this.pController = new PIDFController(Kp, Ki, Kd, Kf);
+        this.pController = new ClockedPIDFController(Kp, Ki, Kd, Kf);
         this.pController.setTolerance(0.02);
     }
 
@@ -39,8 +63,14 @@ public class DriveDistanceDriveCommand extends CommandBase {
         super.initialize();
         this.subsystem.getDataLogger().addData(DataLogger.DataType.INFO, "DriveDistanceCommand: " + "Moving " + this.finalPos + " meters");
         this.STARTING_POS = this.subsystem.getForwardDistanceDriven();
+        this.pController.setPIDF(Kp, Ki, Kd, Kf); // pick up gains changed since construction
         this.pController.reset();
-        this.pController.setSetPoint(this.finalPos);
+        this.pController.setSetPoint(0);
+
+        this.profile = MAX_JERK > 0
+                ? MotionProfile.sCurve(this.finalPos, MAX_VELOCITY, MAX_ACCELERATION, MAX_JERK)
+                : MotionProfile.trapezoidal(this.finalPos, MAX_VELOCITY, MAX_ACCELERATION);
+        this.startNanos = RobotClock.nanoTime();
     }
 
     @Override
@@ -48,8 +78,12 @@ public class DriveDistanceDriveCommand extends CommandBase {
         super.execute();
 
         double driveDistance = (this.subsystem.getForwardDistanceDriven() - this.STARTING_POS);
+        double t = this.getElapsedSeconds();
+
+        this.pController.setSetPoint(this.profile.getPosition(t));
+        double feedforward = kV * this.profile.getVelocity(t) + kA * this.profile.getAcceleration(t);
 
-        double rawPower = this.pController.calculate(driveDistance);
+        double rawPower = feedforward + this.pController.calculate(driveDistance);
         rawPower += Math.signum(rawPower) * RobotConstants.DriveConstants.Ks;
 
         double power = Math.min(Math.max(rawPower, -MAX_POWER), MAX_POWER);
@@ -58,6 +92,7 @@ public class DriveDistanceDriveCommand extends CommandBase {
         telemetry.addData("----", this.getClass().getSimpleName() + " :----");
         telemetry.addData("Current Motor Power", power);
         telemetry.addData("Distance Driven", driveDistance);
+        telemetry.addData("Profile Position", this.pController.getSetPoint());
         telemetry.addData("rel motor encoder", this.subsystem.getForwardDistanceDriven() - this.STARTING_POS);
         telemetry.addData("motor encoder", this.subsystem.getForwardDistanceDriven());
         telemetry.update();
@@ -73,6 +108,11 @@ public class DriveDistanceDriveCommand extends CommandBase {
 
     @Override
     public boolean isFinished() {
-        return this.pController.atSetPoint();
+        return this.profile.isFinished(this.getElapsedSeconds()) && this.pController.atSetPoint();
+    }
+
+    /** @return seconds since the profile started */
+    private double getElapsedSeconds() {
+        return (RobotClock.nanoTime() - this.startNanos) / 1e9;
     }
 }
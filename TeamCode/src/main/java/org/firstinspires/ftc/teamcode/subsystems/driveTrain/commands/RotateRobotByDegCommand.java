@@ -3,21 +3,45 @@ package org.firstinspires.ftc.teamcode.subsystems.driveTrain.commands;
 import com.bylazar.configurables.annotations.Configurable;
 import com.bylazar.telemetry.JoinedTelemetry;
 import com.seattlesolvers.solverslib.command.CommandBase;
-import com.seattlesolvers.solverslib.controller.PIDController;
 
 import org.firstinspires.ftc.teamcode.subsystems.driveTrain.IDriveTrainSubsystem;
+import org.firstinspires.ftc.teamcode.util.ClockedPIDFController;
 import org.firstinspires.ftc.teamcode.util.DataLogger;
-
+import org.firstinspires.ftc.teamcode.util.RobotClock;
+import org.firstinspires.ftc.teamcode.util.motionprofile.MotionProfile;
+
+/**
+ * Rotates the robot in place by an angle along a jerk-limited {@link MotionProfile}.
+ *
+ * <p>The profile is computed once in {@link #initialize()}. Every loop the profile's
+ * heading is the PID set point, and its angular velocity and acceleration are fed forward
+ * through {@link #kV} and {@link #kA}. Set {@link #MAX_JERK} to {@code 0} for a trapezoidal profile.</p>
+ */
 @Configurable
 public class RotateRobotByDegCommand extends CommandBase {
     public static double Kp = 0.09;
+    public static double Ki = 0;
     public static double Kd = 0.005;
     public static double MAX_POWER = 0.8;
 
-    private PIDController pController;
+    /** Profile angular velocity limit in deg/s. */
+    public static double MAX_VELOCITY = 270;
+    /** Profile angular acceleration limit in deg/s². */
+    public static double MAX_ACCELERATION = 540;
+    /** Profile angular jerk limit in deg/s³, {@code 0} for a trapezoidal profile. */
+    public static double MAX_JERK = 2700;
+
+    /** Angular velocity feedforward in power per deg/s. */
+    public static double kV = 0.002;
+    /** Angular acceleration feedforward in power per deg/s². */
+    public static double kA = 0;
+
+    private ClockedPIDFController pController;
     private final double degToRotate;
 
-    private int timesDone = 0;
+    private MotionProfile profile;
+    private long startNanos;
+
     private double STARTING_ANGLE;
 
     private final IDriveTrainSubsystem subsystem;
@@ -32,19 +56,28 @@ public class RotateRobotByDegCommand extends CommandBase {
     @Override
     public void initialize() {
         super.initialize();
-        this.pController = new PIDController(Kp, 0, Kd);
+        this.pController = new ClockedPIDFController(Kp, Ki, Kd);
         this.pController.setTolerance(2);
         this.STARTING_ANGLE = this.subsystem.getHeading();
-        this.pController.setSetPoint(Math.IEEEremainder(degToRotate + STARTING_ANGLE, 360));
+        this.pController.setSetPoint(STARTING_ANGLE);
+
+        this.profile = MAX_JERK > 0
+                ? MotionProfile.sCurve(this.degToRotate, MAX_VELOCITY, MAX_ACCELERATION, MAX_JERK)
+                : MotionProfile.trapezoidal(this.degToRotate, MAX_VELOCITY, MAX_ACCELERATION);
+        this.startNanos = RobotClock.nanoTime();
         this.subsystem.getDataLogger().addData(DataLogger.DataType.INFO, "RotateRobotCommand: " + "Rotating " + this.degToRotate + "deg");
     }
 
     @Override
     public void execute() {
-        double headingDist = this.subsystem.getHeading();
+        double t = this.getElapsedSeconds();
+        this.pController.setSetPoint(Math.IEEEremainder(this.profile.getPosition(t) + STARTING_ANGLE, 360));
+        double feedforward = kV * this.profile.getVelocity(t) + kA * this.profile.getAcceleration(t);
+
+        double headingDist = this.subsystem.getPredictedHeading();
         double distLeft = Math.IEEEremainder(this.pController.getSetPoint() - headingDist, 360);
 
-        double rawPower = this.pController.calculate(this.pController.getSetPoint() - distLeft);
+        double rawPower = feedforward + this.pController.calculate(this.pController.getSetPoint() - distLeft);
 
         double power = Math.min(Math.max(rawPower, -MAX_POWER), MAX_POWER);
 
@@ -68,11 +101,11 @@ public class RotateRobotByDegCommand extends CommandBase {
 
     @Override
     public boolean isFinished() {
-        if (this.pController.atSetPoint()) {
-            this.timesDone++;
-        } else {
-            this.timesDone = 0;
-        }
-        return this.timesDone > 1;
+        return this.profile.isFinished(this.getElapsedSeconds()) && this.pController.atSetPoint();
+    }
+
+    /** @return seconds since the profile started */
+    private double getElapsedSeconds() {
+        return (RobotClock.nanoTime() - this.startNanos) / 1e9;
     }
 }
\ No newline at end of file
@@ -0,0 +1,182 @@
+package org.firstinspires.ftc.teamcode.subsystems.driveTrain.commands.mecanumDrive;
+
+import com.bylazar.configurables.annotations.Configurable;
+import com.bylazar.telemetry.JoinedTelemetry;
+import com.seattlesolvers.solverslib.command.CommandBase;
+
+import org.firstinspires.ftc.teamcode.subsystems.driveTrain.MecanumDriveSubsystem;
+import org.firstinspires.ftc.teamcode.util.ClockedPIDFController;
+import org.firstinspires.ftc.teamcode.util.DataLogger;
+import org.firstinspires.ftc.teamcode.util.MathUtil;
+import org.firstinspires.ftc.teamcode.util.RobotClock;
+import org.firstinspires.ftc.teamcode.util.motionprofile.MotionProfile;
+
+/**
+ * Drives the robot to a field pose (x, y, heading) on a straight line.
+ *
+ * <p>The x, y and heading errors are corrected by three separate controllers in the
+ * field frame, so cross-track error is corrected too. The translation follows a
+ * {@link MotionProfile} along the line from the start to the target: the profile's position is
+ * the set point of the x and y controllers and its velocity is fed forward through {@link #kV}.
+ * {@link #kS} and {@link #HEADING_kS} are added in the direction of the translation and the turn.</p>
+ *
+ * <p>The translation power is limited as a vector (keeping its direction) to {@link #MAX_POWER},
+ * and the four wheel powers are desaturated together, so adding the heading correction scales the
+ * motion down instead of bending it.</p>
+ */
+@Configurable
+public class DriveToPoseCommand extends CommandBase {
+    public static double TRANSLATION_Kp = 3;
+    public static double TRANSLATION_Ki = 0;
+    public static double TRANSLATION_Kd = 0.2;
+
+    public static double HEADING_Kp = 0.02;
+    public static double HEADING_Ki = 0;
+    public static double HEADING_Kd = 0.001;
+
+    /** Static friction feedforward in power. */
+    public static double kS = 0;
+    /** Velocity feedforward in power per m/s. */
+    public static double kV = 0.5;
+    /** Static friction feedforward of turning in power. */
+    public static double HEADING_kS = 0;
+
+    /** Profile velocity limit in m/s. */
+    public static double MAX_VELOCITY = 1;
+    /** Profile acceleration limit in m/s². */
+    public static double MAX_ACCELERATION = 1.5;
+    /** Profile jerk limit in m/s³, {@code 0} for a trapezoidal profile. */
+    public static double MAX_JERK = 10;
+
+    public static double MAX_POWER = 0.8;
+
+    public static double POSITION_TOLERANCE = 0.015;
+    public static double HEADING_TOLERANCE = 1.5;
+
+    private final MecanumDriveSubsystem subsystem;
+    private final double targetX;
+    private final double targetY;
+    private final double targetHeading;
+
+    private ClockedPIDFController xController;
+    private ClockedPIDFController yController;
+    private ClockedPIDFController headingController;
+
+    private MotionProfile profile;
+    private long startNanos;
+
+    private double startX;
+    private double startY;
+    private double directionX;
+    private double directionY;
+
+    private double positionError;
+    private double headingError;
+
+    /**
+     * @param subsystem the drive subsystem
+     * @param x         target field x in meters
+     * @param y         target field y in meters
+     * @param heading   target field heading in degrees
+     */
+    public DriveToPoseCommand(MecanumDriveSubsystem subsystem, double x, double y, double heading) {
+        this.subsystem = subsystem;
+        this.targetX = x;
+        this.targetY = y;
+        this.targetHeading = heading;
+
+        addRequirements(subsystem);
+    }
+
+    @Override
+    public void initialize() {
+        super.initialize();
+        this.subsystem.getDataLogger().addData(DataLogger.DataType.INFO, "DriveToPoseCommand: " + "Driving to "
+                + this.targetX + ", " + this.targetY + ", " + this.targetHeading);
+
+        this.xController = new ClockedPIDFController(TRANSLATION_Kp, TRANSLATION_Ki, TRANSLATION_Kd, 0);
+        this.yController = new ClockedPIDFController(TRANSLATION_Kp, TRANSLATION_Ki, TRANSLATION_Kd, 0);
+        this.headingController = new ClockedPIDFController(HEADING_Kp, HEADING_Ki, HEADING_Kd, 0);
+
+        this.startX = this.subsystem.getPredictedX();
+        this.startY = this.subsystem.getPredictedY();
+
+        double distance = Math.hypot(this.targetX - this.startX, this.targetY - this.startY);
+        this.directionX = distance > 0 ? (this.targetX - this.startX) / distance : 0;
+        this.directionY = distance > 0 ? (this.targetY - this.startY) / distance : 0;
+
+        this.profile = MAX_JERK > 0
+                ? MotionProfile.sCurve(distance, MAX_VELOCITY, MAX_ACCELERATION, MAX_JERK)
+                : MotionProfile.trapezoidal(distance, MAX_VELOCITY, MAX_ACCELERATION);
+        this.startNanos = RobotClock.nanoTime();
+    }
+
+    @Override
+    public void execute() {
+        double t = this.getElapsedSeconds();
+        double profilePosition = this.profile.getPosition(t);
+        double profileVelocity = this.profile.getVelocity(t);
+
+        double x = this.subsystem.getPredictedX();
+        double y = this.subsystem.getPredictedY();
+        double heading = this.subsystem.getPredictedFieldHeading();
+
+        this.positionError = Math.hypot(this.targetX - x, this.targetY - y);
+        this.headingError = Math.IEEEremainder(this.targetHeading - heading, 360);
+
+        // field frame controllers
+        this.xController.setSetPoint(this.startX + this.directionX * profilePosition);
+        this.yController.setSetPoint(this.startY + this.directionY * profilePosition);
+        this.headingController.setSetPoint(this.targetHeading);
+
+        double powerX = kV * profileVelocity * this.directionX + this.xController.calculate(x);
+        double powerY = kV * profileVelocity * this.directionY + this.yController.calculate(y);
+        double turn = this.headingController.calculate(this.targetHeading - this.headingError);
+        turn += Math.signum(turn) * HEADING_kS;
+
+        // limit the translation as a vector to keep its direction
+        double translation = Math.hypot(powerX, powerY);
+        if (translation > MAX_POWER) {
+            powerX *= MAX_POWER / translation;
+            powerY *= MAX_POWER / translation;
+        } else if (translation > 0) {
+            double withStaticFriction = translation + kS;
+            powerX *= withStaticFriction / translation;
+            powerY *= withStaticFriction / translation;
+        }
+        turn = MathUtil.clamp(turn, -MAX_POWER, MAX_POWER);
+
+        // rotate the field frame into the robot frame
+        double headingRad = Math.toRadians(heading);
+        double cos = Math.cos(headingRad);
+        double sin = Math.sin(headingRad);
+
+        double forward = powerX * cos + powerY * sin;
+        double left = -powerX * sin + powerY * cos;
+
+        JoinedTelemetry telemetry = this.subsystem.getTelemetry();
+        telemetry.addData("----", this.getClass().getSimpleName() + " :----");
+        telemetry.addData("Position Error", this.positionError);
+        telemetry.addData("Heading Error", this.headingError);
+
+        this.subsystem.driveRobotCentric(forward, left, turn);
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        this.subsystem.setAllChassisPower(0);
+        super.end(interrupted);
+    }
+
+    @Override
+    public boolean isFinished() {
+        return this.profile.isFinished(this.getElapsedSeconds())
+                && this.positionError <= POSITION_TOLERANCE
+                && Math.abs(this.headingError) <= HEADING_TOLERANCE;
+    }
+
+    /** @return seconds since the profile started */
+    private double getElapsedSeconds() {
+        return (RobotClock.nanoTime() - this.startNanos) / 1e9;
+    }
+}
@@ -0,0 +1,134 @@
+package org.firstinspires.ftc.teamcode.subsystems.driveTrain.commands.mecanumDrive;
+
+import com.bylazar.configurables.annotations.Configurable;
+import com.bylazar.telemetry.JoinedTelemetry;
+import com.seattlesolvers.solverslib.command.CommandBase;
+
+import org.firstinspires.ftc.teamcode.subsystems.driveTrain.MecanumDriveSubsystem;
+import org.firstinspires.ftc.teamcode.util.DataLogger;
+import org.firstinspires.ftc.teamcode.util.RobotClock;
+import org.firstinspires.ftc.teamcode.util.trajectory.Trajectory;
+
+/**
+ * Follows a {@link Trajectory} with a holonomic controller.
+ *
+ * <p>Every loop the trajectory is sampled at the elapsed time. The target field velocity
+ * (corrected by {@link #kP} times the position error) and acceleration are rotated into the
+ * robot frame and fed forward through {@link #kS}, {@link #kV} and {@link #kA}, {@link #kS} in the
+ * direction of the velocity. The heading is tracked the same way with {@link #HEADING_kP},
+ * {@link #HEADING_kS} and {@link #HEADING_kV}.</p>
+ *
+ * <p>The command ends once the trajectory ended and the robot is within tolerance,
+ * or {@link #END_TIMEOUT} seconds later.</p>
+ */
+@Configurable
+public class FollowTrajectoryCommand extends CommandBase {
+    /** Static friction feedforward in power. */
+    public static double kS = 0;
+    /** Velocity feedforward in power per m/s. */
+    public static double kV = 0.5;
+    /** Acceleration feedforward in power per m/s². */
+    public static double kA = 0;
+    /** Position correction in m/s per meter of error. */
+    public static double kP = 3;
+
+    /** Static friction feedforward of turning in power. */
+    public static double HEADING_kS = 0;
+    /** Angular velocity feedforward in power per deg/s. */
+    public static double HEADING_kV = 0.002;
+    /** Heading correction in deg/s per degree of error. */
+    public static double HEADING_kP = 3;
+
+    public static double POSITION_TOLERANCE = 0.02;
+    public static double HEADING_TOLERANCE = 2;
+
+    /** Seconds to keep correcting after the trajectory ended. */
+    public static double END_TIMEOUT = 1;
+
+    private final MecanumDriveSubsystem subsystem;
+    private final Trajectory trajectory;
+    private final Trajectory.State target = new Trajectory.State();
+
+    private long startNanos;
+    private double positionError;
+    private double headingError;
+
+    public FollowTrajectoryCommand(MecanumDriveSubsystem subsystem, Trajectory trajectory) {
+        this.subsystem = subsystem;
+        this.trajectory = trajectory;
+
+        addRequirements(subsystem);
+    }
+
+    @Override
+    public void initialize() {
+        super.initialize();
+        this.subsystem.getDataLogger().addData(DataLogger.DataType.INFO, "FollowTrajectoryCommand: " + "Following a " + this.trajectory.getDuration() + "s trajectory");
+        this.startNanos = RobotClock.nanoTime();
+    }
+
+    @Override
+    public void execute() {
+        this.trajectory.sample(this.getElapsedSeconds(), this.target);
+
+        double x = this.subsystem.getPredictedX();
+        double y = this.subsystem.getPredictedY();
+        double heading = this.subsystem.getPredictedFieldHeading();
+
+        double errorX = this.target.getX() - x;
+        double errorY = this.target.getY() - y;
+        this.positionError = Math.hypot(errorX, errorY);
+        this.headingError = Math.IEEEremainder(this.target.getHeading() - heading, 360);
+
+        double velocityX = this.target.getVelocityX() + kP * errorX;
+        double velocityY = this.target.getVelocityY() + kP * errorY;
+        double headingVelocity = this.target.getHeadingVelocity() + HEADING_kP * this.headingError;
+
+        // rotate the field frame into the robot frame
+        double headingRad = Math.toRadians(heading);
+        double cos = Math.cos(headingRad);
+        double sin = Math.sin(headingRad);
+
+        double forwardVelocity = velocityX * cos + velocityY * sin;
+        double leftVelocity = -velocityX * sin + velocityY * cos;
+        double speed = Math.hypot(forwardVelocity, leftVelocity);
+
+        double forward = kV * forwardVelocity
+                + kA * (this.target.getAccelerationX() * cos + this.target.getAccelerationY() * sin);
+        double left = kV * leftVelocity
+                + kA * (-this.target.getAccelerationX() * sin + this.target.getAccelerationY() * cos);
+        if (speed > 0) {
+            forward += kS * forwardVelocity / speed;
+            left += kS * leftVelocity / speed;
+        }
+        double turn = HEADING_kS * Math.signum(headingVelocity) + HEADING_kV * headingVelocity;
+
+        JoinedTelemetry telemetry = this.subsystem.getTelemetry();
+        telemetry.addData("----", this.getClass().getSimpleName() + " :----");
+        telemetry.addData("Target Pose", this.target.getX() + ", " + this.target.getY() + ", " + this.target.getHeading());
+        telemetry.addData("Position Error", this.positionError);
+        telemetry.addData("Heading Error", this.headingError);
+
+        this.subsystem.driveRobotCentric(forward, left, turn);
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        this.subsystem.setAllChassisPower(0);
+        super.end(interrupted);
+    }
+
+    @Override
+    public boolean isFinished() {
+        double overtime = this.getElapsedSeconds() - this.trajectory.getDuration();
+        if (overtime < 0) return false;
+
+        boolean inTolerance = this.positionError <= POSITION_TOLERANCE && Math.abs(this.headingError) <= HEADING_TOLERANCE;
+        return inTolerance || overtime >= END_TIMEOUT;
+    }
+
+    /** @return seconds since the trajectory started */
+    private double getElapsedSeconds() {
+        return (RobotClock.nanoTime() - this.startNanos) / 1e9;
+    }
+}
@@ -1,37 +1,114 @@
 package org.firstinspires.ftc.teamcode.subsystems.driveTrain.commands.mecanumDrive;
 
+import com.bylazar.configurables.annotations.Configurable;
 import com.seattlesolvers.solverslib.command.CommandBase;
-import com.seattlesolvers.solverslib.gamepad.GamepadEx;
-import com.seattlesolvers.solverslib.geometry.Vector2d;
 
 import org.firstinspires.ftc.teamcode.subsystems.driveTrain.MecanumDriveSubsystem;
+import org.firstinspires.ftc.teamcode.util.GamepadSnapshot;
+import org.firstinspires.ftc.teamcode.util.RobotClock;
+import org.firstinspires.ftc.teamcode.util.drivetrain.DriveInputShaper;
 import org.firstinspires.ftc.teamcode.util.drivetrain.MecanumChassisUtils;
+import org.firstinspires.ftc.teamcode.util.drivetrain.MecanumWheelSet;
 
+/**
+ * Field centric arcade drive from the driver's {@link GamepadSnapshot}.
+ *
+ * <p>While the sticks are steady, the input shaper has settled and the heading has not moved by
+ * more than {@link #HEADING_TOLERANCE}, the wheel powers would not change, so the motor writes
+ * are skipped. They are still refreshed every {@link #REFRESH_PERIOD_MS} for the voltage
+ * compensation, and never skipped in {@link MecanumWheelSet.ControlMode#VELOCITY}, whose
+ * controllers must run every loop.</p>
+ */
+@Configurable
 public class MecanumArcadeDriveCommand extends CommandBase {
-    private final GamepadEx gamepad;
+    /** Heading change in degrees that makes a steady translation be recomputed. */
+    public static double HEADING_TOLERANCE = 0.5;
+
+    /** The longest time in ms the wheel powers are left unwritten. */
+    public static double REFRESH_PERIOD_MS = 100;
+
+    private final GamepadSnapshot gamepad;
 
     private final MecanumDriveSubsystem subsystem;
 
-    public MecanumArcadeDriveCommand(MecanumDriveSubsystem subsystem, GamepadEx gamepad) {
+    /** Reused every loop so driving does not allocate. */
+    private final MecanumChassisUtils.MecanumWheelSpeeds mecanumWheelSpeeds = new MecanumChassisUtils.MecanumWheelSpeeds();
+
+    /** Deadband, response curve and slew limits of the sticks. */
+    private final DriveInputShaper inputShaper = new DriveInputShaper();
+
+    private double hTarget;
+    private double vTarget;
+    private double rotationTarget;
+    private double speedModifier = Double.NaN;
+
+    private double writtenHeading;
+    private long writtenNanos;
+    private boolean written;
+
+    public MecanumArcadeDriveCommand(MecanumDriveSubsystem subsystem, GamepadSnapshot gamepad) {
         this.subsystem = subsystem;
         this.gamepad = gamepad;
 
         addRequirements(subsystem);
     }
 
+    @Override
+    public void initialize() {
+        super.initialize();
+        this.inputShaper.reset();
+        this.speedModifier = Double.NaN;
+        this.written = false;
+    }
+
     @Override
     public void execute() {
-        double vSpeed = -this.gamepad.getLeftY();
-        double hSpeed = -this.gamepad.getLeftX();
-        double rotationSpeed = -this.gamepad.getRightX();
+        double speedModifier = this.subsystem.getDriveSpeedModifier().getSpeedModifier();
+        boolean inputChanged = this.gamepad.hasChanged() || speedModifier != this.speedModifier;
+        if (inputChanged) {
+            this.speedModifier = speedModifier;
+            this.vTarget = DriveInputShaper.shapeAxis(-this.gamepad.getLeftY()) * speedModifier;
+            this.hTarget = DriveInputShaper.shapeAxis(-this.gamepad.getLeftX()) * speedModifier;
+            this.rotationTarget = DriveInputShaper.shapeAxis(-this.gamepad.getRightX());
+        }
+
+        // slew limit in the field frame, before rotating into the robot frame
+        this.inputShaper.update(this.hTarget, this.vTarget, this.rotationTarget);
+
+        double heading = this.subsystem.getPredictedHeading();
+        long now = RobotClock.nanoTime();
+        if (!inputChanged && this.canSkipWrite(heading, now)) return;
+
+        // rotate the joystick vector by -heading to make the drive field centric
+        double headingRad = Math.toRadians(heading);
+        double cos = Math.cos(headingRad);
+        double sin = Math.sin(headingRad);
 
-        Vector2d vector = new Vector2d(hSpeed, vSpeed)
-                .rotateBy(-this.subsystem.getHeading())
-                .times(this.subsystem.getDriveSpeedModifier().getSpeedModifier());
+        double robotHSpeed = this.inputShaper.getHSpeed() * cos + this.inputShaper.getVSpeed() * sin;
+        double robotVSpeed = -this.inputShaper.getHSpeed() * sin + this.inputShaper.getVSpeed() * cos;
+
+        MecanumChassisUtils.chassisSpeedToWheelSpeeds(robotHSpeed, robotVSpeed, this.inputShaper.getRSpeed(), this.mecanumWheelSpeeds);
+
+        this.subsystem.moveMotors(this.mecanumWheelSpeeds);
+
+        this.writtenHeading = heading;
+        this.writtenNanos = now;
+        this.written = true;
+    }
 
-        MecanumChassisUtils.MecanumWheelSpeeds mecanumWheelSpeeds = MecanumChassisUtils.chassisSpeedToWheelSpeeds(vector, rotationSpeed);
+    /**
+     * @param heading the current heading
+     * @param now     the current time
+     * @return whether the last written wheel powers are still right for unchanged input
+     */
+    private boolean canSkipWrite(double heading, long now) {
+        if (!this.written || !this.inputShaper.isSettled()) return false;
+        if (this.subsystem.getControlMode() != MecanumWheelSet.ControlMode.OPEN_LOOP) return false;
+        if ((now - this.writtenNanos) / 1_000_000.0 >= REFRESH_PERIOD_MS) return false;
 
-        this.subsystem.moveMotors(mecanumWheelSpeeds);
+        // a pure rotation or a stop does not depend on the heading
+        boolean translating = this.inputShaper.getHSpeed() != 0 || this.inputShaper.getVSpeed() != 0;
+        return !translating || Math.abs(Math.IEEEremainder(heading - this.writtenHeading, 360)) <= HEADING_TOLERANCE;
     }
 
     @Override
@@ -0,0 +1,180 @@
+package org.firstinspires.ftc.teamcode.subsystems.driveTrain.commands.mecanumDrive;
+
+import com.bylazar.configurables.annotations.Configurable;
+import com.bylazar.telemetry.JoinedTelemetry;
+import com.seattlesolvers.solverslib.command.CommandBase;
+
+import org.firstinspires.ftc.teamcode.subsystems.driveTrain.MecanumDriveSubsystem;
+import org.firstinspires.ftc.teamcode.util.DataLogger;
+import org.firstinspires.ftc.teamcode.util.MathUtil;
+import org.firstinspires.ftc.teamcode.util.trajectory.PolylinePath;
+
+/**
+ * Follows a {@link PolylinePath} with holonomic pure pursuit, holding a field heading.
+ *
+ * <p>Every loop the robot drives towards the point {@link #LOOKAHEAD} meters further along
+ * the path than the closest point to the robot, slowing down near the end of the path.
+ * The closest point search resumes from the segment found in the previous loop and only
+ * looks {@link #LOOKAHEAD} meters ahead, so the cost of a loop does not depend on the
+ * length of the path. Progress along the path never goes back.</p>
+ *
+ * <p>Cheaper than {@link FollowTrajectoryCommand} (no time parameterization), which makes it
+ * a fit for paths generated on the fly, e.g. teleop assists.</p>
+ */
+@Configurable
+public class PurePursuitCommand extends CommandBase {
+    /** Distance along the path from the closest point to the point driven towards, in meters. */
+    public static double LOOKAHEAD = 0.25;
+
+    public static double MAX_POWER = 0.8;
+
+    /** Power per meter left to the end of the path, slows down the approach. */
+    public static double END_kP = 2.5;
+
+    /** Rotation power per degree of heading error. */
+    public static double HEADING_kP = 0.02;
+
+    public static double POSITION_TOLERANCE = 0.02;
+    public static double HEADING_TOLERANCE = 2;
+
+    private final MecanumDriveSubsystem subsystem;
+    private final PolylinePath path;
+    private final double heading;
+
+    /** The segment the closest point was on in the last loop. */
+    private int closestSegment;
+    private double closestDistance;
+
+    private double lookaheadX;
+    private double lookaheadY;
+
+    private double distanceToEnd;
+    private double headingError;
+
+    /**
+     * @param subsystem the drive subsystem
+     * @param path      the path to follow
+     * @param heading   the field heading to hold, in degrees
+     */
+    public PurePursuitCommand(MecanumDriveSubsystem subsystem, PolylinePath path, double heading) {
+        this.subsystem = subsystem;
+        this.path = path;
+        this.heading = heading;
+
+        addRequirements(subsystem);
+    }
+
+    @Override
+    public void initialize() {
+        super.initialize();
+        this.subsystem.getDataLogger().addData(DataLogger.DataType.INFO, "PurePursuitCommand: " + "Following a " + this.path.getLength() + "m path");
+        this.closestSegment = 0;
+        this.closestDistance = 0;
+    }
+
+    @Override
+    public void execute() {
+        double x = this.subsystem.getPredictedX();
+        double y = this.subsystem.getPredictedY();
+        double robotHeading = this.subsystem.getPredictedFieldHeading();
+
+        this.updateClosestPoint(x, y);
+        this.updateLookaheadPoint();
+
+        int last = this.path.getPointCount() - 1;
+        this.distanceToEnd = Math.hypot(this.path.getX(last) - x, this.path.getY(last) - y);
+        this.headingError = Math.IEEEremainder(this.heading - robotHeading, 360);
+
+        // drive towards the lookahead point, slowing down at the end
+        double toLookaheadX = this.lookaheadX - x;
+        double toLookaheadY = this.lookaheadY - y;
+        double toLookahead = Math.hypot(toLookaheadX, toLookaheadY);
+
+        double remaining = Math.max(this.path.getLength() - this.closestDistance, this.distanceToEnd);
+        double power = Math.min(MAX_POWER, END_kP * remaining);
+        double powerX = toLookahead > 0 ? toLookaheadX / toLookahead * power : 0;
+        double powerY = toLookahead > 0 ? toLookaheadY / toLookahead * power : 0;
+
+        // rotate the field frame into the robot frame
+        double headingRad = Math.toRadians(robotHeading);
+        double cos = Math.cos(headingRad);
+        double sin = Math.sin(headingRad);
+
+        double forward = powerX * cos + powerY * sin;
+        double left = -powerX * sin + powerY * cos;
+        double turn = MathUtil.clamp(HEADING_kP * this.headingError, -MAX_POWER, MAX_POWER);
+
+        JoinedTelemetry telemetry = this.subsystem.getTelemetry();
+        telemetry.addData("----", this.getClass().getSimpleName() + " :----");
+        telemetry.addData("Path Progress", this.closestDistance + " / " + this.path.getLength());
+        telemetry.addData("Distance To End", this.distanceToEnd);
+        telemetry.addData("Heading Error", this.headingError);
+
+        this.subsystem.driveRobotCentric(forward, left, turn);
+    }
+
+    /**
+     * Finds the closest point of the path to the robot, starting from the last closest segment
+     * and looking at most {@link #LOOKAHEAD} meters further.
+     */
+    private void updateClosestPoint(double x, double y) {
+        int segmentCount = this.path.getPointCount() - 1;
+        double searchEnd = this.closestDistance + LOOKAHEAD;
+
+        double bestDistanceSquared = Double.POSITIVE_INFINITY;
+        for (int i = this.closestSegment; i < segmentCount && this.path.getDistance(i) <= searchEnd; i++) {
+            double startX = this.path.getX(i);
+            double startY = this.path.getY(i);
+            double segmentX = this.path.getX(i + 1) - startX;
+            double segmentY = this.path.getY(i + 1) - startY;
+            double segmentLengthSquared = segmentX * segmentX + segmentY * segmentY;
+
+            double t = segmentLengthSquared > 0
+                    ? MathUtil.clamp(((x - startX) * segmentX + (y - startY) * segmentY) / segmentLengthSquared, 0, 1)
+                    : 0;
+            double dx = startX + t * segmentX - x;
+            double dy = startY + t * segmentY - y;
+            double distanceSquared = dx * dx + dy * dy;
+
+            if (distanceSquared < bestDistanceSquared) {
+                bestDistanceSquared = distanceSquared;
+                this.closestSegment = i;
+                this.closestDistance = Math.max(this.closestDistance,
+                        this.path.getDistance(i) + t * (this.path.getDistance(i + 1) - this.path.getDistance(i)));
+            }
+        }
+    }
+
+    /** Finds the point {@link #LOOKAHEAD} meters along the path from the closest point. */
+    private void updateLookaheadPoint() {
+        int last = this.path.getPointCount() - 1;
+        double target = this.closestDistance + LOOKAHEAD;
+
+        if (target >= this.path.getLength()) {
+            this.lookaheadX = this.path.getX(last);
+            this.lookaheadY = this.path.getY(last);
+            return;
+        }
+
+        int i = this.closestSegment;
+        while (i < last - 1 && this.path.getDistance(i + 1) < target) i++;
+
+        double segmentLength = this.path.getDistance(i + 1) - this.path.getDistance(i);
+        double t = segmentLength > 0 ? (target - this.path.getDistance(i)) / segmentLength : 1;
+        this.lookaheadX = this.path.getX(i) + t * (this.path.getX(i + 1) - this.path.getX(i));
+        this.lookaheadY = this.path.getY(i) + t * (this.path.getY(i + 1) - this.path.getY(i));
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        this.subsystem.setAllChassisPower(0);
+        super.end(interrupted);
+    }
+
+    @Override
+    public boolean isFinished() {
+        return this.closestDistance >= this.path.getLength() - LOOKAHEAD
+                && this.distanceToEnd <= POSITION_TOLERANCE
+                && Math.abs(this.headingError) <= HEADING_TOLERANCE;
+    }
+}
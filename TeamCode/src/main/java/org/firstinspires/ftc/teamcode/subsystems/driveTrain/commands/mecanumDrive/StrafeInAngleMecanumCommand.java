@@ -2,13 +2,18 @@ package org.firstinspires.ftc.teamcode.subsystems.driveTrain.commands.mecanumDri
 
 import com.bylazar.configurables.annotations.Configurable;
 import com.seattlesolvers.solverslib.command.CommandBase;
-import com.seattlesolvers.solverslib.controller.PIDController;
-import com.seattlesolvers.solverslib.controller.PIDFController;
-import com.seattlesolvers.solverslib.geometry.Vector2d;
 
 import org.firstinspires.ftc.teamcode.subsystems.driveTrain.MecanumDriveSubsystem;
+import org.firstinspires.ftc.teamcode.util.ClockedPIDFController;
 import org.firstinspires.ftc.teamcode.util.drivetrain.MecanumChassisUtils;
 
+/**
+ * Strafes a distance in a fixed robot-relative angle, holding the heading.
+ *
+ * @deprecated only controls the distance along the angle, use {@link DriveToPoseCommand}
+ * to also correct the cross-track error and finish on an exact pose.
+ */
+@Deprecated
 @Configurable
 public class StrafeInAngleMecanumCommand extends CommandBase {
     public static double Kp = 1;
@@ -19,17 +24,22 @@ public class StrafeInAngleMecanumCommand extends CommandBase {
     public static double rotationKp = 0.02;
 
     private double angle;
+    private double hSpeed;
+    private double vSpeed;
     private final double meters;
     private double invert;
 
     private double STARTING_FORWARD_DIST = 0;
     private double STARTING_SIDE_DIST = 0;
-    private PIDFController pidfController;
+    private ClockedPIDFController pidfController;
 
-    private PIDController rotationController;
+    private ClockedPIDFController rotationController;
 
     private final MecanumDriveSubsystem subsystem;
 
+    /** Reused every loop so driving does not allocate. */
+    private final MecanumChassisUtils.MecanumWheelSpeeds mecanumWheelSpeeds = new MecanumChassisUtils.MecanumWheelSpeeds();
+
     private static double angleFix = 0;
 
     public static void updateAngle(double angle) {
@@ -50,25 +60,25 @@ public class StrafeInAngleMecanumCommand extends CommandBase {
         this.invert = Math.signum(meters);
         this.angle -= 90 - angleFix;
 
+        // the direction is fixed for the whole command
+        this.hSpeed = Math.cos(Math.toRadians(angle));
+        this.vSpeed = Math.sin(Math.toRadians(angle));
+
         this.STARTING_FORWARD_DIST = this.subsystem.getForwardDistanceDriven();
         this.STARTING_SIDE_DIST = this.subsystem.getSideDistanceDriven();
 
-        this.pidfController = new PIDFController(Kp, Ki, Kd, Kf);
+        this.pidfController = new ClockedPIDFController(Kp, Ki, Kd, Kf);
         this.pidfController.setTolerance(0.0185);
         this.pidfController.setSetPoint(this.meters);
 
-        this.rotationController = new PIDController(rotationKp, 0, 0);
+        this.rotationController = new ClockedPIDFController(rotationKp, 0, 0);
         this.rotationController.setSetPoint(this.subsystem.getHeading());
         this.rotationController.setTolerance(0);
     }
 
     @Override
     public void execute() {
-        double hSpeed = Math.cos(Math.toRadians(angle));
-        double vSpeed = Math.sin(Math.toRadians(angle));
-        Vector2d vector2d = new Vector2d(hSpeed, vSpeed);
-
-        double rotationSpeed = this.rotationController.calculate(this.subsystem.getHeading());
+        double rotationSpeed = this.rotationController.calculate(this.subsystem.getPredictedHeading());
 
         double forwardDistanceMoved = this.subsystem.getForwardDistanceDriven() - this.STARTING_FORWARD_DIST;
         double sideDistanceMoved = this.subsystem.getSideDistanceDriven() - this.STARTING_SIDE_DIST;
@@ -76,10 +86,10 @@ public class StrafeInAngleMecanumCommand extends CommandBase {
         double currentDist = invert * Math.hypot(forwardDistanceMoved, sideDistanceMoved); // => √x*x + y*y
         double powerMultiplier = this.pidfController.calculate(currentDist);
 
-        MecanumChassisUtils.MecanumWheelSpeeds mecanumWheelSpeeds = MecanumChassisUtils.chassisSpeedToWheelSpeeds(vector2d, rotationSpeed)
-                .mul(powerMultiplier);
+        MecanumChassisUtils.chassisSpeedToWheelSpeeds(this.hSpeed, this.vSpeed, rotationSpeed, this.mecanumWheelSpeeds)
+                .scale(powerMultiplier);
 
-        this.subsystem.moveMotors(mecanumWheelSpeeds);
+        this.subsystem.moveMotors(this.mecanumWheelSpeeds);
     }
 
     @Override
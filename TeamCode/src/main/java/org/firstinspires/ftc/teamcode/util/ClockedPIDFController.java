@@ -0,0 +1,140 @@
+package org.firstinspires.ftc.teamcode.util;
+
+/**
+ * A PIDF controller timed by the {@link RobotClock}.
+ *
+ * <p>A drop-in for the solverslib {@code PIDFController} as used by the drive commands: same gains,
+ * {@code kF} on the set point, integral clamped to {@link #setIntegrationBounds(double, double)}
+ * (-1 to 1 by default) and the same {@link #atSetPoint()} check. solverslib times the integral and
+ * derivative with the wall clock, so in the simulation's fast mode, where the {@link RobotClock}
+ * moves a whole loop period between calls that are microseconds apart, both terms were off by
+ * orders of magnitude. Here the period between two {@link #calculate(double)} calls is read from
+ * the {@link RobotClock}.</p>
+ *
+ * <p>The first call after creation or {@link #reset()} has no period, it skips the derivative and
+ * does not integrate.</p>
+ */
+public class ClockedPIDFController {
+    private double kP;
+    private double kI;
+    private double kD;
+    private double kF;
+
+    private double setPoint = 0;
+    private double positionTolerance = 0.05;
+    private double velocityTolerance = Double.POSITIVE_INFINITY;
+    private double minIntegral = -1;
+    private double maxIntegral = 1;
+
+    private double positionError = 0;
+    private double velocityError = 0;
+    private double totalError = 0;
+    private long lastCalculateNanos = 0;
+
+    public ClockedPIDFController(double kP, double kI, double kD, double kF) {
+        this.setPIDF(kP, kI, kD, kF);
+    }
+
+    public ClockedPIDFController(double kP, double kI, double kD) {
+        this(kP, kI, kD, 0);
+    }
+
+    /**
+     * Calculates the output for a measurement.
+     *
+     * @param measurement the measured process variable
+     * @return the controller output
+     */
+    public double calculate(double measurement) {
+        long now = RobotClock.nanoTime();
+        double previousError = this.positionError;
+        this.positionError = this.setPoint - measurement;
+
+        double period = this.lastCalculateNanos != 0 ? (now - this.lastCalculateNanos) / 1e9 : 0;
+        this.lastCalculateNanos = now;
+
+        if (period > 0) {
+            this.velocityError = (this.positionError - previousError) / period;
+            this.totalError = MathUtil.clamp(this.totalError + this.positionError * period, this.minIntegral, this.maxIntegral);
+        } else {
+            this.velocityError = 0;
+        }
+
+        return this.kP * this.positionError + this.kI * this.totalError + this.kD * this.velocityError + this.kF * this.setPoint;
+    }
+
+    /**
+     * Calculates the output for a measurement and a new set point.
+     *
+     * @param measurement the measured process variable
+     * @param setPoint    the new set point
+     * @return the controller output
+     */
+    public double calculate(double measurement, double setPoint) {
+        this.setSetPoint(setPoint);
+        return this.calculate(measurement);
+    }
+
+    /** Clears the integral and the error history. */
+    public void reset() {
+        this.positionError = 0;
+        this.velocityError = 0;
+        this.totalError = 0;
+        this.lastCalculateNanos = 0;
+    }
+
+    public void setPIDF(double kP, double kI, double kD, double kF) {
+        this.kP = kP;
+        this.kI = kI;
+        this.kD = kD;
+        this.kF = kF;
+    }
+
+    public void setPID(double kP, double kI, double kD) {
+        this.setPIDF(kP, kI, kD, this.kF);
+    }
+
+    public void setSetPoint(double setPoint) {
+        this.setPoint = setPoint;
+    }
+
+    public double getSetPoint() {
+        return this.setPoint;
+    }
+
+    /**
+     * @param positionTolerance the largest error {@link #atSetPoint()} accepts
+     */
+    public void setTolerance(double positionTolerance) {
+        this.setTolerance(positionTolerance, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * @param positionTolerance the largest error {@link #atSetPoint()} accepts
+     * @param velocityTolerance the largest error rate {@link #atSetPoint()} accepts, per second
+     */
+    public void setTolerance(double positionTolerance, double velocityTolerance) {
+        this.positionTolerance = positionTolerance;
+        this.velocityTolerance = velocityTolerance;
+    }
+
+    /**
+     * @param minIntegral the lower bound of the integrated error
+     * @param maxIntegral the upper bound of the integrated error
+     */
+    public void setIntegrationBounds(double minIntegral, double maxIntegral) {
+        this.minIntegral = minIntegral;
+        this.maxIntegral = maxIntegral;
+    }
+
+    /** @return whether the last error and error rate were within the tolerances */
+    public boolean atSetPoint() {
+        return Math.abs(this.positionError) < this.positionTolerance
+                && Math.abs(this.velocityError) < this.velocityTolerance;
+    }
+
+    /** @return the last error, set point minus measurement */
+    public double getPositionError() {
+        return this.positionError;
+    }
+}
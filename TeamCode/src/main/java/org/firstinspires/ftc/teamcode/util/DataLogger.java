@@ -47,14 +47,26 @@ public class DataLogger {
      * @param suppress   if {@code true}, logging is disabled and no file is created
      */
     public DataLogger(String filePrefix, boolean suppress) {
+        this(new File(DIRECTORY_PATH), filePrefix, suppress);
+    }
+
+    /**
+     * Creates a new {@code DataLogger} instance that logs into another directory,
+     * e.g. a temporary directory when running off the robot.
+     *
+     * @param directory  the directory to create the log file in
+     * @param filePrefix a prefix for the log file name (e.g. "TeleOp", "Auto")
+     * @param suppress   if {@code true}, logging is disabled and no file is created
+     */
+    public DataLogger(File directory, String filePrefix, boolean suppress) {
         String fileName =  createFileName(filePrefix);
-        String filePath = DIRECTORY_PATH + "/" + fileName;
+        File file = new File(directory, fileName);
 
-        new File(DIRECTORY_PATH).mkdir(); // create the directory if not exists
+        directory.mkdir(); // create the directory if not exists
 
         try {
             if(!suppress) {
-                this.fileWriter = new FileWriter(filePath, true);
+                this.fileWriter = new FileWriter(file, true);
                 this.writeLine("// " + fileName);
             }
         } catch (IOException ignored) { }
@@ -0,0 +1,190 @@
+package org.firstinspires.ftc.teamcode.util;
+
+import com.bylazar.configurables.annotations.Configurable;
+import com.qualcomm.robotcore.hardware.Gamepad;
+
+/**
+ * A once-per-loop copy of a gamepad's state.
+ *
+ * <p>{@link #update()} packs the buttons into a bitmask, one bit per {@link Button}, and derives
+ * the rising ({@link #getPressedMask()}) and falling ({@link #getReleasedMask()}) edges from the
+ * previous loop. The axes are quantized to steps of 1 / {@link #AXIS_RESOLUTION}, so stick noise
+ * below a step does not count as a change. {@link #hasChanged()} is {@code true} if any button or
+ * quantized axis differs from the previous loop, commands driven by the gamepad can skip their
+ * work while it is {@code false}.</p>
+ *
+ * <p>All reads within a loop see the same state, and none of them allocate. The axes follow the
+ * {@link com.seattlesolvers.solverslib.gamepad.GamepadEx} conventions: Y is positive up.</p>
+ */
+@Configurable
+public class GamepadSnapshot {
+    /** The number of quantization steps per unit of an axis. */
+    public static int AXIS_RESOLUTION = 200;
+
+    private static final Axis[] AXES = Axis.values();
+
+    private final Gamepad gamepad;
+
+    private long buttons = 0;
+    private long pressed = 0;
+    private long released = 0;
+
+    private final int[] axes = new int[AXES.length];
+    private double resolution = AXIS_RESOLUTION;
+
+    private boolean changed = false;
+
+    /**
+     * @param gamepad the gamepad to read, e.g. {@code gamepad1} of the OpMode
+     */
+    public GamepadSnapshot(Gamepad gamepad) {
+        this.gamepad = gamepad;
+    }
+
+    /** Reads the gamepad, call once at the start of every loop. */
+    public void update() {
+        Gamepad gamepad = this.gamepad;
+
+        long buttons = 0;
+        if (gamepad.a) buttons |= Button.A.mask;
+        if (gamepad.b) buttons |= Button.B.mask;
+        if (gamepad.x) buttons |= Button.X.mask;
+        if (gamepad.y) buttons |= Button.Y.mask;
+        if (gamepad.left_bumper) buttons |= Button.LEFT_BUMPER.mask;
+        if (gamepad.right_bumper) buttons |= Button.RIGHT_BUMPER.mask;
+        if (gamepad.back) buttons |= Button.BACK.mask;
+        if (gamepad.start) buttons |= Button.START.mask;
+        if (gamepad.guide) buttons |= Button.GUIDE.mask;
+        if (gamepad.dpad_up) buttons |= Button.DPAD_UP.mask;
+        if (gamepad.dpad_down) buttons |= Button.DPAD_DOWN.mask;
+        if (gamepad.dpad_left) buttons |= Button.DPAD_LEFT.mask;
+        if (gamepad.dpad_right) buttons |= Button.DPAD_RIGHT.mask;
+        if (gamepad.left_stick_button) buttons |= Button.LEFT_STICK_BUTTON.mask;
+        if (gamepad.right_stick_button) buttons |= Button.RIGHT_STICK_BUTTON.mask;
+        if (gamepad.touchpad) buttons |= Button.TOUCHPAD.mask;
+
+        long toggled = buttons ^ this.buttons;
+        this.pressed = toggled & buttons;
+        this.released = toggled & this.buttons;
+        this.buttons = buttons;
+
+        int resolution = Math.max(AXIS_RESOLUTION, 1);
+        boolean axesChanged = resolution != this.resolution;
+        this.resolution = resolution;
+
+        axesChanged |= this.setAxis(Axis.LEFT_X, gamepad.left_stick_x, resolution);
+        axesChanged |= this.setAxis(Axis.LEFT_Y, -gamepad.left_stick_y, resolution);
+        axesChanged |= this.setAxis(Axis.RIGHT_X, gamepad.right_stick_x, resolution);
+        axesChanged |= this.setAxis(Axis.RIGHT_Y, -gamepad.right_stick_y, resolution);
+        axesChanged |= this.setAxis(Axis.LEFT_TRIGGER, gamepad.left_trigger, resolution);
+        axesChanged |= this.setAxis(Axis.RIGHT_TRIGGER, gamepad.right_trigger, resolution);
+
+        this.changed = toggled != 0 || axesChanged;
+    }
+
+    /** @return whether the axis changed by at least one step */
+    private boolean setAxis(Axis axis, double value, int resolution) {
+        int quantized = (int) Math.round(value * resolution);
+        int previous = this.axes[axis.ordinal()];
+        this.axes[axis.ordinal()] = quantized;
+        return quantized != previous;
+    }
+
+    /** @return whether any button or quantized axis changed since the previous loop */
+    public boolean hasChanged() {
+        return this.changed;
+    }
+
+    /** @return whether the button is held */
+    public boolean isDown(Button button) {
+        return (this.buttons & button.mask) != 0;
+    }
+
+    /** @return whether the button went down this loop */
+    public boolean wasPressed(Button button) {
+        return (this.pressed & button.mask) != 0;
+    }
+
+    /** @return whether the button went up this loop */
+    public boolean wasReleased(Button button) {
+        return (this.released & button.mask) != 0;
+    }
+
+    /** @return the held buttons, bit {@link Button#getMask()} per button */
+    public long getButtonMask() {
+        return this.buttons;
+    }
+
+    /** @return the buttons that went down this loop */
+    public long getPressedMask() {
+        return this.pressed;
+    }
+
+    /** @return the buttons that went up this loop */
+    public long getReleasedMask() {
+        return this.released;
+    }
+
+    /**
+     * @param axis the axis to read
+     * @return the quantized axis value, -1.0 to 1.0 for the sticks and 0.0 to 1.0 for the triggers
+     */
+    public double getAxis(Axis axis) {
+        return this.axes[axis.ordinal()] / this.resolution;
+    }
+
+    public double getLeftX() {
+        return this.getAxis(Axis.LEFT_X);
+    }
+
+    public double getLeftY() {
+        return this.getAxis(Axis.LEFT_Y);
+    }
+
+    public double getRightX() {
+        return this.getAxis(Axis.RIGHT_X);
+    }
+
+    public double getRightY() {
+        return this.getAxis(Axis.RIGHT_Y);
+    }
+
+    public double getLeftTrigger() {
+        return this.getAxis(Axis.LEFT_TRIGGER);
+    }
+
+    public double getRightTrigger() {
+        return this.getAxis(Axis.RIGHT_TRIGGER);
+    }
+
+    /** @return the gamepad this snapshot reads, e.g. for rumble */
+    public Gamepad getGamepad() {
+        return this.gamepad;
+    }
+
+    /**
+     * The buttons of the snapshot, each with its bit in the masks.
+     */
+    public enum Button {
+        A, B, X, Y,
+        LEFT_BUMPER, RIGHT_BUMPER,
+        BACK, START, GUIDE,
+        DPAD_UP, DPAD_DOWN, DPAD_LEFT, DPAD_RIGHT,
+        LEFT_STICK_BUTTON, RIGHT_STICK_BUTTON,
+        TOUCHPAD;
+
+        private final long mask = 1L << this.ordinal();
+
+        /** @return the bit of the button in the masks */
+        public long getMask() {
+            return this.mask;
+        }
+    }
+
+    /**
+     * The axes of the snapshot.
+     */
+    public enum Axis {
+        LEFT_X, LEFT_Y, RIGHT_X, RIGHT_Y, LEFT_TRIGGER, RIGHT_TRIGGER
+    }
+}
@@ -0,0 +1,223 @@
+package org.firstinspires.ftc.teamcode.util;
+
+import com.seattlesolvers.solverslib.command.Command;
+import com.seattlesolvers.solverslib.command.CommandScheduler;
+import com.seattlesolvers.solverslib.command.InstantCommand;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A table of gamepad bindings, dispatched in one pass over the {@link GamepadSnapshot} edge masks.
+ *
+ * <p>Unlike solverslib's {@code GamepadButton} triggers, which each poll their own button every
+ * scheduler run, the table only looks at the buttons that went down or up this loop. A loop
+ * without button edges costs two mask checks per gamepad, however many bindings there are, and an
+ * edge only visits the bindings of its own button.</p>
+ *
+ * <p>The bindings are declared with the {@link Builder} and compiled into arrays sorted by
+ * gamepad, edge and button. {@link #dispatch()} does not allocate. Commands are scheduled and
+ * canceled in the order they were declared. A bound command is scheduled again and again, the
+ * cached commands of {@link org.firstinspires.ftc.teamcode.util.subsystem.StateSubsystemBase#getTransitionCommand}
+ * are made for that.</p>
+ *
+ * <pre>{@code
+ * KeyBindings bindings = new KeyBindings.Builder()
+ *         .whenPressed(this.driverSnapshot, GamepadSnapshot.Button.A, this.driverCommands.intake())
+ *         .whenHeld(this.actionSnapshot, GamepadSnapshot.Button.RIGHT_BUMPER, this.actuatorCommands.shoot())
+ *         .build();
+ * }</pre>
+ */
+public class KeyBindings {
+    private static final int BUTTONS = GamepadSnapshot.Button.values().length;
+
+    /** The edges a binding can react to, each with its own section of the table. */
+    private static final int PRESSED = 0;
+    private static final int RELEASED = 1;
+    private static final int EDGES = 2;
+
+    private final GamepadSnapshot[] gamepads;
+
+    /** The first binding of every (gamepad, edge, button), plus the end of the table. */
+    private final int[] offsets;
+    private final Command[] commands;
+    private final Action[] actions;
+
+    /** The edges that have at least one binding, per gamepad. */
+    private final long[] boundPressed;
+    private final long[] boundReleased;
+
+    private KeyBindings(List<GamepadSnapshot> gamepads, List<Binding> bindings) {
+        this.gamepads = gamepads.toArray(new GamepadSnapshot[0]);
+        this.boundPressed = new long[this.gamepads.length];
+        this.boundReleased = new long[this.gamepads.length];
+
+        // counting sort by slot, stable so the declaration order is kept within a slot
+        int slots = this.gamepads.length * EDGES * BUTTONS;
+        this.offsets = new int[slots + 1];
+        for (Binding binding : bindings) {
+            this.offsets[binding.slot + 1]++;
+        }
+        for (int i = 0; i < slots; i++) {
+            this.offsets[i + 1] += this.offsets[i];
+        }
+
+        this.commands = new Command[bindings.size()];
+        this.actions = new Action[bindings.size()];
+        int[] next = this.offsets.clone();
+        for (Binding binding : bindings) {
+            int index = next[binding.slot]++;
+            this.commands[index] = binding.command;
+            this.actions[index] = binding.action;
+
+            int gamepad = binding.slot / (EDGES * BUTTONS);
+            long mask = 1L << (binding.slot % BUTTONS);
+            if (binding.slot / BUTTONS % EDGES == PRESSED) this.boundPressed[gamepad] |= mask;
+            else this.boundReleased[gamepad] |= mask;
+        }
+    }
+
+    /**
+     * Runs the bindings of this loop's button edges. Call once per loop, after the
+     * {@link GamepadSnapshot}s were updated.
+     */
+    public void dispatch() {
+        for (int gamepad = 0; gamepad < this.gamepads.length; gamepad++) {
+            GamepadSnapshot snapshot = this.gamepads[gamepad];
+            this.dispatch(gamepad, PRESSED, snapshot.getPressedMask() & this.boundPressed[gamepad]);
+            this.dispatch(gamepad, RELEASED, snapshot.getReleasedMask() & this.boundReleased[gamepad]);
+        }
+    }
+
+    /**
+     * Runs the bindings of every button in a mask.
+     *
+     * @param gamepad the index of the gamepad
+     * @param edge    the edge the buttons went through
+     * @param mask    the buttons, only those with bindings
+     */
+    private void dispatch(int gamepad, int edge, long mask) {
+        int base = (gamepad * EDGES + edge) * BUTTONS;
+        while (mask != 0) {
+            int button = Long.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+
+            int slot = base + button;
+            for (int i = this.offsets[slot]; i < this.offsets[slot + 1]; i++) {
+                this.actions[i].run(this.commands[i]);
+            }
+        }
+    }
+
+    /** @return the number of compiled bindings */
+    public int size() {
+        return this.commands.length;
+    }
+
+    /**
+     * What a binding does with its command.
+     */
+    private enum Action {
+        SCHEDULE {
+            @Override
+            void run(Command command) {
+                CommandScheduler.getInstance().schedule(command);
+            }
+        },
+        CANCEL {
+            @Override
+            void run(Command command) {
+                CommandScheduler.getInstance().cancel(command);
+            }
+        },
+        TOGGLE {
+            @Override
+            void run(Command command) {
+                CommandScheduler scheduler = CommandScheduler.getInstance();
+                if (scheduler.isScheduled(command)) scheduler.cancel(command);
+                else scheduler.schedule(command);
+            }
+        };
+
+        abstract void run(Command command);
+    }
+
+    /**
+     * One declared binding, before compiling.
+     */
+    private static class Binding {
+        private final int slot;
+        private final Command command;
+        private final Action action;
+
+        private Binding(int slot, Command command, Action action) {
+            this.slot = slot;
+            this.command = command;
+            this.action = action;
+        }
+    }
+
+    public static class Builder {
+        private final List<GamepadSnapshot> gamepads = new ArrayList<>();
+        private final List<Binding> bindings = new ArrayList<>();
+
+        /** Schedules the command when the button goes down. */
+        public Builder whenPressed(GamepadSnapshot gamepad, GamepadSnapshot.Button button, Command command) {
+            return this.add(gamepad, PRESSED, button, command, Action.SCHEDULE);
+        }
+
+        /** Runs the action when the button goes down. */
+        public Builder whenPressed(GamepadSnapshot gamepad, GamepadSnapshot.Button button, Runnable action) {
+            return this.whenPressed(gamepad, button, new InstantCommand(action));
+        }
+
+        /** Schedules the command when the button goes up. */
+        public Builder whenReleased(GamepadSnapshot gamepad, GamepadSnapshot.Button button, Command command) {
+            return this.add(gamepad, RELEASED, button, command, Action.SCHEDULE);
+        }
+
+        /** Runs the action when the button goes up. */
+        public Builder whenReleased(GamepadSnapshot gamepad, GamepadSnapshot.Button button, Runnable action) {
+            return this.whenReleased(gamepad, button, new InstantCommand(action));
+        }
+
+        /**
+         * Schedules the command when the button goes down and cancels it when the button goes up,
+         * like solverslib's {@code whenHeld}. A command that finishes while the button is held is
+         * not scheduled again.
+         */
+        public Builder whenHeld(GamepadSnapshot gamepad, GamepadSnapshot.Button button, Command command) {
+            this.add(gamepad, PRESSED, button, command, Action.SCHEDULE);
+            return this.add(gamepad, RELEASED, button, command, Action.CANCEL);
+        }
+
+        /** Schedules the command when the button goes down, or cancels it if it is scheduled. */
+        public Builder toggleWhenPressed(GamepadSnapshot gamepad, GamepadSnapshot.Button button, Command command) {
+            return this.add(gamepad, PRESSED, button, command, Action.TOGGLE);
+        }
+
+        /** Cancels the command when the button goes down. */
+        public Builder cancelWhenPressed(GamepadSnapshot gamepad, GamepadSnapshot.Button button, Command command) {
+            return this.add(gamepad, PRESSED, button, command, Action.CANCEL);
+        }
+
+        private Builder add(GamepadSnapshot gamepad, int edge, GamepadSnapshot.Button button, Command command, Action action) {
+            if (gamepad == null || button == null || command == null) {
+                throw new RuntimeException("KeyBindings: gamepad, button and command cannot be null");
+            }
+
+            int index = this.gamepads.indexOf(gamepad);
+            if (index < 0) {
+                index = this.gamepads.size();
+                this.gamepads.add(gamepad);
+            }
+
+            this.bindings.add(new Binding((index * EDGES + edge) * BUTTONS + button.ordinal(), command, action));
+            return this;
+        }
+
+        public KeyBindings build() {
+            return new KeyBindings(this.gamepads, this.bindings);
+        }
+    }
+}
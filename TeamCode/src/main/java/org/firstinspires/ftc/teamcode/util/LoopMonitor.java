@@ -0,0 +1,284 @@
+package org.firstinspires.ftc.teamcode.util;
+
+import android.os.Debug;
+
+import com.bylazar.configurables.annotations.Configurable;
+import com.bylazar.telemetry.JoinedTelemetry;
+
+/**
+ * Measures what every phase of the OpMode loop allocates, and finds the loops that took much
+ * longer than usual.
+ *
+ * <p>Every loop is split into {@link Phase}s: {@link #beginLoop()} starts the loop and
+ * {@link #endPhase(Phase)} closes a phase, reading the thread's allocation counters. A loop whose
+ * period exceeds {@link #HICCUP_FACTOR} times the running average is a hiccup, and a GC hiccup
+ * if a garbage collection ran during it. Every hiccup is written to the {@link DataLogger},
+ * the averages of the last {@link #REPORT_WINDOW} loops are shown by {@link #addTelemetry(JoinedTelemetry)}.</p>
+ *
+ * <p>The counters come from an {@link AllocationCounter}, {@link AndroidAllocationCounter} on the
+ * robot. Allocation counting slows every allocation down a little, so it is off by default:
+ * enable {@link #ENABLED} from Panels while working on the loop.</p>
+ *
+ * <p>Measuring does not allocate, except for logging hiccups. {@link #addTelemetry(JoinedTelemetry)}
+ * boxes every value it shows, so it is called between loops, after {@link #endLoop()} and before
+ * the next {@link #beginLoop()}, where its allocations are not counted. Its values then go out
+ * with the next telemetry update.</p>
+ */
+@Configurable
+public class LoopMonitor {
+    /** Whether the OpMode loop is monitored, off by default. Read when the OpMode starts. */
+    public static boolean ENABLED = false;
+
+    /** A loop longer than this many times the average loop period is a hiccup. */
+    public static double HICCUP_FACTOR = 2;
+
+    /** The number of loops averaged into every reported value. */
+    public static int REPORT_WINDOW = 50;
+
+    /** Weight of every loop in the running average loop period. */
+    private static final double AVERAGE_GAIN = 0.05;
+
+    /** Loops before hiccups are detected, while the average settles. */
+    private static final int WARMUP_LOOPS = 20;
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final String[] PHASE_COUNT_CAPTIONS = new String[PHASES.length];
+    private static final String[] PHASE_BYTES_CAPTIONS = new String[PHASES.length];
+
+    static {
+        for (int i = 0; i < PHASES.length; i++) {
+            PHASE_COUNT_CAPTIONS[i] = "Allocations / Loop (" + PHASES[i].getLabel() + ")";
+            PHASE_BYTES_CAPTIONS[i] = "Allocated Bytes / Loop (" + PHASES[i].getLabel() + ")";
+        }
+    }
+
+    private final AllocationCounter counter;
+    private final DataLogger dataLogger;
+
+    private long phaseStartCount;
+    private long phaseStartBytes;
+    private long loopStartCount;
+    private long loopStartBytes;
+    private long loopStartGcCount;
+    private long loopStartNanos = 0;
+
+    private double averagePeriodMs = 0;
+    private int loops = 0;
+
+    private final long[] windowPhaseCounts = new long[PHASES.length];
+    private final long[] windowPhaseBytes = new long[PHASES.length];
+    private long windowCount = 0;
+    private long windowBytes = 0;
+    private double windowMaxPeriodMs = 0;
+    private int windowLoops = 0;
+
+    private final double[] reportedPhaseCounts = new double[PHASES.length];
+    private final double[] reportedPhaseBytes = new double[PHASES.length];
+    private double reportedCount = 0;
+    private double reportedBytes = 0;
+    private double reportedMaxPeriodMs = 0;
+
+    private int gcHiccups = 0;
+    private int otherHiccups = 0;
+
+    /**
+     * Starts counting allocations.
+     *
+     * @param counter    the source of the allocation and GC counters
+     * @param dataLogger the logger to write the hiccups to
+     */
+    public LoopMonitor(AllocationCounter counter, DataLogger dataLogger) {
+        this.counter = counter;
+        this.dataLogger = dataLogger;
+
+        this.counter.start();
+    }
+
+    /** Starts a loop, the loop period is measured from here to {@link #endLoop()}. */
+    public void beginLoop() {
+        this.loopStartNanos = System.nanoTime();
+        this.loopStartGcCount = this.counter.getGcCount();
+        this.loopStartCount = this.counter.getAllocationCount();
+        this.loopStartBytes = this.counter.getAllocatedBytes();
+        this.phaseStartCount = this.loopStartCount;
+        this.phaseStartBytes = this.loopStartBytes;
+    }
+
+    /**
+     * Ends a phase of the loop, the phase started at the end of the last one.
+     *
+     * @param phase the phase that ended
+     */
+    public void endPhase(Phase phase) {
+        long count = this.counter.getAllocationCount();
+        long bytes = this.counter.getAllocatedBytes();
+
+        this.windowPhaseCounts[phase.ordinal()] += count - this.phaseStartCount;
+        this.windowPhaseBytes[phase.ordinal()] += bytes - this.phaseStartBytes;
+
+        this.phaseStartCount = count;
+        this.phaseStartBytes = bytes;
+    }
+
+    /** Ends the loop, after the last phase. */
+    public void endLoop() {
+        long now = System.nanoTime();
+        long gcCount = this.counter.getGcCount();
+        double periodMs = (now - this.loopStartNanos) / 1_000_000.0;
+
+        this.windowCount += this.phaseStartCount - this.loopStartCount;
+        this.windowBytes += this.phaseStartBytes - this.loopStartBytes;
+        this.windowMaxPeriodMs = Math.max(this.windowMaxPeriodMs, periodMs);
+
+        if (this.loops >= WARMUP_LOOPS && periodMs > HICCUP_FACTOR * this.averagePeriodMs) {
+            boolean gc = gcCount != this.loopStartGcCount;
+            if (gc) this.gcHiccups++;
+            else this.otherHiccups++;
+
+            this.dataLogger.addData(DataLogger.DataType.WARN, "LoopMonitor: " + (gc ? "GC " : "") + "hiccup, loop took "
+                    + periodMs + "ms (average " + this.averagePeriodMs + "ms)");
+        } else {
+            // hiccups are kept out of the average
+            this.averagePeriodMs = this.loops == 0 ? periodMs : this.averagePeriodMs + AVERAGE_GAIN * (periodMs - this.averagePeriodMs);
+        }
+        this.loops++;
+
+        if (++this.windowLoops >= Math.max(REPORT_WINDOW, 1)) {
+            for (int i = 0; i < PHASES.length; i++) {
+                this.reportedPhaseCounts[i] = this.windowPhaseCounts[i] / (double) this.windowLoops;
+                this.reportedPhaseBytes[i] = this.windowPhaseBytes[i] / (double) this.windowLoops;
+                this.windowPhaseCounts[i] = 0;
+                this.windowPhaseBytes[i] = 0;
+            }
+            this.reportedCount = this.windowCount / (double) this.windowLoops;
+            this.reportedBytes = this.windowBytes / (double) this.windowLoops;
+            this.reportedMaxPeriodMs = this.windowMaxPeriodMs;
+
+            this.windowCount = 0;
+            this.windowBytes = 0;
+            this.windowMaxPeriodMs = 0;
+            this.windowLoops = 0;
+        }
+    }
+
+    /**
+     * Shows the averages of the last report window. Allocates, call it between loops
+     * (after {@link #endLoop()}) so it is not counted.
+     *
+     * @param telemetry the telemetry to add the values to
+     */
+    public void addTelemetry(JoinedTelemetry telemetry) {
+        telemetry.addData("Allocations / Loop", this.reportedCount);
+        telemetry.addData("Allocated Bytes / Loop", this.reportedBytes);
+        for (int i = 0; i < PHASES.length; i++) {
+            telemetry.addData(PHASE_COUNT_CAPTIONS[i], this.reportedPhaseCounts[i]);
+            telemetry.addData(PHASE_BYTES_CAPTIONS[i], this.reportedPhaseBytes[i]);
+        }
+        telemetry.addData("Average Loop (ms)", this.averagePeriodMs);
+        telemetry.addData("Worst Loop (ms)", this.reportedMaxPeriodMs);
+        telemetry.addData("GC Hiccups", this.gcHiccups);
+        telemetry.addData("Other Hiccups", this.otherHiccups);
+    }
+
+    /** Stops counting allocations and logs the totals. */
+    public void close() {
+        this.counter.stop();
+        this.dataLogger.addData(DataLogger.DataType.INFO, "LoopMonitor: " + this.loops + " loops, average "
+                + this.averagePeriodMs + "ms, " + this.gcHiccups + " GC hiccups, " + this.otherHiccups + " other hiccups");
+    }
+
+    public int getGcHiccups() {
+        return this.gcHiccups;
+    }
+
+    public int getOtherHiccups() {
+        return this.otherHiccups;
+    }
+
+    /**
+     * The phases of the {@link org.firstinspires.ftc.teamcode.util.opModes.SympleCommandOpMode} loop.
+     */
+    public enum Phase {
+        LOCALIZATION("Localization"),
+        VOLTAGE("Voltage"),
+        COMMANDS("Commands"),
+        TELEMETRY("Telemetry");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return this.label;
+        }
+    }
+
+    /**
+     * A source of the current thread's allocation counters and the process' GC count.
+     * Off the robot, e.g. in the simulation, a counter can be built on
+     * {@code com.sun.management.ThreadMXBean} and the {@code GarbageCollectorMXBean}s.
+     */
+    public interface AllocationCounter {
+        /** Starts counting, called once before the first loop. */
+        void start();
+
+        /** Stops counting, called once after the last loop. */
+        void stop();
+
+        /** @return the number of objects the current thread allocated since {@link #start()} */
+        long getAllocationCount();
+
+        /** @return the bytes the current thread allocated since {@link #start()} */
+        long getAllocatedBytes();
+
+        /** @return a count of the garbage collections, only its changes are used */
+        long getGcCount();
+    }
+
+    /**
+     * The {@link Debug} allocation counters of ART. They are 32 bit, so the wrap-arounds are
+     * accumulated into 64 bit totals. Android deprecated all of them but still implements them.
+     */
+    @SuppressWarnings("deprecation")
+    public static class AndroidAllocationCounter implements AllocationCounter {
+        private int lastCount;
+        private int lastBytes;
+        private long count = 0;
+        private long bytes = 0;
+
+        @Override
+        public void start() {
+            Debug.startAllocCounting();
+            this.lastCount = Debug.getThreadAllocCount();
+            this.lastBytes = Debug.getThreadAllocSize();
+        }
+
+        @Override
+        public void stop() {
+            Debug.stopAllocCounting();
+        }
+
+        @Override
+        public long getAllocationCount() {
+            int now = Debug.getThreadAllocCount();
+            this.count += now - this.lastCount;
+            this.lastCount = now;
+            return this.count;
+        }
+
+        @Override
+        public long getAllocatedBytes() {
+            int now = Debug.getThreadAllocSize();
+            this.bytes += now - this.lastBytes;
+            this.lastBytes = now;
+            return this.bytes;
+        }
+
+        @Override
+        public long getGcCount() {
+            return Debug.getGlobalGcInvocationCount();
+        }
+    }
+}
@@ -39,4 +39,16 @@ public class MathUtil {
     public static double encoderTicksToMeter(double ticks, double wheelRadius, double ticksPerRev, double gearRatio) {
         return (Math.PI * 2 * wheelRadius) / (ticksPerRev * gearRatio) * ticks;
     }
-}
+
+    /**
+     * Limits a value to a range.
+     *
+     * @param value the value to limit
+     * @param min   the lowest allowed value
+     * @param max   the highest allowed value
+     * @return {@code value} limited to {@code [min, max]}
+     */
+    public static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
\ No newline at end of file
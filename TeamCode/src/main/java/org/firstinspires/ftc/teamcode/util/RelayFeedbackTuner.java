@@ -0,0 +1,165 @@
+package org.firstinspires.ftc.teamcode.util;
+
+/**
+ * Relay feedback (Åström–Hägglund) experiment for tuning a PID controller.
+ *
+ * <p>Instead of a controller, a relay with hysteresis drives the process: the output is
+ * {@code +amplitude} once the error rises above {@code +hysteresis} and {@code -amplitude} once it
+ * falls below {@code -hysteresis}. Almost every process settles into a limit cycle whose period is the
+ * ultimate period {@code Tu} and whose error amplitude {@code a} gives the ultimate gain
+ * {@code Ku = 4 * amplitude / (π * sqrt(a² - hysteresis²))}. A {@link TuningRule} turns these into gains.</p>
+ *
+ * <p>The first {@code settleCycles} cycles are ignored, the next {@code measureCycles} are averaged.
+ * {@link #update(double, double)} does not allocate.</p>
+ */
+public class RelayFeedbackTuner {
+    private final double amplitude;
+    private final double hysteresis;
+    private final int settleCycles;
+    private final int measureCycles;
+
+    private double output;
+
+    private double lastRiseTime = Double.NaN;
+    private double maxError = Double.NEGATIVE_INFINITY;
+    private double minError = Double.POSITIVE_INFINITY;
+
+    private int cycles = 0;
+    private double periodSum = 0;
+    private double errorAmplitudeSum = 0;
+
+    /**
+     * @param amplitude     the relay output, in power
+     * @param hysteresis    the error band the relay does not switch in, in the units of the error
+     * @param settleCycles  the number of cycles to ignore while the oscillation settles
+     * @param measureCycles the number of cycles to average
+     */
+    public RelayFeedbackTuner(double amplitude, double hysteresis, int settleCycles, int measureCycles) {
+        if (amplitude <= 0 || hysteresis < 0 || measureCycles < 1) {
+            throw new RuntimeException("Invalid relay parameters!");
+        }
+
+        this.amplitude = amplitude;
+        this.hysteresis = hysteresis;
+        this.settleCycles = Math.max(settleCycles, 0);
+        this.measureCycles = measureCycles;
+
+        // kick the process, it starts at the set point
+        this.output = amplitude;
+    }
+
+    /**
+     * Advances the relay by one loop.
+     *
+     * @param error the set point minus the measurement
+     * @param time  the current time in seconds
+     * @return the output to apply
+     */
+    public double update(double error, double time) {
+        if (this.isFinished()) return 0;
+
+        this.maxError = Math.max(this.maxError, error);
+        this.minError = Math.min(this.minError, error);
+
+        if (this.output <= 0 && error > this.hysteresis) {
+            // the rising switch closes a cycle
+            if (!Double.isNaN(this.lastRiseTime)) this.completeCycle(time);
+
+            this.lastRiseTime = time;
+            this.maxError = error;
+            this.minError = error;
+            this.output = this.amplitude;
+        } else if (this.output >= 0 && error < -this.hysteresis) {
+            this.output = -this.amplitude;
+        }
+
+        return this.output;
+    }
+
+    private void completeCycle(double time) {
+        this.cycles++;
+        if (this.cycles <= this.settleCycles) return;
+
+        this.periodSum += time - this.lastRiseTime;
+        this.errorAmplitudeSum += (this.maxError - this.minError) / 2;
+    }
+
+    /** @return whether enough cycles were measured */
+    public boolean isFinished() {
+        return this.getMeasuredCycles() >= this.measureCycles;
+    }
+
+    /** @return the number of cycles measured after settling */
+    public int getMeasuredCycles() {
+        return Math.max(this.cycles - this.settleCycles, 0);
+    }
+
+    /** @return the ultimate period {@code Tu} in seconds, {@code NaN} before a cycle was measured */
+    public double getUltimatePeriod() {
+        int measured = this.getMeasuredCycles();
+        return measured > 0 ? this.periodSum / measured : Double.NaN;
+    }
+
+    /** @return the mean error amplitude of the limit cycle, {@code NaN} before a cycle was measured */
+    public double getErrorAmplitude() {
+        int measured = this.getMeasuredCycles();
+        return measured > 0 ? this.errorAmplitudeSum / measured : Double.NaN;
+    }
+
+    /** @return the ultimate gain {@code Ku} in power per unit of error, {@code NaN} before a cycle was measured */
+    public double getUltimateGain() {
+        double errorAmplitude = this.getErrorAmplitude();
+        double effectiveAmplitude = errorAmplitude > this.hysteresis
+                ? Math.sqrt(errorAmplitude * errorAmplitude - this.hysteresis * this.hysteresis)
+                : errorAmplitude;
+        return 4 * this.amplitude / (Math.PI * effectiveAmplitude);
+    }
+
+    /**
+     * Rules for turning the ultimate gain and period into PID gains:
+     * {@code Kp = kpFactor * Ku}, {@code Ki = Kp / (tiFactor * Tu)}, {@code Kd = Kp * tdFactor * Tu}.
+     */
+    public enum TuningRule {
+        /** Proportional only, quarter decay. */
+        ZIEGLER_NICHOLS_P(0.5, 0, 0),
+        /** PD, no integral windup on drive commands. */
+        ZIEGLER_NICHOLS_PD(0.8, 0, 0.125),
+        /** Classic Ziegler–Nichols PID, fast with overshoot. */
+        ZIEGLER_NICHOLS_PID(0.6, 0.5, 0.125),
+        /** Pessen integral rule, stronger disturbance rejection. */
+        PESSEN_INTEGRAL(0.7, 0.4, 0.15),
+        /** Some overshoot. */
+        SOME_OVERSHOOT(0.33, 0.5, 0.33),
+        /** No overshoot, the safest start. */
+        NO_OVERSHOOT(0.2, 0.5, 0.33),
+        /** Tyreus–Luyben, conservative and robust to delay. */
+        TYREUS_LUYBEN(0.45, 2.2, 0.159);
+
+        private final double kpFactor;
+        private final double tiFactor;
+        private final double tdFactor;
+
+        /**
+         * @param kpFactor {@code Kp} as a fraction of {@code Ku}
+         * @param tiFactor the integral time as a fraction of {@code Tu}, {@code 0} for no integral
+         * @param tdFactor the derivative time as a fraction of {@code Tu}
+         */
+        TuningRule(double kpFactor, double tiFactor, double tdFactor) {
+            this.kpFactor = kpFactor;
+            this.tiFactor = tiFactor;
+            this.tdFactor = tdFactor;
+        }
+
+        public double getKp(double ultimateGain) {
+            return this.kpFactor * ultimateGain;
+        }
+
+        public double getKi(double ultimateGain, double ultimatePeriod) {
+            return this.tiFactor > 0 ? this.getKp(ultimateGain) / (this.tiFactor * ultimatePeriod) : 0;
+        }
+
+        public double getKd(double ultimateGain, double ultimatePeriod) {
+            return this.getKp(ultimateGain) * this.tdFactor * ultimatePeriod;
+        }
+    }
+}
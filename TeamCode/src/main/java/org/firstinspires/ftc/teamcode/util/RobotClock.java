@@ -0,0 +1,48 @@
+package org.firstinspires.ftc.teamcode.util;
+
+/**
+ * The time source of the robot code.
+ *
+ * <p>Everything that integrates or times behavior (profiles, filters, slew limiters, servo models,
+ * the {@link ClockedPIDFController}s) reads {@link #nanoTime()} instead of {@link System#nanoTime()},
+ * so the simulation can run the real code on a virtual clock, faster than real time. On the robot
+ * it is {@link System#nanoTime()}.</p>
+ *
+ * <p>Code measuring its own cost (benchmarks, init timing) keeps using {@link System#nanoTime()}.</p>
+ */
+public class RobotClock {
+    private static boolean simulated = false;
+    private static long simulatedNanos = 0;
+
+    /** @return the current time in nanoseconds, like {@link System#nanoTime()} */
+    public static long nanoTime() {
+        return simulated ? simulatedNanos : System.nanoTime();
+    }
+
+    /** Switches to a virtual clock starting at the current time, advanced only by {@link #advance(long)}. */
+    public static void useSimulatedTime() {
+        simulatedNanos = System.nanoTime();
+        simulated = true;
+    }
+
+    /** Switches back to {@link System#nanoTime()}. */
+    public static void useRealTime() {
+        simulated = false;
+    }
+
+    /** @return whether the virtual clock is in use */
+    public static boolean isSimulated() {
+        return simulated;
+    }
+
+    /**
+     * Advances the virtual clock.
+     *
+     * @param nanos the time to advance by
+     * @throws RuntimeException if the virtual clock is not in use
+     */
+    public static void advance(long nanos) {
+        if (!simulated) throw new RuntimeException("The robot clock is not simulated!");
+        simulatedNanos += nanos;
+    }
+}
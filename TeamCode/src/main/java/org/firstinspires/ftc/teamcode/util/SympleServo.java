@@ -5,27 +5,194 @@ import com.seattlesolvers.solverslib.hardware.servos.ServoEx;
 
 import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
 
+/**
+ * A {@link ServoEx} that estimates where the servo is.
+ *
+ * <p>Servos give no position feedback, so the position is modeled from the time since the last
+ * command: the servo moves towards its target at its rated speed ({@link #setSpeed(double)},
+ * in seconds per 60°, as on the datasheet). This lets sequences move on the moment the servo
+ * is predicted to arrive, e.g. {@code new WaitUntilCommand(servo::isAtTarget)}, instead of
+ * waiting a fixed time.</p>
+ *
+ * <p>{@link #setProfiled(double, double)} moves slower than the servo's speed by stepping the
+ * commanded position, {@link #update()} must then be called once per loop
+ * (e.g. from the owning subsystem's {@code periodic()}).</p>
+ *
+ * <p>Positions are in the units of {@link #set(double)}: degrees for the min/max constructor,
+ * the given {@link AngleUnit} for the range constructor and 0-1 over {@link #DEFAULT_TRAVEL_DEGREES}
+ * otherwise. The position before the first command is unknown, so the first move is assumed to
+ * start from the far end of the range.</p>
+ */
 public class SympleServo extends ServoEx {
+    /** Rated speed assumed until {@link #setSpeed(double)}, in seconds per 60°. */
+    public static final double DEFAULT_SECONDS_PER_60_DEGREES = 0.2;
+
+    /** The travel of a servo created without a range, in degrees. */
+    public static final double DEFAULT_TRAVEL_DEGREES = 180;
+
+    private final double min;
+    private final double max;
+    private final double degreesPerUnit;
+
+    /** The servo's own speed, in units per second. */
+    private double servoVelocity;
+
+    private boolean enabled = true;
+    private boolean profiled = false;
+    private double profileVelocity;
+
+    private double target = Double.NaN;
+    private double moveStart;
+    private double moveVelocity;
+    private long moveStartNanos;
 
     public SympleServo(HardwareMap hwMap, String id, double min, double max) {
         super(hwMap, id, min, max);
+        this.min = min;
+        this.max = max;
+        this.degreesPerUnit = 1;
+        this.setSpeed(DEFAULT_SECONDS_PER_60_DEGREES);
     }
 
     public SympleServo(HardwareMap hwMap, String id, double range, AngleUnit angleUnit) {
         super(hwMap, id, range, angleUnit);
+        this.min = 0;
+        this.max = range;
+        this.degreesPerUnit = angleUnit.toDegrees(1);
+        this.setSpeed(DEFAULT_SECONDS_PER_60_DEGREES);
     }
 
     public SympleServo(HardwareMap hwMap, String id) {
         super(hwMap, id);
+        this.min = 0;
+        this.max = 1;
+        this.degreesPerUnit = DEFAULT_TRAVEL_DEGREES;
+        this.setSpeed(DEFAULT_SECONDS_PER_60_DEGREES);
+    }
+
+    /**
+     * Sets the rated speed of the servo, used by the motion model.
+     *
+     * @param secondsPer60Degrees the time the servo takes to turn 60°, at the battery voltage it runs at
+     * @return this servo, for chaining
+     * @throws RuntimeException if the speed is not positive
+     */
+    public SympleServo setSpeed(double secondsPer60Degrees) {
+        if (secondsPer60Degrees <= 0) throw new RuntimeException("Servo speed must be positive!");
+
+        double servoVelocity = 60 / secondsPer60Degrees / this.degreesPerUnit;
+        if (servoVelocity == this.servoVelocity) return this;
+
+        this.servoVelocity = servoVelocity;
+        if (!Double.isNaN(this.target)) this.startMove(this.target);
+        return this;
+    }
+
+    /**
+     * Moves the servo to a position at its full speed. Setting the current target again
+     * does not restart the motion model, so this may be called every loop.
+     *
+     * @param output the target position
+     */
+    @Override
+    public ServoEx set(double output) {
+        if (output != this.target || this.profiled) {
+            this.profiled = false;
+            this.startMove(output);
+        }
+        return super.set(output);
+    }
+
+    /**
+     * Moves the servo to a position at a limited speed. Call {@link #update()} once per loop
+     * while the move runs. The first move can not be profiled (the start is unknown) and
+     * runs at full speed.
+     *
+     * @param output      the target position
+     * @param maxVelocity the speed limit, in units per second
+     */
+    public void setProfiled(double output, double maxVelocity) {
+        if (Double.isNaN(this.target)) {
+            this.set(output);
+            return;
+        }
+        if (output == this.target && this.profiled && Math.abs(maxVelocity) == this.profileVelocity) return;
+
+        this.profiled = true;
+        this.profileVelocity = Math.abs(maxVelocity);
+        this.startMove(output);
+        super.set(this.getEstimatedPosition());
+    }
+
+    /** Steps the commanded position of a {@link #setProfiled(double, double)} move. */
+    public void update() {
+        if (!this.profiled || !this.enabled) return;
+
+        super.set(this.getEstimatedPosition());
+        if (this.isAtTarget()) this.profiled = false;
+    }
+
+    /** Starts a move to a target from the estimated position, at the current speed. */
+    private void startMove(double target) {
+        double start;
+        if (Double.isNaN(this.target)) {
+            // unknown start, assume the worst case
+            start = Math.abs(target - this.min) > Math.abs(target - this.max) ? this.min : this.max;
+        } else {
+            start = this.getEstimatedPosition();
+        }
+
+        this.target = target;
+        this.moveStart = start;
+        this.moveVelocity = this.profiled ? Math.min(this.profileVelocity, this.servoVelocity) : this.servoVelocity;
+        this.moveStartNanos = RobotClock.nanoTime();
+    }
+
+    /** @return the estimated position, {@code NaN} before the first command */
+    public double getEstimatedPosition() {
+        if (Double.isNaN(this.target)) return Double.NaN;
+        if (!this.enabled) return this.moveStart;
+
+        double distance = this.target - this.moveStart;
+        double traveled = this.moveVelocity * (RobotClock.nanoTime() - this.moveStartNanos) / 1e9;
+        return traveled >= Math.abs(distance) ? this.target : this.moveStart + Math.copySign(traveled, distance);
+    }
+
+    /** @return the estimated seconds until the servo reaches its target, {@code 0} once there */
+    public double getTimeRemaining() {
+        if (Double.isNaN(this.target)) return 0;
+        if (!this.enabled) return Double.POSITIVE_INFINITY;
+
+        return Math.abs(this.target - this.getEstimatedPosition()) / this.moveVelocity;
+    }
+
+    /** @return whether the servo is estimated to have reached its target */
+    public boolean isAtTarget() {
+        return this.enabled && this.getTimeRemaining() <= 0;
+    }
+
+    /** @return the last target position, {@code NaN} before the first command */
+    public double getTarget() {
+        return this.target;
     }
 
     @Override
     public void disable() {
+        // the servo stops where it is
+        this.moveStart = this.getEstimatedPosition();
+        this.enabled = false;
+
         this.getController().setServoPwmDisable(this.getPortNumber());
         super.disable();
     }
 
     public void enable() {
         this.getController().setServoPwmEnable(this.getPortNumber());
+
+        if (!this.enabled) {
+            // continue from where the servo stopped
+            if (!Double.isNaN(this.target)) this.startMove(this.target);
+            this.enabled = true;
+        }
     }
 }
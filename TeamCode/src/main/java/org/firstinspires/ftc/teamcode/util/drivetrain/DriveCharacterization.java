@@ -0,0 +1,285 @@
+package org.firstinspires.ftc.teamcode.util.drivetrain;
+
+import android.annotation.SuppressLint;
+
+import com.bylazar.configurables.annotations.Configurable;
+
+import org.firstinspires.ftc.teamcode.subsystems.driveTrain.commands.mecanumDrive.DriveToPoseCommand;
+import org.firstinspires.ftc.teamcode.subsystems.driveTrain.commands.mecanumDrive.FollowTrajectoryCommand;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * The measured feedforward gains of the drivetrain: {@code power = kS * sign(v) + kV * v + kA * a}.
+ *
+ * <p>The gains are fitted by least squares ({@link #fit(Model, double[], double[], double[], int)})
+ * from the logs of the characterization OpMode and saved to
+ * {@code /sdcard/FIRST/SympleCharacterization.properties}. Powers are normalized to
+ * {@link org.firstinspires.ftc.teamcode.managers.VoltageManager#NOMINAL_VOLTAGE}, matching the voltage
+ * compensation of the wheels.</p>
+ *
+ * <p>When {@link #LOAD_ON_INIT} is set, the robot controller loads the file at INIT and
+ * {@link #apply()} copies the fitted gains into the {@link Configurable} gains of the drive code,
+ * so they show up (and can still be adjusted) in Panels. It is off by default: applying
+ * overwrites the gains tuned in Panels on every INIT.</p>
+ */
+@Configurable
+public class DriveCharacterization {
+    /** Whether the robot controller loads and applies the saved gains at INIT, replacing the Panels gains. */
+    public static boolean LOAD_ON_INIT = false;
+
+    /** Models that fit the logs worse than this r² are not applied. */
+    public static double MIN_R_SQUARED = 0.9;
+
+    /**
+     * Path of the gains file on the robot controller device.
+     */
+    @SuppressLint("SdCardPath")
+    private static final String FILE_PATH = "/sdcard/FIRST/SympleCharacterization.properties";
+
+    private final double[] kS = new double[Model.values().length];
+    private final double[] kV = new double[Model.values().length];
+    private final double[] kA = new double[Model.values().length];
+    private final double[] rSquared = new double[Model.values().length];
+
+    /** Creates a characterization with no fitted model. */
+    public DriveCharacterization() {
+        for (Model model : Model.values()) {
+            this.set(model, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+        }
+    }
+
+    /**
+     * Loads the saved gains.
+     *
+     * @return the characterization, without fitted models if the file is missing or unreadable
+     */
+    public static DriveCharacterization load() {
+        DriveCharacterization characterization = new DriveCharacterization();
+
+        File file = new File(FILE_PATH);
+        if (!file.isFile()) return characterization;
+
+        Properties properties = new Properties();
+        try (InputStream inputStream = new FileInputStream(file)) {
+            properties.load(inputStream);
+
+            for (Model model : Model.values()) {
+                characterization.set(model,
+                        parse(properties, model.getKey() + ".kS"),
+                        parse(properties, model.getKey() + ".kV"),
+                        parse(properties, model.getKey() + ".kA"),
+                        parse(properties, model.getKey() + ".rSquared"));
+            }
+        } catch (IOException ignored) { }
+
+        return characterization;
+    }
+
+    private static double parse(Properties properties, String key) {
+        try {
+            return Double.parseDouble(properties.getProperty(key, "NaN"));
+        } catch (NumberFormatException ignored) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Saves the fitted models, replacing the file.
+     *
+     * @return whether the file was written
+     */
+    public boolean save() {
+        Properties properties = new Properties();
+        for (Model model : Model.values()) {
+            if (!this.has(model)) continue;
+
+            properties.setProperty(model.getKey() + ".kS", Double.toString(this.getKs(model)));
+            properties.setProperty(model.getKey() + ".kV", Double.toString(this.getKv(model)));
+            properties.setProperty(model.getKey() + ".kA", Double.toString(this.getKa(model)));
+            properties.setProperty(model.getKey() + ".rSquared", Double.toString(this.getRSquared(model)));
+        }
+
+        File file = new File(FILE_PATH);
+        file.getParentFile().mkdirs(); // create the directory if not exists
+
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            properties.store(outputStream, "Drivetrain characterization, power = kS * sign(v) + kV * v + kA * a");
+            return true;
+        } catch (IOException ignored) {
+            return false;
+        }
+    }
+
+    /**
+     * Copies the fitted gains into the drive code:
+     * <ul>
+     *     <li>{@link Model#WHEEL} into {@link WheelVelocityController}.</li>
+     *     <li>{@link Model#LINEAR} into the static friction, velocity and acceleration feedforward of
+     *     {@link FollowTrajectoryCommand} and {@link DriveToPoseCommand} ({@code kA} only where there is one).</li>
+     *     <li>{@link Model#ANGULAR} into the heading static friction feedforward of both and the heading
+     *     velocity feedforward of {@link FollowTrajectoryCommand}.</li>
+     * </ul>
+     * Models that were not fitted or fit worse than {@link #MIN_R_SQUARED} are skipped.
+     */
+    public void apply() {
+        if (this.isApplicable(Model.WHEEL)) {
+            WheelVelocityController.kS = this.getKs(Model.WHEEL);
+            WheelVelocityController.kV = this.getKv(Model.WHEEL);
+            WheelVelocityController.kA = this.getKa(Model.WHEEL);
+        }
+
+        if (this.isApplicable(Model.LINEAR)) {
+            FollowTrajectoryCommand.kS = this.getKs(Model.LINEAR);
+            FollowTrajectoryCommand.kV = this.getKv(Model.LINEAR);
+            FollowTrajectoryCommand.kA = this.getKa(Model.LINEAR);
+            DriveToPoseCommand.kS = this.getKs(Model.LINEAR);
+            DriveToPoseCommand.kV = this.getKv(Model.LINEAR);
+        }
+
+        if (this.isApplicable(Model.ANGULAR)) {
+            FollowTrajectoryCommand.HEADING_kS = this.getKs(Model.ANGULAR);
+            FollowTrajectoryCommand.HEADING_kV = this.getKv(Model.ANGULAR);
+            DriveToPoseCommand.HEADING_kS = this.getKs(Model.ANGULAR);
+        }
+    }
+
+    /**
+     * Fits {@code effort = kS * sign(v) + kV * v + kA * a} by least squares and stores the result.
+     * Samples with a non-finite velocity, acceleration or effort are skipped.
+     *
+     * @param model        the model to fit
+     * @param velocity     the measured velocities
+     * @param acceleration the measured accelerations
+     * @param effort       the applied powers, normalized to the nominal voltage
+     * @param count        the number of samples in the arrays
+     * @return whether the fit succeeded (enough samples moving in both directions)
+     */
+    public boolean fit(Model model, double[] velocity, double[] acceleration, double[] effort, int count) {
+        // normal equations (XᵀX) β = Xᵀy for the columns sign(v), v, a
+        double ss = 0, sv = 0, sa = 0, vv = 0, va = 0, aa = 0;
+        double sy = 0, vy = 0, ay = 0;
+        double yy = 0, ySum = 0;
+        int samples = 0;
+
+        for (int i = 0; i < count; i++) {
+            double v = velocity[i];
+            double a = acceleration[i];
+            double y = effort[i];
+            if (!Double.isFinite(v) || !Double.isFinite(a) || !Double.isFinite(y) || v == 0) continue;
+
+            double s = Math.signum(v);
+            ss += s * s;
+            sv += s * v;
+            sa += s * a;
+            vv += v * v;
+            va += v * a;
+            aa += a * a;
+            sy += s * y;
+            vy += v * y;
+            ay += a * y;
+            yy += y * y;
+            ySum += y;
+            samples++;
+        }
+
+        // Cramer's rule on the symmetric 3x3 system
+        double determinant = ss * (vv * aa - va * va) - sv * (sv * aa - va * sa) + sa * (sv * va - vv * sa);
+        if (samples < 3 || Math.abs(determinant) < 1e-12) return false;
+
+        double fittedKs = (sy * (vv * aa - va * va) - sv * (vy * aa - va * ay) + sa * (vy * va - vv * ay)) / determinant;
+        double fittedKv = (ss * (vy * aa - ay * va) - sy * (sv * aa - va * sa) + sa * (sv * ay - vy * sa)) / determinant;
+        double fittedKa = (ss * (vv * ay - va * vy) - sv * (sv * ay - vy * sa) + sy * (sv * va - vv * sa)) / determinant;
+
+        // r² = 1 - SSres / SStot, with SSres = yᵀy - βᵀXᵀy for the least squares solution
+        double residual = yy - (fittedKs * sy + fittedKv * vy + fittedKa * ay);
+        double total = yy - ySum * ySum / samples;
+        double fittedRSquared = total > 0 ? 1 - residual / total : Double.NaN;
+
+        this.set(model, fittedKs, fittedKv, fittedKa, fittedRSquared);
+        return true;
+    }
+
+    /**
+     * Sets the gains of a model.
+     *
+     * @param model    the model
+     * @param kS       static friction, in power
+     * @param kV       velocity gain, in power per unit of velocity
+     * @param kA       acceleration gain, in power per unit of acceleration
+     * @param rSquared the coefficient of determination of the fit
+     */
+    public void set(Model model, double kS, double kV, double kA, double rSquared) {
+        this.kS[model.ordinal()] = kS;
+        this.kV[model.ordinal()] = kV;
+        this.kA[model.ordinal()] = kA;
+        this.rSquared[model.ordinal()] = rSquared;
+    }
+
+    /** @return whether the model was fitted */
+    public boolean has(Model model) {
+        return Double.isFinite(this.getKs(model)) && Double.isFinite(this.getKv(model)) && Double.isFinite(this.getKa(model));
+    }
+
+    /** @return whether the model was fitted with an r² of at least {@link #MIN_R_SQUARED} */
+    public boolean isApplicable(Model model) {
+        return this.has(model) && this.getRSquared(model) >= MIN_R_SQUARED;
+    }
+
+    public double getKs(Model model) {
+        return this.kS[model.ordinal()];
+    }
+
+    public double getKv(Model model) {
+        return this.kV[model.ordinal()];
+    }
+
+    public double getKa(Model model) {
+        return this.kA[model.ordinal()];
+    }
+
+    public double getRSquared(Model model) {
+        return this.rSquared[model.ordinal()];
+    }
+
+    /**
+     * @param model the model
+     * @return the model's gains for telemetry and logs
+     */
+    public String describe(Model model) {
+        if (!this.has(model)) return "not fitted";
+
+        return String.format(Locale.US, "kS=%.4f kV=%.5f kA=%.5f (r²=%.3f)",
+                this.getKs(model), this.getKv(model), this.getKa(model), this.getRSquared(model));
+    }
+
+    /**
+     * The motions the drivetrain is characterized for.
+     */
+    public enum Model {
+        /** A single wheel, velocity as a fraction of the free speed (like {@link WheelVelocityController}). */
+        WHEEL("wheel"),
+        /** The robot driving forward, velocity in m/s. */
+        LINEAR("linear"),
+        /** The robot turning in place, velocity in deg/s. */
+        ANGULAR("angular");
+
+        private final String key;
+
+        Model(String key) {
+            this.key = key;
+        }
+
+        /** @return the prefix of the model's keys in the gains file */
+        public String getKey() {
+            return this.key;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package org.firstinspires.ftc.teamcode.util.drivetrain;
+
+import com.bylazar.configurables.annotations.Configurable;
+
+import org.firstinspires.ftc.teamcode.util.RobotClock;
+
+/**
+ * Shapes the driver's stick input before it reaches the wheels.
+ *
+ * <p>Every axis goes through a deadband and a response curve ({@link #shapeAxis(double)}).
+ * The curve blends linear and cubic by {@link #EXPO} and is read from a lookup table, which
+ * is rebuilt only when {@link #EXPO} changes from Panels.</p>
+ *
+ * <p>The shaped translation is then slew limited as a vector in the field frame, so the
+ * robot accelerates at most {@link #MAX_ACCELERATION} in any direction (full-stick reversals
+ * included), and the acceleration itself ramps at {@link #MAX_JERK}. The rotation is limited
+ * the same way. {@link #update(double, double, double)} does not allocate.</p>
+ */
+@Configurable
+public class DriveInputShaper {
+    /** Stick values below this are ignored, the rest is rescaled to start from 0. */
+    public static double DEADBAND = 0.05;
+
+    /** Response curve: 0 = linear, 1 = cubic. */
+    public static double EXPO = 0.3;
+
+    /** Translation acceleration limit in power per second, {@code 0} disables the limit. */
+    public static double MAX_ACCELERATION = 5;
+
+    /** Translation jerk limit in power per second², {@code 0} disables the limit. */
+    public static double MAX_JERK = 50;
+
+    /** Rotation acceleration limit in power per second, {@code 0} disables the limit. */
+    public static double ROTATION_MAX_ACCELERATION = 8;
+
+    /** Rotation jerk limit in power per second², {@code 0} disables the limit. */
+    public static double ROTATION_MAX_JERK = 80;
+
+    /** The number of intervals of the response curve lookup table over [0, 1]. */
+    private static final int CURVE_RESOLUTION = 256;
+
+    private static final double[] curve = new double[CURVE_RESOLUTION + 1];
+    private static double curveExpo = Double.NaN;
+
+    private double hSpeed;
+    private double vSpeed;
+    private double acceleration;
+
+    private double rSpeed;
+    private double rotationAcceleration;
+
+    private boolean settled = true;
+
+    private long lastUpdateNanos = 0;
+
+    /**
+     * Applies the deadband and the response curve to one stick axis.
+     *
+     * @param value the raw stick value (-1.0 to 1.0)
+     * @return the shaped value (-1.0 to 1.0)
+     */
+    public static double shapeAxis(double value) {
+        double magnitude = Math.min(Math.abs(value), 1);
+        if (magnitude <= DEADBAND) return 0;
+
+        magnitude = (magnitude - DEADBAND) / (1 - DEADBAND);
+
+        if (curveExpo != EXPO) buildCurve();
+
+        double index = magnitude * CURVE_RESOLUTION;
+        int i = Math.min((int) index, CURVE_RESOLUTION - 1);
+        double shaped = curve[i] + (curve[i + 1] - curve[i]) * (index - i);
+
+        return Math.copySign(shaped, value);
+    }
+
+    /** Fills the response curve lookup table for the current {@link #EXPO}. */
+    private static void buildCurve() {
+        double expo = EXPO;
+        for (int i = 0; i <= CURVE_RESOLUTION; i++) {
+            double input = (double) i / CURVE_RESOLUTION;
+            curve[i] = (1 - expo) * input + expo * input * input * input;
+        }
+        curveExpo = expo;
+    }
+
+    /**
+     * Moves the output towards the shaped field-frame target within the slew limits.
+     *
+     * @param hSpeed the shaped horizontal power, in the field frame
+     * @param vSpeed the shaped vertical power, in the field frame
+     * @param rSpeed the shaped rotation power
+     */
+    public void update(double hSpeed, double vSpeed, double rSpeed) {
+        long now = RobotClock.nanoTime();
+        double dt = this.lastUpdateNanos == 0 ? 0 : (now - this.lastUpdateNanos) / 1e9;
+        this.lastUpdateNanos = now;
+
+        // translation, limited as a vector
+        double deltaH = hSpeed - this.hSpeed;
+        double deltaV = vSpeed - this.vSpeed;
+        double distance = Math.hypot(deltaH, deltaV);
+
+        double step = this.limitStep(distance, dt, this.acceleration, MAX_ACCELERATION, MAX_JERK);
+        this.acceleration = dt > 0 ? step / dt : 0;
+        if (step >= distance) {
+            // snap, so a settled output equals the target exactly
+            this.hSpeed = hSpeed;
+            this.vSpeed = vSpeed;
+        } else {
+            this.hSpeed += deltaH / distance * step;
+            this.vSpeed += deltaV / distance * step;
+        }
+
+        // rotation
+        double rotationDelta = rSpeed - this.rSpeed;
+        double rotationStep = this.limitStep(Math.abs(rotationDelta), dt, this.rotationAcceleration, ROTATION_MAX_ACCELERATION, ROTATION_MAX_JERK);
+        this.rotationAcceleration = dt > 0 ? rotationStep / dt : 0;
+        if (rotationStep >= Math.abs(rotationDelta)) this.rSpeed = rSpeed;
+        else this.rSpeed += Math.copySign(rotationStep, rotationDelta);
+
+        this.settled = this.hSpeed == hSpeed && this.vSpeed == vSpeed && this.rSpeed == rSpeed;
+    }
+
+    /** @return whether the output reached the target of the last update */
+    public boolean isSettled() {
+        return this.settled;
+    }
+
+    /**
+     * Returns how far the output may move towards the target in one update.
+     *
+     * @param distance        the distance to the target
+     * @param dt              seconds since the last update
+     * @param acceleration    the acceleration of the last update
+     * @param maxAcceleration the acceleration limit, {@code 0} for none
+     * @param maxJerk         the jerk limit, {@code 0} for none
+     * @return the step, at most {@code distance}
+     */
+    private double limitStep(double distance, double dt, double acceleration, double maxAcceleration, double maxJerk) {
+        if (maxAcceleration <= 0) return distance;
+        if (dt <= 0) return 0;
+
+        double allowedAcceleration = maxAcceleration;
+        if (maxJerk > 0) {
+            // ramp the acceleration up, and down in time to stop at the target
+            allowedAcceleration = Math.min(allowedAcceleration, acceleration + maxJerk * dt);
+            allowedAcceleration = Math.min(allowedAcceleration, Math.max(Math.sqrt(2 * maxJerk * distance), maxJerk * dt));
+        }
+
+        return Math.min(distance, allowedAcceleration * dt);
+    }
+
+    /** Snaps the output to zero, e.g. when the drive command starts. */
+    public void reset() {
+        this.hSpeed = 0;
+        this.vSpeed = 0;
+        this.acceleration = 0;
+        this.rSpeed = 0;
+        this.rotationAcceleration = 0;
+        this.settled = true;
+        this.lastUpdateNanos = 0;
+    }
+
+    /** @return the slew limited horizontal power, in the field frame */
+    public double getHSpeed() {
+        return this.hSpeed;
+    }
+
+    /** @return the slew limited vertical power, in the field frame */
+    public double getVSpeed() {
+        return this.vSpeed;
+    }
+
+    /** @return the slew limited rotation power */
+    public double getRSpeed() {
+        return this.rSpeed;
+    }
+}
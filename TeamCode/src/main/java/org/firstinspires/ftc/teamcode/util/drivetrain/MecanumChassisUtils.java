@@ -9,6 +9,7 @@ import com.seattlesolvers.solverslib.geometry.Vector2d;
  * into individual wheel speeds, normalize them, and manage wheel speed arrays.</p>
  */
 public class MecanumChassisUtils {
+    private static final double SQRT_2 = Math.sqrt(2);
 
     /**
      * Converts a chassis motion vector and rotational speed into
@@ -18,18 +19,54 @@ public class MecanumChassisUtils {
      * in the robot-centric coordinate system, and rSpeed represents
      * rotational speed (positive = clockwise).</p>
      *
+     * <p>Allocates a new {@link MecanumWheelSpeeds} on every call, prefer
+     * {@link #chassisSpeedToWheelSpeeds(double, double, double, MecanumWheelSpeeds)} in loops.</p>
+     *
      * @param vector chassis movement vector (hSpeed, vSpeed)
      * @param rSpeed rotational speed
      * @return a {@link MecanumWheelSpeeds} object containing individual wheel powers
      */
     public static MecanumWheelSpeeds chassisSpeedToWheelSpeeds(Vector2d vector, double rSpeed) {
-        double[] speeds = new double[4];
-        speeds[0] = Math.sin(vector.angle() + Math.PI / 4) + rSpeed; // front left
-        speeds[1] = Math.sin(vector.angle() - Math.PI / 4) - rSpeed; // front right
-        speeds[2] = Math.sin(vector.angle() - Math.PI / 4) + rSpeed; // back left
-        speeds[3] = Math.sin(vector.angle() + Math.PI / 4) - rSpeed; // back right
+        MecanumWheelSpeeds wheelSpeeds = new MecanumWheelSpeeds();
+        chassisSpeedToWheelSpeeds(vector.getX(), vector.getY(), rSpeed, wheelSpeeds);
+        return wheelSpeeds;
+    }
 
-        normalize(speeds, vector.magnitude());
+    /**
+     * Converts chassis speeds into individual Mecanum wheel speeds, writing
+     * the result into a caller-owned buffer. Does not allocate.
+     *
+     * <p>Equivalent to {@link #chassisSpeedToWheelSpeeds(Vector2d, double)}, but uses
+     * the linear form {@code sin(θ ± π/4) = (y ± x) / (√2·|v|)} instead of
+     * {@code atan2} and {@code sin}, so the only transcendental call is one square root.</p>
+     *
+     * @param hSpeed      horizontal (x) speed in the robot-centric coordinate system
+     * @param vSpeed      vertical (y) speed in the robot-centric coordinate system
+     * @param rSpeed      rotational speed (positive = clockwise)
+     * @param wheelSpeeds the buffer to write the wheel powers into
+     * @return {@code wheelSpeeds}, for chaining
+     */
+    public static MecanumWheelSpeeds chassisSpeedToWheelSpeeds(double hSpeed, double vSpeed, double rSpeed, MecanumWheelSpeeds wheelSpeeds) {
+        double[] speeds = wheelSpeeds.getSpeeds();
+        double mag = Math.sqrt(hSpeed * hSpeed + vSpeed * vSpeed);
+
+        if (mag == 0) {
+            // the translation is scaled by the magnitude, so only the rotation is left
+            speeds[0] = 0;
+            speeds[1] = 0;
+            speeds[2] = 0;
+            speeds[3] = 0;
+        } else {
+            double diagonal = (vSpeed + hSpeed) / (mag * SQRT_2); // sin(angle + PI / 4)
+            double antiDiagonal = (vSpeed - hSpeed) / (mag * SQRT_2); // sin(angle - PI / 4)
+
+            speeds[0] = diagonal + rSpeed; // front left
+            speeds[1] = antiDiagonal - rSpeed; // front right
+            speeds[2] = antiDiagonal + rSpeed; // back left
+            speeds[3] = diagonal - rSpeed; // back right
+
+            normalize(speeds, mag);
+        }
 
         speeds[0] += rSpeed;
         speeds[1] -= rSpeed;
@@ -38,7 +75,7 @@ public class MecanumChassisUtils {
 
         normalize(speeds);
 
-        return new MecanumWheelSpeeds(speeds);
+        return wheelSpeeds;
     }
 
     /**
@@ -91,6 +128,14 @@ public class MecanumChassisUtils {
     public static class MecanumWheelSpeeds {
         private final double[] speeds;
 
+        /**
+         * Constructs a MecanumWheelSpeeds object with all speeds at zero,
+         * to be used as a reusable buffer.
+         */
+        public MecanumWheelSpeeds() {
+            this(new double[4]);
+        }
+
         /**
          * Constructs a MecanumWheelSpeeds object with given wheel speeds.
          *
@@ -141,6 +186,20 @@ public class MecanumChassisUtils {
             return speeds;
         }
 
+        /**
+         * Multiplies all speeds by a scalar in place. Does not allocate.
+         *
+         * @param x scalar multiplier
+         * @return this instance, for chaining
+         */
+        public MecanumWheelSpeeds scale(double x) {
+            for (int i = 0; i < this.speeds.length; i++) {
+                this.speeds[i] *= x;
+            }
+
+            return this;
+        }
+
         /**
          * Returns a new MecanumWheelSpeeds instance with all speeds multiplied by a scalar.
          *
@@ -3,6 +3,11 @@ package org.firstinspires.ftc.teamcode.util.drivetrain;
 import com.seattlesolvers.solverslib.hardware.motors.Motor;
 import com.seattlesolvers.solverslib.hardware.motors.MotorEx;
 
+import org.firstinspires.ftc.teamcode.managers.VoltageManager;
+import org.firstinspires.ftc.teamcode.managers.localization.Localizer;
+import org.firstinspires.ftc.teamcode.maps.MotorMap;
+import org.firstinspires.ftc.teamcode.util.MathUtil;
+
 import java.util.HashMap;
 
 /**
@@ -11,6 +16,14 @@ import java.util.HashMap;
  * Provides convenient methods to control motor powers, set inversion, and configure
  * zero power behavior for each wheel individually or in groups (all wheels or sides).
  * </p>
+ *
+ * <p>In {@link ControlMode#VELOCITY} every power is treated as a target velocity
+ * (fraction of the free speed) and tracked by a {@link WheelVelocityController},
+ * see {@link #enableVelocityControl(MotorMap, MotorMap, MotorMap, MotorMap, Localizer)}. It needs the
+ * motor encoder of every wheel, so it is refused while the localizer reads dead wheels through the
+ * wheels' encoder ports.</p>
+ *
+ * <p>All outputs are compensated for the battery voltage by the {@link VoltageManager}, if initialized.</p>
  */
 public class MecanumWheelSet {
 
@@ -19,6 +32,14 @@ public class MecanumWheelSet {
      */
     private final HashMap<MecanumWheel, MotorEx> motors;
 
+    /**
+     * Mapping from each {@link MecanumWheel} to its velocity controller, empty until
+     * {@link #enableVelocityControl(MotorMap, MotorMap, MotorMap, MotorMap, Localizer)} is called.
+     */
+    private final HashMap<MecanumWheel, WheelVelocityController> velocityControllers = new HashMap<>();
+
+    private ControlMode controlMode = ControlMode.OPEN_LOOP;
+
     /**
      * Constructs a MecanumWheelSet with four motors.
      *
@@ -52,16 +73,100 @@ public class MecanumWheelSet {
         return motor;
     }
 
+    /**
+     * Creates the velocity controllers of the wheels. Required before switching to {@link ControlMode#VELOCITY}
+     * and reading wheel velocities. Wheels whose encoder port the localizer reads a dead wheel from
+     * ({@link Localizer#usesEncoderPort(String)}) get no controller, see {@link #hasVelocityControl(MecanumWheel)}.
+     *
+     * @param frontLeft  motor entry of the front-left wheel
+     * @param frontRight motor entry of the front-right wheel
+     * @param backLeft   motor entry of the back-left wheel
+     * @param backRight  motor entry of the back-right wheel
+     * @param localizer  the active localizer, for the encoder ports it uses
+     */
+    public void enableVelocityControl(
+            MotorMap frontLeft, MotorMap frontRight,
+            MotorMap backLeft, MotorMap backRight,
+            Localizer localizer
+    ) {
+        this.enableVelocityControl(MecanumWheel.FRONT_LEFT, frontLeft, localizer);
+        this.enableVelocityControl(MecanumWheel.FRONT_RIGHT, frontRight, localizer);
+        this.enableVelocityControl(MecanumWheel.BACK_LEFT, backLeft, localizer);
+        this.enableVelocityControl(MecanumWheel.BACK_RIGHT, backRight, localizer);
+    }
+
+    private void enableVelocityControl(MecanumWheel wheel, MotorMap motorMap, Localizer localizer) {
+        if (localizer.usesEncoderPort(motorMap.getId())) {
+            this.velocityControllers.remove(wheel);
+            return;
+        }
+
+        this.velocityControllers.put(wheel, new WheelVelocityController(this.getMotor(wheel), motorMap));
+    }
+
+    /**
+     * @param wheel the wheel to check
+     * @return whether the wheel has a velocity controller, i.e. its motor encoder can be read
+     */
+    public boolean hasVelocityControl(MecanumWheel wheel) {
+        return this.velocityControllers.containsKey(wheel);
+    }
+
+    /**
+     * Retrieves the velocity controller of a specific wheel.
+     *
+     * @param wheel the wheel whose controller to get
+     * @return the velocity controller for the specified wheel
+     * @throws RuntimeException if velocity control was not enabled
+     */
+    public WheelVelocityController getVelocityController(MecanumWheel wheel) {
+        WheelVelocityController controller = this.velocityControllers.get(wheel);
+        if(controller == null) throw new RuntimeException("Velocity control of mecanum motor '" + wheel.name() + "' is not enabled or its encoder port carries a dead wheel.");
+        return controller;
+    }
+
+    /**
+     * Reads the encoder velocity of a wheel.
+     *
+     * @param wheel the wheel to read
+     * @return the velocity, as a fraction of the free speed
+     * @throws RuntimeException if the wheel has no velocity control (the free speed is not known or
+     *                          the encoder port reads a dead wheel)
+     */
+    public double getVelocity(MecanumWheel wheel) {
+        return this.getMotor(wheel).getVelocity() / this.getVelocityController(wheel).getMaxTicksPerSecond();
+    }
+
+    /**
+     * Sets how powers are applied to the wheels.
+     *
+     * @param controlMode the control mode
+     * @throws RuntimeException if switching to {@link ControlMode#VELOCITY} while a wheel has no
+     *                          velocity control, see {@link #hasVelocityControl(MecanumWheel)}
+     */
+    public void setControlMode(ControlMode controlMode) {
+        if (controlMode == this.controlMode) return;
+
+        if (controlMode == ControlMode.VELOCITY) {
+            for (MecanumWheel wheel : MecanumWheel.values()) {
+                this.getVelocityController(wheel).reset();
+            }
+        }
+
+        this.controlMode = controlMode;
+    }
+
+    public ControlMode getControlMode() {
+        return this.controlMode;
+    }
+
     /**
      * Sets the same power to all four wheels.
      *
      * @param power the power to apply (-1.0 to 1.0)
      */
     public void setPower(double power) {
-        this.setPower(MecanumWheel.FRONT_LEFT, power);
-        this.setPower(MecanumWheel.FRONT_RIGHT, power);
-        this.setPower(MecanumWheel.BACK_LEFT, power);
-        this.setPower(MecanumWheel.BACK_RIGHT, power);
+        this.setPowers(power, power, power, power);
     }
 
     /**
@@ -71,20 +176,18 @@ public class MecanumWheelSet {
      * @param right power for right-side wheels
      */
     public void setSidePower(double left, double right) {
-        this.setPower(MecanumWheel.FRONT_LEFT, left);
-        this.setPower(MecanumWheel.FRONT_RIGHT, right);
-        this.setPower(MecanumWheel.BACK_LEFT, left);
-        this.setPower(MecanumWheel.BACK_RIGHT, right);
+        this.setPowers(left, right, left, right);
     }
 
     /**
      * Sets the power of a single wheel.
+     * In {@link ControlMode#VELOCITY} the power is the target velocity as a fraction of the free speed.
      *
      * @param wheel the wheel to set
      * @param power the power to apply (-1.0 to 1.0)
      */
     public void setPower(MecanumWheel wheel, double power) {
-        this.getMotor(wheel).set(power);
+        this.getMotor(wheel).set(MathUtil.clamp(this.calculateOutput(wheel, power), -1, 1));
     }
 
     /**
@@ -93,10 +196,46 @@ public class MecanumWheelSet {
      * @param wheelSpeeds the desired wheel speeds
      */
     public void setPower(MecanumChassisUtils.MecanumWheelSpeeds wheelSpeeds) {
-        this.setPower(MecanumWheel.FRONT_LEFT, wheelSpeeds.getFrontLeft());
-        this.setPower(MecanumWheel.FRONT_RIGHT, wheelSpeeds.getFrontRight());
-        this.setPower(MecanumWheel.BACK_LEFT, wheelSpeeds.getBackLeft());
-        this.setPower(MecanumWheel.BACK_RIGHT, wheelSpeeds.getBackRight());
+        this.setPowers(wheelSpeeds.getFrontLeft(), wheelSpeeds.getFrontRight(), wheelSpeeds.getBackLeft(), wheelSpeeds.getBackRight());
+    }
+
+    /**
+     * Sets the power of all wheels. If an output exceeds 1 after the voltage compensation, all
+     * outputs are scaled down together so the ratios between the wheels (the drive direction) are kept.
+     */
+    private void setPowers(double frontLeft, double frontRight, double backLeft, double backRight) {
+        frontLeft = this.calculateOutput(MecanumWheel.FRONT_LEFT, frontLeft);
+        frontRight = this.calculateOutput(MecanumWheel.FRONT_RIGHT, frontRight);
+        backLeft = this.calculateOutput(MecanumWheel.BACK_LEFT, backLeft);
+        backRight = this.calculateOutput(MecanumWheel.BACK_RIGHT, backRight);
+
+        double max = Math.max(
+                Math.max(Math.abs(frontLeft), Math.abs(frontRight)),
+                Math.max(Math.abs(backLeft), Math.abs(backRight))
+        );
+        double scale = max > 1 ? 1 / max : 1;
+
+        this.getMotor(MecanumWheel.FRONT_LEFT).set(frontLeft * scale);
+        this.getMotor(MecanumWheel.FRONT_RIGHT).set(frontRight * scale);
+        this.getMotor(MecanumWheel.BACK_LEFT).set(backLeft * scale);
+        this.getMotor(MecanumWheel.BACK_RIGHT).set(backRight * scale);
+    }
+
+    /**
+     * Converts a commanded power to the motor output, applying the velocity control
+     * (in {@link ControlMode#VELOCITY}) and the battery voltage compensation.
+     *
+     * @param wheel the wheel the power is for
+     * @param power the commanded power
+     * @return the unclamped motor output
+     */
+    private double calculateOutput(MecanumWheel wheel, double power) {
+        if (this.controlMode == ControlMode.VELOCITY) {
+            power = this.getVelocityController(wheel).calculate(power);
+        }
+
+        VoltageManager voltageManager = VoltageManager.getInstance();
+        return voltageManager == null ? power : power * voltageManager.getCompensationFactor();
     }
 
     /**
@@ -131,6 +270,16 @@ public class MecanumWheelSet {
         this.getMotor(wheel).setZeroPowerBehavior(zeroPowerBehavior);
     }
 
+    /**
+     * How wheel powers are applied.
+     */
+    public enum ControlMode {
+        /** The power is sent to the motor as is. */
+        OPEN_LOOP,
+        /** The power is a target velocity tracked with feedforward and PID. */
+        VELOCITY
+    }
+
     /**
      * Represents the four wheels of a Mecanum drivetrain.
      */
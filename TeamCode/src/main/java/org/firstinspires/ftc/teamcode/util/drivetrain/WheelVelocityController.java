@@ -0,0 +1,115 @@
+package org.firstinspires.ftc.teamcode.util.drivetrain;
+
+import com.bylazar.configurables.annotations.Configurable;
+import com.seattlesolvers.solverslib.hardware.motors.MotorEx;
+
+import org.firstinspires.ftc.teamcode.maps.MotorMap;
+import org.firstinspires.ftc.teamcode.util.ClockedPIDFController;
+import org.firstinspires.ftc.teamcode.util.RobotClock;
+
+/**
+ * Closed-loop velocity controller for a single drive wheel.
+ *
+ * <p>Velocities are normalized to the motor's free speed from {@link MotorMap}
+ * ({@code maxRPM / 60 * ticksPerRev} ticks per second = 1), so the same gains fit every wheel
+ * and a target of {@code 0.5} always means half of the free speed. The motor's encoder port must
+ * read the motor, not a dead wheel, or the measured velocity would be the odometry pod's;
+ * {@link MecanumWheelSet} only creates controllers for ports the localizer does not use.</p>
+ *
+ * <p>The output power is the feedforward
+ * {@code kS * sign(v) + kV * v + kA * a} plus a PID correction on the measured
+ * encoder velocity. With the default gains ({@code kV = 1}, everything else {@code 0})
+ * the output equals the target, i.e. open-loop behavior.</p>
+ */
+@Configurable
+public class WheelVelocityController {
+    /** Static friction feedforward, in power. */
+    public static double kS = 0;
+
+    /** Velocity feedforward, in power per normalized velocity. */
+    public static double kV = 1;
+
+    /** Acceleration feedforward, in power per normalized velocity per second. */
+    public static double kA = 0;
+
+    /** Proportional gain on the normalized velocity error. */
+    public static double kP = 0;
+
+    /** Integral gain on the normalized velocity error. */
+    public static double kI = 0;
+
+    /** Derivative gain on the normalized velocity error. */
+    public static double kD = 0;
+
+    private final MotorEx motor;
+    private final double maxTicksPerSecond;
+    private final ClockedPIDFController pidController = new ClockedPIDFController(kP, kI, kD);
+
+    private double targetVelocity = 0;
+    private double measuredVelocity = 0;
+    private long lastCalculateNanos = 0;
+
+    /**
+     * Creates a velocity controller for a motor.
+     *
+     * @param motor    the wheel motor, its encoder is used for the velocity
+     * @param motorMap the motor's entry, for {@code maxRPM} and {@code ticksPerRev}
+     * @throws RuntimeException if the motor's ticks per revolution or max RPM are not set
+     */
+    public WheelVelocityController(MotorEx motor, MotorMap motorMap) {
+        if (motorMap.getTicksPerRev() <= 0 || motorMap.getMaxRPM() <= 0) {
+            throw new RuntimeException("Motor '" + motorMap.getId() + "' needs ticksPerRev and maxRPM for velocity control.");
+        }
+
+        this.motor = motor;
+        this.maxTicksPerSecond = motorMap.getMaxRPM() / 60 * motorMap.getTicksPerRev();
+    }
+
+    /**
+     * Calculates the power that drives the wheel at the target velocity.
+     *
+     * @param targetVelocity the target velocity, as a fraction of the free speed (-1.0 to 1.0)
+     * @return the power to apply, unclamped so the caller can scale all wheels together
+     */
+    public double calculate(double targetVelocity) {
+        long now = RobotClock.nanoTime();
+        double dt = (now - this.lastCalculateNanos) / 1e9;
+
+        double targetAcceleration = this.lastCalculateNanos != 0 && dt > 0
+                ? (targetVelocity - this.targetVelocity) / dt
+                : 0;
+
+        this.targetVelocity = targetVelocity;
+        this.lastCalculateNanos = now;
+        this.measuredVelocity = this.motor.getVelocity() / this.maxTicksPerSecond;
+
+        double feedforward = kS * Math.signum(targetVelocity) + kV * targetVelocity + kA * targetAcceleration;
+
+        this.pidController.setPID(kP, kI, kD);
+        double correction = this.pidController.calculate(this.measuredVelocity, targetVelocity);
+
+        return feedforward + correction;
+    }
+
+    /** Clears the integral and acceleration history, e.g. after switching control modes. */
+    public void reset() {
+        this.pidController.reset();
+        this.targetVelocity = 0;
+        this.lastCalculateNanos = 0;
+    }
+
+    /** @return the last target velocity, as a fraction of the free speed */
+    public double getTargetVelocity() {
+        return this.targetVelocity;
+    }
+
+    /** @return the last measured velocity, as a fraction of the free speed */
+    public double getMeasuredVelocity() {
+        return this.measuredVelocity;
+    }
+
+    /** @return the motor's free speed in ticks per second */
+    public double getMaxTicksPerSecond() {
+        return this.maxTicksPerSecond;
+    }
+}
@@ -0,0 +1,216 @@
+package org.firstinspires.ftc.teamcode.util.motionprofile;
+
+/**
+ * A one-dimensional motion profile from rest to rest over a fixed distance.
+ *
+ * <p>The profile is made of phases of constant jerk and is computed once on creation,
+ * so sampling it by elapsed time only walks a handful of phases (constant time) and does
+ * not allocate. Works for any unit (meters, degrees, ...), as long as the limits use the same one.</p>
+ *
+ * <pre>
+ *  {@code
+ *  MotionProfile profile = MotionProfile.sCurve(1.2, 1, 2, 10);
+ *  double setPoint = profile.getPosition(elapsedSeconds);
+ *  double feedforward = kV * profile.getVelocity(elapsedSeconds) + kA * profile.getAcceleration(elapsedSeconds);
+ *  }
+ * </pre>
+ */
+public class MotionProfile {
+    /** The most phases a profile has (the 7 phases of an S-curve). */
+    private static final int MAX_PHASES = 7;
+
+    private final double direction;
+
+    private final double[] phaseStartTimes = new double[MAX_PHASES];
+    private final double[] phaseStartPositions = new double[MAX_PHASES];
+    private final double[] phaseStartVelocities = new double[MAX_PHASES];
+    private final double[] phaseStartAccelerations = new double[MAX_PHASES];
+    private final double[] phaseJerks = new double[MAX_PHASES];
+    private int phaseCount = 0;
+
+    private double duration = 0;
+    private double endPosition = 0;
+    private double endVelocity = 0;
+
+    private MotionProfile(double distance) {
+        this.direction = distance < 0 ? -1 : 1;
+    }
+
+    /**
+     * Creates a trapezoidal profile: constant acceleration up to the max velocity, cruise,
+     * and constant deceleration. Short moves that can't reach the max velocity become triangular.
+     *
+     * @param distance        the distance to move, may be negative
+     * @param maxVelocity     the velocity limit (positive)
+     * @param maxAcceleration the acceleration limit (positive)
+     * @return the profile
+     * @throws RuntimeException if a limit is not positive
+     */
+    public static MotionProfile trapezoidal(double distance, double maxVelocity, double maxAcceleration) {
+        if (maxVelocity <= 0 || maxAcceleration <= 0) {
+            throw new RuntimeException("Motion profile limits must be positive.");
+        }
+
+        double length = Math.abs(distance);
+        double peakVelocity = Math.min(maxVelocity, Math.sqrt(length * maxAcceleration));
+        double accelerationTime = peakVelocity / maxAcceleration;
+        double cruiseTime = peakVelocity > 0 ? (length - peakVelocity * accelerationTime) / peakVelocity : 0;
+
+        MotionProfile profile = new MotionProfile(distance);
+        profile.addPhase(accelerationTime, maxAcceleration, 0);
+        profile.addPhase(cruiseTime, 0, 0);
+        profile.addPhase(accelerationTime, -maxAcceleration, 0);
+        return profile;
+    }
+
+    /**
+     * Creates a jerk-limited (S-curve) profile. The acceleration ramps at the max jerk,
+     * so the motion starts and ends smoothly. Short moves lower the peak velocity and acceleration
+     * to fit the distance.
+     *
+     * @param distance        the distance to move, may be negative
+     * @param maxVelocity     the velocity limit (positive)
+     * @param maxAcceleration the acceleration limit (positive)
+     * @param maxJerk         the jerk limit (positive)
+     * @return the profile
+     * @throws RuntimeException if a limit is not positive
+     */
+    public static MotionProfile sCurve(double distance, double maxVelocity, double maxAcceleration, double maxJerk) {
+        if (maxVelocity <= 0 || maxAcceleration <= 0 || maxJerk <= 0) {
+            throw new RuntimeException("Motion profile limits must be positive.");
+        }
+
+        double length = Math.abs(distance);
+        double peakVelocity = maxVelocity;
+
+        if (2 * sCurveRampDistance(maxVelocity, maxAcceleration, maxJerk) > length) {
+            // the max velocity can't be reached, find the velocity whose ramps cover the distance exactly
+            double low = 0;
+            double high = maxVelocity;
+            for (int i = 0; i < 50; i++) {
+                double mid = (low + high) / 2;
+                if (2 * sCurveRampDistance(mid, maxAcceleration, maxJerk) > length) {
+                    high = mid;
+                } else {
+                    low = mid;
+                }
+            }
+            peakVelocity = low;
+        }
+
+        double peakAcceleration = Math.min(maxAcceleration, Math.sqrt(peakVelocity * maxJerk));
+        double jerkTime = peakAcceleration / maxJerk;
+        double constantAccelerationTime = peakAcceleration > 0 ? Math.max(peakVelocity / peakAcceleration - jerkTime, 0) : 0;
+        double rampDistance = sCurveRampDistance(peakVelocity, maxAcceleration, maxJerk);
+        double cruiseTime = peakVelocity > 0 ? Math.max(length - 2 * rampDistance, 0) / peakVelocity : 0;
+
+        MotionProfile profile = new MotionProfile(distance);
+        profile.addPhase(jerkTime, 0, maxJerk);
+        profile.addPhase(constantAccelerationTime, peakAcceleration, 0);
+        profile.addPhase(jerkTime, peakAcceleration, -maxJerk);
+        profile.addPhase(cruiseTime, 0, 0);
+        profile.addPhase(jerkTime, 0, -maxJerk);
+        profile.addPhase(constantAccelerationTime, -peakAcceleration, 0);
+        profile.addPhase(jerkTime, -peakAcceleration, maxJerk);
+        return profile;
+    }
+
+    /**
+     * Returns the distance an S-curve covers while accelerating from rest to a velocity.
+     * The ramp is symmetric, so the average velocity is half the final one.
+     */
+    private static double sCurveRampDistance(double velocity, double maxAcceleration, double maxJerk) {
+        double rampTime = velocity >= maxAcceleration * maxAcceleration / maxJerk
+                ? velocity / maxAcceleration + maxAcceleration / maxJerk
+                : 2 * Math.sqrt(velocity / maxJerk);
+        return velocity * rampTime / 2;
+    }
+
+    /**
+     * Appends a phase of constant jerk, starting where the previous phase ended.
+     *
+     * @param duration          the phase duration in seconds
+     * @param startAcceleration the acceleration at the start of the phase
+     * @param jerk              the jerk during the phase
+     */
+    private void addPhase(double duration, double startAcceleration, double jerk) {
+        if (duration <= 0) return;
+
+        int i = this.phaseCount++;
+        this.phaseStartTimes[i] = this.duration;
+        this.phaseStartPositions[i] = this.endPosition;
+        this.phaseStartVelocities[i] = this.endVelocity;
+        this.phaseStartAccelerations[i] = startAcceleration;
+        this.phaseJerks[i] = jerk;
+
+        this.endPosition += this.endVelocity * duration
+                + startAcceleration * duration * duration / 2
+                + jerk * duration * duration * duration / 6;
+        this.endVelocity += startAcceleration * duration + jerk * duration * duration / 2;
+        this.duration += duration;
+    }
+
+    /** Finds the phase containing a time, clamped to the profile. */
+    private int findPhase(double t) {
+        int phase = 0;
+        while (phase + 1 < this.phaseCount && t >= this.phaseStartTimes[phase + 1]) {
+            phase++;
+        }
+        return phase;
+    }
+
+    /**
+     * @param t seconds since the start of the profile
+     * @return the position at {@code t}, the full distance once the profile ended
+     */
+    public double getPosition(double t) {
+        if (this.phaseCount == 0 || t >= this.duration) return this.direction * this.endPosition;
+        if (t <= 0) return 0;
+
+        int i = this.findPhase(t);
+        double dt = t - this.phaseStartTimes[i];
+        return this.direction * (this.phaseStartPositions[i]
+                + this.phaseStartVelocities[i] * dt
+                + this.phaseStartAccelerations[i] * dt * dt / 2
+                + this.phaseJerks[i] * dt * dt * dt / 6);
+    }
+
+    /**
+     * @param t seconds since the start of the profile
+     * @return the velocity at {@code t}
+     */
+    public double getVelocity(double t) {
+        if (this.phaseCount == 0 || t >= this.duration || t <= 0) return 0;
+
+        int i = this.findPhase(t);
+        double dt = t - this.phaseStartTimes[i];
+        return this.direction * (this.phaseStartVelocities[i]
+                + this.phaseStartAccelerations[i] * dt
+                + this.phaseJerks[i] * dt * dt / 2);
+    }
+
+    /**
+     * @param t seconds since the start of the profile
+     * @return the acceleration at {@code t}
+     */
+    public double getAcceleration(double t) {
+        if (this.phaseCount == 0 || t >= this.duration || t <= 0) return 0;
+
+        int i = this.findPhase(t);
+        double dt = t - this.phaseStartTimes[i];
+        return this.direction * (this.phaseStartAccelerations[i] + this.phaseJerks[i] * dt);
+    }
+
+    /** @return the duration of the profile in seconds */
+    public double getDuration() {
+        return this.duration;
+    }
+
+    /**
+     * @param t seconds since the start of the profile
+     * @return whether the profile ended
+     */
+    public boolean isFinished(double t) {
+        return t >= this.duration;
+    }
+}
@@ -0,0 +1,444 @@
+package org.firstinspires.ftc.teamcode.util.opModes;
+
+import com.bylazar.configurables.annotations.Configurable;
+import com.bylazar.telemetry.JoinedTelemetry;
+import com.bylazar.telemetry.PanelsTelemetry;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.seattlesolvers.solverslib.command.CommandOpMode;
+
+import org.firstinspires.ftc.teamcode.managers.RobotPositionManager;
+import org.firstinspires.ftc.teamcode.managers.VoltageManager;
+import org.firstinspires.ftc.teamcode.managers.localization.LocalizerType;
+import org.firstinspires.ftc.teamcode.subsystems.driveTrain.MecanumDriveSubsystem;
+import org.firstinspires.ftc.teamcode.util.DataLogger;
+import org.firstinspires.ftc.teamcode.util.drivetrain.DriveCharacterization;
+import org.firstinspires.ftc.teamcode.util.drivetrain.MecanumWheelSet;
+
+/**
+ * An {@link com.qualcomm.robotcore.eventloop.opmode.OpMode} for measuring the feedforward gains of the drivetrain.
+ *
+ * <p>The robot runs four tests with a rest between them: a quasistatic ramp forward and backward
+ * (the power rises by {@link #quasistaticRampRate} per second, so acceleration is negligible and
+ * {@code kS} and {@code kV} dominate) and a dynamic step forward and backward (a constant
+ * {@link #dynamicPower}, which excites {@code kA}). Every loop the time, battery voltage, power,
+ * position and wheel velocity are logged into preallocated buffers. The body velocity and the
+ * accelerations are differentiated afterwards with central differences.</p>
+ *
+ * <p>Once done, {@code power * voltage / NOMINAL_VOLTAGE = kS * sign(v) + kV * v + kA * a} is fitted
+ * by least squares (see {@link DriveCharacterization}). The {@link Motion#LINEAR} run fits the
+ * {@link DriveCharacterization.Model#WHEEL} and {@link DriveCharacterization.Model#LINEAR} models and the
+ * {@link Motion#ANGULAR} run fits {@link DriveCharacterization.Model#ANGULAR}. The results are shown in
+ * telemetry and saved, keeping the models fitted by earlier runs.</p>
+ *
+ * <p>The {@link DriveCharacterization.Model#WHEEL} velocity is the mean of the wheels whose motor
+ * encoder can be read ({@link MecanumDriveSubsystem#hasWheelEncoder(MecanumWheelSet.MecanumWheel)}):
+ * the encoder ports the {@link #localizer} reads dead wheels from are left out. Without any such wheel the
+ * model is not fitted.</p>
+ *
+ * <p>Workflow:</p>
+ * <ol>
+ *     <li>Place the robot with at least {@link #maxDistance} meters free in front and behind it.</li>
+ *     <li>Driver Station: select <b>Drivetrain Characterization</b> TeleOp and press INIT.</li>
+ *     <li>Panels: select the {@link #motion} and the robot's {@link #localizer}, and adjust the test
+ *     parameters if needed.</li>
+ *     <li>Press PLAY: the tests run and the results are shown when done.</li>
+ * </ol>
+ */
+@Configurable
+@TeleOp(name = "Drivetrain Characterization", group = "tune")
+public class DrivetrainCharacterizationOpMode extends CommandOpMode {
+
+    /**
+     * The motion to characterize.
+     * <p>Adjustable from Panels.</p>
+     */
+    public static Motion motion = Motion.LINEAR;
+
+    /**
+     * The localizer the robot drives with, it measures the position and decides which wheel encoders can be read.
+     * <p>Adjustable from Panels.</p>
+     */
+    public static LocalizerType localizer = LocalizerType.DEAD_WHEELS;
+
+    /**
+     * How fast the quasistatic tests ramp the power, in power per second.
+     * <p>Adjustable from Panels.</p>
+     */
+    public static double quasistaticRampRate = 0.15;
+
+    /**
+     * The power the quasistatic tests stop at.
+     * <p>Adjustable from Panels.</p>
+     */
+    public static double quasistaticMaxPower = 0.6;
+
+    /**
+     * The power of the dynamic tests.
+     * <p>Adjustable from Panels.</p>
+     */
+    public static double dynamicPower = 0.6;
+
+    /**
+     * The length of the dynamic tests, in seconds.
+     * <p>Adjustable from Panels.</p>
+     */
+    public static double dynamicDuration = 1.5;
+
+    /**
+     * The rest between tests, in seconds.
+     * <p>Adjustable from Panels.</p>
+     */
+    public static double restDuration = 1;
+
+    /**
+     * {@link Motion#LINEAR} tests stop after driving this far from their start, in meters.
+     * <p>Adjustable from Panels.</p>
+     */
+    public static double maxDistance = 1.2;
+
+    /**
+     * The number of samples on each side of the central differences. Larger values smooth more.
+     * <p>Adjustable from Panels.</p>
+     */
+    public static int differenceSpan = 3;
+
+    /** Enough for about two minutes of tests at 200Hz. */
+    private static final int BUFFER_CAPACITY = 24_000;
+
+    /** Samples slower than this fraction of the fastest sample are left out of the fit. */
+    private static final double MIN_VELOCITY_FRACTION = 0.02;
+
+    private static final Test[] TESTS = Test.values();
+
+    // the logs
+    private final double[] times = new double[BUFFER_CAPACITY];
+    private final double[] voltages = new double[BUFFER_CAPACITY];
+    private final double[] powers = new double[BUFFER_CAPACITY];
+    private final double[] positions = new double[BUFFER_CAPACITY];
+    private final double[] wheelVelocities = new double[BUFFER_CAPACITY];
+    private final int[] tests = new int[BUFFER_CAPACITY];
+
+    // the fit inputs, derived from the logs
+    private final double[] efforts = new double[BUFFER_CAPACITY];
+    private final double[] velocities = new double[BUFFER_CAPACITY];
+    private final double[] accelerations = new double[BUFFER_CAPACITY];
+
+    private int sampleCount = 0;
+
+    private MecanumDriveSubsystem driveSubsystem;
+    private MecanumWheelSet.MecanumWheel[] encoderWheels;
+    private DriveCharacterization characterization;
+    private boolean compensateVoltage;
+
+    private int testIndex = 0;
+    private boolean resting = true;
+    private long phaseStartNanos;
+    private double testStartPosition;
+
+    private double unwrappedHeading;
+    private double lastHeading;
+
+    private boolean done = false;
+    private boolean saved = false;
+
+    @Override
+    public void initialize() {
+        telemetry = new JoinedTelemetry(PanelsTelemetry.INSTANCE.getFtcTelemetry(), telemetry);
+    }
+
+    private void initializeLoop() {
+        telemetry.addData("Motion", motion);
+        telemetry.addData("Localizer", localizer);
+        telemetry.addData("Quasistatic (power/s, max)", quasistaticRampRate + ", " + quasistaticMaxPower);
+        telemetry.addData("Dynamic (power, s)", dynamicPower + ", " + dynamicDuration);
+        telemetry.update();
+    }
+
+    private void postInitialize() {
+        RobotPositionManager.init(hardwareMap, localizer, false);
+        VoltageManager.init(hardwareMap);
+
+        this.driveSubsystem = new MecanumDriveSubsystem(hardwareMap, (JoinedTelemetry) telemetry,
+                new DataLogger("Characterization", true));
+        this.driveSubsystem.setControlMode(MecanumWheelSet.ControlMode.OPEN_LOOP);
+
+        // only the wheels whose encoder port reads the motor, not one of the localizer's dead wheels
+        int encoderWheelCount = 0;
+        for (MecanumWheelSet.MecanumWheel wheel : MecanumWheelSet.MecanumWheel.values()) {
+            if (this.driveSubsystem.hasWheelEncoder(wheel)) encoderWheelCount++;
+        }
+        this.encoderWheels = new MecanumWheelSet.MecanumWheel[encoderWheelCount];
+        int index = 0;
+        for (MecanumWheelSet.MecanumWheel wheel : MecanumWheelSet.MecanumWheel.values()) {
+            if (this.driveSubsystem.hasWheelEncoder(wheel)) this.encoderWheels[index++] = wheel;
+        }
+
+        // the fit needs the raw power, the voltage is accounted for in the efforts
+        this.compensateVoltage = VoltageManager.COMPENSATE;
+        VoltageManager.COMPENSATE = false;
+
+        this.lastHeading = RobotPositionManager.getInstance().getHeadingByGyro();
+        this.unwrappedHeading = this.lastHeading;
+        this.phaseStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void run() {
+        super.run();
+
+        if (!this.done) {
+            this.runTests();
+        }
+
+        if (this.done) {
+            telemetry.addData("Status", this.saved ? "Done, saved" : "Done, failed to save");
+            for (DriveCharacterization.Model model : motion.getModels()) {
+                telemetry.addData(model.name(), this.characterization.describe(model));
+            }
+            telemetry.addData("Samples", this.sampleCount);
+        } else {
+            telemetry.addData("Status", this.resting ? "Resting" : TESTS[this.testIndex].name());
+            telemetry.addData("Samples", this.sampleCount + " / " + BUFFER_CAPACITY);
+        }
+        telemetry.update();
+    }
+
+    /** Advances the tests by one loop, logging a sample while a test runs. */
+    private void runTests() {
+        long now = System.nanoTime();
+        double phaseTime = (now - this.phaseStartNanos) / 1e9;
+
+        RobotPositionManager.getInstance().update();
+        double position = this.readPosition();
+
+        if (this.resting) {
+            this.drive(0);
+            if (phaseTime < restDuration) return;
+
+            this.resting = false;
+            this.phaseStartNanos = now;
+            this.testStartPosition = position;
+            phaseTime = 0;
+        }
+
+        Test test = TESTS[this.testIndex];
+        double power = test.getPower(phaseTime);
+
+        boolean testDone = test.isFinished(phaseTime)
+                || (motion == Motion.LINEAR && Math.abs(position - this.testStartPosition) >= maxDistance)
+                || this.sampleCount >= BUFFER_CAPACITY;
+
+        if (testDone) {
+            this.drive(0);
+            this.resting = true;
+            this.phaseStartNanos = now;
+
+            if (++this.testIndex >= TESTS.length || this.sampleCount >= BUFFER_CAPACITY) this.finish();
+            return;
+        }
+
+        VoltageManager voltageManager = VoltageManager.getInstance();
+        voltageManager.update();
+
+        int i = this.sampleCount++;
+        this.times[i] = now / 1e9;
+        this.voltages[i] = voltageManager.getVoltage();
+        this.powers[i] = power;
+        this.positions[i] = position;
+        this.wheelVelocities[i] = this.readWheelVelocity();
+        this.tests[i] = this.testIndex;
+
+        this.drive(power);
+    }
+
+    /** @return the forward distance in meters, or the unwrapped heading in degrees */
+    private double readPosition() {
+        RobotPositionManager positionManager = RobotPositionManager.getInstance();
+        if (motion == Motion.LINEAR) return positionManager.getForwardDistanceDriven();
+
+        double heading = positionManager.getHeadingByGyro();
+        this.unwrappedHeading += Math.IEEEremainder(heading - this.lastHeading, 360);
+        this.lastHeading = heading;
+        return this.unwrappedHeading;
+    }
+
+    /**
+     * @return the mean velocity of the wheels with a motor encoder as a fraction of the free speed,
+     * signed like the test power (the wheel powers are inverted, negative wheel velocity drives forward),
+     * or {@code NaN} without such wheels, which the fit skips
+     */
+    private double readWheelVelocity() {
+        if (motion != Motion.LINEAR) return 0;
+        if (this.encoderWheels.length == 0) return Double.NaN;
+
+        double sum = 0;
+        for (MecanumWheelSet.MecanumWheel wheel : this.encoderWheels) {
+            sum += this.driveSubsystem.getWheelVelocity(wheel);
+        }
+        return -sum / this.encoderWheels.length;
+    }
+
+    private void drive(double power) {
+        if (motion == Motion.LINEAR) {
+            this.driveSubsystem.driveRobotCentric(power, 0, 0);
+        } else {
+            this.driveSubsystem.driveRobotCentric(0, 0, power);
+        }
+    }
+
+    /** Stops the robot, fits the models and saves them. */
+    private void finish() {
+        this.done = true;
+        this.drive(0);
+        VoltageManager.COMPENSATE = this.compensateVoltage;
+
+        for (int i = 0; i < this.sampleCount; i++) {
+            this.efforts[i] = this.voltages[i] > 0
+                    ? this.powers[i] * this.voltages[i] / VoltageManager.NOMINAL_VOLTAGE
+                    : this.powers[i];
+        }
+
+        // keep the models of other runs, drop the old results of this one
+        this.characterization = DriveCharacterization.load();
+        for (DriveCharacterization.Model model : motion.getModels()) {
+            this.characterization.set(model, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+        }
+
+        if (motion == Motion.LINEAR) {
+            this.differentiate(this.wheelVelocities, this.accelerations);
+            this.excludeSlowSamples(this.wheelVelocities, this.accelerations);
+            this.characterization.fit(DriveCharacterization.Model.WHEEL, this.wheelVelocities, this.accelerations, this.efforts, this.sampleCount);
+        }
+
+        this.differentiate(this.positions, this.velocities);
+        this.differentiate(this.velocities, this.accelerations);
+        this.excludeSlowSamples(this.velocities, this.accelerations);
+        this.characterization.fit(motion.getBodyModel(), this.velocities, this.accelerations, this.efforts, this.sampleCount);
+
+        this.saved = this.characterization.save();
+    }
+
+    /**
+     * Central differences within every test. Samples without {@link #differenceSpan} neighbours
+     * of the same test on both sides get {@code NaN}, which the fit skips.
+     *
+     * @param values      the values to differentiate
+     * @param derivatives the output
+     */
+    private void differentiate(double[] values, double[] derivatives) {
+        int span = Math.max(differenceSpan, 1);
+
+        for (int i = 0; i < this.sampleCount; i++) {
+            int before = i - span;
+            int after = i + span;
+
+            if (before < 0 || after >= this.sampleCount
+                    || this.tests[before] != this.tests[i] || this.tests[after] != this.tests[i]
+                    || this.times[after] <= this.times[before]) {
+                derivatives[i] = Double.NaN;
+                continue;
+            }
+
+            derivatives[i] = (values[after] - values[before]) / (this.times[after] - this.times[before]);
+        }
+    }
+
+    /**
+     * Marks the samples slower than {@link #MIN_VELOCITY_FRACTION} of the fastest sample as
+     * invalid, where the static friction is not yet broken.
+     */
+    private void excludeSlowSamples(double[] velocities, double[] accelerations) {
+        double fastest = 0;
+        for (int i = 0; i < this.sampleCount; i++) {
+            if (Double.isFinite(velocities[i])) fastest = Math.max(fastest, Math.abs(velocities[i]));
+        }
+
+        for (int i = 0; i < this.sampleCount; i++) {
+            if (Math.abs(velocities[i]) < fastest * MIN_VELOCITY_FRACTION) accelerations[i] = Double.NaN;
+        }
+    }
+
+    @Override
+    public void runOpMode() {
+        this.initialize();
+
+        // runs when in init mode
+        while (this.opModeInInit() && !this.isStopRequested()) {
+            initializeLoop();
+        }
+
+        this.waitForStart();
+
+        postInitialize();
+
+        // run the scheduler
+        while (!isStopRequested() && opModeIsActive()) {
+            this.run();
+        }
+
+        if (!this.done) VoltageManager.COMPENSATE = this.compensateVoltage;
+        this.reset();
+    }
+
+    /**
+     * The motion to characterize.
+     */
+    public enum Motion {
+        /** Driving forward and backward. */
+        LINEAR(DriveCharacterization.Model.WHEEL, DriveCharacterization.Model.LINEAR),
+        /** Turning in place. */
+        ANGULAR(DriveCharacterization.Model.ANGULAR);
+
+        private final DriveCharacterization.Model[] models;
+
+        Motion(DriveCharacterization.Model... models) {
+            this.models = models;
+        }
+
+        /** @return the models fitted by this motion */
+        public DriveCharacterization.Model[] getModels() {
+            return this.models;
+        }
+
+        /** @return the model of the robot's own motion */
+        public DriveCharacterization.Model getBodyModel() {
+            return this.models[this.models.length - 1];
+        }
+    }
+
+    /**
+     * The tests, in the order they run.
+     */
+    private enum Test {
+        QUASISTATIC_FORWARD(true, 1),
+        QUASISTATIC_BACKWARD(true, -1),
+        DYNAMIC_FORWARD(false, 1),
+        DYNAMIC_BACKWARD(false, -1);
+
+        private final boolean quasistatic;
+        private final double direction;
+
+        Test(boolean quasistatic, double direction) {
+            this.quasistatic = quasistatic;
+            this.direction = direction;
+        }
+
+        /**
+         * @param time seconds since the test started
+         * @return the power to apply
+         */
+        double getPower(double time) {
+            if (this.quasistatic) return this.direction * Math.min(quasistaticRampRate * time, quasistaticMaxPower);
+            return this.direction * dynamicPower;
+        }
+
+        /**
+         * @param time seconds since the test started
+         * @return whether the test ran its full length
+         */
+        boolean isFinished(double time) {
+            if (this.quasistatic) return quasistaticRampRate <= 0 || quasistaticRampRate * time >= quasistaticMaxPower;
+            return time >= dynamicDuration;
+        }
+    }
+}
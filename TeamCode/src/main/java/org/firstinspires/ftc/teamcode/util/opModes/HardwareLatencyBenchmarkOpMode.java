@@ -0,0 +1,360 @@
+package org.firstinspires.ftc.teamcode.util.opModes;
+
+import com.bylazar.configurables.annotations.Configurable;
+import com.bylazar.telemetry.JoinedTelemetry;
+import com.bylazar.telemetry.PanelsTelemetry;
+import com.qualcomm.hardware.bosch.BHI260IMU;
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.hardware.rev.RevHubOrientationOnRobot;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.HardwareDevice;
+import com.qualcomm.robotcore.hardware.IMU;
+import com.qualcomm.robotcore.hardware.Servo;
+import com.qualcomm.robotcore.hardware.VoltageSensor;
+import com.seattlesolvers.solverslib.command.CommandOpMode;
+import com.seattlesolvers.solverslib.hardware.motors.MotorEx;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.teamcode.RobotConstants.DriveConstants;
+import org.firstinspires.ftc.teamcode.maps.MotorMap;
+import org.firstinspires.ftc.teamcode.maps.SensorMap;
+import org.firstinspires.ftc.teamcode.maps.ServoMap;
+import org.firstinspires.ftc.teamcode.util.DataLogger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * An {@link com.qualcomm.robotcore.eventloop.opmode.OpMode} for measuring what every hardware call
+ * costs, to budget the loop time with.
+ *
+ * <p>Every configured {@link MotorMap} motor is timed on {@code set}, {@code getCurrentPosition} and
+ * {@code getVelocity}, every {@link ServoMap} servo on position writes, the voltage sensor of every hub on
+ * {@code getVoltage} and the {@link SensorMap#IMU} on reading the yaw. Each test is repeated with the bulk
+ * caching of all hubs {@link LynxModule.BulkCachingMode#OFF OFF}, {@link LynxModule.BulkCachingMode#AUTO AUTO}
+ * and {@link LynxModule.BulkCachingMode#MANUAL MANUAL}. In {@code MANUAL} the cache is cleared at the start of
+ * every loop, like a robot loop does, so the first read of each loop pays for the bulk read.</p>
+ *
+ * <p>The 50th, 90th and 99th percentile and the worst latency of every test are shown in telemetry,
+ * labeled with the hub of the device, and written to a {@code HardwareBenchmark} log file.</p>
+ *
+ * <p>The motor test alternates the power between {@code 0} and {@link #motorTestPower} (the hubs skip
+ * repeated writes), and the servo test moves every servo by {@link #servoTestStep}: put the robot on a stand.</p>
+ *
+ * <p>Workflow:</p>
+ * <ol>
+ *     <li>Driver Station: select <b>Hardware Latency Benchmark</b> TeleOp and press INIT.</li>
+ *     <li>Panels: adjust {@link #callsPerTest} and {@link #callsPerLoop} if needed.</li>
+ *     <li>Press PLAY and wait for <i>Done</i>, then read the results from telemetry or the log.</li>
+ * </ol>
+ */
+@Configurable
+@TeleOp(name = "Hardware Latency Benchmark", group = "tune")
+public class HardwareLatencyBenchmarkOpMode extends CommandOpMode {
+
+    /**
+     * The number of calls timed in every test.
+     * <p>Adjustable from Panels, before PLAY.</p>
+     */
+    public static int callsPerTest = 2000;
+
+    /**
+     * The number of calls made per loop, the loop keeps running between them.
+     * <p>Adjustable from Panels.</p>
+     */
+    public static int callsPerLoop = 20;
+
+    /**
+     * The power the motor write test alternates with {@code 0}, low enough not to move the robot.
+     * <p>Adjustable from Panels.</p>
+     */
+    public static double motorTestPower = 0.02;
+
+    /**
+     * The distance the servo write test alternates the servo positions by.
+     * <p>Adjustable from Panels.</p>
+     */
+    public static double servoTestStep = 0.002;
+
+    private static final LynxModule.BulkCachingMode[] MODES = {
+            LynxModule.BulkCachingMode.OFF,
+            LynxModule.BulkCachingMode.AUTO,
+            LynxModule.BulkCachingMode.MANUAL
+    };
+
+    private DataLogger dataLogger;
+
+    private List<LynxModule> hubs;
+    private LynxModule.BulkCachingMode[] originalModes;
+
+    private final List<Target> targets = new ArrayList<>();
+    private final List<String> results = new ArrayList<>();
+
+    private long[] samples;
+    private int sampleCount = 0;
+    private int modeIndex = 0;
+    private int targetIndex = 0;
+    private boolean flip = false;
+    private boolean done = false;
+
+    /** Keeps the reads alive so they are not optimized away. */
+    private double sink = 0;
+
+    @Override
+    public void initialize() {
+        telemetry = new JoinedTelemetry(PanelsTelemetry.INSTANCE.getFtcTelemetry(), telemetry);
+    }
+
+    private void initializeLoop() {
+        telemetry.addData("Calls Per Test", callsPerTest);
+        telemetry.addData("Calls Per Loop", callsPerLoop);
+        telemetry.update();
+    }
+
+    private void postInitialize() {
+        this.dataLogger = new DataLogger("HardwareBenchmark");
+        this.samples = new long[Math.max(callsPerTest, 1)];
+
+        this.hubs = hardwareMap.getAll(LynxModule.class);
+        this.originalModes = new LynxModule.BulkCachingMode[this.hubs.size()];
+        for (int i = 0; i < this.hubs.size(); i++) {
+            this.originalModes[i] = this.hubs.get(i).getBulkCachingMode();
+        }
+
+        for (MotorMap motorMap : MotorMap.values()) {
+            DcMotorEx rawMotor = hardwareMap.tryGet(DcMotorEx.class, motorMap.getId());
+            if (rawMotor == null) continue;
+
+            MotorEx motor = new MotorEx(hardwareMap, motorMap.getId());
+            String hub = this.getHubName(rawMotor.getController());
+            this.targets.add(new Target(Call.MOTOR_SET, motorMap.getId(), hub).withMotor(motor));
+            this.targets.add(new Target(Call.MOTOR_POSITION, motorMap.getId(), hub).withMotor(motor));
+            this.targets.add(new Target(Call.MOTOR_VELOCITY, motorMap.getId(), hub).withMotor(motor));
+        }
+
+        for (ServoMap servoMap : ServoMap.values()) {
+            Servo servo = hardwareMap.tryGet(Servo.class, servoMap.getId());
+            if (servo == null) continue;
+
+            this.targets.add(new Target(Call.SERVO_POSITION, servoMap.getId(), this.getHubName(servo.getController())).withServo(servo));
+        }
+
+        for (VoltageSensor voltageSensor : hardwareMap.voltageSensor) {
+            String hub = this.getHubName(voltageSensor);
+            this.targets.add(new Target(Call.VOLTAGE, "battery", hub).withVoltageSensor(voltageSensor));
+        }
+
+        BHI260IMU imu = hardwareMap.tryGet(BHI260IMU.class, SensorMap.IMU.getId());
+        if (imu != null) {
+            imu.initialize(new IMU.Parameters(new RevHubOrientationOnRobot(DriveConstants.LOGO_FACING_DIRECTION, DriveConstants.USB_FACING_DIRECTION)));
+            this.targets.add(new Target(Call.IMU_YAW, SensorMap.IMU.getId(), "I2C").withImu(imu));
+        }
+
+        this.done = this.targets.isEmpty();
+        this.setBulkCachingMode(MODES[0]);
+    }
+
+    /**
+     * @param device a device or the controller of one
+     * @return the configured name of the hub the device is on, its connection info if not found
+     */
+    private String getHubName(HardwareDevice device) {
+        Set<String> names = hardwareMap.getNamesOf(device);
+        return names.isEmpty() ? device.getConnectionInfo() : names.iterator().next();
+    }
+
+    private void setBulkCachingMode(LynxModule.BulkCachingMode mode) {
+        for (LynxModule hub : this.hubs) {
+            hub.setBulkCachingMode(mode);
+        }
+    }
+
+    @Override
+    public void run() {
+        super.run();
+
+        if (!this.done) this.runCalls();
+
+        if (this.done) {
+            telemetry.addData("Status", "Done");
+        } else {
+            Target target = this.targets.get(this.targetIndex);
+            telemetry.addData("Status", MODES[this.modeIndex] + " " + target.call + " " + target.device);
+            telemetry.addData("Progress", this.sampleCount + " / " + this.samples.length);
+        }
+
+        telemetry.addData("Results", "p50 / p90 / p99 / max (us)");
+        for (String result : this.results) {
+            telemetry.addLine(result);
+        }
+        telemetry.addData("Checksum", this.sink);
+        telemetry.update();
+    }
+
+    private void runCalls() {
+        if (MODES[this.modeIndex] == LynxModule.BulkCachingMode.MANUAL) {
+            for (LynxModule hub : this.hubs) {
+                hub.clearBulkCache();
+            }
+        }
+
+        Target target = this.targets.get(this.targetIndex);
+        int calls = Math.min(Math.max(callsPerLoop, 1), this.samples.length - this.sampleCount);
+        for (int i = 0; i < calls; i++) {
+            this.flip = !this.flip;
+
+            long start = System.nanoTime();
+            this.call(target);
+            this.samples[this.sampleCount++] = System.nanoTime() - start;
+        }
+
+        if (this.sampleCount >= this.samples.length) this.finishTest(target);
+    }
+
+    private void call(Target target) {
+        switch (target.call) {
+            case MOTOR_SET:
+                target.motor.set(this.flip ? motorTestPower : 0);
+                break;
+            case MOTOR_POSITION:
+                this.sink += target.motor.getCurrentPosition();
+                break;
+            case MOTOR_VELOCITY:
+                this.sink += target.motor.getVelocity();
+                break;
+            case SERVO_POSITION:
+                target.servo.setPosition(target.servoPosition + (this.flip ? servoTestStep : 0));
+                break;
+            case VOLTAGE:
+                this.sink += target.voltageSensor.getVoltage();
+                break;
+            case IMU_YAW:
+                this.sink += target.imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.DEGREES);
+                break;
+        }
+    }
+
+    private void finishTest(Target target) {
+        if (target.call == Call.MOTOR_SET) target.motor.set(0);
+        if (target.call == Call.SERVO_POSITION) target.servo.setPosition(target.servoPosition);
+
+        Arrays.sort(this.samples);
+        String result = String.format(Locale.US, "%s %s %s (%s): %.0f / %.0f / %.0f / %.0f",
+                MODES[this.modeIndex], target.call, target.device, target.hub,
+                this.percentile(0.5), this.percentile(0.9), this.percentile(0.99), this.samples[this.samples.length - 1] / 1000.0);
+        this.results.add(result);
+        this.dataLogger.addData(DataLogger.DataType.INFO, result);
+
+        this.sampleCount = 0;
+        if (++this.targetIndex < this.targets.size()) return;
+
+        this.targetIndex = 0;
+        if (++this.modeIndex < MODES.length) {
+            this.setBulkCachingMode(MODES[this.modeIndex]);
+            return;
+        }
+
+        this.done = true;
+        this.restoreBulkCachingModes();
+    }
+
+    /** @return the nearest-rank percentile of the sorted samples, in microseconds */
+    private double percentile(double fraction) {
+        int index = (int) Math.ceil(fraction * this.samples.length) - 1;
+        return this.samples[Math.max(index, 0)] / 1000.0;
+    }
+
+    private void restoreBulkCachingModes() {
+        for (int i = 0; i < this.hubs.size(); i++) {
+            this.hubs.get(i).setBulkCachingMode(this.originalModes[i]);
+        }
+    }
+
+    @Override
+    public void runOpMode() {
+        this.initialize();
+
+        // runs when in init mode
+        while (this.opModeInInit() && !this.isStopRequested()) {
+            initializeLoop();
+        }
+
+        this.waitForStart();
+
+        postInitialize();
+
+        // run the scheduler
+        while (!isStopRequested() && opModeIsActive()) {
+            this.run();
+        }
+
+        for (Target target : this.targets) {
+            if (target.call == Call.MOTOR_SET) target.motor.set(0);
+        }
+        if (!this.done) this.restoreBulkCachingModes();
+
+        this.dataLogger.closeFile();
+        this.reset();
+    }
+
+    /**
+     * The hardware calls that are timed.
+     */
+    private enum Call {
+        MOTOR_SET,
+        MOTOR_POSITION,
+        MOTOR_VELOCITY,
+        SERVO_POSITION,
+        VOLTAGE,
+        IMU_YAW
+    }
+
+    /**
+     * A call on one device.
+     */
+    private static class Target {
+        private final Call call;
+        private final String device;
+        private final String hub;
+
+        private MotorEx motor;
+        private Servo servo;
+        private double servoPosition;
+        private VoltageSensor voltageSensor;
+        private BHI260IMU imu;
+
+        Target(Call call, String device, String hub) {
+            this.call = call;
+            this.device = device;
+            this.hub = hub;
+        }
+
+        Target withMotor(MotorEx motor) {
+            this.motor = motor;
+            return this;
+        }
+
+        Target withServo(Servo servo) {
+            this.servo = servo;
+
+            // stay around the current position, the middle if it was never set
+            double position = servo.getPosition();
+            this.servoPosition = Double.isNaN(position) ? 0.5 : Math.min(position, 1 - servoTestStep);
+            return this;
+        }
+
+        Target withVoltageSensor(VoltageSensor voltageSensor) {
+            this.voltageSensor = voltageSensor;
+            return this;
+        }
+
+        Target withImu(BHI260IMU imu) {
+            this.imu = imu;
+            return this;
+        }
+    }
+}
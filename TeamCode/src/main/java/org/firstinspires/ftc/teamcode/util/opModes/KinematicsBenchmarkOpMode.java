@@ -0,0 +1,113 @@
+package org.firstinspires.ftc.teamcode.util.opModes;
+
+import android.os.Debug;
+
+import com.bylazar.configurables.annotations.Configurable;
+import com.bylazar.telemetry.JoinedTelemetry;
+import com.bylazar.telemetry.PanelsTelemetry;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.seattlesolvers.solverslib.command.CommandOpMode;
+import com.seattlesolvers.solverslib.geometry.Vector2d;
+
+import org.firstinspires.ftc.teamcode.util.drivetrain.MecanumChassisUtils;
+
+/**
+ * An {@link com.qualcomm.robotcore.eventloop.opmode.OpMode} for comparing the cost of the
+ * {@link MecanumChassisUtils} kinematics overloads on the Control Hub.
+ *
+ * <p>Every loop runs {@link #callsPerLoop} conversions through the {@link Vector2d} overload
+ * and the same number through the buffer overload, and shows the nanoseconds and the
+ * objects allocated per call for each.</p>
+ *
+ * <p>Workflow:</p>
+ * <ol>
+ *     <li>Driver Station: select <b>Kinematics Benchmark</b> TeleOp and press INIT.</li>
+ *     <li>Panels: adjust {@link #callsPerLoop} if needed.</li>
+ *     <li>Press PLAY and read the results from telemetry.</li>
+ * </ol>
+ *
+ * <p>The desktop counterpart is {@code KinematicsBenchmark} in the {@code Benchmarks} module.
+ * The allocation counters of {@link Debug} are deprecated, but ART has no replacement
+ * that counts the current thread only.</p>
+ */
+@Configurable
+@TeleOp(name = "Kinematics Benchmark", group = "tune")
+@SuppressWarnings("deprecation")
+public class KinematicsBenchmarkOpMode extends CommandOpMode {
+
+    /**
+     * The number of conversions timed per loop for every overload.
+     * <p>Adjustable from Panels.</p>
+     */
+    public static int callsPerLoop = 10_000;
+
+    private final MecanumChassisUtils.MecanumWheelSpeeds wheelSpeeds = new MecanumChassisUtils.MecanumWheelSpeeds();
+
+    /** Keeps the results alive so the conversions are not optimized away. */
+    private double sink = 0;
+
+    @Override
+    public void initialize() {
+        telemetry = new JoinedTelemetry(PanelsTelemetry.INSTANCE.getFtcTelemetry(), telemetry);
+        Debug.startAllocCounting();
+    }
+
+    private void initializeLoop() {
+        telemetry.addData("Calls Per Loop", callsPerLoop);
+        telemetry.update();
+    }
+
+    @Override
+    public void run() {
+        super.run();
+
+        int calls = Math.max(callsPerLoop, 1);
+
+        int startAllocations = Debug.getThreadAllocCount();
+        long start = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            double angle = i * 0.001;
+            this.sink += MecanumChassisUtils.chassisSpeedToWheelSpeeds(new Vector2d(Math.cos(angle), Math.sin(angle)), 0.3)
+                    .getFrontLeft();
+        }
+        double vectorNanos = (System.nanoTime() - start) / (double) calls;
+        double vectorAllocations = (Debug.getThreadAllocCount() - startAllocations) / (double) calls;
+
+        startAllocations = Debug.getThreadAllocCount();
+        start = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            double angle = i * 0.001;
+            this.sink += MecanumChassisUtils.chassisSpeedToWheelSpeeds(Math.cos(angle), Math.sin(angle), 0.3, this.wheelSpeeds)
+                    .getFrontLeft();
+        }
+        double bufferNanos = (System.nanoTime() - start) / (double) calls;
+        double bufferAllocations = (Debug.getThreadAllocCount() - startAllocations) / (double) calls;
+
+        telemetry.addData("Vector2d (ns/call)", vectorNanos);
+        telemetry.addData("Vector2d (allocations/call)", vectorAllocations);
+        telemetry.addData("Buffer (ns/call)", bufferNanos);
+        telemetry.addData("Buffer (allocations/call)", bufferAllocations);
+        telemetry.addData("Checksum", this.sink);
+        telemetry.update();
+    }
+
+    @Override
+    public void runOpMode() {
+        this.initialize();
+
+        // runs when in init mode
+        while (this.opModeInInit() && !this.isStopRequested()) {
+            initializeLoop();
+        }
+
+        this.waitForStart();
+
+        // run the scheduler
+        while (!isStopRequested() && opModeIsActive()) {
+            this.run();
+        }
+
+        Debug.stopAllocCounting();
+        this.reset();
+    }
+}
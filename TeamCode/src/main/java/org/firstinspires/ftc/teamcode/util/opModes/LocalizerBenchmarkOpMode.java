@@ -0,0 +1,126 @@
+package org.firstinspires.ftc.teamcode.util.opModes;
+
+import com.bylazar.configurables.annotations.Configurable;
+import com.bylazar.telemetry.JoinedTelemetry;
+import com.bylazar.telemetry.PanelsTelemetry;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.seattlesolvers.solverslib.command.CommandOpMode;
+
+import org.firstinspires.ftc.teamcode.managers.localization.Localizer;
+import org.firstinspires.ftc.teamcode.managers.localization.LocalizerType;
+
+/**
+ * An {@link com.qualcomm.robotcore.eventloop.opmode.OpMode} for comparing the {@link Localizer} backends.
+ *
+ * <p>Every backend whose hardware is found in the robot configuration is created and
+ * updated once per loop. The time each {@link Localizer#update()} takes is measured
+ * and shown in telemetry as the average and worst cost per update and the update rate
+ * that cost allows.</p>
+ *
+ * <p>Workflow:</p>
+ * <ol>
+ *     <li>Driver Station: select <b>Localizer Benchmark</b> TeleOp and press INIT.</li>
+ *     <li>Panels: adjust {@link #sampleWindow} if needed.</li>
+ *     <li>Press PLAY: the available localizers are created and benchmarked.</li>
+ * </ol>
+ */
+@Configurable
+@TeleOp(name = "Localizer Benchmark", group = "tune")
+public class LocalizerBenchmarkOpMode extends CommandOpMode {
+
+    /**
+     * The number of loops averaged into every reported sample.
+     * <p>Adjustable from Panels.</p>
+     */
+    public static int sampleWindow = 100;
+
+    private static final LocalizerType[] TYPES = LocalizerType.values();
+
+    private final Localizer[] localizers = new Localizer[TYPES.length];
+    private final long[] totalNanos = new long[TYPES.length];
+    private final long[] maxNanos = new long[TYPES.length];
+    private final double[] reportedAvgMicros = new double[TYPES.length];
+    private final double[] reportedMaxMicros = new double[TYPES.length];
+
+    private int samples = 0;
+
+    @Override
+    public void initialize() {
+        telemetry = new JoinedTelemetry(PanelsTelemetry.INSTANCE.getFtcTelemetry(), telemetry);
+    }
+
+    private void initializeLoop() {
+        telemetry.addData("Sample Window", sampleWindow);
+        telemetry.update();
+    }
+
+    private void postInitialize() {
+        for (int i = 0; i < TYPES.length; i++) {
+            try {
+                this.localizers[i] = TYPES[i].create(hardwareMap);
+            } catch (RuntimeException ignored) {
+                // the hardware for this backend is not configured on the robot
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        super.run();
+
+        for (int i = 0; i < TYPES.length; i++) {
+            if (this.localizers[i] == null) continue;
+
+            long start = System.nanoTime();
+            this.localizers[i].update();
+            long duration = System.nanoTime() - start;
+
+            this.totalNanos[i] += duration;
+            this.maxNanos[i] = Math.max(this.maxNanos[i], duration);
+        }
+
+        if (++this.samples >= Math.max(sampleWindow, 1)) {
+            for (int i = 0; i < TYPES.length; i++) {
+                this.reportedAvgMicros[i] = this.totalNanos[i] / (this.samples * 1000.0);
+                this.reportedMaxMicros[i] = this.maxNanos[i] / 1000.0;
+                this.totalNanos[i] = 0;
+                this.maxNanos[i] = 0;
+            }
+            this.samples = 0;
+        }
+
+        for (int i = 0; i < TYPES.length; i++) {
+            if (this.localizers[i] == null) {
+                telemetry.addData(TYPES[i].name(), "not configured");
+                continue;
+            }
+
+            telemetry.addData(TYPES[i].name() + " avg (us)", this.reportedAvgMicros[i]);
+            telemetry.addData(TYPES[i].name() + " max (us)", this.reportedMaxMicros[i]);
+            telemetry.addData(TYPES[i].name() + " rate (Hz)", this.reportedAvgMicros[i] > 0 ? 1_000_000 / this.reportedAvgMicros[i] : 0);
+            telemetry.addData(TYPES[i].name() + " heading", this.localizers[i].getHeading());
+        }
+        telemetry.update();
+    }
+
+    @Override
+    public void runOpMode() {
+        this.initialize();
+
+        // runs when in init mode
+        while (this.opModeInInit() && !this.isStopRequested()) {
+            initializeLoop();
+        }
+
+        this.waitForStart();
+
+        postInitialize();
+
+        // run the scheduler
+        while (!isStopRequested() && opModeIsActive()) {
+            this.run();
+        }
+
+        this.reset();
+    }
+}
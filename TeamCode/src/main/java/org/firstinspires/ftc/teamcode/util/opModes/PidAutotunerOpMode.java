@@ -0,0 +1,260 @@
+package org.firstinspires.ftc.teamcode.util.opModes;
+
+import com.bylazar.configurables.annotations.Configurable;
+import com.bylazar.telemetry.JoinedTelemetry;
+import com.bylazar.telemetry.PanelsTelemetry;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.seattlesolvers.solverslib.command.CommandOpMode;
+
+import org.firstinspires.ftc.teamcode.managers.RobotPositionManager;
+import org.firstinspires.ftc.teamcode.managers.VoltageManager;
+import org.firstinspires.ftc.teamcode.subsystems.driveTrain.MecanumDriveSubsystem;
+import org.firstinspires.ftc.teamcode.subsystems.driveTrain.commands.DriveDistanceDriveCommand;
+import org.firstinspires.ftc.teamcode.subsystems.driveTrain.commands.RotateRobotByDegCommand;
+import org.firstinspires.ftc.teamcode.util.DataLogger;
+import org.firstinspires.ftc.teamcode.util.RelayFeedbackTuner;
+
+/**
+ * An {@link com.qualcomm.robotcore.eventloop.opmode.OpMode} for tuning the PID gains of the drive commands.
+ *
+ * <p>The robot holds its starting heading or distance with a relay instead of a controller
+ * (see {@link RelayFeedbackTuner}) and oscillates around it. The ultimate gain and period of the
+ * oscillation are turned into gains by the selected {@link #rule}. The wheels are driven the same
+ * way as the tuned command, so the gains are in the command's units.</p>
+ *
+ * <p>When {@link #applyGains} is set the gains are written into the {@link Configurable} fields of
+ * {@link RotateRobotByDegCommand} or {@link DriveDistanceDriveCommand}, where Panels shows them and
+ * the next run of the command uses them.</p>
+ *
+ * <p>Workflow:</p>
+ * <ol>
+ *     <li>Driver Station: select <b>PID Autotuner</b> TeleOp and press INIT.</li>
+ *     <li>Panels: select the {@link #axis} and {@link #rule}, adjust {@link #relayPower} if needed.</li>
+ *     <li>Press PLAY: the robot oscillates in place and the gains are shown when done.</li>
+ *     <li>Try another {@link #rule} by restarting, the measurement is repeated.</li>
+ * </ol>
+ */
+@Configurable
+@TeleOp(name = "PID Autotuner", group = "tune")
+public class PidAutotunerOpMode extends CommandOpMode {
+
+    /**
+     * The controller to tune.
+     * <p>Adjustable from Panels.</p>
+     */
+    public static Axis axis = Axis.HEADING;
+
+    /**
+     * The rule turning the measurement into gains.
+     * <p>Adjustable from Panels.</p>
+     */
+    public static RelayFeedbackTuner.TuningRule rule = RelayFeedbackTuner.TuningRule.NO_OVERSHOOT;
+
+    /**
+     * The relay output. Larger values oscillate more, over the noise.
+     * <p>Adjustable from Panels.</p>
+     */
+    public static double relayPower = 0.3;
+
+    /**
+     * The relay hysteresis for {@link Axis#HEADING}, in degrees.
+     * <p>Adjustable from Panels.</p>
+     */
+    public static double headingHysteresis = 0.5;
+
+    /**
+     * The relay hysteresis for {@link Axis#DISTANCE}, in meters.
+     * <p>Adjustable from Panels.</p>
+     */
+    public static double distanceHysteresis = 0.003;
+
+    /**
+     * The number of oscillations to ignore while settling.
+     * <p>Adjustable from Panels.</p>
+     */
+    public static int settleCycles = 2;
+
+    /**
+     * The number of oscillations to average.
+     * <p>Adjustable from Panels.</p>
+     */
+    public static int measureCycles = 4;
+
+    /**
+     * Seconds before giving up on an oscillation.
+     * <p>Adjustable from Panels.</p>
+     */
+    public static double timeout = 20;
+
+    /**
+     * Whether to write the gains into the tuned command.
+     * <p>Adjustable from Panels.</p>
+     */
+    public static boolean applyGains = true;
+
+    private MecanumDriveSubsystem driveSubsystem;
+    private RelayFeedbackTuner tuner;
+
+    private double setPoint;
+    private long startNanos;
+
+    private boolean done = false;
+    private double proposedKp;
+    private double proposedKi;
+    private double proposedKd;
+
+    @Override
+    public void initialize() {
+        telemetry = new JoinedTelemetry(PanelsTelemetry.INSTANCE.getFtcTelemetry(), telemetry);
+    }
+
+    private void initializeLoop() {
+        telemetry.addData("Axis", axis);
+        telemetry.addData("Rule", rule);
+        telemetry.addData("Relay Power", relayPower);
+        telemetry.update();
+    }
+
+    private void postInitialize() {
+        RobotPositionManager.init(hardwareMap);
+        VoltageManager.init(hardwareMap);
+
+        this.driveSubsystem = new MecanumDriveSubsystem(hardwareMap, (JoinedTelemetry) telemetry,
+                new DataLogger("Autotuner", true));
+
+        this.tuner = new RelayFeedbackTuner(relayPower,
+                axis == Axis.HEADING ? headingHysteresis : distanceHysteresis,
+                settleCycles, measureCycles);
+
+        this.setPoint = this.readMeasurement();
+        this.startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void run() {
+        super.run();
+
+        if (!this.done) {
+            this.runRelay();
+        }
+
+        telemetry.addData("Status", this.done ? "Done" : "Oscillating");
+        telemetry.addData("Cycles", this.tuner.getMeasuredCycles() + " / " + measureCycles);
+        telemetry.addData("Ultimate Gain (Ku)", this.tuner.getUltimateGain());
+        telemetry.addData("Ultimate Period (Tu)", this.tuner.getUltimatePeriod());
+        telemetry.addData("Oscillation Amplitude", this.tuner.getErrorAmplitude());
+        if (this.done) {
+            telemetry.addData("Kp", this.proposedKp);
+            telemetry.addData("Ki", this.proposedKi);
+            telemetry.addData("Kd", this.proposedKd);
+            telemetry.addData("Applied", applyGains ? axis.getCommandName() : "no");
+        }
+        telemetry.update();
+    }
+
+    /** Drives the relay for one loop and proposes the gains when the measurement is done. */
+    private void runRelay() {
+        RobotPositionManager.getInstance().update();
+        VoltageManager.getInstance().update();
+
+        double time = (System.nanoTime() - this.startNanos) / 1e9;
+        double error = axis == Axis.HEADING
+                ? Math.IEEEremainder(this.setPoint - this.readMeasurement(), 360)
+                : this.setPoint - this.readMeasurement();
+
+        double output = this.tuner.update(error, time);
+
+        if (this.tuner.isFinished() || time >= timeout) {
+            this.done = true;
+            this.drive(0);
+            if (!this.tuner.isFinished()) return; // timed out, nothing to propose
+
+            double ultimateGain = this.tuner.getUltimateGain();
+            double ultimatePeriod = this.tuner.getUltimatePeriod();
+            this.proposedKp = rule.getKp(ultimateGain);
+            this.proposedKi = rule.getKi(ultimateGain, ultimatePeriod);
+            this.proposedKd = rule.getKd(ultimateGain, ultimatePeriod);
+
+            if (applyGains) axis.apply(this.proposedKp, this.proposedKi, this.proposedKd);
+            return;
+        }
+
+        this.drive(output);
+    }
+
+    /** @return the heading in degrees or the forward distance in meters */
+    private double readMeasurement() {
+        return axis == Axis.HEADING
+                ? this.driveSubsystem.getHeading()
+                : this.driveSubsystem.getForwardDistanceDriven();
+    }
+
+    /** Drives the wheels like the tuned command does. */
+    private void drive(double power) {
+        if (axis == Axis.HEADING) {
+            this.driveSubsystem.moveSideMotors(power, -power);
+        } else {
+            this.driveSubsystem.moveSideMotors(-power, -power);
+        }
+    }
+
+    @Override
+    public void runOpMode() {
+        this.initialize();
+
+        // runs when in init mode
+        while (this.opModeInInit() && !this.isStopRequested()) {
+            initializeLoop();
+        }
+
+        this.waitForStart();
+
+        postInitialize();
+
+        // run the scheduler
+        while (!isStopRequested() && opModeIsActive()) {
+            this.run();
+        }
+
+        this.reset();
+    }
+
+    /**
+     * The controllers the autotuner can tune.
+     */
+    public enum Axis {
+        /** The heading controller of {@link RotateRobotByDegCommand}, gains in power per degree. */
+        HEADING {
+            @Override
+            void apply(double kp, double ki, double kd) {
+                RotateRobotByDegCommand.Kp = kp;
+                RotateRobotByDegCommand.Ki = ki;
+                RotateRobotByDegCommand.Kd = kd;
+            }
+
+            @Override
+            String getCommandName() {
+                return RotateRobotByDegCommand.class.getSimpleName();
+            }
+        },
+        /** The distance controller of {@link DriveDistanceDriveCommand}, gains in power per meter. */
+        DISTANCE {
+            @Override
+            void apply(double kp, double ki, double kd) {
+                DriveDistanceDriveCommand.Kp = kp;
+                DriveDistanceDriveCommand.Ki = ki;
+                DriveDistanceDriveCommand.Kd = kd;
+            }
+
+            @Override
+            String getCommandName() {
+                return DriveDistanceDriveCommand.class.getSimpleName();
+            }
+        };
+
+        /** Writes the gains into the command's {@link Configurable} fields. */
+        abstract void apply(double kp, double ki, double kd);
+
+        abstract String getCommandName();
+    }
+}
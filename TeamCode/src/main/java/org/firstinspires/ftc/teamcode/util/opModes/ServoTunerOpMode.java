@@ -21,6 +21,7 @@ import org.firstinspires.ftc.teamcode.util.SympleServo;
  *     <li>Driver Station: select <b>Servo Tuner</b> TeleOp and press INIT.</li>
  *     <li>Panels: adjust {@link #servoId} and {@link #angle} values.</li>
  *     <li>Press PLAY: the servo is initialized and moves the configured {@link #angle}.</li>
+ *     <li>Adjust {@link #secondsPer60Degrees} until the servo stops moving when the estimate arrives.</li>
  * </ol>
  */
 @Configurable
@@ -39,6 +40,12 @@ public class ServoTunerOpMode extends CommandOpMode {
      */
     public static double angle = 0;
 
+    /**
+     * The rated speed of the servo for its motion model, in seconds per 60°.
+     * <p>Adjustable from Panels.</p>
+     */
+    public static double secondsPer60Degrees = SympleServo.DEFAULT_SECONDS_PER_60_DEGREES;
+
     private GamepadEx gamepadEx;
     private SympleServo servo;
 
@@ -64,9 +71,13 @@ public class ServoTunerOpMode extends CommandOpMode {
     public void run() {
         super.run();
 
+        if (secondsPer60Degrees > 0) servo.setSpeed(secondsPer60Degrees);
         servo.set(angle);
 
         telemetry.addData("angle", angle);
+        telemetry.addData("estimated angle", servo.getEstimatedPosition());
+        telemetry.addData("at target", servo.isAtTarget());
+        telemetry.addData("time remaining", servo.getTimeRemaining());
         telemetry.update();
     }
 
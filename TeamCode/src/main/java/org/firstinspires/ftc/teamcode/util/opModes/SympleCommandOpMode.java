@@ -3,6 +3,11 @@ package org.firstinspires.ftc.teamcode.util.opModes;
 import com.seattlesolvers.solverslib.command.CommandOpMode;
 
 import org.firstinspires.ftc.teamcode.RobotControllerBase;
+import org.firstinspires.ftc.teamcode.managers.RobotPositionManager;
+import org.firstinspires.ftc.teamcode.managers.VoltageManager;
+import org.firstinspires.ftc.teamcode.util.DataLogger;
+import org.firstinspires.ftc.teamcode.util.LoopMonitor;
+import org.firstinspires.ftc.teamcode.util.trajectory.TrajectoryCache;
 
 /**
  * Abstract base class for a Symple Command-based OpMode.
@@ -10,9 +15,13 @@ import org.firstinspires.ftc.teamcode.RobotControllerBase;
  * <p>This class extends {@link CommandOpMode} and provides a structured lifecycle
  * for robot operation using a {@link RobotControllerBase}. It automatically handles:
  * <ul>
- *     <li>Initialization and key binding creation</li>
+ *     <li>Initialization and key binding creation, measuring how long INIT takes
+ *     and how much of it went to building trajectories</li>
  *     <li>Init-loop execution with telemetry and graph updates</li>
  *     <li>Post-initialize and run-loop execution</li>
+ *     <li>Refreshing the {@link RobotPositionManager} and {@link VoltageManager} once per loop</li>
+ *     <li>Counting the allocations of every loop phase and logging loop hiccups with the
+ *     {@link LoopMonitor}, if {@link LoopMonitor#ENABLED}</li>
  *     <li>Exception logging via {@link org.firstinspires.ftc.teamcode.util.DataLogger}</li>
  * </ul>
  * </p>
@@ -28,6 +37,16 @@ public abstract class SympleCommandOpMode extends CommandOpMode {
      */
     protected RobotControllerBase robotController;
 
+    /**
+     * Creates the source of the allocation counters for the {@link LoopMonitor}.
+     * Override to plug in another counter, e.g. when running off the robot.
+     *
+     * @return the allocation counter
+     */
+    protected LoopMonitor.AllocationCounter createAllocationCounter() {
+        return new LoopMonitor.AndroidAllocationCounter();
+    }
+
     /**
      * Main OpMode lifecycle.
      * <p>
@@ -37,7 +56,11 @@ public abstract class SympleCommandOpMode extends CommandOpMode {
      */
     @Override
     public void runOpMode() {
+        LoopMonitor loopMonitor = null;
         try {
+            long initStart = System.nanoTime();
+            TrajectoryCache.resetStatistics();
+
             // Call the subclass's initialize method
             this.initialize();
 
@@ -51,9 +74,21 @@ public abstract class SympleCommandOpMode extends CommandOpMode {
             robotController.createKeyBindings();
             robotController.initialize();
 
+            double initTimeMs = (System.nanoTime() - initStart) / 1_000_000.0;
+            robotController.getDataLogger().addData(DataLogger.DataType.INFO, "SympleCommandOpMode: INIT took " + initTimeMs + "ms");
+            String trajectoryReport = TrajectoryCache.hasStatistics() ? TrajectoryCache.getReport() : null;
+            if (trajectoryReport != null) {
+                robotController.getDataLogger().addData(DataLogger.DataType.INFO, "SympleCommandOpMode: trajectories " + trajectoryReport);
+            }
+
             // Init-mode loop
             while (this.opModeInInit() && !this.isStopRequested()) {
+                RobotPositionManager.getInstance().update(); // Read the localizer once per loop
+                VoltageManager.getInstance().update(); // Read the battery voltage when due
+                robotController.updateGamepads(); // Read the gamepads once per loop
                 robotController.initializeLoop();
+                this.robotController.getTelemetry().addData("Init Time (ms)", initTimeMs);
+                if (trajectoryReport != null) this.robotController.getTelemetry().addData("Trajectories", trajectoryReport);
                 this.robotController.getTelemetry().update();
             }
 
@@ -63,16 +98,46 @@ public abstract class SympleCommandOpMode extends CommandOpMode {
             // Post-initialize actions
             robotController.postInitialize();
 
+            if (LoopMonitor.ENABLED) {
+                loopMonitor = new LoopMonitor(this.createAllocationCounter(), robotController.getDataLogger());
+            }
+
             // Active run-loop
             while (!isStopRequested() && opModeIsActive()) {
+                if (loopMonitor != null) loopMonitor.beginLoop();
+
+                RobotPositionManager.getInstance().update(); // Read the localizer once per loop
+                if (loopMonitor != null) loopMonitor.endPhase(LoopMonitor.Phase.LOCALIZATION);
+
+                VoltageManager.getInstance().update(); // Read the battery voltage when due
+                if (loopMonitor != null) loopMonitor.endPhase(LoopMonitor.Phase.VOLTAGE);
+
+                robotController.updateGamepads(); // Read the gamepads once per loop
+                robotController.dispatchKeyBindings(); // Schedule the commands bound to this loop's button edges
                 this.run(); // Call subclass run
                 robotController.run(); // Run robot logic
+                if (loopMonitor != null) loopMonitor.endPhase(LoopMonitor.Phase.COMMANDS);
+
+                this.robotController.getTelemetry().addData("Battery Voltage", VoltageManager.getInstance().getVoltage());
+                this.robotController.getTelemetry().addData("Voltage Compensation", VoltageManager.getInstance().getCompensationFactor());
                 this.robotController.getTelemetry().update(); // Update telemetry
+
+                if (loopMonitor != null) {
+                    loopMonitor.endPhase(LoopMonitor.Phase.TELEMETRY);
+                    loopMonitor.endLoop();
+                    loopMonitor.addTelemetry(this.robotController.getTelemetry()); // Between loops, sent with the next update
+                }
             }
 
             // Cleanup after run
+            if (loopMonitor != null) {
+                loopMonitor.close();
+                loopMonitor = null;
+            }
             robotController.postRun();
         } catch (Exception exception) {
+            if (loopMonitor != null) loopMonitor.close();
+
             // Log exceptions if robotController is available
             if(robotController != null) {
                 robotController.getDataLogger().addThrowable(exception);
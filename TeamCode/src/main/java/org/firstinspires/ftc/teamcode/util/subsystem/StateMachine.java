@@ -0,0 +1,492 @@
+package org.firstinspires.ftc.teamcode.util.subsystem;
+
+import org.firstinspires.ftc.teamcode.util.DataLogger;
+import org.firstinspires.ftc.teamcode.util.RobotClock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A table-driven hierarchical state machine over an enum of states and an enum of events.
+ *
+ * <p>States can be nested: a composite state is active while any of its children is, and entering
+ * it enters its initial child. The machine is always in exactly one leaf state. Every state can have
+ * entry and exit actions and these transitions:</p>
+ * <ul>
+ *     <li>event transitions, taken by {@link #fire(Enum)} when their guard (if any) passes,</li>
+ *     <li>guarded transitions, taken by {@link #update()} as soon as their guard passes,</li>
+ *     <li>a timed transition, taken by {@link #update()} once the state was active for a given time.</li>
+ * </ul>
+ * <p>Transitions of a composite state apply to all of its children, the innermost state's
+ * transitions are tried first. A transition exits the states up to the closest common ancestor of the
+ * current and the target state and enters the states down to the target's initial leaf. A transition to
+ * the state itself or one of its ancestors exits and enters that state again.</p>
+ *
+ * <p>{@link Builder#build()} compiles the transitions into arrays indexed by the state and event
+ * ordinals, so finding the transitions of a state is an index lookup, and {@link #update()} and
+ * {@link #fire(Enum)} do not allocate unless a transition is logged.</p>
+ *
+ * <pre>
+ *  {@code
+ *  StateMachine<ArmState, ArmEvent> machine = new StateMachine.Builder<>(ArmState.class, ArmEvent.class, ArmState.IDLE)
+ *          .child(ArmState.ACTIVE, ArmState.INTAKING)
+ *          .child(ArmState.ACTIVE, ArmState.HOLDING)
+ *          .onEnter(ArmState.INTAKING, () -> intake.set(1))
+ *          .onExit(ArmState.INTAKING, () -> intake.set(0))
+ *          .transition(ArmState.IDLE, ArmEvent.START, ArmState.ACTIVE)
+ *          .transition(ArmState.INTAKING, () -> sensor.hasSample(), ArmState.HOLDING)
+ *          .timeout(ArmState.INTAKING, 3, ArmState.IDLE)
+ *          .transition(ArmState.ACTIVE, ArmEvent.CANCEL, ArmState.IDLE)
+ *          .dataLogger("Arm", dataLogger)
+ *          .build();
+ *  }
+ * </pre>
+ *
+ * @param <S> the states
+ * @param <E> the events
+ */
+public class StateMachine<S extends Enum<S>, E extends Enum<E>> {
+    private static final int NONE = -1;
+
+    private final S[] states;
+    private final E[] events;
+    private final int initialState;
+
+    /** By state ordinal: the parent, the initial child and the depth (0 for top-level states). */
+    private final int[] parents;
+    private final int[] initialChildren;
+    private final int[] depths;
+
+    private final Runnable[] entryActions;
+    private final Runnable[] exitActions;
+
+    /** The event transitions of state {@code s} and event {@code e} are at {@code [eventStarts[s * events + e], eventStarts[s * events + e + 1])}. */
+    private final int[] eventStarts;
+    private final BooleanSupplier[] eventGuards;
+    private final int[] eventTargets;
+
+    /** The guarded transitions of state {@code s} are at {@code [guardStarts[s], guardStarts[s + 1])}. */
+    private final int[] guardStarts;
+    private final BooleanSupplier[] guards;
+    private final int[] guardTargets;
+
+    /** By state ordinal, {@code NONE} for no timed transition. */
+    private final long[] timeoutNanos;
+    private final int[] timeoutTargets;
+
+    private final String name;
+    private final DataLogger dataLogger;
+
+    /** Scratch for the states to enter, the deepest state first. */
+    private final int[] entryPath;
+
+    /** {@link RobotClock#nanoTime()} of entering each state. */
+    private final long[] entryNanos;
+
+    private int current = NONE;
+
+    private StateMachine(Builder<S, E> builder) {
+        this.states = builder.states;
+        this.events = builder.events;
+        this.initialState = builder.initialState.ordinal();
+        // copies, the builder may be changed and built again
+        this.parents = builder.parents.clone();
+        this.initialChildren = builder.initialChildren.clone();
+        this.entryActions = builder.entryActions.clone();
+        this.exitActions = builder.exitActions.clone();
+        this.timeoutNanos = builder.timeoutNanos.clone();
+        this.timeoutTargets = builder.timeoutTargets.clone();
+        this.name = builder.name;
+        this.dataLogger = builder.dataLogger;
+
+        int stateCount = this.states.length;
+        int eventCount = this.events.length;
+
+        this.depths = new int[stateCount];
+        int maxDepth = 0;
+        for (int state = 0; state < stateCount; state++) {
+            int depth = 0;
+            for (int parent = this.parents[state]; parent != NONE; parent = this.parents[parent]) {
+                if (++depth >= stateCount) throw new RuntimeException("State machine '" + this.name + "' has a cycle of parents.");
+            }
+            this.depths[state] = depth;
+            maxDepth = Math.max(maxDepth, depth);
+        }
+        this.entryPath = new int[maxDepth + 1];
+        this.entryNanos = new long[stateCount];
+
+        // counting sort of the transitions by (state, event)
+        this.eventStarts = new int[stateCount * eventCount + 1];
+        this.eventGuards = new BooleanSupplier[builder.eventRows.size()];
+        this.eventTargets = new int[builder.eventRows.size()];
+        for (Transition row : builder.eventRows) {
+            this.eventStarts[row.from * eventCount + row.event + 1]++;
+        }
+        for (int i = 1; i < this.eventStarts.length; i++) {
+            this.eventStarts[i] += this.eventStarts[i - 1];
+        }
+        int[] eventFill = this.eventStarts.clone();
+        for (Transition row : builder.eventRows) {
+            int index = eventFill[row.from * eventCount + row.event]++;
+            this.eventGuards[index] = row.guard;
+            this.eventTargets[index] = row.to;
+        }
+
+        this.guardStarts = new int[stateCount + 1];
+        this.guards = new BooleanSupplier[builder.guardRows.size()];
+        this.guardTargets = new int[builder.guardRows.size()];
+        for (Transition row : builder.guardRows) {
+            this.guardStarts[row.from + 1]++;
+        }
+        for (int i = 1; i < this.guardStarts.length; i++) {
+            this.guardStarts[i] += this.guardStarts[i - 1];
+        }
+        int[] guardFill = this.guardStarts.clone();
+        for (Transition row : builder.guardRows) {
+            int index = guardFill[row.from]++;
+            this.guards[index] = row.guard;
+            this.guardTargets[index] = row.to;
+        }
+    }
+
+    /**
+     * Enters the initial state. Called by the first {@link #update()}, {@link #fire(Enum)} or
+     * {@link #transitionTo(Enum)} if not called before.
+     */
+    public void start() {
+        if (this.current != NONE) return;
+
+        this.enter(this.initialState, NONE);
+        this.log(null, "start");
+    }
+
+    /**
+     * Takes the first timed or guarded transition that applies, innermost state first.
+     * At most one transition is taken per call.
+     *
+     * @return whether a transition was taken
+     */
+    public boolean update() {
+        if (this.current == NONE) {
+            this.start();
+            return true;
+        }
+
+        long now = RobotClock.nanoTime();
+        for (int state = this.current; state != NONE; state = this.parents[state]) {
+            long timeout = this.timeoutNanos[state];
+            if (timeout != NONE && now - this.entryNanos[state] >= timeout) {
+                this.transition(this.timeoutTargets[state], "timeout");
+                return true;
+            }
+
+            for (int i = this.guardStarts[state]; i < this.guardStarts[state + 1]; i++) {
+                if (this.guards[i].getAsBoolean()) {
+                    this.transition(this.guardTargets[i], "guard");
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Takes the first transition on an event whose guard passes, innermost state first.
+     *
+     * @param event the event
+     * @return whether the event was handled (a transition was taken)
+     */
+    public boolean fire(E event) {
+        this.start();
+
+        int eventCount = this.events.length;
+        for (int state = this.current; state != NONE; state = this.parents[state]) {
+            int row = state * eventCount + event.ordinal();
+            for (int i = this.eventStarts[row]; i < this.eventStarts[row + 1]; i++) {
+                BooleanSupplier guard = this.eventGuards[i];
+                if (guard == null || guard.getAsBoolean()) {
+                    this.transition(this.eventTargets[i], event.name());
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Goes to a state regardless of the transitions, running the exit and entry actions.
+     *
+     * @param state the target state
+     */
+    public void transitionTo(S state) {
+        this.start();
+        this.transition(state.ordinal(), "forced");
+    }
+
+    private void transition(int target, String reason) {
+        int previous = this.current;
+
+        // exit up to the closest common ancestor, re-entering the target if it is active
+        int ancestor = this.getCommonAncestor(this.current, target);
+        if (ancestor == target) ancestor = this.parents[target];
+
+        for (int state = this.current; state != ancestor; state = this.parents[state]) {
+            Runnable exitAction = this.exitActions[state];
+            if (exitAction != null) exitAction.run();
+        }
+
+        this.enter(target, ancestor);
+        this.log(this.states[previous], reason);
+    }
+
+    /** Enters the states from below {@code ancestor} down to {@code target}, then its initial children. */
+    private void enter(int target, int ancestor) {
+        int length = 0;
+        for (int state = target; state != ancestor; state = this.parents[state]) {
+            this.entryPath[length++] = state;
+        }
+
+        long now = RobotClock.nanoTime();
+        for (int i = length - 1; i >= 0; i--) {
+            this.enterState(this.entryPath[i], now);
+        }
+
+        int leaf = target;
+        while (this.initialChildren[leaf] != NONE) {
+            leaf = this.initialChildren[leaf];
+            this.enterState(leaf, now);
+        }
+        this.current = leaf;
+    }
+
+    private void enterState(int state, long now) {
+        this.entryNanos[state] = now;
+        Runnable entryAction = this.entryActions[state];
+        if (entryAction != null) entryAction.run();
+    }
+
+    private int getCommonAncestor(int a, int b) {
+        while (this.depths[a] > this.depths[b]) a = this.parents[a];
+        while (this.depths[b] > this.depths[a]) b = this.parents[b];
+        while (a != b) {
+            a = this.parents[a];
+            b = this.parents[b];
+            if (a == NONE || b == NONE) return NONE;
+        }
+        return a;
+    }
+
+    private void log(S from, String reason) {
+        if (this.dataLogger == null) return;
+
+        this.dataLogger.addData(DataLogger.DataType.INFO, "StateMachine " + this.name + ": "
+                + (from == null ? "" : from.name() + " -> ") + this.states[this.current].name() + " (" + reason + ")");
+    }
+
+    /** @return the current leaf state, the initial state before {@link #start()} */
+    public S getState() {
+        return this.states[this.current == NONE ? this.initialState : this.current];
+    }
+
+    /**
+     * @param state a state
+     * @return whether the state is the current state or one of its ancestors
+     */
+    public boolean isIn(S state) {
+        int ordinal = state.ordinal();
+        for (int active = this.current; active != NONE; active = this.parents[active]) {
+            if (active == ordinal) return true;
+        }
+        return false;
+    }
+
+    /** @return the seconds since the current leaf state was entered */
+    public double getTimeInState() {
+        return this.current == NONE ? 0 : (RobotClock.nanoTime() - this.entryNanos[this.current]) / 1e9;
+    }
+
+    /** A transition row, before compiling. */
+    private static class Transition {
+        private final int from;
+        private final int event;
+        private final BooleanSupplier guard;
+        private final int to;
+
+        Transition(int from, int event, BooleanSupplier guard, int to) {
+            this.from = from;
+            this.event = event;
+            this.guard = guard;
+            this.to = to;
+        }
+    }
+
+    /**
+     * Describes the states and transitions of a {@link StateMachine}.
+     */
+    public static class Builder<S extends Enum<S>, E extends Enum<E>> {
+        private final S[] states;
+        private final E[] events;
+        private final S initialState;
+
+        private final int[] parents;
+        private final int[] initialChildren;
+        private final Runnable[] entryActions;
+        private final Runnable[] exitActions;
+        private final long[] timeoutNanos;
+        private final int[] timeoutTargets;
+
+        private final List<Transition> eventRows = new ArrayList<>();
+        private final List<Transition> guardRows = new ArrayList<>();
+
+        private String name = "";
+        private DataLogger dataLogger = null;
+
+        /**
+         * @param stateClass   the enum of the states
+         * @param eventClass   the enum of the events
+         * @param initialState the state the machine starts in
+         */
+        public Builder(Class<S> stateClass, Class<E> eventClass, S initialState) {
+            this.states = stateClass.getEnumConstants();
+            this.events = eventClass.getEnumConstants();
+            this.initialState = initialState;
+
+            int count = this.states.length;
+            this.parents = filled(count);
+            this.initialChildren = filled(count);
+            this.entryActions = new Runnable[count];
+            this.exitActions = new Runnable[count];
+            this.timeoutNanos = new long[count];
+            this.timeoutTargets = filled(count);
+            Arrays.fill(this.timeoutNanos, NONE);
+        }
+
+        private static int[] filled(int count) {
+            int[] array = new int[count];
+            Arrays.fill(array, NONE);
+            return array;
+        }
+
+        /**
+         * Nests a state in another. The first child of a state is its initial child.
+         *
+         * @param parent the composite state
+         * @param child  the nested state
+         * @return this builder
+         * @throws RuntimeException if the child already has a parent
+         */
+        public Builder<S, E> child(S parent, S child) {
+            if (this.parents[child.ordinal()] != NONE) throw new RuntimeException("State '" + child.name() + "' already has a parent.");
+
+            this.parents[child.ordinal()] = parent.ordinal();
+            if (this.initialChildren[parent.ordinal()] == NONE) this.initialChildren[parent.ordinal()] = child.ordinal();
+            return this;
+        }
+
+        /**
+         * Sets the child a composite state enters, instead of its first child.
+         *
+         * @param parent the composite state
+         * @param child  the initial child, a child of {@code parent}
+         * @return this builder
+         */
+        public Builder<S, E> initialChild(S parent, S child) {
+            if (this.parents[child.ordinal()] != parent.ordinal()) {
+                throw new RuntimeException("State '" + child.name() + "' is not a child of '" + parent.name() + "'.");
+            }
+
+            this.initialChildren[parent.ordinal()] = child.ordinal();
+            return this;
+        }
+
+        public Builder<S, E> onEnter(S state, Runnable action) {
+            this.entryActions[state.ordinal()] = action;
+            return this;
+        }
+
+        public Builder<S, E> onExit(S state, Runnable action) {
+            this.exitActions[state.ordinal()] = action;
+            return this;
+        }
+
+        /**
+         * Adds a transition taken on an event. Transitions added first are tried first.
+         *
+         * @param from  the state, or an ancestor of the states, the transition leaves
+         * @param event the event
+         * @param to    the target state
+         * @return this builder
+         */
+        public Builder<S, E> transition(S from, E event, S to) {
+            return this.transition(from, event, null, to);
+        }
+
+        /**
+         * Adds a transition taken on an event if its guard passes.
+         *
+         * @param from  the state, or an ancestor of the states, the transition leaves
+         * @param event the event
+         * @param guard the condition, evaluated when the event fires
+         * @param to    the target state
+         * @return this builder
+         */
+        public Builder<S, E> transition(S from, E event, BooleanSupplier guard, S to) {
+            this.eventRows.add(new Transition(from.ordinal(), event.ordinal(), guard, to.ordinal()));
+            return this;
+        }
+
+        /**
+         * Adds a transition taken by {@link StateMachine#update()} as soon as its guard passes.
+         *
+         * @param from  the state, or an ancestor of the states, the transition leaves
+         * @param guard the condition, evaluated every update
+         * @param to    the target state
+         * @return this builder
+         */
+        public Builder<S, E> transition(S from, BooleanSupplier guard, S to) {
+            this.guardRows.add(new Transition(from.ordinal(), NONE, guard, to.ordinal()));
+            return this;
+        }
+
+        /**
+         * Sets the transition taken once a state was active for a time.
+         *
+         * @param from    the state the transition leaves
+         * @param seconds the time in the state
+         * @param to      the target state
+         * @return this builder
+         */
+        public Builder<S, E> timeout(S from, double seconds, S to) {
+            if (seconds < 0) throw new RuntimeException("Timeout must not be negative!");
+
+            this.timeoutNanos[from.ordinal()] = (long) (seconds * 1e9);
+            this.timeoutTargets[from.ordinal()] = to.ordinal();
+            return this;
+        }
+
+        /**
+         * Logs every transition.
+         *
+         * @param name       the name of the machine in the log
+         * @param dataLogger the logger
+         * @return this builder
+         */
+        public Builder<S, E> dataLogger(String name, DataLogger dataLogger) {
+            this.name = name;
+            this.dataLogger = dataLogger;
+            return this;
+        }
+
+        /**
+         * Compiles the state machine. It is started by its first update.
+         *
+         * @return the state machine
+         * @throws RuntimeException if the states are nested in a cycle
+         */
+        public StateMachine<S, E> build() {
+            return new StateMachine<>(this);
+        }
+    }
+}
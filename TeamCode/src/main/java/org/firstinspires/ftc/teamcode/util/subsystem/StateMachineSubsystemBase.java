@@ -0,0 +1,121 @@
+package org.firstinspires.ftc.teamcode.util.subsystem;
+
+import com.seattlesolvers.solverslib.command.Command;
+import com.seattlesolvers.solverslib.command.InstantCommand;
+import com.seattlesolvers.solverslib.command.Subsystem;
+
+/**
+ * A {@link StateSubsystemBase} whose state is driven by a hierarchical {@link StateMachine}.
+ *
+ * <p>The machine is updated in {@link #periodic()}, so its timed and guarded transitions run every
+ * loop, and {@link #fire(Enum)} sends it events, e.g. from key bindings. The current state is the
+ * machine's leaf state, and {@link #goToState(StateBase)} forces the machine into a state, running
+ * the exit and entry actions on the way. The toggles check the state with {@link #isIn(Enum)}, so a
+ * toggle between composite states switches while the machine is in any of their children.</p>
+ *
+ * <p>The actions usually use the subsystem's hardware, so the subclass builds the machine at the end
+ * of its constructor and passes it to {@link #initStateMachine(StateMachine)}:</p>
+ *
+ * <pre>
+ *  {@code
+ *  public ArmSubsystem(HardwareMap hardwareMap) {
+ *      super(ArmState.IDLE);
+ *      this.intake = new MotorEx(hardwareMap, MotorMap.INTAKE.getId());
+ *
+ *      this.initStateMachine(new StateMachine.Builder<>(ArmState.class, ArmEvent.class, ArmState.IDLE)
+ *              .onEnter(ArmState.INTAKING, () -> this.intake.set(1))
+ *              .onExit(ArmState.INTAKING, () -> this.intake.set(0))
+ *              .transition(ArmState.IDLE, ArmEvent.START, ArmState.INTAKING)
+ *              .timeout(ArmState.INTAKING, 3, ArmState.IDLE)
+ *              .build());
+ *  }
+ *  }
+ * </pre>
+ *
+ * <p>Subclasses overriding {@link #periodic()} must call {@code super.periodic()}.</p>
+ *
+ * @param <S> the states
+ * @param <E> the events
+ */
+public abstract class StateMachineSubsystemBase<S extends Enum<S> & StateSubsystemBase.StateBase<?>, E extends Enum<E>>
+        extends StateSubsystemBase<S> {
+    private StateMachine<S, E> stateMachine;
+
+    /**
+     * @param initialState the initial state of the state machine
+     */
+    protected StateMachineSubsystemBase(S initialState) {
+        super(initialState);
+    }
+
+    /**
+     * Sets and starts the state machine of the subsystem.
+     *
+     * @param stateMachine the state machine
+     */
+    protected void initStateMachine(StateMachine<S, E> stateMachine) {
+        this.stateMachine = stateMachine;
+        this.stateMachine.start();
+        this.state = this.stateMachine.getState();
+    }
+
+    /**
+     * @return the state machine of the subsystem
+     * @throws RuntimeException if {@link #initStateMachine(StateMachine)} was not called
+     */
+    protected StateMachine<S, E> getStateMachine() {
+        if (this.stateMachine == null) throw new RuntimeException("State machine of '" + this.getName() + "' is not initialized.");
+        return this.stateMachine;
+    }
+
+    /**
+     * Sends an event to the state machine.
+     *
+     * @param event the event
+     * @return whether the event caused a transition
+     */
+    public boolean fire(E event) {
+        boolean handled = this.getStateMachine().fire(event);
+        this.state = this.stateMachine.getState();
+        return handled;
+    }
+
+    /**
+     * Creates a command that sends an event to the state machine, e.g. for a key binding.
+     *
+     * @param event the event
+     * @return a command that fires the event
+     */
+    public Command fireCommand(E event) {
+        return new InstantCommand(() -> this.fire(event), this);
+    }
+
+    /**
+     * @param state a state
+     * @return whether the state or one of its children is the current state
+     */
+    public boolean isIn(S state) {
+        return this.getStateMachine().isIn(state);
+    }
+
+    @Override
+    public void periodic() {
+        this.getStateMachine().update();
+        this.state = this.stateMachine.getState();
+    }
+
+    @Override
+    public S getCurrentState() {
+        return this.stateMachine == null ? this.state : this.stateMachine.getState();
+    }
+
+    @Override
+    protected boolean isInState(S state) {
+        return this.stateMachine == null ? super.isInState(state) : this.stateMachine.isIn(state);
+    }
+
+    @Override
+    protected Command getChangeStateCommand(S state, Subsystem... requirements) {
+        return new InstantCommand(() -> this.getStateMachine().transitionTo(state), requirements);
+    }
+}
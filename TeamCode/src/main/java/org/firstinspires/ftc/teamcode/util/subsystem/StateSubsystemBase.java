@@ -1,8 +1,7 @@
 package org.firstinspires.ftc.teamcode.util.subsystem;
 
 import com.seattlesolvers.solverslib.command.Command;
-import com.seattlesolvers.solverslib.command.ConditionalCommand;
-import com.seattlesolvers.solverslib.command.InstantCommand;
+import com.seattlesolvers.solverslib.command.CommandBase;
 import com.seattlesolvers.solverslib.command.Subsystem;
 import com.seattlesolvers.solverslib.command.SubsystemBase;
 
@@ -13,6 +12,19 @@ import com.seattlesolvers.solverslib.command.SubsystemBase;
  * Each subsystem has a current {@link StateBase} that represents its mode,
  * and commands can be generated to transition between states.</p>
  *
+ * <p>{@link #goToState(StateBase)} and {@link #toggleStates(StateBase, StateBase)} return a new
+ * command on every call, so their commands can be added to command groups freely.</p>
+ *
+ * <p>For enum states, {@link #getTransitionCommand(StateBase)} and
+ * {@link #getToggleCommand(StateBase, StateBase)} return the same command on every call: one per
+ * target state and one per pair of states, built on first use and kept in tables indexed by the
+ * ordinals. {@link #getChangeStateCommand(StateBase, Subsystem...)} is then called once per state,
+ * and scheduling transitions in a loop (e.g. from {@link org.firstinspires.ftc.teamcode.util.KeyBindings})
+ * allocates nothing after the first call. The cached commands run the change command themselves
+ * instead of grouping it, so they can be scheduled again and again, but since they are shared they
+ * must not be added to a command group: solverslib allows a command in one group only, and a grouped
+ * command cannot be scheduled on its own anymore.</p>
+ *
  * <p>Example usage:</p>
  * <pre> {@code
  * public class ClawSubsystem extends StateSubsystemBase<ClawState> {
@@ -47,6 +59,13 @@ public abstract class StateSubsystemBase<T extends StateSubsystemBase.StateBase<
      */
     protected T state;
 
+    /** The change commands of the enum states, by ordinal. Filled on first use. */
+    private Command[] changeCommands;
+    /** The cached {@link #getTransitionCommand(StateBase)} commands, by the ordinal of the target. */
+    private Command[] transitionCommands;
+    /** The cached {@link #getToggleCommand(StateBase, StateBase)} commands, by the ordinals of the two states. */
+    private Command[][] toggleCommands;
+
     /**
      * Creates a new subsystem with a given default state.
      *
@@ -65,8 +84,39 @@ public abstract class StateSubsystemBase<T extends StateSubsystemBase.StateBase<
      * @return a command that applies the state transition
      */
     public final Command goToState(T state, Subsystem... requirements) {
-        return new InstantCommand(() -> this.setState(state), this)
-                .andThen(this.getChangeStateCommand(state, requirements));
+        if (requirements.length == 0) return this.goToState(state);
+
+        return new TransitionCommand(state, state, this.getChangeStateCommand(state, requirements), null);
+    }
+
+    /**
+     * Transitions the subsystem to a new state.
+     *
+     * @param state the target state
+     * @return a new command that applies the state transition
+     */
+    public final Command goToState(T state) {
+        return new TransitionCommand(state, state, this.getChangeStateCommand(state), null);
+    }
+
+    /**
+     * Transitions the subsystem to a new state, like {@link #goToState(StateBase)}, but for enum
+     * states every call with the same state returns the same command. For bindings and direct
+     * scheduling only, the command must not be added to a command group.
+     *
+     * @param state the target state
+     * @return a command that applies the state transition, shared for enum states
+     */
+    public final Command getTransitionCommand(T state) {
+        int ordinal = this.getOrdinal(state);
+        if (ordinal < 0) return this.goToState(state);
+
+        Command command = this.transitionCommands[ordinal];
+        if (command == null) {
+            command = new TransitionCommand(state, state, this.getCachedChangeCommand(state, ordinal), null);
+            this.transitionCommands[ordinal] = command;
+        }
+        return command;
     }
 
     /**
@@ -100,7 +150,17 @@ public abstract class StateSubsystemBase<T extends StateSubsystemBase.StateBase<
     }
 
     /**
-     * Toggles between two states. If the current state equals {@code state1},
+     * Checks the state the toggles switch away from, see {@link #toggleStates(StateBase, StateBase)}.
+     *
+     * @param state a state
+     * @return whether the subsystem is in the state, by default whether it is the current state
+     */
+    protected boolean isInState(T state) {
+        return this.getCurrentState() == state;
+    }
+
+    /**
+     * Toggles between two states. If the subsystem is in {@code state1} ({@link #isInState(StateBase)}),
      * it will transition to {@code state2}, otherwise it will transition to {@code state1}.
      *
      * @param state1       the first state
@@ -109,11 +169,71 @@ public abstract class StateSubsystemBase<T extends StateSubsystemBase.StateBase<
      * @return a conditional command that switches between the given states
      */
     public Command toggleStates(T state1, T state2, Subsystem... requirements) {
-        return new ConditionalCommand(
-                this.goToState(state1, requirements),
-                this.goToState(state2, requirements),
-                () -> this.getCurrentState() != state1
-        );
+        if (requirements.length == 0) return this.toggleStates(state1, state2);
+
+        return new TransitionCommand(state1, state2,
+                this.getChangeStateCommand(state1, requirements), this.getChangeStateCommand(state2, requirements));
+    }
+
+    /**
+     * Toggles between two states, like {@link #toggleStates(StateBase, StateBase, Subsystem...)}.
+     *
+     * @param state1 the first state
+     * @param state2 the second state
+     * @return a new command that switches between the given states
+     */
+    public Command toggleStates(T state1, T state2) {
+        return new TransitionCommand(state1, state2, this.getChangeStateCommand(state1), this.getChangeStateCommand(state2));
+    }
+
+    /**
+     * Toggles between two states, like {@link #toggleStates(StateBase, StateBase)}, but for enum
+     * states every call with the same pair returns the same command. For bindings and direct
+     * scheduling only, the command must not be added to a command group.
+     *
+     * @param state1 the first state
+     * @param state2 the second state
+     * @return a command that switches between the given states, shared for enum states
+     */
+    public final Command getToggleCommand(T state1, T state2) {
+        int ordinal1 = this.getOrdinal(state1);
+        int ordinal2 = this.getOrdinal(state2);
+        if (ordinal1 < 0 || ordinal2 < 0) return this.toggleStates(state1, state2);
+
+        Command command = this.toggleCommands[ordinal1][ordinal2];
+        if (command == null) {
+            command = new TransitionCommand(state1, state2,
+                    this.getCachedChangeCommand(state1, ordinal1), this.getCachedChangeCommand(state2, ordinal2));
+            this.toggleCommands[ordinal1][ordinal2] = command;
+        }
+        return command;
+    }
+
+    /**
+     * Finds the index of a state in the caches, creating the caches on first use.
+     *
+     * @param state the state
+     * @return the ordinal of the state, {@code -1} if it is not an enum constant
+     */
+    private int getOrdinal(T state) {
+        if (!(state instanceof Enum)) return -1;
+
+        if (this.changeCommands == null) {
+            int count = ((Enum<?>) state).getDeclaringClass().getEnumConstants().length;
+            this.changeCommands = new Command[count];
+            this.transitionCommands = new Command[count];
+            this.toggleCommands = new Command[count][count];
+        }
+        return ((Enum<?>) state).ordinal();
+    }
+
+    private Command getCachedChangeCommand(T state, int ordinal) {
+        Command command = this.changeCommands[ordinal];
+        if (command == null) {
+            command = this.getChangeStateCommand(state);
+            this.changeCommands[ordinal] = command;
+        }
+        return command;
     }
 
     protected Subsystem[] mergeSubsystemLists(Subsystem[] original, Subsystem... toMerge) {
@@ -123,6 +243,67 @@ public abstract class StateSubsystemBase<T extends StateSubsystemBase.StateBase<
         return result;
     }
 
+    /**
+     * Sets the state and runs the change command of the state, or picks one of two states
+     * like {@link #toggleStates(StateBase, StateBase)}: the first state unless the subsystem is in it.
+     * The change command is run by this command rather than grouped, so it can be shared.
+     */
+    private class TransitionCommand extends CommandBase {
+        private final T state1;
+        private final T state2;
+        private final Command changeCommand1;
+        private final Command changeCommand2;
+
+        private Command activeCommand;
+
+        /**
+         * @param state1         the first state
+         * @param state2         the second state, {@code state1} for a plain transition
+         * @param changeCommand1 the change command of the first state
+         * @param changeCommand2 the change command of the second state, {@code null} for a plain transition
+         */
+        TransitionCommand(T state1, T state2, Command changeCommand1, Command changeCommand2) {
+            this.state1 = state1;
+            this.state2 = state2;
+            this.changeCommand1 = changeCommand1;
+            this.changeCommand2 = changeCommand2;
+
+            this.addRequirements(StateSubsystemBase.this);
+            this.addRequirements(changeCommand1.getRequirements().toArray(new Subsystem[0]));
+            if (changeCommand2 != null) this.addRequirements(changeCommand2.getRequirements().toArray(new Subsystem[0]));
+        }
+
+        @Override
+        public void initialize() {
+            boolean first = this.changeCommand2 == null || !StateSubsystemBase.this.isInState(this.state1);
+
+            StateSubsystemBase.this.setState(first ? this.state1 : this.state2);
+            this.activeCommand = first ? this.changeCommand1 : this.changeCommand2;
+            this.activeCommand.initialize();
+        }
+
+        @Override
+        public void execute() {
+            this.activeCommand.execute();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return this.activeCommand.isFinished();
+        }
+
+        @Override
+        public void end(boolean interrupted) {
+            this.activeCommand.end(interrupted);
+        }
+
+        @Override
+        public boolean runsWhenDisabled() {
+            return this.changeCommand1.runsWhenDisabled()
+                    && (this.changeCommand2 == null || this.changeCommand2.runsWhenDisabled());
+        }
+    }
+
     /**
      * A functional interface representing a valid state for a subsystem.
      * <p>States may wrap arbitrary values (such as enums, strings, or constants)
@@ -0,0 +1,59 @@
+package org.firstinspires.ftc.teamcode.util.trajectory;
+
+/**
+ * A path made of straight segments between points, in the field frame (meters).
+ *
+ * <p>The distance along the path to every point is computed once, so followers can
+ * move along the path by distance without re-measuring it.</p>
+ */
+public class PolylinePath {
+    private final double[] x;
+    private final double[] y;
+    private final double[] distance;
+
+    /**
+     * Creates a path through points.
+     *
+     * @param x the x of every point in meters
+     * @param y the y of every point in meters
+     * @throws RuntimeException if there are less than 2 points or the arrays differ in length
+     */
+    public PolylinePath(double[] x, double[] y) {
+        if (x.length != y.length || x.length < 2) {
+            throw new RuntimeException("A path needs at least 2 points with both x and y.");
+        }
+
+        this.x = x.clone();
+        this.y = y.clone();
+        this.distance = new double[x.length];
+
+        for (int i = 1; i < x.length; i++) {
+            this.distance[i] = this.distance[i - 1] + Math.hypot(x[i] - x[i - 1], y[i] - y[i - 1]);
+        }
+    }
+
+    /** @return the number of points */
+    public int getPointCount() {
+        return this.x.length;
+    }
+
+    /** @return the x of a point in meters */
+    public double getX(int index) {
+        return this.x[index];
+    }
+
+    /** @return the y of a point in meters */
+    public double getY(int index) {
+        return this.y[index];
+    }
+
+    /** @return the distance along the path from the first point to a point, in meters */
+    public double getDistance(int index) {
+        return this.distance[index];
+    }
+
+    /** @return the total length of the path in meters */
+    public double getLength() {
+        return this.distance[this.distance.length - 1];
+    }
+}
@@ -0,0 +1,97 @@
+package org.firstinspires.ftc.teamcode.util.trajectory;
+
+/**
+ * A 2D quintic Hermite spline segment, parameterized by {@code u} from 0 to 1.
+ *
+ * <p>The segment is defined by the position, first and second derivative at both ends,
+ * which lets consecutive segments join with continuous position, tangent and curvature.
+ * The Hermite form is converted to polynomial coefficients once, so evaluating is a Horner scheme.</p>
+ */
+public class QuinticHermiteSpline {
+    private final double[] xCoefficients;
+    private final double[] yCoefficients;
+
+    /**
+     * Creates a spline segment.
+     *
+     * @param x0   start x
+     * @param dx0  start x derivative
+     * @param ddx0 start x second derivative
+     * @param x1   end x
+     * @param dx1  end x derivative
+     * @param ddx1 end x second derivative
+     * @param y0   start y
+     * @param dy0  start y derivative
+     * @param ddy0 start y second derivative
+     * @param y1   end y
+     * @param dy1  end y derivative
+     * @param ddy1 end y second derivative
+     */
+    public QuinticHermiteSpline(
+            double x0, double dx0, double ddx0, double x1, double dx1, double ddx1,
+            double y0, double dy0, double ddy0, double y1, double dy1, double ddy1
+    ) {
+        this.xCoefficients = toCoefficients(x0, dx0, ddx0, x1, dx1, ddx1);
+        this.yCoefficients = toCoefficients(y0, dy0, ddy0, y1, dy1, ddy1);
+    }
+
+    /**
+     * Converts the Hermite end conditions of one axis to the coefficients {@code c0..c5}
+     * of {@code c0 + c1 u + c2 u² + c3 u³ + c4 u⁴ + c5 u⁵}.
+     */
+    private static double[] toCoefficients(double p0, double v0, double a0, double p1, double v1, double a1) {
+        return new double[]{
+                p0,
+                v0,
+                a0 / 2,
+                -10 * p0 - 6 * v0 - 1.5 * a0 + 0.5 * a1 - 4 * v1 + 10 * p1,
+                15 * p0 + 8 * v0 + 1.5 * a0 - a1 + 7 * v1 - 15 * p1,
+                -6 * p0 - 3 * v0 - 0.5 * a0 + 0.5 * a1 - 3 * v1 + 6 * p1
+        };
+    }
+
+    private static double position(double[] c, double u) {
+        return c[0] + u * (c[1] + u * (c[2] + u * (c[3] + u * (c[4] + u * c[5]))));
+    }
+
+    private static double derivative(double[] c, double u) {
+        return c[1] + u * (2 * c[2] + u * (3 * c[3] + u * (4 * c[4] + u * 5 * c[5])));
+    }
+
+    private static double secondDerivative(double[] c, double u) {
+        return 2 * c[2] + u * (6 * c[3] + u * (12 * c[4] + u * 20 * c[5]));
+    }
+
+    public double getX(double u) {
+        return position(this.xCoefficients, u);
+    }
+
+    public double getY(double u) {
+        return position(this.yCoefficients, u);
+    }
+
+    public double getDx(double u) {
+        return derivative(this.xCoefficients, u);
+    }
+
+    public double getDy(double u) {
+        return derivative(this.yCoefficients, u);
+    }
+
+    /**
+     * Returns the signed curvature (counter-clockwise positive) at {@code u}.
+     *
+     * @param u the spline parameter (0 - 1)
+     * @return the curvature in 1/meters
+     */
+    public double getCurvature(double u) {
+        double dx = derivative(this.xCoefficients, u);
+        double dy = derivative(this.yCoefficients, u);
+        double ddx = secondDerivative(this.xCoefficients, u);
+        double ddy = secondDerivative(this.yCoefficients, u);
+
+        double speedSquared = dx * dx + dy * dy;
+        if (speedSquared == 0) return 0;
+        return (dx * ddy - dy * ddx) / (speedSquared * Math.sqrt(speedSquared));
+    }
+}
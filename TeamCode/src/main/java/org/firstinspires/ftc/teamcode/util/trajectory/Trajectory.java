@@ -0,0 +1,453 @@
+package org.firstinspires.ftc.teamcode.util.trajectory;
+
+import org.firstinspires.ftc.teamcode.RobotConstants.DriveConstants;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A time-parameterized holonomic trajectory through waypoints.
+ *
+ * <p>The path is a chain of {@link QuinticHermiteSpline}s. Its velocity is limited by the max
+ * velocity, acceleration, centripetal acceleration and angular velocity, and the result is stored as
+ * a dense lookup table with one sample every {@link #SAMPLE_PERIOD} seconds. Sampling it at a time
+ * is an index computation and a linear interpolation, and does not allocate.</p>
+ *
+ * <p>Units are meters and degrees in the field frame (x forward, y left, counter-clockwise positive).
+ * The heading is independent of the direction of travel and is interpolated between the waypoints.</p>
+ *
+ * <pre>
+ *  {@code
+ *  Trajectory trajectory = new Trajectory.Builder(0, 0, 0)
+ *          .splineTo(1, 0.5, 45, 90)
+ *          .splineTo(1.5, 1.2, 90, 90)
+ *          .build();
+ *  }
+ * </pre>
+ *
+ * <p>Pass the builder to {@link TrajectoryCache#build(Builder)} instead of calling
+ * {@link Builder#build()} to skip the generation when the trajectory was generated before.</p>
+ */
+public class Trajectory {
+    /** Time between two samples of the lookup table, in seconds. */
+    public static final double SAMPLE_PERIOD = 0.01;
+
+    private final double[] x;
+    private final double[] y;
+    private final double[] heading;
+    private final double[] velocityX;
+    private final double[] velocityY;
+    private final double[] headingVelocity;
+    private final double[] accelerationX;
+    private final double[] accelerationY;
+
+    /**
+     * Creates a trajectory from its lookup table. All arrays have one entry per sample,
+     * the heading is unwrapped (continuous).
+     */
+    Trajectory(
+            double[] x, double[] y, double[] heading,
+            double[] velocityX, double[] velocityY, double[] headingVelocity,
+            double[] accelerationX, double[] accelerationY
+    ) {
+        this.x = x;
+        this.y = y;
+        this.heading = heading;
+        this.velocityX = velocityX;
+        this.velocityY = velocityY;
+        this.headingVelocity = headingVelocity;
+        this.accelerationX = accelerationX;
+        this.accelerationY = accelerationY;
+    }
+
+    /** @return the duration of the trajectory in seconds */
+    public double getDuration() {
+        return (this.x.length - 1) * SAMPLE_PERIOD;
+    }
+
+    /** @return the number of samples in the lookup table */
+    public int getSampleCount() {
+        return this.x.length;
+    }
+
+    /**
+     * Returns the lookup table, in the order of the constructor arguments.
+     * Used by {@link TrajectoryCache} to write the trajectory.
+     *
+     * @return the arrays of the lookup table, not copies
+     */
+    double[][] getTable() {
+        return new double[][]{
+                this.x, this.y, this.heading,
+                this.velocityX, this.velocityY, this.headingVelocity,
+                this.accelerationX, this.accelerationY
+        };
+    }
+
+    /**
+     * Samples the trajectory, writing into a reusable state.
+     *
+     * @param t     seconds since the start of the trajectory, clamped to the duration
+     * @param state the state to write into
+     */
+    public void sample(double t, State state) {
+        double index = Math.max(0, Math.min(t, this.getDuration())) / SAMPLE_PERIOD;
+        int i = Math.min((int) index, this.x.length - 2);
+        double f = index - i;
+
+        if (this.x.length == 1) {
+            i = 0;
+            f = 0;
+        }
+        int next = Math.min(i + 1, this.x.length - 1);
+
+        state.x = lerp(this.x[i], this.x[next], f);
+        state.y = lerp(this.y[i], this.y[next], f);
+        state.heading = Math.IEEEremainder(lerp(this.heading[i], this.heading[next], f), 360);
+        state.velocityX = lerp(this.velocityX[i], this.velocityX[next], f);
+        state.velocityY = lerp(this.velocityY[i], this.velocityY[next], f);
+        state.headingVelocity = lerp(this.headingVelocity[i], this.headingVelocity[next], f);
+        state.accelerationX = lerp(this.accelerationX[i], this.accelerationX[next], f);
+        state.accelerationY = lerp(this.accelerationY[i], this.accelerationY[next], f);
+    }
+
+    private static double lerp(double a, double b, double f) {
+        return a + (b - a) * f;
+    }
+
+    /**
+     * The target of the robot at one point in time.
+     * <p>Mutable, so followers can reuse one instance every loop.</p>
+     */
+    public static class State {
+        private double x;
+        private double y;
+        private double heading;
+        private double velocityX;
+        private double velocityY;
+        private double headingVelocity;
+        private double accelerationX;
+        private double accelerationY;
+
+        /** @return the x position in meters */
+        public double getX() {
+            return x;
+        }
+
+        /** @return the y position in meters */
+        public double getY() {
+            return y;
+        }
+
+        /** @return the heading in degrees (-180 - 180) */
+        public double getHeading() {
+            return heading;
+        }
+
+        /** @return the field velocity along x in m/s */
+        public double getVelocityX() {
+            return velocityX;
+        }
+
+        /** @return the field velocity along y in m/s */
+        public double getVelocityY() {
+            return velocityY;
+        }
+
+        /** @return the angular velocity in deg/s */
+        public double getHeadingVelocity() {
+            return headingVelocity;
+        }
+
+        /** @return the field acceleration along x in m/s² */
+        public double getAccelerationX() {
+            return accelerationX;
+        }
+
+        /** @return the field acceleration along y in m/s² */
+        public double getAccelerationY() {
+            return accelerationY;
+        }
+    }
+
+    /**
+     * Builds a {@link Trajectory} from waypoints.
+     * <p>The limits default to the ones in {@link DriveConstants}.</p>
+     */
+    public static class Builder {
+        /** The number of points every spline is sampled at for the time parameterization. */
+        private static final int SAMPLES_PER_SEGMENT = 200;
+
+        private final List<Waypoint> waypoints = new ArrayList<>();
+
+        private double maxVelocity = DriveConstants.MAX_VELOCITY;
+        private double maxAcceleration = DriveConstants.MAX_ACCELERATION;
+        private double maxCentripetalAcceleration = DriveConstants.MAX_CENTRIPETAL_ACCELERATION;
+        private double maxAngularVelocity = DriveConstants.MAX_ANGULAR_VELOCITY;
+
+        /**
+         * Starts a trajectory at a pose, leaving in the direction of the heading.
+         *
+         * @param x       start x in meters
+         * @param y       start y in meters
+         * @param heading start heading in degrees
+         */
+        public Builder(double x, double y, double heading) {
+            this.waypoints.add(new Waypoint(x, y, heading, heading));
+        }
+
+        /**
+         * Sets the direction of travel at the start of the trajectory.
+         *
+         * @param tangent the direction in degrees
+         */
+        public Builder setStartTangent(double tangent) {
+            this.waypoints.get(0).tangent = tangent;
+            return this;
+        }
+
+        /**
+         * Adds a waypoint.
+         *
+         * @param x       x in meters
+         * @param y       y in meters
+         * @param tangent the direction of travel through the waypoint, in degrees
+         * @param heading the robot's heading at the waypoint, in degrees
+         */
+        public Builder splineTo(double x, double y, double tangent, double heading) {
+            this.waypoints.add(new Waypoint(x, y, tangent, heading));
+            return this;
+        }
+
+        public Builder maxVelocity(double value) {
+            this.maxVelocity = value;
+            return this;
+        }
+
+        public Builder maxAcceleration(double value) {
+            this.maxAcceleration = value;
+            return this;
+        }
+
+        public Builder maxCentripetalAcceleration(double value) {
+            this.maxCentripetalAcceleration = value;
+            return this;
+        }
+
+        public Builder maxAngularVelocity(double value) {
+            this.maxAngularVelocity = value;
+            return this;
+        }
+
+        /**
+         * Returns a hash of everything the generated trajectory depends on: the waypoints, the limits
+         * and the sampling resolution. Equal keys mean equal trajectories.
+         *
+         * @return the 64-bit FNV-1a hash of the inputs
+         */
+        long getCacheKey() {
+            long hash = 0xcbf29ce484222325L;
+            hash = hashDouble(hash, SAMPLE_PERIOD);
+            hash = hashDouble(hash, SAMPLES_PER_SEGMENT);
+            hash = hashDouble(hash, this.maxVelocity);
+            hash = hashDouble(hash, this.maxAcceleration);
+            hash = hashDouble(hash, this.maxCentripetalAcceleration);
+            hash = hashDouble(hash, this.maxAngularVelocity);
+
+            for (Waypoint waypoint : this.waypoints) {
+                hash = hashDouble(hash, waypoint.x);
+                hash = hashDouble(hash, waypoint.y);
+                hash = hashDouble(hash, waypoint.tangent);
+                hash = hashDouble(hash, waypoint.heading);
+            }
+            return hash;
+        }
+
+        private static long hashDouble(long hash, double value) {
+            long bits = Double.doubleToLongBits(value);
+            for (int i = 0; i < 8; i++) {
+                hash ^= (bits >>> (i * 8)) & 0xff;
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+
+        /**
+         * Generates the splines and the time parameterization.
+         *
+         * @return the trajectory
+         * @throws RuntimeException if there are less than 2 waypoints or a limit is not positive
+         */
+        public Trajectory build() {
+            if (this.waypoints.size() < 2) {
+                throw new RuntimeException("A trajectory needs at least 2 waypoints.");
+            }
+            if (this.maxVelocity <= 0 || this.maxAcceleration <= 0 || this.maxCentripetalAcceleration <= 0 || this.maxAngularVelocity <= 0) {
+                throw new RuntimeException("Trajectory limits must be positive.");
+            }
+
+            int segmentCount = this.waypoints.size() - 1;
+            int pointCount = segmentCount * SAMPLES_PER_SEGMENT + 1;
+
+            double[] distance = new double[pointCount];
+            double[] pointX = new double[pointCount];
+            double[] pointY = new double[pointCount];
+            double[] tangentX = new double[pointCount];
+            double[] tangentY = new double[pointCount];
+            double[] curvature = new double[pointCount];
+            double[] pointHeading = new double[pointCount];
+            double[] headingPerMeter = new double[pointCount];
+
+            // sample the splines by arc length
+            int point = 0;
+            double heading = this.waypoints.get(0).heading;
+            for (int segment = 0; segment < segmentCount; segment++) {
+                Waypoint start = this.waypoints.get(segment);
+                Waypoint end = this.waypoints.get(segment + 1);
+                QuinticHermiteSpline spline = createSpline(start, end);
+
+                int segmentStart = point;
+                for (int k = segment == 0 ? 0 : 1; k <= SAMPLES_PER_SEGMENT; k++) {
+                    double u = (double) k / SAMPLES_PER_SEGMENT;
+                    pointX[point] = spline.getX(u);
+                    pointY[point] = spline.getY(u);
+
+                    double dx = spline.getDx(u);
+                    double dy = spline.getDy(u);
+                    double norm = Math.hypot(dx, dy);
+                    tangentX[point] = norm > 0 ? dx / norm : Math.cos(Math.toRadians(start.tangent));
+                    tangentY[point] = norm > 0 ? dy / norm : Math.sin(Math.toRadians(start.tangent));
+                    curvature[point] = spline.getCurvature(u);
+
+                    if (point > 0) {
+                        distance[point] = distance[point - 1] + Math.hypot(pointX[point] - pointX[point - 1], pointY[point] - pointY[point - 1]);
+                    }
+                    point++;
+                }
+
+                // turn linearly with the distance, the shortest way
+                double headingChange = Math.IEEEremainder(end.heading - start.heading, 360);
+                double segmentLength = distance[point - 1] - distance[segmentStart];
+                for (int k = segmentStart; k < point; k++) {
+                    double progress = segmentLength > 0 ? (distance[k] - distance[segmentStart]) / segmentLength : 1;
+                    pointHeading[k] = heading + headingChange * progress;
+                    headingPerMeter[k] = segmentLength > 0 ? headingChange / segmentLength : 0;
+                }
+                heading += headingChange;
+            }
+
+            double[] velocity = this.limitVelocities(distance, curvature, headingPerMeter);
+
+            // integrate the time of every point
+            double[] time = new double[pointCount];
+            for (int i = 1; i < pointCount; i++) {
+                double ds = distance[i] - distance[i - 1];
+                double averageVelocity = (velocity[i - 1] + velocity[i]) / 2;
+                time[i] = time[i - 1] + (ds > 0 && averageVelocity > 0 ? ds / averageVelocity : 0);
+            }
+
+            // resample uniformly in time
+            double duration = time[pointCount - 1];
+            int sampleCount = (int) Math.ceil(duration / SAMPLE_PERIOD) + 1;
+
+            double[] x = new double[sampleCount];
+            double[] y = new double[sampleCount];
+            double[] sampleHeading = new double[sampleCount];
+            double[] velocityX = new double[sampleCount];
+            double[] velocityY = new double[sampleCount];
+            double[] headingVelocity = new double[sampleCount];
+            double[] accelerationX = new double[sampleCount];
+            double[] accelerationY = new double[sampleCount];
+
+            int j = 0;
+            for (int k = 0; k < sampleCount; k++) {
+                double t = Math.min(k * SAMPLE_PERIOD, duration);
+                while (j < pointCount - 2 && time[j + 1] < t) j++;
+
+                double interval = time[j + 1] - time[j];
+                double f = interval > 0 ? (t - time[j]) / interval : 0;
+                double v = lerp(velocity[j], velocity[j + 1], f);
+                double tx = lerp(tangentX[j], tangentX[j + 1], f);
+                double ty = lerp(tangentY[j], tangentY[j + 1], f);
+                double ds = distance[j + 1] - distance[j];
+                double tangentialAcceleration = ds > 0 ? (velocity[j + 1] * velocity[j + 1] - velocity[j] * velocity[j]) / (2 * ds) : 0;
+                double normalAcceleration = v * v * lerp(curvature[j], curvature[j + 1], f);
+
+                x[k] = lerp(pointX[j], pointX[j + 1], f);
+                y[k] = lerp(pointY[j], pointY[j + 1], f);
+                sampleHeading[k] = lerp(pointHeading[j], pointHeading[j + 1], f);
+                velocityX[k] = v * tx;
+                velocityY[k] = v * ty;
+                headingVelocity[k] = v * headingPerMeter[j];
+                accelerationX[k] = tangentialAcceleration * tx - normalAcceleration * ty;
+                accelerationY[k] = tangentialAcceleration * ty + normalAcceleration * tx;
+            }
+
+            return new Trajectory(x, y, sampleHeading, velocityX, velocityY, headingVelocity, accelerationX, accelerationY);
+        }
+
+        /**
+         * Calculates the highest velocity at every point, starting and ending at rest.
+         *
+         * @param distance        the distance along the path of every point
+         * @param curvature       the curvature at every point
+         * @param headingPerMeter the heading change per meter at every point
+         * @return the velocity at every point in m/s
+         */
+        private double[] limitVelocities(double[] distance, double[] curvature, double[] headingPerMeter) {
+            int pointCount = distance.length;
+            double[] velocity = new double[pointCount];
+
+            for (int i = 0; i < pointCount; i++) {
+                double limit = this.maxVelocity;
+                if (curvature[i] != 0) limit = Math.min(limit, Math.sqrt(this.maxCentripetalAcceleration / Math.abs(curvature[i])));
+                if (headingPerMeter[i] != 0) limit = Math.min(limit, this.maxAngularVelocity / Math.abs(headingPerMeter[i]));
+                velocity[i] = limit;
+            }
+            velocity[0] = 0;
+            velocity[pointCount - 1] = 0;
+
+            // limit the acceleration forward and the deceleration backward
+            for (int i = 1; i < pointCount; i++) {
+                double ds = distance[i] - distance[i - 1];
+                velocity[i] = Math.min(velocity[i], Math.sqrt(velocity[i - 1] * velocity[i - 1] + 2 * this.maxAcceleration * ds));
+            }
+            for (int i = pointCount - 2; i >= 0; i--) {
+                double ds = distance[i + 1] - distance[i];
+                velocity[i] = Math.min(velocity[i], Math.sqrt(velocity[i + 1] * velocity[i + 1] + 2 * this.maxAcceleration * ds));
+            }
+
+            return velocity;
+        }
+
+        /**
+         * Creates the spline between two waypoints. The derivatives are scaled by the distance
+         * between the waypoints, and the second derivatives are zero.
+         */
+        private static QuinticHermiteSpline createSpline(Waypoint start, Waypoint end) {
+            double scale = Math.hypot(end.x - start.x, end.y - start.y);
+            double startTangent = Math.toRadians(start.tangent);
+            double endTangent = Math.toRadians(end.tangent);
+
+            return new QuinticHermiteSpline(
+                    start.x, scale * Math.cos(startTangent), 0, end.x, scale * Math.cos(endTangent), 0,
+                    start.y, scale * Math.sin(startTangent), 0, end.y, scale * Math.sin(endTangent), 0
+            );
+        }
+    }
+
+    /** A point the trajectory passes through. */
+    private static class Waypoint {
+        private final double x;
+        private final double y;
+        private double tangent;
+        private final double heading;
+
+        private Waypoint(double x, double y, double tangent, double heading) {
+            this.x = x;
+            this.y = y;
+            this.tangent = tangent;
+            this.heading = heading;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package org.firstinspires.ftc.teamcode.util.trajectory;
+
+import android.annotation.SuppressLint;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Locale;
+
+/**
+ * A disk cache of generated {@link Trajectory} lookup tables.
+ *
+ * <p>Generating and time-parameterizing the splines of a full autonomous takes a noticeable part of
+ * INIT. {@link #build(Trajectory.Builder)} instead looks for a file under
+ * {@code /sdcard/FIRST/SympleTrajectories/} named after the hash of the builder's waypoints and limits
+ * ({@code Trajectory.Builder#getCacheKey()}), and memory-maps it back. A trajectory whose
+ * inputs changed gets a new hash, so stale files are never read (use {@link #clear()} to delete them).</p>
+ *
+ * <p>File format (little endian): {@code int} magic, {@code int} format version, {@code long} key,
+ * {@code int} sample count, then the 8 lookup table columns as {@code double}s, so a cached
+ * trajectory is bit for bit the one that was generated.</p>
+ *
+ * <p>The time spent on cached and generated trajectories is counted, see {@link #getReport()}.</p>
+ */
+public class TrajectoryCache {
+    /**
+     * Directory where the cached trajectories are stored on the robot controller device.
+     */
+    @SuppressLint("SdCardPath")
+    private static final String DIRECTORY_PATH = "/sdcard/FIRST/SympleTrajectories";
+
+    private static final String FILE_EXTENSION = ".traj";
+
+    private static final int MAGIC = 0x5452414a; // "TRAJ"
+
+    /** Bump when the file layout or the trajectory generation changes, to drop every cached file. */
+    private static final int FORMAT_VERSION = 2;
+
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+    private static final int COLUMNS = 8;
+    private static final int VALUE_BYTES = Double.BYTES;
+
+    private static int cachedCount = 0;
+    private static int generatedCount = 0;
+    private static long cachedNanos = 0;
+    private static long generatedNanos = 0;
+
+    /**
+     * Returns the trajectory of a builder, from the cache if it was generated before,
+     * otherwise generating and caching it. Errors reading or writing the cache are ignored
+     * and fall back to generating.
+     *
+     * @param builder the trajectory builder
+     * @return the trajectory
+     */
+    public static Trajectory build(Trajectory.Builder builder) {
+        return build(builder, new File(DIRECTORY_PATH));
+    }
+
+    /**
+     * {@link #build(Trajectory.Builder)} with the cache in another directory, e.g. for tests off the robot.
+     */
+    static Trajectory build(Trajectory.Builder builder, File directory) {
+        long start = System.nanoTime();
+        long key = builder.getCacheKey();
+        File file = new File(directory, String.format(Locale.US, "%016x", key) + FILE_EXTENSION);
+
+        Trajectory trajectory = read(file, key);
+        if (trajectory != null) {
+            cachedCount++;
+            cachedNanos += System.nanoTime() - start;
+            return trajectory;
+        }
+
+        trajectory = builder.build();
+        write(file, key, trajectory);
+        generatedCount++;
+        generatedNanos += System.nanoTime() - start;
+        return trajectory;
+    }
+
+    /**
+     * Memory-maps a cached trajectory.
+     *
+     * @return the trajectory, or {@code null} if the file is missing, corrupt or for other inputs
+     */
+    private static Trajectory read(File file, long key) {
+        if (!file.isFile()) return null;
+
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+             FileChannel channel = randomAccessFile.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (channel.size() < HEADER_BYTES
+                    || buffer.getInt() != MAGIC
+                    || buffer.getInt() != FORMAT_VERSION
+                    || buffer.getLong() != key) {
+                return null;
+            }
+
+            int sampleCount = buffer.getInt();
+            if (sampleCount <= 0 || channel.size() != HEADER_BYTES + (long) sampleCount * COLUMNS * VALUE_BYTES) return null;
+
+            DoubleBuffer doubles = buffer.asDoubleBuffer();
+            double[][] table = new double[COLUMNS][sampleCount];
+            for (double[] column : table) {
+                for (int i = 0; i < sampleCount; i++) {
+                    column[i] = doubles.get();
+                }
+            }
+
+            return new Trajectory(table[0], table[1], table[2], table[3], table[4], table[5], table[6], table[7]);
+        } catch (IOException | RuntimeException ignored) {
+            return null;
+        }
+    }
+
+    /** Writes a trajectory to the cache. */
+    private static void write(File file, long key, Trajectory trajectory) {
+        File directory = file.getParentFile();
+        if (directory != null) directory.mkdirs(); // create the directory if not exists
+
+        double[][] table = trajectory.getTable();
+        int sampleCount = trajectory.getSampleCount();
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + sampleCount * COLUMNS * VALUE_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.putInt(FORMAT_VERSION);
+        buffer.putLong(key);
+        buffer.putInt(sampleCount);
+        for (double[] column : table) {
+            for (double value : column) {
+                buffer.putDouble(value);
+            }
+        }
+        buffer.flip();
+
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+             FileChannel channel = randomAccessFile.getChannel()) {
+            channel.truncate(0);
+            channel.write(buffer);
+        } catch (IOException ignored) {
+            file.delete(); // don't leave a partial file behind
+        }
+    }
+
+    /** Deletes every cached trajectory. */
+    public static void clear() {
+        File[] files = new File(DIRECTORY_PATH).listFiles();
+        if (files == null) return;
+
+        for (File file : files) {
+            if (file.getName().endsWith(FILE_EXTENSION)) file.delete();
+        }
+    }
+
+    /** Resets the counters of {@link #getReport()}, e.g. at the start of INIT. */
+    public static void resetStatistics() {
+        cachedCount = 0;
+        generatedCount = 0;
+        cachedNanos = 0;
+        generatedNanos = 0;
+    }
+
+    /** @return whether any trajectory was built since the last {@link #resetStatistics()} */
+    public static boolean hasStatistics() {
+        return cachedCount + generatedCount > 0;
+    }
+
+    /**
+     * @return how many trajectories were loaded from the cache and generated since the last
+     * {@link #resetStatistics()}, and how long each took
+     */
+    public static String getReport() {
+        return String.format(Locale.US, "%d cached in %.1fms, %d generated in %.1fms",
+                cachedCount, cachedNanos / 1_000_000.0, generatedCount, generatedNanos / 1_000_000.0);
+    }
+}
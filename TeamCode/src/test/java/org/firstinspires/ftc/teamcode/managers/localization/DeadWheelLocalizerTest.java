@@ -0,0 +1,106 @@
+package org.firstinspires.ftc.teamcode.managers.localization;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.firstinspires.ftc.teamcode.RobotConstants.DriveConstants;
+import org.firstinspires.ftc.teamcode.maps.MotorMap;
+import org.firstinspires.ftc.teamcode.util.RobotClock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DeadWheelLocalizerTest {
+    private static final double EPSILON = 1e-3;
+
+    private FakeImu imu;
+    private FakeDeadWheelEncoders encoders;
+
+    @Before
+    public void setUp() {
+        RobotClock.useSimulatedTime();
+        this.imu = new FakeImu();
+        this.encoders = new FakeDeadWheelEncoders();
+    }
+
+    @After
+    public void tearDown() {
+        DeadWheelLocalizer.IMU_READ_PERIOD_MS = 0;
+        DeadWheelLocalizer.IMU_CORRECTION_GAIN = 1;
+        RobotClock.useRealTime();
+    }
+
+    private static int ticks(double meters) {
+        return (int) Math.round(meters / DriveConstants.METERS_PER_TICK);
+    }
+
+    @Test
+    public void drivesStraightAlongTheHeading() {
+        DeadWheelLocalizer localizer = new DeadWheelLocalizer(this.imu, this.encoders);
+
+        this.encoders.right = ticks(1);
+        this.encoders.left = ticks(1);
+        localizer.update();
+        assertEquals(1, localizer.getX(), EPSILON);
+        assertEquals(0, localizer.getY(), EPSILON);
+        assertEquals(1, localizer.getForwardDistance(), EPSILON);
+        assertEquals(1, this.encoders.reads);
+
+        // turned to face +y
+        this.imu.yaw = 90;
+        localizer.update();
+        this.encoders.right = ticks(2);
+        this.encoders.left = ticks(2);
+        localizer.update();
+        assertEquals(1, localizer.getX(), EPSILON);
+        assertEquals(1, localizer.getY(), EPSILON);
+        assertEquals(90, localizer.getHeading(), EPSILON);
+    }
+
+    @Test
+    public void propagatesTheHeadingBetweenImuReads() {
+        DeadWheelLocalizer.IMU_READ_PERIOD_MS = 50;
+        DeadWheelLocalizer localizer = new DeadWheelLocalizer(this.imu, this.encoders);
+        int initialReads = this.imu.reads;
+
+        // turn in place, the IMU is not due yet
+        double arc = Math.toRadians(10) * DriveConstants.WHEELS_DISTANCE / 2;
+        this.encoders.right = ticks(arc);
+        this.encoders.left = -ticks(arc);
+        this.imu.yaw = 12;
+        RobotClock.advance(10_000_000);
+        localizer.update();
+        assertEquals(initialReads, this.imu.reads);
+        assertEquals(10, localizer.getHeading(), 0.1);
+
+        // the next due read corrects the heading to the IMU
+        RobotClock.advance(50_000_000);
+        localizer.update();
+        assertEquals(initialReads + 1, this.imu.reads);
+        assertEquals(12, localizer.getHeading(), EPSILON);
+    }
+
+    @Test
+    public void setPoseMovesTheHeading() {
+        DeadWheelLocalizer localizer = new DeadWheelLocalizer(this.imu, this.encoders);
+        localizer.setPose(0.5, 0, 45);
+        assertEquals(45, localizer.getHeading(), EPSILON);
+
+        this.encoders.right = ticks(1);
+        this.encoders.left = ticks(1);
+        localizer.update();
+        assertEquals(0.5 + Math.sqrt(0.5), localizer.getX(), EPSILON);
+        assertEquals(Math.sqrt(0.5), localizer.getY(), EPSILON);
+    }
+
+    @Test
+    public void usesTheEncoderPortsOfItsEncoders() {
+        DeadWheelLocalizer localizer = new DeadWheelLocalizer(this.imu, this.encoders);
+        assertFalse(localizer.usesEncoderPort(MotorMap.LEG_FRONT_RIGHT.getId()));
+
+        this.encoders.encoderPort = MotorMap.LEG_FRONT_RIGHT.getId();
+        assertTrue(localizer.usesEncoderPort(MotorMap.LEG_FRONT_RIGHT.getId()));
+        assertFalse(localizer.usesEncoderPort(MotorMap.LEG_BACK_RIGHT.getId()));
+    }
+}
@@ -0,0 +1,47 @@
+package org.firstinspires.ftc.teamcode.managers.localization;
+
+/**
+ * Dead-wheel counts set by the test, latched by {@link #read()} like the real sources.
+ */
+class FakeDeadWheelEncoders implements DeadWheelEncoders {
+    int right;
+    int left;
+    int back;
+
+    private int readRight;
+    private int readLeft;
+    private int readBack;
+
+    int reads = 0;
+
+    /** The id of the motor whose encoder port the fake claims, if any. */
+    String encoderPort;
+
+    @Override
+    public void read() {
+        this.reads++;
+        this.readRight = this.right;
+        this.readLeft = this.left;
+        this.readBack = this.back;
+    }
+
+    @Override
+    public int getRightPosition() {
+        return this.readRight;
+    }
+
+    @Override
+    public int getLeftPosition() {
+        return this.readLeft;
+    }
+
+    @Override
+    public int getBackPosition() {
+        return this.readBack;
+    }
+
+    @Override
+    public boolean usesEncoderPort(String motorId) {
+        return motorId.equals(this.encoderPort);
+    }
+}
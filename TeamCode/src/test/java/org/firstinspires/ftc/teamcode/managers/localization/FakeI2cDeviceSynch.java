@@ -0,0 +1,34 @@
+package org.firstinspires.ftc.teamcode.managers.localization;
+
+import com.qualcomm.robotcore.hardware.I2cDeviceSynch;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * An I2C client that accepts every call and returns default values, so SDK device
+ * drivers can be subclassed into fakes without a hub.
+ */
+final class FakeI2cDeviceSynch {
+    private FakeI2cDeviceSynch() {
+    }
+
+    static I2cDeviceSynch create() {
+        return (I2cDeviceSynch) Proxy.newProxyInstance(
+                FakeI2cDeviceSynch.class.getClassLoader(),
+                new Class<?>[]{I2cDeviceSynch.class},
+                (proxy, method, args) -> defaultValue(method.getReturnType()));
+    }
+
+    /** @return the value a call returning {@code type} answers with */
+    static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) return false;
+        if (type == byte.class) return (byte) 0;
+        if (type == short.class) return (short) 0;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0f;
+        if (type == double.class) return 0d;
+        if (type == char.class) return (char) 0;
+        return null;
+    }
+}
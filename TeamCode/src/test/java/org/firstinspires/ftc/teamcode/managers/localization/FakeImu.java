@@ -0,0 +1,80 @@
+package org.firstinspires.ftc.teamcode.managers.localization;
+
+import com.qualcomm.robotcore.hardware.IMU;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.AngularVelocity;
+import org.firstinspires.ftc.robotcore.external.navigation.AxesOrder;
+import org.firstinspires.ftc.robotcore.external.navigation.AxesReference;
+import org.firstinspires.ftc.robotcore.external.navigation.Orientation;
+import org.firstinspires.ftc.robotcore.external.navigation.Quaternion;
+import org.firstinspires.ftc.robotcore.external.navigation.YawPitchRollAngles;
+
+/**
+ * An IMU that reports the yaw set by the test and counts the reads.
+ */
+class FakeImu implements IMU {
+    /** The yaw in degrees, counter-clockwise positive. */
+    double yaw;
+
+    int reads = 0;
+
+    @Override
+    public boolean initialize(Parameters parameters) {
+        return true;
+    }
+
+    @Override
+    public void resetYaw() {
+        this.yaw = 0;
+    }
+
+    @Override
+    public YawPitchRollAngles getRobotYawPitchRollAngles() {
+        this.reads++;
+        return new YawPitchRollAngles(AngleUnit.DEGREES, this.yaw, 0, 0, 0);
+    }
+
+    @Override
+    public Orientation getRobotOrientation(AxesReference reference, AxesOrder order, AngleUnit angleUnit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Quaternion getRobotOrientationAsQuaternion() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public AngularVelocity getRobotAngularVelocity(AngleUnit angleUnit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Manufacturer getManufacturer() {
+        return Manufacturer.Other;
+    }
+
+    @Override
+    public String getDeviceName() {
+        return "Fake IMU";
+    }
+
+    @Override
+    public String getConnectionInfo() {
+        return "";
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @Override
+    public void resetDeviceConfigurationForOpMode() {
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,110 @@
+package org.firstinspires.ftc.teamcode.managers.localization;
+
+import com.qualcomm.hardware.digitalchickenlabs.OctoQuad;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * An OctoQuad whose encoder counts and localizer pose are set by the test.
+ *
+ * <p>{@link #device()} answers the bulk reads and records the configuration, every other
+ * call returns a default value. {@link #crcOk} makes the next reads fail their CRC check,
+ * the data blocks are then filled with garbage like a corrupted frame would be.</p>
+ */
+class FakeOctoQuad {
+    /** The counts of the eight channels. */
+    final int[] positions = new int[8];
+
+    /** The localizer pose, in mm and radians like the device reports it. */
+    short posX_mm;
+    short posY_mm;
+    float heading_rad;
+    OctoQuad.LocalizerStatus localizerStatus = OctoQuad.LocalizerStatus.RUNNING;
+
+    boolean crcOk = true;
+
+    final OctoQuad.EncoderDirection[] directions = new OctoQuad.EncoderDirection[8];
+    int localizerPortX = -1;
+    int localizerPortY = -1;
+    float countsPerMmX;
+    float countsPerMmY;
+    boolean localizerReset = false;
+    boolean positionsReset = false;
+
+    int encoderReads = 0;
+    int localizerReads = 0;
+
+    /** The last pose written by setLocalizerPose, x and y in mm and the heading in radians. */
+    int poseX_mm;
+    int poseY_mm;
+    float poseHeading_rad;
+
+    private final OctoQuad device = (OctoQuad) Proxy.newProxyInstance(
+            FakeOctoQuad.class.getClassLoader(),
+            new Class<?>[]{OctoQuad.class},
+            (proxy, method, args) -> this.invoke(method, args));
+
+    OctoQuad device() {
+        return this.device;
+    }
+
+    private Object invoke(Method method, Object[] args) {
+        switch (method.getName()) {
+            case "readAllEncoderData":
+                if (args != null) this.fill((OctoQuad.EncoderDataBlock) args[0]);
+                break;
+            case "readLocalizerData":
+                if (args != null) this.fill((OctoQuad.LocalizerDataBlock) args[0]);
+                break;
+            case "getLocalizerStatus":
+                return this.localizerStatus;
+            case "setSingleEncoderDirection":
+                this.directions[(int) args[0]] = (OctoQuad.EncoderDirection) args[1];
+                break;
+            case "resetAllPositions":
+                this.positionsReset = true;
+                break;
+            case "setLocalizerPortX":
+                this.localizerPortX = (int) args[0];
+                break;
+            case "setLocalizerPortY":
+                this.localizerPortY = (int) args[0];
+                break;
+            case "setLocalizerCountsPerMM_X":
+                this.countsPerMmX = (float) args[0];
+                break;
+            case "setLocalizerCountsPerMM_Y":
+                this.countsPerMmY = (float) args[0];
+                break;
+            case "resetLocalizerAndCalibrateIMU":
+                this.localizerReset = true;
+                break;
+            case "setLocalizerPose":
+                this.poseX_mm = (int) args[0];
+                this.poseY_mm = (int) args[1];
+                this.poseHeading_rad = (float) args[2];
+                break;
+            default:
+                break;
+        }
+        return FakeI2cDeviceSynch.defaultValue(method.getReturnType());
+    }
+
+    private void fill(OctoQuad.EncoderDataBlock block) {
+        this.encoderReads++;
+        block.crcOk = this.crcOk;
+        for (int i = 0; i < this.positions.length; i++) {
+            block.positions[i] = this.crcOk ? this.positions[i] : 0xDEAD;
+        }
+    }
+
+    private void fill(OctoQuad.LocalizerDataBlock block) {
+        this.localizerReads++;
+        block.crcOk = this.crcOk;
+        block.localizerStatus = this.localizerStatus;
+        block.posX_mm = this.crcOk ? this.posX_mm : Short.MAX_VALUE;
+        block.posY_mm = this.crcOk ? this.posY_mm : Short.MIN_VALUE;
+        block.heading_rad = this.crcOk ? this.heading_rad : Float.NaN;
+    }
+}
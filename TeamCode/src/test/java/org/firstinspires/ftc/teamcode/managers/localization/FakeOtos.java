@@ -0,0 +1,74 @@
+package org.firstinspires.ftc.teamcode.managers.localization;
+
+import com.qualcomm.hardware.sparkfun.SparkFunOTOS;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+
+/**
+ * An OTOS that reports a pose set by the test, in its own frame: {@code x} to the right,
+ * {@code y} forward, in the units the localizer configured.
+ */
+class FakeOtos extends SparkFunOTOS {
+    /** The pose the next burst read returns. */
+    final Pose2D pose = new Pose2D();
+
+    DistanceUnit linearUnit;
+    AngleUnit angularUnit;
+    Pose2D offset;
+    Pose2D position;
+    boolean calibrated = false;
+    boolean reset = false;
+    int reads = 0;
+
+    FakeOtos() {
+        super(FakeI2cDeviceSynch.create());
+    }
+
+    @Override
+    public void setLinearUnit(DistanceUnit unit) {
+        this.linearUnit = unit;
+    }
+
+    @Override
+    public void setAngularUnit(AngleUnit unit) {
+        this.angularUnit = unit;
+    }
+
+    @Override
+    public void setOffset(Pose2D pose) {
+        this.offset = pose;
+    }
+
+    @Override
+    public boolean setLinearScalar(double scalar) {
+        return true;
+    }
+
+    @Override
+    public boolean setAngularScalar(double scalar) {
+        return true;
+    }
+
+    @Override
+    public boolean calibrateImu() {
+        this.calibrated = true;
+        return true;
+    }
+
+    @Override
+    public void resetTracking() {
+        this.reset = true;
+    }
+
+    @Override
+    public void getPosVelAcc(Pose2D pos, Pose2D vel, Pose2D acc) {
+        this.reads++;
+        pos.set(this.pose);
+    }
+
+    @Override
+    public void setPosition(Pose2D pose) {
+        this.position = pose;
+    }
+}
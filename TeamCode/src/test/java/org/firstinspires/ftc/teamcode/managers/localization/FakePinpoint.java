@@ -0,0 +1,102 @@
+package org.firstinspires.ftc.teamcode.managers.localization;
+
+import com.qualcomm.hardware.gobilda.GoBildaPinpointDriver;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.Pose2D;
+
+/**
+ * A Pinpoint that reports a pose set by the test. Like the real one, the getters
+ * only change on {@link #update()}.
+ */
+class FakePinpoint extends GoBildaPinpointDriver {
+    /** The pose and encoder counts the next {@link #update()} reads, in meters and degrees. */
+    double x;
+    double y;
+    double heading;
+    int encoderX;
+    int encoderY;
+
+    private double readX;
+    private double readY;
+    private double readHeading;
+    private int readEncoderX;
+    private int readEncoderY;
+
+    double xOffset = Double.NaN;
+    double yOffset = Double.NaN;
+    double ticksPerMm = Double.NaN;
+    boolean reset = false;
+    int updates = 0;
+    Pose2D position;
+
+    FakePinpoint() {
+        super(FakeI2cDeviceSynch.create(), false);
+    }
+
+    @Override
+    public void setOffsets(double xOffset, double yOffset, DistanceUnit distanceUnit) {
+        this.xOffset = distanceUnit.toMeters(xOffset);
+        this.yOffset = distanceUnit.toMeters(yOffset);
+    }
+
+    @Override
+    public void setEncoderResolution(double ticksPerUnit, DistanceUnit distanceUnit) {
+        this.ticksPerMm = ticksPerUnit / distanceUnit.toMm(1);
+    }
+
+    @Override
+    public void setEncoderDirections(EncoderDirection xEncoder, EncoderDirection yEncoder) {
+    }
+
+    @Override
+    public void resetPosAndIMU() {
+        this.reset = true;
+    }
+
+    @Override
+    public void update() {
+        this.updates++;
+        this.readX = this.x;
+        this.readY = this.y;
+        this.readHeading = this.heading;
+        this.readEncoderX = this.encoderX;
+        this.readEncoderY = this.encoderY;
+    }
+
+    @Override
+    public double getPosX(DistanceUnit distanceUnit) {
+        return distanceUnit.fromMeters(this.readX);
+    }
+
+    @Override
+    public double getPosY(DistanceUnit distanceUnit) {
+        return distanceUnit.fromMeters(this.readY);
+    }
+
+    @Override
+    public double getHeading(AngleUnit angleUnit) {
+        return angleUnit.fromDegrees(this.readHeading);
+    }
+
+    @Override
+    public int getEncoderX() {
+        return this.readEncoderX;
+    }
+
+    @Override
+    public int getEncoderY() {
+        return this.readEncoderY;
+    }
+
+    @Override
+    public void setPosition(Pose2D pos) {
+        this.position = pos;
+    }
+
+    @Override
+    public DeviceStatus getDeviceStatus() {
+        return DeviceStatus.READY;
+    }
+}
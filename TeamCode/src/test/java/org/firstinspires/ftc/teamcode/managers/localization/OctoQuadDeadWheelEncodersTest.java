@@ -0,0 +1,74 @@
+package org.firstinspires.ftc.teamcode.managers.localization;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.firstinspires.ftc.teamcode.RobotConstants.DriveConstants;
+import org.firstinspires.ftc.teamcode.RobotConstants.OdometryConstants;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OctoQuadDeadWheelEncodersTest {
+    private FakeOctoQuad octoQuad;
+    private OctoQuadDeadWheelEncoders encoders;
+
+    @Before
+    public void setUp() {
+        this.octoQuad = new FakeOctoQuad();
+        this.encoders = new OctoQuadDeadWheelEncoders(this.octoQuad.device());
+    }
+
+    @Test
+    public void configuresTheChannels() {
+        assertEquals(OdometryConstants.OCTOQUAD_RIGHT_DIRECTION, this.octoQuad.directions[OdometryConstants.OCTOQUAD_RIGHT_CHANNEL]);
+        assertEquals(OdometryConstants.OCTOQUAD_LEFT_DIRECTION, this.octoQuad.directions[OdometryConstants.OCTOQUAD_LEFT_CHANNEL]);
+        assertEquals(OdometryConstants.OCTOQUAD_BACK_DIRECTION, this.octoQuad.directions[OdometryConstants.OCTOQUAD_BACK_CHANNEL]);
+        assertTrue(this.octoQuad.positionsReset);
+    }
+
+    @Test
+    public void readsAllChannelsInOneTransaction() {
+        this.octoQuad.positions[OdometryConstants.OCTOQUAD_RIGHT_CHANNEL] = 100;
+        this.octoQuad.positions[OdometryConstants.OCTOQUAD_LEFT_CHANNEL] = 200;
+        this.octoQuad.positions[OdometryConstants.OCTOQUAD_BACK_CHANNEL] = -300;
+        this.encoders.read();
+
+        assertEquals(100, this.encoders.getRightPosition());
+        assertEquals(200, this.encoders.getLeftPosition());
+        assertEquals(-300, this.encoders.getBackPosition());
+        assertEquals(1, this.octoQuad.encoderReads);
+    }
+
+    @Test
+    public void keepsThePreviousCountsOnCrcFailure() {
+        this.octoQuad.positions[OdometryConstants.OCTOQUAD_RIGHT_CHANNEL] = 100;
+        this.encoders.read();
+
+        this.octoQuad.crcOk = false;
+        this.encoders.read();
+        assertEquals(100, this.encoders.getRightPosition());
+        assertEquals(0, this.encoders.getLeftPosition());
+
+        this.octoQuad.crcOk = true;
+        this.octoQuad.positions[OdometryConstants.OCTOQUAD_RIGHT_CHANNEL] = 150;
+        this.encoders.read();
+        assertEquals(150, this.encoders.getRightPosition());
+    }
+
+    @Test
+    public void drivesTheDeadWheelLocalizer() {
+        DeadWheelLocalizer localizer = new DeadWheelLocalizer(new FakeImu(), this.encoders);
+        int ticks = (int) Math.round(1 / DriveConstants.METERS_PER_TICK);
+
+        this.octoQuad.positions[OdometryConstants.OCTOQUAD_RIGHT_CHANNEL] = ticks;
+        this.octoQuad.positions[OdometryConstants.OCTOQUAD_LEFT_CHANNEL] = ticks;
+        localizer.update();
+        assertEquals(1, localizer.getX(), 1e-3);
+
+        // a corrupted frame does not move the robot
+        this.octoQuad.crcOk = false;
+        localizer.update();
+        assertEquals(1, localizer.getX(), 1e-3);
+        assertEquals(0, localizer.getY(), 1e-3);
+    }
+}
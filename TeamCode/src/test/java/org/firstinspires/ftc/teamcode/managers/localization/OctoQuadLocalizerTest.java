@@ -0,0 +1,91 @@
+package org.firstinspires.ftc.teamcode.managers.localization;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.qualcomm.hardware.digitalchickenlabs.OctoQuad;
+
+import org.firstinspires.ftc.teamcode.RobotConstants.DriveConstants;
+import org.firstinspires.ftc.teamcode.RobotConstants.OdometryConstants;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OctoQuadLocalizerTest {
+    private static final double EPSILON = 1e-6;
+
+    private FakeOctoQuad octoQuad;
+    private OctoQuadLocalizer localizer;
+
+    @Before
+    public void setUp() {
+        this.octoQuad = new FakeOctoQuad();
+        this.localizer = new OctoQuadLocalizer(this.octoQuad.device());
+    }
+
+    @Test
+    public void configuresTheLocalizer() {
+        assertEquals(OdometryConstants.OCTOQUAD_RIGHT_CHANNEL, this.octoQuad.localizerPortX);
+        assertEquals(OdometryConstants.OCTOQUAD_BACK_CHANNEL, this.octoQuad.localizerPortY);
+        assertEquals(1 / (DriveConstants.METERS_PER_TICK * 1000), this.octoQuad.countsPerMmX, 1e-3);
+        assertEquals(1 / (DriveConstants.METERS_PER_TICK * 1000), this.octoQuad.countsPerMmY, 1e-3);
+        assertTrue(this.octoQuad.localizerReset);
+    }
+
+    @Test
+    public void convertsThePose() {
+        this.octoQuad.posX_mm = 1200;
+        this.octoQuad.posY_mm = -300;
+        this.octoQuad.heading_rad = (float) Math.toRadians(30);
+        this.localizer.update();
+
+        assertEquals(1.2, this.localizer.getX(), EPSILON);
+        assertEquals(-0.3, this.localizer.getY(), EPSILON);
+        assertEquals(30, this.localizer.getHeading(), 1e-4);
+        assertEquals(1, this.octoQuad.localizerReads);
+    }
+
+    @Test
+    public void integratesDistancesInTheRobotFrame() {
+        this.octoQuad.heading_rad = (float) Math.toRadians(90);
+        this.localizer.update();
+
+        this.octoQuad.posY_mm = 1000;
+        this.localizer.update();
+
+        assertEquals(1, this.localizer.getForwardDistance(), 1e-4);
+        assertEquals(0, this.localizer.getSideDistance(), 1e-4);
+    }
+
+    @Test
+    public void dropsReadsWithACrcFailure() {
+        this.octoQuad.posX_mm = 500;
+        this.localizer.update();
+
+        this.octoQuad.crcOk = false;
+        this.localizer.update();
+
+        assertEquals(0.5, this.localizer.getX(), EPSILON);
+        assertEquals(0, this.localizer.getY(), EPSILON);
+        assertEquals(0, this.localizer.getHeading(), EPSILON);
+        assertEquals(0.5, this.localizer.getForwardDistance(), EPSILON);
+    }
+
+    @Test
+    public void dropsReadsWhileCalibrating() {
+        this.octoQuad.localizerStatus = OctoQuad.LocalizerStatus.CALIBRATING_IMU;
+        this.octoQuad.posX_mm = 500;
+        this.localizer.update();
+
+        assertEquals(0, this.localizer.getX(), EPSILON);
+    }
+
+    @Test
+    public void setPoseWritesMillimetersAndRadians() {
+        this.localizer.setPose(1.5, -0.25, 90);
+
+        assertEquals(1500, this.octoQuad.poseX_mm);
+        assertEquals(-250, this.octoQuad.poseY_mm);
+        assertEquals(Math.PI / 2, this.octoQuad.poseHeading_rad, 1e-6);
+        assertEquals(1.5, this.localizer.getX(), EPSILON);
+    }
+}
@@ -0,0 +1,71 @@
+package org.firstinspires.ftc.teamcode.managers.localization;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+import org.firstinspires.ftc.teamcode.RobotConstants.OdometryConstants;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OtosLocalizerTest {
+    private static final double EPSILON = 1e-9;
+
+    private FakeOtos otos;
+    private OtosLocalizer localizer;
+
+    @Before
+    public void setUp() {
+        this.otos = new FakeOtos();
+        this.localizer = new OtosLocalizer(this.otos);
+    }
+
+    @Test
+    public void configuresTheOtos() {
+        assertEquals(DistanceUnit.METER, this.otos.linearUnit);
+        assertEquals(AngleUnit.DEGREES, this.otos.angularUnit);
+        assertEquals(-OdometryConstants.OTOS_Y_OFFSET, this.otos.offset.x, EPSILON);
+        assertEquals(OdometryConstants.OTOS_X_OFFSET, this.otos.offset.y, EPSILON);
+        assertEquals(OdometryConstants.OTOS_HEADING_OFFSET, this.otos.offset.h, EPSILON);
+        assertTrue(this.otos.calibrated);
+        assertTrue(this.otos.reset);
+    }
+
+    @Test
+    public void rotatesThePoseIntoTheRobotFrame() {
+        // the OTOS has x to the right and y forward
+        this.otos.pose.x = -0.5;
+        this.otos.pose.y = 1;
+        this.otos.pose.h = 45;
+        this.localizer.update();
+
+        assertEquals(1, this.localizer.getX(), EPSILON);
+        assertEquals(0.5, this.localizer.getY(), EPSILON);
+        assertEquals(45, this.localizer.getHeading(), EPSILON);
+        assertEquals(1, this.otos.reads);
+    }
+
+    @Test
+    public void integratesDistancesInTheRobotFrame() {
+        this.otos.pose.h = 90;
+        this.localizer.update();
+
+        // facing +y, drive 1 m along +y (to the OTOS, -x)
+        this.otos.pose.x = -1;
+        this.localizer.update();
+
+        assertEquals(1, this.localizer.getForwardDistance(), EPSILON);
+        assertEquals(0, this.localizer.getSideDistance(), EPSILON);
+    }
+
+    @Test
+    public void setPoseWritesTheDeviceFrame() {
+        this.localizer.setPose(1, 0.5, 30);
+
+        assertEquals(-0.5, this.otos.position.x, EPSILON);
+        assertEquals(1, this.otos.position.y, EPSILON);
+        assertEquals(30, this.otos.position.h, EPSILON);
+        assertEquals(1, this.localizer.getX(), EPSILON);
+    }
+}
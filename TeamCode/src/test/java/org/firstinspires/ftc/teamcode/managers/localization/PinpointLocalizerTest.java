@@ -0,0 +1,76 @@
+package org.firstinspires.ftc.teamcode.managers.localization;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+import org.firstinspires.ftc.teamcode.RobotConstants.OdometryConstants;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PinpointLocalizerTest {
+    private static final double EPSILON = 1e-9;
+
+    private FakePinpoint pinpoint;
+    private PinpointLocalizer localizer;
+
+    @Before
+    public void setUp() {
+        this.pinpoint = new FakePinpoint();
+        this.localizer = new PinpointLocalizer(this.pinpoint);
+    }
+
+    @Test
+    public void configuresThePinpoint() {
+        assertEquals(OdometryConstants.PINPOINT_X_OFFSET, this.pinpoint.xOffset, EPSILON);
+        assertEquals(OdometryConstants.PINPOINT_Y_OFFSET, this.pinpoint.yOffset, EPSILON);
+        assertEquals(OdometryConstants.PINPOINT_TICKS_PER_MM, this.pinpoint.ticksPerMm, EPSILON);
+        assertTrue(this.pinpoint.reset);
+    }
+
+    @Test
+    public void readsThePoseOncePerUpdate() {
+        this.pinpoint.x = 1;
+        this.pinpoint.y = -0.5;
+        this.pinpoint.heading = 30;
+
+        // nothing is read before update()
+        assertEquals(0, this.localizer.getX(), EPSILON);
+
+        this.localizer.update();
+        assertEquals(1, this.localizer.getX(), EPSILON);
+        assertEquals(-0.5, this.localizer.getY(), EPSILON);
+        assertEquals(30, this.localizer.getHeading(), EPSILON);
+
+        // the getters are served from the cache
+        this.pinpoint.x = 2;
+        this.localizer.getX();
+        this.localizer.getHeading();
+        assertEquals(1, this.localizer.getX(), EPSILON);
+        assertEquals(1, this.pinpoint.updates);
+    }
+
+    @Test
+    public void convertsEncoderCountsToDistances() {
+        this.pinpoint.encoderX = (int) Math.round(OdometryConstants.PINPOINT_TICKS_PER_MM * 1000);
+        this.pinpoint.encoderY = (int) Math.round(-OdometryConstants.PINPOINT_TICKS_PER_MM * 500);
+        this.localizer.update();
+
+        assertEquals(1, this.localizer.getForwardDistance(), 1e-4);
+        assertEquals(-0.5, this.localizer.getSideDistance(), 1e-4);
+    }
+
+    @Test
+    public void setPoseWritesTheDevice() {
+        this.localizer.setPose(1.5, -0.25, 90);
+
+        assertEquals(1.5, this.pinpoint.position.getX(DistanceUnit.METER), EPSILON);
+        assertEquals(-0.25, this.pinpoint.position.getY(DistanceUnit.METER), EPSILON);
+        assertEquals(90, this.pinpoint.position.getHeading(AngleUnit.DEGREES), EPSILON);
+
+        // visible before the next update
+        assertEquals(1.5, this.localizer.getX(), EPSILON);
+        assertEquals(90, this.localizer.getHeading(), EPSILON);
+    }
+}
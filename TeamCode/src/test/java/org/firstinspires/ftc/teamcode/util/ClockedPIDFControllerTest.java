@@ -0,0 +1,89 @@
+package org.firstinspires.ftc.teamcode.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ClockedPIDFControllerTest {
+    private static final double EPSILON = 1e-9;
+    private static final long LOOP_NANOS = 10_000_000L;
+
+    @Before
+    public void setUp() {
+        RobotClock.useSimulatedTime();
+    }
+
+    @After
+    public void tearDown() {
+        RobotClock.useRealTime();
+    }
+
+    @Test
+    public void firstCallIsProportionalOnly() {
+        ClockedPIDFController controller = new ClockedPIDFController(2, 1, 1);
+        controller.setSetPoint(1);
+
+        assertEquals(2, controller.calculate(0), EPSILON);
+    }
+
+    @Test
+    public void derivativeUsesTheRobotClockPeriod() {
+        ClockedPIDFController controller = new ClockedPIDFController(0, 0, 0.5);
+        controller.setSetPoint(1);
+        controller.calculate(0);
+
+        // the error drops by 0.1 over one simulated loop, however little wall time passed
+        RobotClock.advance(LOOP_NANOS);
+        assertEquals(0.5 * -0.1 / 0.01, controller.calculate(0.1), EPSILON);
+    }
+
+    @Test
+    public void integralUsesTheRobotClockPeriodAndIsBounded() {
+        ClockedPIDFController controller = new ClockedPIDFController(0, 2, 0);
+        controller.setSetPoint(1);
+        controller.calculate(0);
+
+        RobotClock.advance(LOOP_NANOS);
+        assertEquals(2 * 0.01, controller.calculate(0), EPSILON);
+
+        RobotClock.advance(10 * 1_000_000_000L);
+        assertEquals(2, controller.calculate(0), EPSILON);
+    }
+
+    @Test
+    public void resetForgetsTheHistory() {
+        ClockedPIDFController controller = new ClockedPIDFController(1, 1, 1);
+        controller.setSetPoint(1);
+        controller.calculate(0);
+        RobotClock.advance(LOOP_NANOS);
+        controller.calculate(0.5);
+
+        controller.reset();
+        RobotClock.advance(LOOP_NANOS);
+        assertEquals(0.5, controller.calculate(0.5), EPSILON);
+    }
+
+    @Test
+    public void atSetPointChecksTheTolerance() {
+        ClockedPIDFController controller = new ClockedPIDFController(1, 0, 0);
+        controller.setTolerance(0.02);
+        controller.setSetPoint(1);
+
+        controller.calculate(0.9);
+        assertFalse(controller.atSetPoint());
+
+        RobotClock.advance(LOOP_NANOS);
+        controller.calculate(0.99);
+        assertTrue(controller.atSetPoint());
+    }
+
+    @Test
+    public void feedforwardIsOnTheSetPoint() {
+        ClockedPIDFController controller = new ClockedPIDFController(0, 0, 0, 0.5);
+        assertEquals(1, controller.calculate(0, 2), EPSILON);
+    }
+}
@@ -0,0 +1,69 @@
+package org.firstinspires.ftc.teamcode.util.subsystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.seattlesolvers.solverslib.command.Command;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class StateMachineSubsystemBaseTest {
+    private ArmSubsystem arm;
+
+    @Before
+    public void setUp() {
+        this.arm = new ArmSubsystem();
+    }
+
+    @Test
+    public void toggleBetweenCompositeStatesSwitchesFromTheirChildren() {
+        Command toggle = this.arm.getToggleCommand(ArmState.ACTIVE, ArmState.IDLE);
+
+        toggle.initialize();
+        assertEquals(ArmState.INTAKING, this.arm.getCurrentState());
+
+        // the current state is the leaf, the toggle still sees ACTIVE
+        this.arm.fire(ArmEvent.NEXT);
+        assertEquals(ArmState.HOLDING, this.arm.getCurrentState());
+        toggle.initialize();
+        assertEquals(ArmState.IDLE, this.arm.getCurrentState());
+
+        toggle.initialize();
+        assertTrue(this.arm.isIn(ArmState.ACTIVE));
+    }
+
+    enum ArmState implements StateSubsystemBase.StateBase<Double> {
+        IDLE(0.0),
+        ACTIVE(1.0),
+        INTAKING(1.0),
+        HOLDING(0.2);
+
+        private final double power;
+
+        ArmState(double power) {
+            this.power = power;
+        }
+
+        @Override
+        public Double getUnit() {
+            return this.power;
+        }
+    }
+
+    enum ArmEvent {
+        NEXT
+    }
+
+    static class ArmSubsystem extends StateMachineSubsystemBase<ArmState, ArmEvent> {
+        ArmSubsystem() {
+            super(ArmState.IDLE);
+
+            this.initStateMachine(new StateMachine.Builder<>(ArmState.class, ArmEvent.class, ArmState.IDLE)
+                    .child(ArmState.ACTIVE, ArmState.INTAKING)
+                    .child(ArmState.ACTIVE, ArmState.HOLDING)
+                    .transition(ArmState.INTAKING, ArmEvent.NEXT, ArmState.HOLDING)
+                    .build());
+        }
+    }
+}
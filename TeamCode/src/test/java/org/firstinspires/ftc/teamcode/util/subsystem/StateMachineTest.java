@@ -0,0 +1,226 @@
+package org.firstinspires.ftc.teamcode.util.subsystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import org.firstinspires.ftc.teamcode.util.RobotClock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class StateMachineTest {
+    private static final long MILLIS = 1_000_000L;
+
+    /** The entry and exit actions in the order they ran. */
+    private final List<String> actions = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        RobotClock.useSimulatedTime();
+    }
+
+    @After
+    public void tearDown() {
+        RobotClock.useRealTime();
+    }
+
+    /**
+     * IDLE, and ACTIVE with the children INTAKING and HOLDING, HOLDING with the children GRIPPING and
+     * LIFTING. Every state records its entry and exit actions.
+     */
+    private StateMachine.Builder<ArmState, ArmEvent> builder(ArmState initialState) {
+        StateMachine.Builder<ArmState, ArmEvent> builder = new StateMachine.Builder<>(ArmState.class, ArmEvent.class, initialState)
+                .child(ArmState.ACTIVE, ArmState.INTAKING)
+                .child(ArmState.ACTIVE, ArmState.HOLDING)
+                .child(ArmState.HOLDING, ArmState.GRIPPING)
+                .child(ArmState.HOLDING, ArmState.LIFTING);
+
+        for (ArmState state : ArmState.values()) {
+            builder.onEnter(state, () -> this.actions.add("enter " + state.name()));
+            builder.onExit(state, () -> this.actions.add("exit " + state.name()));
+        }
+        return builder;
+    }
+
+    private void assertActions(String... expected) {
+        assertEquals(Arrays.asList(expected), this.actions);
+        this.actions.clear();
+    }
+
+    @Test
+    public void startEntersTheInitialLeaf() {
+        StateMachine<ArmState, ArmEvent> machine = this.builder(ArmState.ACTIVE).build();
+        assertEquals(ArmState.ACTIVE, machine.getState());
+
+        machine.start();
+        assertActions("enter ACTIVE", "enter INTAKING");
+        assertEquals(ArmState.INTAKING, machine.getState());
+        assertTrue(machine.isIn(ArmState.ACTIVE));
+        assertFalse(machine.isIn(ArmState.HOLDING));
+    }
+
+    @Test
+    public void transitionExitsAndEntersUpToTheCommonAncestor() {
+        StateMachine<ArmState, ArmEvent> machine = this.builder(ArmState.IDLE).build();
+        machine.transitionTo(ArmState.GRIPPING);
+        assertActions("enter IDLE", "exit IDLE", "enter ACTIVE", "enter HOLDING", "enter GRIPPING");
+
+        // siblings: only the leaves change
+        machine.transitionTo(ArmState.LIFTING);
+        assertActions("exit GRIPPING", "enter LIFTING");
+
+        // cousins: HOLDING is left, ACTIVE stays
+        machine.transitionTo(ArmState.INTAKING);
+        assertActions("exit LIFTING", "exit HOLDING", "enter INTAKING");
+
+        // entering a composite state enters its initial child
+        machine.transitionTo(ArmState.HOLDING);
+        assertActions("exit INTAKING", "enter HOLDING", "enter GRIPPING");
+        assertEquals(ArmState.GRIPPING, machine.getState());
+    }
+
+    @Test
+    public void transitionToItselfReentersTheState() {
+        StateMachine<ArmState, ArmEvent> machine = this.builder(ArmState.INTAKING)
+                .transition(ArmState.INTAKING, ArmEvent.RESTART, ArmState.INTAKING)
+                .build();
+        machine.start();
+        this.actions.clear();
+
+        assertTrue(machine.fire(ArmEvent.RESTART));
+        assertActions("exit INTAKING", "enter INTAKING");
+        assertEquals(ArmState.INTAKING, machine.getState());
+    }
+
+    @Test
+    public void transitionToAnAncestorReentersTheAncestor() {
+        StateMachine<ArmState, ArmEvent> machine = this.builder(ArmState.LIFTING)
+                .transition(ArmState.LIFTING, ArmEvent.RESTART, ArmState.ACTIVE)
+                .build();
+        machine.start();
+        assertActions("enter ACTIVE", "enter HOLDING", "enter LIFTING");
+
+        assertTrue(machine.fire(ArmEvent.RESTART));
+        assertActions("exit LIFTING", "exit HOLDING", "exit ACTIVE", "enter ACTIVE", "enter INTAKING");
+        assertEquals(ArmState.INTAKING, machine.getState());
+    }
+
+    @Test
+    public void childrenInheritEventTransitionsInnermostFirst() {
+        StateMachine<ArmState, ArmEvent> machine = this.builder(ArmState.LIFTING)
+                .transition(ArmState.ACTIVE, ArmEvent.CANCEL, ArmState.IDLE)
+                .transition(ArmState.HOLDING, ArmEvent.CANCEL, ArmState.INTAKING)
+                .build();
+
+        // HOLDING's transition wins over ACTIVE's
+        assertTrue(machine.fire(ArmEvent.CANCEL));
+        assertEquals(ArmState.INTAKING, machine.getState());
+
+        // INTAKING only has ACTIVE's
+        assertTrue(machine.fire(ArmEvent.CANCEL));
+        assertEquals(ArmState.IDLE, machine.getState());
+
+        // IDLE has none
+        this.actions.clear();
+        assertFalse(machine.fire(ArmEvent.CANCEL));
+        assertActions();
+    }
+
+    @Test
+    public void eventGuardsFallThroughToTheNextTransition() {
+        boolean[] ready = {false};
+        StateMachine<ArmState, ArmEvent> machine = this.builder(ArmState.GRIPPING)
+                .transition(ArmState.GRIPPING, ArmEvent.NEXT, () -> ready[0], ArmState.LIFTING)
+                .transition(ArmState.ACTIVE, ArmEvent.NEXT, () -> ready[0], ArmState.IDLE)
+                .build();
+
+        assertFalse(machine.fire(ArmEvent.NEXT));
+        assertEquals(ArmState.GRIPPING, machine.getState());
+
+        ready[0] = true;
+        assertTrue(machine.fire(ArmEvent.NEXT));
+        assertEquals(ArmState.LIFTING, machine.getState());
+
+        // LIFTING inherits ACTIVE's guarded transition
+        assertTrue(machine.fire(ArmEvent.NEXT));
+        assertEquals(ArmState.IDLE, machine.getState());
+    }
+
+    @Test
+    public void updateTakesInheritedGuardTransitions() {
+        boolean[] full = {false};
+        StateMachine<ArmState, ArmEvent> machine = this.builder(ArmState.GRIPPING)
+                .transition(ArmState.ACTIVE, () -> full[0], ArmState.IDLE)
+                .build();
+
+        assertTrue(machine.update()); // starts the machine
+        assertFalse(machine.update());
+        assertEquals(ArmState.GRIPPING, machine.getState());
+
+        full[0] = true;
+        assertTrue(machine.update());
+        assertEquals(ArmState.IDLE, machine.getState());
+    }
+
+    @Test
+    public void timeoutsUseTheRobotClock() {
+        StateMachine<ArmState, ArmEvent> machine = this.builder(ArmState.INTAKING)
+                .timeout(ArmState.INTAKING, 0.5, ArmState.GRIPPING)
+                .timeout(ArmState.ACTIVE, 2, ArmState.IDLE)
+                .build();
+        machine.start();
+
+        RobotClock.advance(499 * MILLIS);
+        assertFalse(machine.update());
+        assertEquals(0.499, machine.getTimeInState(), 1e-9);
+
+        RobotClock.advance(MILLIS);
+        assertTrue(machine.update());
+        assertEquals(ArmState.GRIPPING, machine.getState());
+        assertEquals(0, machine.getTimeInState(), 1e-9);
+
+        // ACTIVE was entered at the start, moving between its children does not restart its timeout
+        RobotClock.advance(1499 * MILLIS);
+        assertFalse(machine.update());
+        RobotClock.advance(MILLIS);
+        assertTrue(machine.update());
+        assertEquals(ArmState.IDLE, machine.getState());
+    }
+
+    @Test
+    public void buildRejectsACycleOfParents() {
+        StateMachine.Builder<ArmState, ArmEvent> builder = new StateMachine.Builder<>(ArmState.class, ArmEvent.class, ArmState.IDLE)
+                .child(ArmState.ACTIVE, ArmState.HOLDING)
+                .child(ArmState.HOLDING, ArmState.ACTIVE);
+
+        assertThrows(RuntimeException.class, builder::build);
+    }
+
+    @Test
+    public void childRejectsASecondParent() {
+        StateMachine.Builder<ArmState, ArmEvent> builder = this.builder(ArmState.IDLE);
+
+        assertThrows(RuntimeException.class, () -> builder.child(ArmState.IDLE, ArmState.GRIPPING));
+    }
+
+    enum ArmState {
+        IDLE,
+        ACTIVE,
+        INTAKING,
+        HOLDING,
+        GRIPPING,
+        LIFTING
+    }
+
+    enum ArmEvent {
+        NEXT,
+        CANCEL,
+        RESTART
+    }
+}
@@ -0,0 +1,82 @@
+package org.firstinspires.ftc.teamcode.util.subsystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import com.seattlesolvers.solverslib.command.Command;
+import com.seattlesolvers.solverslib.command.InstantCommand;
+import com.seattlesolvers.solverslib.command.Subsystem;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class StateSubsystemBaseTest {
+    private ClawSubsystem claw;
+
+    @Before
+    public void setUp() {
+        this.claw = new ClawSubsystem();
+    }
+
+    @Test
+    public void goToStateAndToggleStatesReturnNewCommands() {
+        assertNotSame(this.claw.goToState(ClawState.OPEN), this.claw.goToState(ClawState.OPEN));
+        assertNotSame(this.claw.toggleStates(ClawState.OPEN, ClawState.CLOSED),
+                this.claw.toggleStates(ClawState.OPEN, ClawState.CLOSED));
+    }
+
+    @Test
+    public void transitionAndToggleCommandsAreCached() {
+        assertSame(this.claw.getTransitionCommand(ClawState.OPEN), this.claw.getTransitionCommand(ClawState.OPEN));
+        assertNotSame(this.claw.getTransitionCommand(ClawState.OPEN), this.claw.getTransitionCommand(ClawState.CLOSED));
+        assertSame(this.claw.getToggleCommand(ClawState.OPEN, ClawState.CLOSED),
+                this.claw.getToggleCommand(ClawState.OPEN, ClawState.CLOSED));
+
+        // one change command per state, however many cached commands use it
+        this.claw.getToggleCommand(ClawState.CLOSED, ClawState.OPEN);
+        assertEquals(2, this.claw.changeCommandsBuilt);
+    }
+
+    @Test
+    public void cachedToggleAlternatesStates() {
+        Command toggle = this.claw.getToggleCommand(ClawState.OPEN, ClawState.CLOSED);
+
+        toggle.initialize();
+        assertEquals(ClawState.OPEN, this.claw.getCurrentState());
+        toggle.initialize();
+        assertEquals(ClawState.CLOSED, this.claw.getCurrentState());
+        toggle.initialize();
+        assertEquals(ClawState.OPEN, this.claw.getCurrentState());
+    }
+
+    enum ClawState implements StateSubsystemBase.StateBase<Double> {
+        OPEN(0.8),
+        CLOSED(0.2);
+
+        private final double position;
+
+        ClawState(double position) {
+            this.position = position;
+        }
+
+        @Override
+        public Double getUnit() {
+            return this.position;
+        }
+    }
+
+    static class ClawSubsystem extends StateSubsystemBase<ClawState> {
+        int changeCommandsBuilt = 0;
+
+        ClawSubsystem() {
+            super(ClawState.CLOSED);
+        }
+
+        @Override
+        protected Command getChangeStateCommand(ClawState state, Subsystem... requirements) {
+            this.changeCommandsBuilt++;
+            return new InstantCommand(() -> { }, requirements);
+        }
+    }
+}
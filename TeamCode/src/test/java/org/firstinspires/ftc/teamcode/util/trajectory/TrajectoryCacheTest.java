@@ -0,0 +1,58 @@
+package org.firstinspires.ftc.teamcode.util.trajectory;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+public class TrajectoryCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File directory;
+
+    @Before
+    public void setUp() {
+        this.directory = new File(this.folder.getRoot(), "trajectories");
+        TrajectoryCache.resetStatistics();
+    }
+
+    private static Trajectory.Builder builder() {
+        return new Trajectory.Builder(0, 0, 0)
+                .splineTo(1.2, 0.4, 30, 45)
+                .splineTo(0.3, 1.1, 150, 90);
+    }
+
+    @Test
+    public void cachedTrajectoryEqualsTheGeneratedOne() {
+        Trajectory generated = TrajectoryCache.build(builder(), this.directory);
+        Trajectory cached = TrajectoryCache.build(builder(), this.directory);
+
+        assertNotSame(generated, cached);
+        assertEquals(generated.getSampleCount(), cached.getSampleCount());
+
+        double[][] expected = generated.getTable();
+        double[][] actual = cached.getTable();
+        for (int column = 0; column < expected.length; column++) {
+            // bit for bit, not within a tolerance
+            assertArrayEquals(expected[column], actual[column], 0);
+        }
+    }
+
+    @Test
+    public void countsCachedAndGeneratedTrajectories() {
+        TrajectoryCache.build(builder(), this.directory);
+        TrajectoryCache.build(builder(), this.directory);
+        TrajectoryCache.build(builder().maxVelocity(0.5), this.directory);
+
+        String report = TrajectoryCache.getReport();
+        assertEquals("1 cached", report.substring(0, report.indexOf(" in ")));
+        assertEquals(2, this.directory.listFiles().length);
+    }
+}